@@ -0,0 +1,56 @@
+package com.wso2test.demo.benchmark;
+
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.model.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic rosters and leave sets shared by the benchmarks
+final class BenchmarkRosters {
+
+    static final YearMonth MONTH = YearMonth.of(2027, 3);
+
+    private BenchmarkRosters() {
+    }
+
+    // 10% system monitors, 10% COB performers, 30% senior support, 50% junior support
+    static List<Employee> roster(int size) {
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Employee e = new Employee();
+            e.setName("Employee " + i);
+            e.setEmail("employee" + i + "@bench.local");
+            e.setStatus(EmployeeStatus.ACTIVE);
+            int bucket = i % 10;
+            if (bucket == 0) {
+                e.setType(EmployeeType.SYSTEM_MONITOR);
+                e.setLevel(EmployeeLevel.SENIOR);
+            } else if (bucket == 1) {
+                e.setType(EmployeeType.COB_PERFORMER);
+                e.setLevel(EmployeeLevel.SENIOR);
+            } else {
+                e.setType(EmployeeType.SUPPORT);
+                e.setLevel(bucket < 5 ? EmployeeLevel.SENIOR : EmployeeLevel.JUNIOR);
+            }
+            employees.add(e);
+        }
+        return employees;
+    }
+
+    // Gives roughly {@code density} of the employees one leave of 2-7 days inside the month
+    static List<EmployeeLeavePeriod> leaves(List<Employee> employees, double density, long seed) {
+        Random random = new Random(seed);
+        List<EmployeeLeavePeriod> leaves = new ArrayList<>();
+        int days = MONTH.lengthOfMonth();
+        for (Employee e : employees) {
+            if (random.nextDouble() >= density) continue;
+            LocalDate start = MONTH.atDay(1 + random.nextInt(days));
+            leaves.add(new EmployeeLeavePeriod(e.getId(), start, start.plusDays(1 + random.nextInt(6))));
+        }
+        return leaves;
+    }
+}
@@ -0,0 +1,85 @@
+package com.wso2test.demo.benchmark;
+
+import com.wso2test.demo.DemoApplication;
+import com.wso2test.demo.dto.AggregatedScheduleOutput;
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.Leave;
+import com.wso2test.demo.model.LeaveStatus;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.respository.LeaveRepository;
+import com.wso2test.demo.service.SupportSchedulerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SupportSchedulerService#generateMonthlySchedule} end to end against the embedded H2 database:
+ * loading the month, planning it and flushing the schedule rows and rest leaves. The generated month is
+ * deleted after every invocation so each call starts from the same seeded data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GenerateMonthlyScheduleBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int employees;
+
+    @Param({"0.05", "0.3"})
+    public double leaveDensity;
+
+    private ConfigurableApplicationContext application;
+    private SupportSchedulerService supportSchedulerService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.open-in-view=false");
+        supportSchedulerService = application.getBean(SupportSchedulerService.class);
+        jdbcTemplate = application.getBean(JdbcTemplate.class);
+
+        EmployeeRepository employeeRepository = application.getBean(EmployeeRepository.class);
+        LeaveRepository leaveRepository = application.getBean(LeaveRepository.class);
+        List<Employee> roster = employeeRepository.saveAll(BenchmarkRosters.roster(employees));
+        List<Leave> leaves = new ArrayList<>();
+        for (EmployeeLeavePeriod period : BenchmarkRosters.leaves(roster, leaveDensity, 42L)) {
+            Leave leave = new Leave();
+            leave.setEmployee(employeeRepository.getReferenceById(period.getEmployeeId()));
+            leave.setLeaveReason("Benchmark leave");
+            leave.setStartDate(period.getStartDate());
+            leave.setEndDate(period.getEndDate());
+            leave.setStatus(LeaveStatus.APPROVED);
+            leaves.add(leave);
+        }
+        leaveRepository.saveAll(leaves);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteGeneratedMonth() {
+        jdbcTemplate.update("DELETE FROM schedule_employees");
+        jdbcTemplate.update("DELETE FROM schedules");
+        jdbcTemplate.update("DELETE FROM leaves WHERE leave_reason <> 'Benchmark leave'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public AggregatedScheduleOutput generateMonthlySchedule() {
+        return supportSchedulerService.generateMonthlySchedule(
+                BenchmarkRosters.MONTH.getYear(), BenchmarkRosters.MONTH.getMonthValue(), Collections.emptyList());
+    }
+}
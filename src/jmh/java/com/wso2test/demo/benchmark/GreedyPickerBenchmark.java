@@ -0,0 +1,50 @@
+package com.wso2test.demo.benchmark;
+
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.scheduling.GreedyScheduleEngine;
+import com.wso2test.demo.scheduling.SchedulerMetrics;
+import com.wso2test.demo.scheduling.SchedulingContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory hot path of the greedy planner: a whole month planned in memory (context construction and the
+ * candidate queues included). The pickers are internal to the engine, so they are measured through the month.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GreedyPickerBenchmark {
+
+    @Param({"50", "500", "5000"})
+    public int employees;
+
+    @Param({"0.05", "0.3"})
+    public double leaveDensity;
+
+    private final GreedyScheduleEngine engine = new GreedyScheduleEngine(SchedulerMetrics.standalone());
+
+    private List<Employee> roster;
+    private List<EmployeeLeavePeriod> leaves;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        roster = BenchmarkRosters.roster(employees);
+        for (int i = 0; i < roster.size(); i++) roster.get(i).setId((long) i + 1);
+        leaves = BenchmarkRosters.leaves(roster, leaveDensity, 42L);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SchedulingContext planMonth() {
+        SchedulingContext month = new SchedulingContext(BenchmarkRosters.MONTH, roster, leaves, Collections.emptyList(), Collections.emptyList());
+        engine.plan(month);
+        return month;
+    }
+}
@@ -0,0 +1,93 @@
+package com.wso2test.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Application-wide defaults (JPA batching etc.); overridable from application.properties
+@Configuration
+@PropertySource("classpath:scheduler.properties")
+public class SchedulerConfiguration {
+
+    // Picked up by Spring Boot's HttpMessageConverters: lets ResponseEntity<?> handlers return workbook/zip streams
+    @Bean
+    public StreamingResponseBodyConverter streamingResponseBodyConverter() {
+        return new StreamingResponseBodyConverter();
+    }
+
+    // Persists and renders planned months while the next month is being planned. The queue is small on purpose:
+    // when it is full the planning thread runs the task itself, which keeps planning from racing ahead.
+    @Bean(name = "schedulePipelineExecutor")
+    public ThreadPoolTaskExecutor schedulePipelineExecutor(
+            @Value("${scheduler.pipeline.threads:2}") int threads,
+            @Value("${scheduler.pipeline.queue-capacity:4}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("schedule-pipeline-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    // Runs asynchronous schedule generation jobs. Both limits are hard: a full queue rejects the submission (HTTP 429)
+    // instead of running it on the request thread, so at most `threads` jobs hold a database connection at a time.
+    @Bean(name = "scheduleJobExecutor")
+    public ThreadPoolTaskExecutor scheduleJobExecutor(
+            @Value("${scheduler.jobs.threads:2}") int threads,
+            @Value("${scheduler.jobs.queue-capacity:8}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("schedule-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // Generates the divisions of a month side by side (one task per division); 0 means one thread per available core.
+    // Each running division holds a database connection, so keep this below the connection pool size.
+    @Bean(name = "divisionSchedulingPool", destroyMethod = "shutdown")
+    public ForkJoinPool divisionSchedulingPool(@Value("${scheduler.divisions.parallelism:0}") int parallelism) {
+        int poolSize = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        ClassLoader classLoader = getClass().getClassLoader();
+        AtomicInteger threads = new AtomicInteger();
+        return new ForkJoinPool(poolSize, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("division-schedule-" + threads.incrementAndGet());
+            thread.setContextClassLoader(classLoader); // default workers may get the system class loader
+            return thread;
+        }, null, false);
+    }
+
+    // Plans the variants of a what-if simulation side by side (in memory, no database connection); 0 means one thread
+    // per available core. Requests queue behind each other rather than oversubscribing the CPU.
+    @Bean(name = "scheduleSimulationExecutor")
+    public ThreadPoolTaskExecutor scheduleSimulationExecutor(@Value("${scheduler.simulation.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("schedule-simulation-");
+        return executor;
+    }
+
+    // Runs the seeds of the local-search engine in parallel; 0 threads means one per available core
+    @Bean(name = "scheduleSearchExecutor")
+    public ThreadPoolTaskExecutor scheduleSearchExecutor(@Value("${scheduler.engine.local-search.threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("schedule-search-");
+        return executor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.wso2test.demo.config;
+
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.service.SyntheticDataGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Loads synthetic data on startup, e.g. --scheduler.synthetic-data.load=true --scheduler.synthetic-data.employees=10000
+@Component
+@ConditionalOnProperty(name = "scheduler.synthetic-data.load", havingValue = "true")
+public class SyntheticDataRunner implements ApplicationRunner {
+
+    private final SyntheticDataGenerator generator;
+    private final SyntheticDataSpec spec = new SyntheticDataSpec();
+
+    public SyntheticDataRunner(SyntheticDataGenerator generator,
+                               @Value("${scheduler.synthetic-data.seed:42}") long seed,
+                               @Value("${scheduler.synthetic-data.employees:10000}") int employees,
+                               @Value("${scheduler.synthetic-data.leaves:1000000}") int leaves,
+                               @Value("${scheduler.synthetic-data.holidays:40}") int holidays,
+                               @Value("${scheduler.synthetic-data.start-date:#{null}}") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                               @Value("${scheduler.synthetic-data.end-date:#{null}}") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        this.generator = generator;
+        spec.setSeed(seed);
+        spec.setEmployees(employees);
+        spec.setLeaves(leaves);
+        spec.setHolidays(holidays);
+        spec.setStartDate(startDate);
+        spec.setEndDate(endDate);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generator.generate(spec);
+    }
+}
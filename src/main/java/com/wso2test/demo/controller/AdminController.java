@@ -0,0 +1,52 @@
+package com.wso2test.demo.controller;
+
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.model.StaffingRule;
+import com.wso2test.demo.service.StaffingRuleService;
+import com.wso2test.demo.service.SyntheticDataGenerator;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final SyntheticDataGenerator syntheticDataGenerator;
+    private final StaffingRuleService staffingRuleService;
+
+    public AdminController(SyntheticDataGenerator syntheticDataGenerator, StaffingRuleService staffingRuleService) {
+        this.syntheticDataGenerator = syntheticDataGenerator;
+        this.staffingRuleService = staffingRuleService;
+    }
+
+    // Loads a reproducible data set for scale testing (admin/debug only), e.g. {"seed": 7, "employees": 10000, "leaves": 1000000}
+    @PostMapping("/synthetic-data")
+    public ResponseEntity<?> loadSyntheticData(@RequestBody(required = false) SyntheticDataSpec spec) {
+        try {
+            return ResponseEntity.ok(syntheticDataGenerator.generate(spec != null ? spec : new SyntheticDataSpec()));
+        } catch (IllegalStateException e) { // Same seed already loaded
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // A division's staffing rules (teams and monthly caps); the built-in defaults if it has none of its own
+    @GetMapping("/staffing-rules")
+    public ResponseEntity<StaffingRule> getStaffingRules(@RequestParam(required = false) String division) {
+        return ResponseEntity.ok(staffingRuleService.getRule(division));
+    }
+
+    // Replaces a division's staffing rules, e.g. {"systemMonitorTeam": "SYSTEM_MONITOR", "cobTeam": "SUPPORT+SENIOR, SUPPORT+JUNIOR,
+    // COB_PERFORMER|SUPPORT+SENIOR", "supportTeam": "SUPPORT+SENIOR, SUPPORT+JUNIOR, SUPPORT+JUNIOR", "maxSupportShiftsPerJunior": 8,
+    // "maxCobShiftsForCobPerformer": 5}. Applies to plans started after the change; 400 if the rules do not compile.
+    @PutMapping("/staffing-rules")
+    public ResponseEntity<?> updateStaffingRules(@RequestParam(required = false) String division, @RequestBody StaffingRule rule) {
+        try {
+            return ResponseEntity.ok(staffingRuleService.updateRule(division, rule));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
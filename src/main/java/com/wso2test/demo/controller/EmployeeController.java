@@ -3,40 +3,41 @@ package com.wso2test.demo.controller;
 import com.wso2test.demo.model.Employee;
 import com.wso2test.demo.model.EmployeeRequest;
 import com.wso2test.demo.model.EmployeeStatus;
-import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.service.EmployeeOnboardingService;
 import com.wso2test.demo.service.EmployeeService;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
     private final EmployeeService employeeService;
-    private final EmployeeRepository employeeRepository;
+    private final EmployeeOnboardingService employeeOnboardingService;
 
 
-    public EmployeeController(EmployeeService employeeService,EmployeeRepository employeeRepository) {
+    public EmployeeController(EmployeeService employeeService,EmployeeOnboardingService employeeOnboardingService) {
         this.employeeService = employeeService;
-        this.employeeRepository=employeeRepository;
+        this.employeeOnboardingService=employeeOnboardingService;
     }
 
   
     //--create multi--
-    @PostMapping("/add")
-    public ResponseEntity<List<Employee>> createMultipleEmployee(@RequestBody List<EmployeeRequest> employees) {
-           List<Employee> newEmployees = employees.stream()
-        .map(dto -> new Employee(dto.getName(), dto.getEmail(), dto.getPhoneNumber(), dto.getStatus(), dto.getType(), dto.getLevel()))
-        .collect(Collectors.toList());
-
-    List<Employee> saved = employeeRepository.saveAll(newEmployees);
-    return ResponseEntity.ok(saved);
-     
+    // JSON array of employees, streamed and inserted in batches; one result per record (duplicates are rejected, not fatal)
+    @PostMapping(value = "/add", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createMultipleEmployee(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(employeeOnboardingService.onboard(body));
+        } catch (IllegalArgumentException e) { // Not a JSON array
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // --- READ ---
@@ -55,6 +56,12 @@ public class EmployeeController {
         return ResponseEntity.ok(employeeService.searchEmployeesByName(name));
     }
 
+    // Active employees not on approved leave on the given date (yyyy-MM-dd)
+    @GetMapping("/available/{date}")
+    public ResponseEntity<List<Employee>> getAvailableEmployees(@PathVariable String date) {
+        return ResponseEntity.ok(employeeService.getAvailableEmployeesOn(LocalDate.parse(date)));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Employee>> getEmployeesByStatus(@PathVariable EmployeeStatus status) {
         return ResponseEntity.ok(employeeService.getEmployeesByStatus(status));
@@ -1,12 +1,12 @@
 package com.wso2test.demo.controller;
 
 import com.wso2test.demo.model.Holiday;
-import com.wso2test.demo.respository.HolidayRepository;
 import com.wso2test.demo.service.HolidayService;
 
 import java.time.LocalDate;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,8 +18,6 @@ public class HolidayController {
 
     @Autowired
     private HolidayService holidayService;
-    @Autowired
-    private HolidayRepository holidayRepository;
     // Endpoint to add a new holiday
     @PostMapping
     public ResponseEntity<Holiday> addHoliday( @RequestBody Holiday holiday) {
@@ -44,9 +42,19 @@ public class HolidayController {
         return new ResponseEntity<>(holidayService.getHolidaysByDate(localDate), HttpStatus.OK);
     }
 
+    // Endpoint to get one division's holidays in [from, to] (calendar views; served from memory)
+    @GetMapping("/range")
+    public ResponseEntity<?> getHolidaysBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String division) {
+        if (from.isAfter(to)) return ResponseEntity.badRequest().body("from must not be after to");
+        return ResponseEntity.ok(holidayService.getHolidaysBetween(division, from, to));
+    }
+
     @DeleteMapping
     public ResponseEntity<Void> deleteAllSchedules() {
-        holidayRepository.deleteAll(); // This deletes all SupportSchedule entities
+        holidayService.deleteAllHolidays(); // Also drops cached exports that showed them as remarks
         // If you also need to reset other data (like auto-generated leaves), do it here.
         // e.g., leaveRepository.deleteByReason("Rest after COB shift");
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
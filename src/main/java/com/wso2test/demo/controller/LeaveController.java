@@ -1,14 +1,20 @@
 package com.wso2test.demo.controller;
 
+import com.wso2test.demo.dto.LeaveInterval;
 import com.wso2test.demo.model.Leave;
 import com.wso2test.demo.model.LeaveRequest;
+import com.wso2test.demo.service.LeaveImportService;
 import com.wso2test.demo.service.LeaveService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -17,28 +23,50 @@ import java.util.List;
 public class LeaveController {
 
     private final LeaveService leaveService;
+    private final LeaveImportService leaveImportService;
 
     @Autowired
-    public LeaveController(LeaveService leaveService) {
+    public LeaveController(LeaveService leaveService, LeaveImportService leaveImportService) {
         this.leaveService = leaveService;
+        this.leaveImportService = leaveImportService;
     }
 
-    // Add a new leave request
+    // Add a new leave request (409 if it overlaps an approved or pending leave of the same employee)
     @PostMapping
-    public ResponseEntity<Leave> createLeave(@RequestBody LeaveRequest leaveRequest) {
-        Leave leave = leaveService.addLeave(
-                leaveRequest.getEmployeeId(),
-                leaveRequest.getLeaveReason(),
-                leaveRequest.getStartDate(),
-                leaveRequest.getEndDate()
-        );
-        return new ResponseEntity<>(leave, HttpStatus.CREATED);
+    public ResponseEntity<?> createLeave(@RequestBody LeaveRequest leaveRequest) {
+        try {
+            Leave leave = leaveService.addLeave(
+                    leaveRequest.getEmployeeId(),
+                    leaveRequest.getLeaveReason(),
+                    leaveRequest.getStartDate(),
+                    leaveRequest.getEndDate()
+            );
+            return new ResponseEntity<>(leave, HttpStatus.CREATED);
+        } catch (IllegalStateException e) { // Overlapping leave
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Import an HR leave file: text/csv (header: email,startDate,endDate,reason[,status]) or a JSON array of the same fields.
+    // The body is read as a stream; valid rows are imported and the rest come back in the report with their row number.
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> importLeaves(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        try {
+            if (MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))) {
+                return ResponseEntity.ok(leaveImportService.importJson(body));
+            }
+            return ResponseEntity.ok(leaveImportService.importCsv(body));
+        } catch (IllegalArgumentException e) { // Unusable header or not a JSON array
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Get all leaves
     @GetMapping
     public ResponseEntity<List<Leave>> getAllLeaves() {
-        List<Leave> leaves = leaveService.getLeavesBetweenDates(LocalDate.MIN, LocalDate.MAX);
+        List<Leave> leaves = leaveService.getAllLeaves();
         return new ResponseEntity<>(leaves, HttpStatus.OK);
     }
 
@@ -57,11 +85,21 @@ public class LeaveController {
         return new ResponseEntity<>(leaves, HttpStatus.OK);
     }
 
+    // Get approved and pending leaves overlapping [from, to] (yyyy-MM-dd), straight from the leave index
+    @GetMapping("/periods")
+    public ResponseEntity<List<LeaveInterval>> getLeavePeriods(@RequestParam String from, @RequestParam String to) {
+        return new ResponseEntity<>(leaveService.getLeavePeriodsBetween(LocalDate.parse(from), LocalDate.parse(to)), HttpStatus.OK);
+    }
+
     // Update an existing leave request
     @PutMapping("/{leaveId}")
-    public ResponseEntity<Leave> updateLeave(@PathVariable Long leaveId, @RequestBody Leave leaveDetails) {
-        Leave updatedLeave = leaveService.updateLeave(leaveId, leaveDetails);
-        return new ResponseEntity<>(updatedLeave, HttpStatus.OK);
+    public ResponseEntity<?> updateLeave(@PathVariable Long leaveId, @RequestBody Leave leaveDetails) {
+        try {
+            Leave updatedLeave = leaveService.updateLeave(leaveId, leaveDetails);
+            return new ResponseEntity<>(updatedLeave, HttpStatus.OK);
+        } catch (IllegalStateException e) { // Overlapping leave
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
     }
 
     // Delete a leave by ID
@@ -73,16 +111,22 @@ public class LeaveController {
 
     // Update the status of a leave
     @PutMapping("/{leaveId}/status")
-    public ResponseEntity<Leave> updateLeaveStatus(@PathVariable Long leaveId, @RequestParam String status) {
-        Leave updatedLeave = leaveService.updateLeaveStatus(leaveId, status);
-        return new ResponseEntity<>(updatedLeave, HttpStatus.OK);
+    public ResponseEntity<?> updateLeaveStatus(@PathVariable Long leaveId, @RequestParam String status) {
+        try {
+            Leave updatedLeave = leaveService.updateLeaveStatus(leaveId, status);
+            return new ResponseEntity<>(updatedLeave, HttpStatus.OK);
+        } catch (IllegalStateException e) { // Re-opening would overlap another leave
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) { // Unknown status
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     // Optional: Clear all leaves (admin/debug only)
     @DeleteMapping
     public ResponseEntity<Void> deleteAllLeaves() {
         // In real apps, restrict this to admin use only!
-        leaveService.getLeavesBetweenDates(LocalDate.MIN, LocalDate.MAX).forEach(leave ->
+        leaveService.getAllLeaves().forEach(leave ->
                 leaveService.deleteLeave(leave.getId())
         );
         return ResponseEntity.noContent().build();
@@ -1,24 +1,41 @@
 package com.wso2test.demo.controller;
 
 import com.wso2test.demo.dto.AggregatedScheduleOutput;
-import com.wso2test.demo.dto.DailyNonSupportScheduleRow;
-import com.wso2test.demo.dto.DailySupportScheduleRow;
+import com.wso2test.demo.dto.ScheduleJobStatus;
+import com.wso2test.demo.dto.SimulationRequest;
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.model.ShiftType;
 import com.wso2test.demo.model.SupportSchedule;
 import com.wso2test.demo.respository.SupportScheduleRepository;
+import com.wso2test.demo.scheduling.SchedulePlan;
+import com.wso2test.demo.service.DivisionScheduleService;
+import com.wso2test.demo.service.ScheduleExcelService;
+import com.wso2test.demo.service.ScheduleExportCache;
+import com.wso2test.demo.service.ScheduleExportService;
+import com.wso2test.demo.service.ScheduleJobService;
+import com.wso2test.demo.service.ScheduleQueryService;
+import com.wso2test.demo.service.ScheduleRangeService;
+import com.wso2test.demo.service.ScheduleRepairService;
+import com.wso2test.demo.service.ScheduleSimulationService;
 import com.wso2test.demo.service.SupportSchedulerService;
 import lombok.RequiredArgsConstructor;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import javax.persistence.EntityNotFoundException;
+import java.net.URI;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Collections;
 import java.util.List;
 
@@ -32,72 +49,37 @@ public class SchedulerController {
     // For final fields with @RequiredArgsConstructor, @Autowired on constructor is implicit.
     private final SupportSchedulerService supportSchedulerService;
     private final SupportScheduleRepository supportScheduleRepository;
+    private final ScheduleExcelService scheduleExcelService;
+    private final ScheduleRangeService scheduleRangeService;
+    private final ScheduleRepairService scheduleRepairService;
+    private final ScheduleExportService scheduleExportService;
+    private final ScheduleQueryService scheduleQueryService;
+    private final ScheduleJobService scheduleJobService;
+    private final DivisionScheduleService divisionScheduleService;
+    private final ScheduleSimulationService scheduleSimulationService;
 
-    // Endpoint to generate the monthly schedule and return it as an Excel file
+    // Endpoint to generate the monthly schedule and return it as an Excel file (engine=greedy|local-search, default from scheduler.engine;
+    // division defaults to the original Core Banking Support Division)
     @PostMapping("/generate")
-    public ResponseEntity<byte[]> generateMonthlyScheduleExcel(
+    public ResponseEntity<?> generateMonthlyScheduleExcel(
             @RequestParam int year,
             @RequestParam int month,
-            @RequestParam(required = false) List<String> excludeJuniorDates) {
+            @RequestParam(required = false) List<String> excludeJuniorDates,
+            @RequestParam(required = false) String engine,
+            @RequestParam(required = false) String division) {
 
         try {
             AggregatedScheduleOutput aggregatedOutput = supportSchedulerService.generateMonthlySchedule(
-                    year, month,
-                    excludeJuniorDates == null ? Collections.emptyList() : excludeJuniorDates
+                    YearMonth.of(year, month),
+                    supportSchedulerService.toPlanningOptions(excludeJuniorDates, engine, division)
             );
-
-            Workbook workbook = new XSSFWorkbook();
-
-            // --- Sheet 1: Non-Support Schedule (System Monitoring & COB) ---
-            Sheet nonSupportSheet = workbook.createSheet("System_Monitoring_COB");
-            // Add a title row for the first sheet
-            Row titleRowNonSupport = nonSupportSheet.createRow(0);
-            Cell titleCellNonSupport = titleRowNonSupport.createCell(0);
-            titleCellNonSupport.setCellValue("Staffs Assigned for System Monitoring, COB and Extended Support.");
-            // You can merge cells here if you want:
-            // nonSupportSheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 5)); // Merge across 6 columns
-            // Apply styling to titleCellNonSupport (bold, larger font, etc.)
-
-            createNonSupportSheetContent(nonSupportSheet, aggregatedOutput.getNonSupportSchedule(), workbook);
-
-
-            // --- Sheet 2: Support Schedule ---
-            Sheet supportSheet = workbook.createSheet("Support_Schedule");
-             // Add a title row for the second sheet
-            Row titleRowSupport = supportSheet.createRow(0);
-            Cell titleCellSupport = titleRowSupport.createCell(0);
-            titleCellSupport.setCellValue("Core Banking Support Division");
-            // supportSheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 4)); // Merge across 5 columns
-            // Apply styling
-
-            Row subTitleRowSupport = supportSheet.createRow(1);
-            Cell subTitleCellSupport = subTitleRowSupport.createCell(0);
-            subTitleCellSupport.setCellValue("Daily support schedule (Schedule for Help desk of each day of the month of May. " + year +")"); // Example, adjust month
-            // supportSheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 4));
-
-
-            createSupportSheetContent(supportSheet, aggregatedOutput.getSupportSchedule(), workbook);
-
-            // Write workbook to byte array
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            workbook.write(bos);
-            workbook.close();
-            byte[] excelBytes = bos.toByteArray();
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
-            String fileName = String.format("schedules_%d_%02d.xlsx", year, month);
-            headers.setContentDispositionFormData("attachment", fileName);
-            headers.setContentLength(excelBytes.length);
-
-            return ResponseEntity.ok().headers(headers).body(excelBytes);
+            return excelResponse(aggregatedOutput, year, month);
 
         } catch (IllegalStateException e) { // Catch specific exception for existing schedule
             return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage().getBytes()); // Or a JSON error response
         } 
-        catch (IOException e) {
-            // Log the IOException
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error creating Excel file.".getBytes());
+        catch (IllegalArgumentException e) { // Unknown engine
+            return ResponseEntity.badRequest().body(e.getMessage().getBytes());
         }
         catch (Exception e) {
             // Log general exception
@@ -107,118 +89,210 @@ public class SchedulerController {
         }
     }
 
-    private void createNonSupportSheetContent(Sheet sheet, List<DailyNonSupportScheduleRow> data, Workbook workbook) {
-        // Define header style
-        CellStyle headerStyle = workbook.createCellStyle();
-        Font headerFont = workbook.createFont();
-        headerFont.setBold(true);
-        headerStyle.setFont(headerFont);
-        headerStyle.setAlignment(HorizontalAlignment.CENTER);
-        headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-        headerStyle.setBorderTop(BorderStyle.THIN);
-        headerStyle.setBorderLeft(BorderStyle.THIN);
-        headerStyle.setBorderRight(BorderStyle.THIN);
-        // headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        // headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-
-        // Start headers from row 2 to accommodate title rows
-        Row headerRow = sheet.createRow(2); // Assuming title rows are 0 and 1
-        String[] nonSupportHeaders = {"No", "Date", "Day", "System Monitoring Performers", "Evening COB Performers", "Remark"};
-        for (int i = 0; i < nonSupportHeaders.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(nonSupportHeaders[i]);
-            cell.setCellStyle(headerStyle);
-        }
-
-        int rowNum = 3; // Data starts from row 3
-        CellStyle defaultCellStyle = workbook.createCellStyle();
-        defaultCellStyle.setBorderBottom(BorderStyle.THIN);
-        defaultCellStyle.setBorderTop(BorderStyle.THIN);
-        defaultCellStyle.setBorderLeft(BorderStyle.THIN);
-        defaultCellStyle.setBorderRight(BorderStyle.THIN);
-        defaultCellStyle.setWrapText(true); // Allow text wrapping in cells
-
-        for (DailyNonSupportScheduleRow rowData : data) {
-            Row row = sheet.createRow(rowNum++);
-            createCell(row, 0, rowNum - 3, defaultCellStyle); // Simple row number
-            createCell(row, 1, rowData.getDate().toString(), defaultCellStyle); // Or format as needed
-            createCell(row, 2, rowData.getDayOfWeek(), defaultCellStyle);
-            createCell(row, 3, rowData.getSystemMonitoringPerformersDisplay(), defaultCellStyle);
-            createCell(row, 4, rowData.getEveningCobPerformersDisplay(), defaultCellStyle);
-            createCell(row, 5, rowData.getRemark() != null ? rowData.getRemark() : "", defaultCellStyle);
-        }
-        for (int i = 0; i < nonSupportHeaders.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
-        sheet.setColumnWidth(3, 25 * 256); // Approx 25 characters width for System Monitoring
-        sheet.setColumnWidth(4, 35 * 256); // Approx 35 characters width for COB
-        sheet.setColumnWidth(5, 30 * 256); // Approx 30 characters width for Remark
+    // Endpoint to generate one month for several divisions in parallel (division=a&division=b, default: every division
+    // with an active roster). Each division is committed on its own; the JSON report has one outcome per division.
+    @PostMapping("/generate-divisions")
+    public ResponseEntity<?> generateDivisions(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(required = false) List<String> division,
+            @RequestParam(required = false) List<String> excludeJuniorDates,
+            @RequestParam(required = false) String engine) {
+
+        try {
+            return ResponseEntity.ok(divisionScheduleService.generateMonth(YearMonth.of(year, month), division,
+                    excludeJuniorDates == null ? Collections.emptyList() : excludeJuniorDates, engine));
+        } catch (IllegalArgumentException | DateTimeException e) { // Unknown engine or invalid month
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
-    private void createSupportSheetContent(Sheet sheet, List<DailySupportScheduleRow> data, Workbook workbook) {
-        CellStyle headerStyle = workbook.createCellStyle();
-        Font headerFont = workbook.createFont();
-        headerFont.setBold(true);
-        headerStyle.setFont(headerFont);
-        headerStyle.setAlignment(HorizontalAlignment.CENTER);
-        headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-        headerStyle.setBorderTop(BorderStyle.THIN);
-        headerStyle.setBorderLeft(BorderStyle.THIN);
-        headerStyle.setBorderRight(BorderStyle.THIN);
-
-        // Start headers from row 3 to accommodate title rows
-        Row headerRow = sheet.createRow(3); // Assuming title rows are 0, 1, 2
-        String[] supportHeaders = {"Date", "Day", "Reserved staff if supporters in Group (A) are not available", "Assigned Group (A) supporter", "Remark"};
-        for (int i = 0; i < supportHeaders.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(supportHeaders[i]);
-            cell.setCellStyle(headerStyle);
-        }
-        
-        int rowNum = 4; // Data starts from row 4
-        CellStyle defaultCellStyle = workbook.createCellStyle();
-        defaultCellStyle.setBorderBottom(BorderStyle.THIN);
-        defaultCellStyle.setBorderTop(BorderStyle.THIN);
-        defaultCellStyle.setBorderLeft(BorderStyle.THIN);
-        defaultCellStyle.setBorderRight(BorderStyle.THIN);
-        defaultCellStyle.setWrapText(true);
-
-        for (DailySupportScheduleRow rowData : data) {
-            Row row = sheet.createRow(rowNum++);
-            createCell(row, 0, rowData.getDate().toString(), defaultCellStyle);
-            createCell(row, 1, rowData.getDayOfWeek(), defaultCellStyle);
-            createCell(row, 2, rowData.getReservedStaffDisplay(), defaultCellStyle); // Logic for this needs to be implemented if needed
-            createCell(row, 3, rowData.getAssignedGroupADisplay(), defaultCellStyle);
-            createCell(row, 4, rowData.getRemark() != null ? rowData.getRemark() : "", defaultCellStyle);
-        }
-        for (int i = 0; i < supportHeaders.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
-        sheet.setColumnWidth(2, 40 * 256); // Reserved staff
-        sheet.setColumnWidth(3, 40 * 256); // Assigned Group A
-        sheet.setColumnWidth(4, 30 * 256); // Remark
+    // Endpoint to compare what-if variants of a month (extra leaves, removed employees, other exclude-juniors dates or
+    // caps) against the baseline. Planned in memory only; nothing is saved. One comparison row per variant.
+    @PostMapping("/simulate")
+    public ResponseEntity<?> simulate(@RequestBody SimulationRequest request) {
+        try {
+            return ResponseEntity.ok(scheduleSimulationService.simulate(request));
+        } catch (IllegalArgumentException | DateTimeException e) { // Unknown engine, invalid month or too many scenarios
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
-    private void createCell(Row row, int columnNumber, String value, CellStyle style) {
-        Cell cell = row.createCell(columnNumber);
-        cell.setCellValue(value);
-        if (style != null) {
-            cell.setCellStyle(style);
+    // Endpoint to queue a month's generation and return at once (202 + job id); 429 when too many jobs are waiting.
+    // Poll GET /jobs/{id} for phase and per-day progress, then download GET /jobs/{id}/result.
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitGenerationJob(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(required = false) List<String> excludeJuniorDates,
+            @RequestParam(required = false) String engine,
+            @RequestParam(required = false) String division) {
+
+        try {
+            ScheduleJobStatus job = scheduleJobService.submit(YearMonth.of(year, month),
+                    excludeJuniorDates == null ? Collections.emptyList() : excludeJuniorDates, engine, division);
+            return ResponseEntity.accepted().location(URI.create("/api/schedule/jobs/" + job.getId())).body(job);
+        } catch (TaskRejectedException e) { // Job queue full
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("Too many schedule jobs waiting, retry later");
+        } catch (IllegalStateException e) { // Month already scheduled
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException | DateTimeException e) { // Unknown engine or invalid month
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-    private void createCell(Row row, int columnNumber, Number value, CellStyle style) {
-        Cell cell = row.createCell(columnNumber);
-        if (value != null) cell.setCellValue(value.doubleValue()); // POI handles int/long via doubleValue
-        if (style != null) {
-            cell.setCellStyle(style);
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getGenerationJob(@PathVariable String id) {
+        ScheduleJobStatus job = scheduleJobService.getStatus(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No schedule job " + id);
         }
+        return ResponseEntity.ok(job);
     }
 
+    // The workbook once the job is DONE; 202 with the status while it runs, 409 with the status if it failed
+    @GetMapping("/jobs/{id}/result")
+    public ResponseEntity<?> getGenerationJobResult(@PathVariable String id) {
+        ScheduleJobStatus job = scheduleJobService.getStatus(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No schedule job " + id);
+        }
+        if (job.getPhase() == ScheduleJobStatus.Phase.FAILED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job);
+        }
+        byte[] workbook = scheduleJobService.getResult(id);
+        if (job.getPhase() != ScheduleJobStatus.Phase.DONE || workbook == null) {
+            return ResponseEntity.accepted().body(job);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(ScheduleExcelService.CONTENT_TYPE));
+        headers.setContentDispositionFormData("attachment", ScheduleExcelService.fileName(job.getDivision(), job.getMonth().getYear(), job.getMonth().getMonthValue()));
+        return ResponseEntity.ok().headers(headers).body(workbook);
+    }
+
+    // Endpoint to plan a month without saving anything (format=json|excel). Can be called repeatedly while tuning excludeJuniorDates.
+    @PostMapping("/preview")
+    public ResponseEntity<?> previewMonthlySchedule(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(required = false) List<String> excludeJuniorDates,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(required = false) String engine,
+            @RequestParam(required = false) String division) {
+
+        try {
+            SchedulePlan plan = supportSchedulerService.planMonthlySchedule(
+                    YearMonth.of(year, month),
+                    supportSchedulerService.toPlanningOptions(excludeJuniorDates, engine, division),
+                    null
+            );
+            if ("excel".equalsIgnoreCase(format)) {
+                return excelResponse(plan.getOutput(), year, month);
+            }
+            return ResponseEntity.ok(plan.getOutput());
+
+        } catch (IllegalArgumentException | DateTimeException e) { // Unknown engine or invalid month
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Endpoint to generate consecutive months in one go (e.g. from=2027-01&to=2027-12); returns a zip with one workbook per month
+    @PostMapping("/generate-range")
+    public ResponseEntity<?> generateScheduleRange(
+            @RequestParam YearMonth from,
+            @RequestParam YearMonth to,
+            @RequestParam(required = false) List<String> excludeJuniorDates,
+            @RequestParam(required = false) String engine,
+            @RequestParam(required = false) String division) {
+
+        try {
+            ScheduleRangeService.RangeExport export = scheduleRangeService.generateRange(
+                    from, to,
+                    excludeJuniorDates == null ? Collections.emptyList() : excludeJuniorDates,
+                    engine,
+                    division
+            );
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.parseMediaType("application/zip"));
+            headers.setContentDispositionFormData("attachment", String.format("schedules_%d_%02d-%d_%02d.zip",
+                    from.getYear(), from.getMonthValue(), to.getYear(), to.getMonthValue()));
+            StreamingResponseBody body = export::writeZip;
+            return ResponseEntity.ok().headers(headers).body(body);
+
+        } catch (ScheduleRangeService.PartialRangeException e) { // Failed part-way; says which months are saved
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON).body(e.getReport());
+        } catch (IllegalStateException e) { // Part of the range is already scheduled
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage().getBytes());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage().getBytes());
+        }
+    }
+
+    // Endpoint to backfill the published schedule around an approved leave; returns the shifts that changed hands
+    @PostMapping("/repair")
+    public ResponseEntity<?> repairForLeave(@RequestParam Long leaveId) {
+        try {
+            return ResponseEntity.ok(scheduleRepairService.repairForLeave(leaveId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) { // Leave not approved
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    // Endpoint to download the persisted schedule of a division's month; cached per schedule version and validated with a strong ETag (If-None-Match -> 304)
+    @GetMapping("/{year}/{month}/export")
+    public ResponseEntity<?> exportMonthlySchedule(@PathVariable int year, @PathVariable int month,
+                                                   @RequestParam(required = false) String division, WebRequest webRequest) {
+        YearMonth yearMonth;
+        try {
+            yearMonth = YearMonth.of(year, month);
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        String exportedDivision = Division.orDefault(division);
+        ScheduleExportCache.CachedExport export = scheduleExportService.export(exportedDivision, yearMonth);
+        if (export == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No schedule found for " + yearMonth + " of " + exportedDivision);
+        }
+        if (webRequest.checkNotModified(export.getEtag())) {
+            return null; // 304 with the ETag already set
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(ScheduleExcelService.CONTENT_TYPE));
+        headers.setContentDispositionFormData("attachment", ScheduleExcelService.fileName(exportedDivision, year, month));
+        headers.setETag(export.getEtag());
+        headers.setCacheControl(CacheControl.noCache()); // clients may keep it but must revalidate
+        return ResponseEntity.ok().headers(headers).body(export.getBytes());
+    }
+
+    // The workbook is written straight to the response stream once the handler returns; no byte[] copy of the file
+    private ResponseEntity<StreamingResponseBody> excelResponse(AggregatedScheduleOutput output, int year, int month) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(ScheduleExcelService.CONTENT_TYPE));
+        headers.setContentDispositionFormData("attachment", ScheduleExcelService.fileName(output.getDivision(), year, month));
+        StreamingResponseBody body = out -> scheduleExcelService.write(output, year, month, out);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    // Endpoint to read who works when in a date range (optionally one shift type / one employee); keyset-paginated via ?after=nextCursor
+    @GetMapping("/entries")
+    public ResponseEntity<?> getScheduleEntries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) ShiftType shiftType,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(scheduleQueryService.findEntries(from, to, shiftType, employeeId, after, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
-    // Endpoint to retrieve all support schedules (raw data)
+    // Endpoint to retrieve all support schedules (raw data; prefer /entries, which is bounded by the requested range)
     @GetMapping
     public ResponseEntity<List<SupportSchedule>> getAllSchedules() {
         List<SupportSchedule> schedules = supportScheduleRepository.findAll();
@@ -228,7 +302,7 @@ public class SchedulerController {
     // Endpoint to delete all schedules (used when resetting or testing)
     @DeleteMapping
     public ResponseEntity<Void> deleteAllSchedules() {
-        supportScheduleRepository.deleteAll(); // This deletes all SupportSchedule entities
+        supportSchedulerService.deleteAllSchedules(); // Also clears the fairness ledger and the cached exports
         // If you also need to reset other data (like auto-generated leaves), do it here.
         // e.g., leaveRepository.deleteByReason("Rest after COB shift");
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
@@ -10,6 +10,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class AggregatedScheduleOutput {
+    private String division;
     private List<DailyNonSupportScheduleRow> nonSupportSchedule;
     private List<DailySupportScheduleRow> supportSchedule;
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.wso2test.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of POST /api/schedule/generate-divisions: one result per division; durationMillis is the wall time of the
+// whole call, which approaches the slowest division's durationMillis when the divisions run in parallel
+@Data
+@NoArgsConstructor
+public class DivisionScheduleReport {
+    private YearMonth month;
+    private int generated;
+    private int failed;
+    private List<DivisionScheduleResult> results = new ArrayList<>();
+    private long durationMillis;
+}
@@ -0,0 +1,20 @@
+package com.wso2test.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one division in a multi-division generation; output is set only when the month was GENERATED
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DivisionScheduleResult {
+
+    public enum Outcome { GENERATED, ALREADY_SCHEDULED, FAILED }
+
+    private String division;
+    private Outcome outcome;
+    private String message;
+    private long durationMillis;
+    private AggregatedScheduleOutput output;
+}
@@ -0,0 +1,17 @@
+package com.wso2test.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Lightweight projection of a leave row, used when only the employee and the date range matter
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeLeavePeriod {
+    private Long employeeId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
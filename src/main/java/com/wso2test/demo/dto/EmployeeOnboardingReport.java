@@ -0,0 +1,18 @@
+package com.wso2test.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of POST /api/employees/add: one result per submitted record, in request order
+@Data
+@NoArgsConstructor
+public class EmployeeOnboardingReport {
+    private long received;
+    private long created;
+    private long rejected;
+    private List<EmployeeOnboardingResult> results = new ArrayList<>();
+    private long durationMillis;
+}
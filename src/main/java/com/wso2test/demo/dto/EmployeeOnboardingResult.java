@@ -0,0 +1,20 @@
+package com.wso2test.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one record of a bulk onboarding request; index is the 0-based position in the submitted array
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeOnboardingResult {
+
+    public enum Outcome { CREATED, REJECTED }
+
+    private long index;
+    private String email;
+    private Outcome outcome;
+    private Long id;
+    private String message;
+}
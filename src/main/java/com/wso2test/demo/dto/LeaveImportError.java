@@ -0,0 +1,14 @@
+package com.wso2test.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A rejected row of a bulk leave import; row numbers are 1-based data rows (the CSV header is not counted)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveImportError {
+    private long row;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.wso2test.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of POST /api/leaves/bulk: valid rows are imported, the others are listed with the reason
+@Data
+@NoArgsConstructor
+public class LeaveImportReport {
+    private long rowsRead;
+    private long imported;
+    private List<LeaveImportError> errors = new ArrayList<>();
+    private long durationMillis;
+}
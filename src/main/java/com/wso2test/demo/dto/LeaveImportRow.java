@@ -0,0 +1,20 @@
+package com.wso2test.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of an HR leave file, as read (CSV columns or JSON fields); validated by LeaveImportService
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LeaveImportRow {
+    @JsonAlias("employeeEmail")
+    private String email;
+    private String startDate;
+    private String endDate;
+    @JsonAlias("leaveReason")
+    private String reason;
+    private String status; // optional, PENDING when empty
+}
@@ -0,0 +1,21 @@
+package com.wso2test.demo.dto;
+
+import com.wso2test.demo.model.LeaveStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// A leave as held by the in-memory leave index (approved and pending leaves only)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveInterval {
+    private Long leaveId;
+    private Long employeeId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LeaveStatus status;
+    private boolean restAfterCob; // planner-generated rest day; blocks scheduling but not other leaves
+}
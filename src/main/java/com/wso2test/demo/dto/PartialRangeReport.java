@@ -0,0 +1,21 @@
+package com.wso2test.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Body of a failed POST /api/schedule/generate-range after some months were already saved: those months stay
+// persisted, so the client resumes with from=failedMonth
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartialRangeReport {
+    private String division;
+    private List<YearMonth> persistedMonths = new ArrayList<>();
+    private YearMonth failedMonth;
+    private String error;
+}
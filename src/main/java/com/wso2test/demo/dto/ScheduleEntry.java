@@ -0,0 +1,22 @@
+package com.wso2test.demo.dto;
+
+import com.wso2test.demo.model.EmployeeLevel;
+import com.wso2test.demo.model.ShiftType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One employee on one scheduled shift, projected straight from the query (no entities, no lazy collections)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleEntry {
+    private Long scheduleId;
+    private LocalDate assignedDate;
+    private ShiftType shiftType;
+    private Long employeeId;
+    private String employeeName;
+    private EmployeeLevel employeeLevel;
+}
@@ -0,0 +1,16 @@
+package com.wso2test.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// A page of schedule entries; pass nextCursor back as ?after= to continue (null on the last page)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleEntryPage {
+    private List<ScheduleEntry> entries;
+    private String nextCursor;
+}
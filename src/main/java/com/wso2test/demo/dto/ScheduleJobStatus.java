@@ -0,0 +1,29 @@
+package com.wso2test.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.YearMonth;
+
+// Snapshot of an asynchronous generation job (GET /api/schedule/jobs/{id}); daysPlanned counts up to daysTotal while planning
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleJobStatus {
+
+    public enum Phase { QUEUED, PLANNING, PERSISTING, RENDERING, DONE, FAILED }
+
+    private String id;
+    private YearMonth month;
+    private String division;
+    private String engine;
+    private Phase phase;
+    private int daysPlanned;
+    private int daysTotal;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
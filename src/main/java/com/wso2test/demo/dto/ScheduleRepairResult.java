@@ -0,0 +1,26 @@
+package com.wso2test.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Diff produced by repairing a published schedule around one employee's leave
+@Data
+@NoArgsConstructor
+public class ScheduleRepairResult {
+    private Long employeeId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<ShiftReplacement> changes = new ArrayList<>();
+    private int unfilled; // shifts left one person short
+    private long durationMillis;
+
+    public ScheduleRepairResult(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        this.employeeId = employeeId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+}
@@ -0,0 +1,18 @@
+package com.wso2test.demo.dto;
+
+import com.wso2test.demo.model.ShiftType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One (date, shift, employee) row of the schedule_employees join, without loading the entities
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftAssignment {
+    private LocalDate assignedDate;
+    private ShiftType shiftType;
+    private Long employeeId;
+}
@@ -0,0 +1,21 @@
+package com.wso2test.demo.dto;
+
+import com.wso2test.demo.model.ShiftType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One line of a repair diff: who was taken off a shift and who took over (null when nobody could)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftReplacement {
+    private LocalDate date;
+    private ShiftType shiftType;
+    private Long removedEmployeeId;
+    private String removedEmployeeName;
+    private Long replacementEmployeeId;
+    private String replacementEmployeeName;
+}
@@ -0,0 +1,38 @@
+package com.wso2test.demo.dto;
+
+import com.wso2test.demo.model.ShiftType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// One row of a simulation report: coverage problems and how evenly each shift type was spread over the people eligible for it
+@Data
+@NoArgsConstructor
+public class SimulationOutcome {
+    private String scenario;
+    private int assignedShifts;
+    private int cobUnderstaffedDays;
+    private int supportFailedDays;
+    private int supportFallbackDays; // SUPPORT needed Attempt 2 (consecutive days allowed)
+    private Map<ShiftType, ShiftSpread> spread = new EnumMap<>(ShiftType.class);
+    private long durationMillis;
+    private String error; // set instead of the figures when the variant could not be planned
+
+    public SimulationOutcome(String scenario) {
+        this.scenario = scenario;
+    }
+
+    // Shifts per eligible employee this month
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ShiftSpread {
+        private int employees;
+        private int min;
+        private int max;
+        private double standardDeviation;
+    }
+}
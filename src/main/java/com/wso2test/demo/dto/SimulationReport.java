@@ -0,0 +1,20 @@
+package com.wso2test.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of POST /api/schedule/simulate: the baseline first, then one row per scenario in request order. Nothing is
+// persisted; durationMillis is the wall time of the whole call, with the variants planned side by side
+@Data
+@NoArgsConstructor
+public class SimulationReport {
+    private YearMonth month;
+    private String division;
+    private String engine;
+    private List<SimulationOutcome> outcomes = new ArrayList<>();
+    private long durationMillis;
+}
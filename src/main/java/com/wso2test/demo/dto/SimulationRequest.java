@@ -0,0 +1,19 @@
+package com.wso2test.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Body of POST /api/schedule/simulate: the base month (planned as "baseline") and the variants to compare with it
+@Data
+@NoArgsConstructor
+public class SimulationRequest {
+    private int year;
+    private int month;
+    private String division; // null = Division.DEFAULT
+    private String engine; // null = scheduler.engine
+    private List<String> excludeJuniorDates = new ArrayList<>();
+    private List<SimulationScenario> scenarios = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.wso2test.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One what-if variant of the base month; unset fields keep the base month's value
+@Data
+@NoArgsConstructor
+public class SimulationScenario {
+    private String name;
+    private List<EmployeeLeavePeriod> leaves = new ArrayList<>(); // hypothetical approved leaves
+    private List<Long> removedEmployeeIds = new ArrayList<>();
+    private List<String> excludeJuniorDates; // replaces the request's dates when set
+    private Integer maxSupportShiftsPerJunior;
+    private Integer maxCobShiftsForCobPerformer;
+}
@@ -0,0 +1,16 @@
+package com.wso2test.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyntheticDataReport {
+    private long seed;
+    private int employeesInserted;
+    private int leavesInserted;
+    private int holidaysInserted;
+    private long durationMillis;
+}
@@ -0,0 +1,19 @@
+package com.wso2test.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Shape of a generated data set; the same spec and seed always produce the same rows
+@Data
+@NoArgsConstructor
+public class SyntheticDataSpec {
+    private long seed = 42L;
+    private int employees = 10_000;
+    private int leaves = 1_000_000;
+    private int holidays = 40; // per division
+    private int divisions = 1; // employees are spread round-robin over "Synthetic Division 1..n"; 1 = Division.DEFAULT only
+    private LocalDate startDate; // leaves and holidays fall in [startDate, endDate]; defaults to the current year
+    private LocalDate endDate;
+}
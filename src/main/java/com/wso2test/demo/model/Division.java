@@ -0,0 +1,15 @@
+package com.wso2test.demo.model;
+
+// Support divisions are plain names on employees, schedules and holidays; rows without one belong to the original division
+public final class Division {
+
+    public static final String DEFAULT = "Core Banking Support Division";
+
+    private Division() {
+    }
+
+    // The division a request refers to: the given name trimmed, or DEFAULT when none is given
+    public static String orDefault(String division) {
+        return division == null || division.trim().isEmpty() ? DEFAULT : division.trim();
+    }
+}
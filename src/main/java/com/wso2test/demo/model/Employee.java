@@ -8,18 +8,24 @@ import javax.persistence.*;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import org.hibernate.annotations.BatchSize;
 
 import lombok.*;
 
+// Leaves reference their employee eagerly; lists of leaves load the employees 256 per query instead of one each
 @Entity
+@BatchSize(size = 256)
 @ToString(exclude = "supportSchedules")
 @Table(name = "employees")
 @Data
 @NoArgsConstructor 
 public class Employee {
 
+    // Pooled table generator instead of IDENTITY so Hibernate can batch inserts (bulk onboarding)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "employees_id")
+    @TableGenerator(name = "employees_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "employees", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -42,8 +48,14 @@ public class Employee {
     @Enumerated(EnumType.STRING)
     @Column(name = "level", nullable = true)
     private EmployeeLevel level;
+
+    // Division whose roster this employee belongs to; divisions are scheduled independently
+    @Column(name = "division", nullable = false)
+    private String division = Division.DEFAULT;
    
+    // Serialized with every employee list; fetched for up to 256 employees per query instead of one query each
     @ManyToMany(mappedBy = "employees", cascade = {CascadeType.MERGE, CascadeType.PERSIST})
+    @BatchSize(size = 256)
     @JsonManagedReference
     private List<SupportSchedule> supportSchedules = new ArrayList<>();
 
@@ -11,5 +11,6 @@ public class EmployeeRequest {
    private EmployeeStatus status;
    private EmployeeType type;
    private EmployeeLevel level;
+   private String division; // null = Division.DEFAULT on create, unchanged on update
 
 }
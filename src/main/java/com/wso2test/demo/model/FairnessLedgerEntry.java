@@ -0,0 +1,71 @@
+package com.wso2test.demo.model;
+
+import javax.persistence.*;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * One employee's running fairness totals over every persisted month: shifts per type, the last Saturday COB
+ * (rotation) and the last day worked. Changed in the same transaction as the schedule rows it counts, so the
+ * planner can seed each month from it instead of rebuilding history from earlier schedules.
+ */
+@Entity
+@Table(name = "fairness_ledger")
+@Data
+@NoArgsConstructor
+public class FairnessLedgerEntry {
+
+    // Assigned, not generated: the row is keyed by its employee
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Column(name = "cob_shifts", nullable = false)
+    private int cobShifts;
+
+    @Column(name = "support_shifts", nullable = false)
+    private int supportShifts;
+
+    @Column(name = "system_monitor_shifts", nullable = false)
+    private int systemMonitorShifts;
+
+    @Column(name = "last_saturday_cob")
+    private LocalDate lastSaturdayCob;
+
+    @Column(name = "last_shift_date")
+    private LocalDate lastShiftDate;
+
+    public FairnessLedgerEntry(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public int getShifts(ShiftType shiftType) {
+        switch (shiftType) {
+            case COB: return cobShifts;
+            case SUPPORT: return supportShifts;
+            default: return systemMonitorShifts;
+        }
+    }
+
+    // Counts never go below zero, even if a row was already out of step
+    public void addShifts(ShiftType shiftType, int delta) {
+        switch (shiftType) {
+            case COB: cobShifts = Math.max(0, cobShifts + delta); break;
+            case SUPPORT: supportShifts = Math.max(0, supportShifts + delta); break;
+            default: systemMonitorShifts = Math.max(0, systemMonitorShifts + delta);
+        }
+    }
+
+    // Moves the last-shift and last-Saturday-COB dates forward for a shift on the date (never backwards)
+    public void worked(LocalDate date, ShiftType shiftType) {
+        if (lastShiftDate == null || date.isAfter(lastShiftDate)) lastShiftDate = date;
+        if (shiftType == ShiftType.COB && date.getDayOfWeek() == DayOfWeek.SATURDAY
+                && (lastSaturdayCob == null || date.isAfter(lastSaturdayCob))) {
+            lastSaturdayCob = date;
+        }
+    }
+}
@@ -11,7 +11,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import lombok.Data;
 @Entity
-@Table(name = "holiday")
+@Table(name = "holiday", uniqueConstraints = @UniqueConstraint(name = "uk_holiday_division_date", columnNames = {"division", "date"}))
 @Data
 public class Holiday {
 
@@ -23,9 +23,13 @@ public class Holiday {
     @Column(name = "name", nullable = false)
     private String name;
 
-    @Column(name = "date", nullable = false, unique = true)
+    @Column(name = "date", nullable = false)
     private LocalDate date;
 
+    // Each division keeps its own holiday calendar
+    @Column(name = "division", nullable = false)
+    private String division = Division.DEFAULT;
+
    
     
 }
@@ -3,6 +3,7 @@ package com.wso2test.demo.model;
 import javax.persistence.*;
 
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.wso2test.demo.service.LeaveIndexListener;
 import com.wso2test.demo.util.LocalDateDeserializer;
 
 import lombok.Data;
@@ -10,11 +11,15 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "leaves")
+@EntityListeners(LeaveIndexListener.class) // keeps the in-memory leave index in sync
 @Data
 public class Leave {
 
+    // Pooled table generator instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "leaves_id")
+    @TableGenerator(name = "leaves_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "leaves", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,37 @@
+package com.wso2test.demo.model;
+
+import javax.persistence.*;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One division's staffing rules as stored and edited: the team of each shift type in the StaffingRules notation
+ * (e.g. "SUPPORT+SENIOR, SUPPORT+JUNIOR, COB_PERFORMER|SUPPORT+SENIOR") and the monthly caps. Planning never reads
+ * this row directly; it is compiled into a StaffingRules once per change.
+ */
+@Entity
+@Table(name = "staffing_rules")
+@Data
+@NoArgsConstructor
+public class StaffingRule {
+
+    @Id
+    @Column(name = "division", length = 100)
+    private String division;
+
+    @Column(name = "system_monitor_team", nullable = false, length = 500)
+    private String systemMonitorTeam;
+
+    @Column(name = "cob_team", nullable = false, length = 500)
+    private String cobTeam;
+
+    @Column(name = "support_team", nullable = false, length = 500)
+    private String supportTeam;
+
+    @Column(name = "max_support_shifts_per_junior", nullable = false)
+    private Integer maxSupportShiftsPerJunior;
+
+    @Column(name = "max_cob_shifts_for_cob_performer", nullable = false)
+    private Integer maxCobShiftsForCobPerformer;
+}
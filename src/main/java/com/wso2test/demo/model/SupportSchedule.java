@@ -15,8 +15,11 @@ import java.util.List;
 @Data
 public class SupportSchedule {
 
+    // Pooled table generator instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "schedules_id")
+    @TableGenerator(name = "schedules_id", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "gen_value", pkColumnValue = "schedules", allocationSize = 50)
     private Long id;
   
         
@@ -26,6 +29,9 @@ public class SupportSchedule {
 
     @Column(name = "assigned_date", nullable = false)
     private LocalDate assignedDate;
+
+    @Column(name = "division", nullable = false)
+    private String division = Division.DEFAULT;
    
     @ManyToMany
     @JoinTable(
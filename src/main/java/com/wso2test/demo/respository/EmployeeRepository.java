@@ -6,11 +6,14 @@ import com.wso2test.demo.model.EmployeeStatus;
 import com.wso2test.demo.model.EmployeeType;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,11 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     Optional<Employee> findByEmail(String email);
 
+    // Row lock (SELECT ... FOR UPDATE) held until the transaction ends; serializes leave writes per employee
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Employee e WHERE e.id = :id")
+    Optional<Employee> findByIdForUpdate(@Param("id") Long id);
+
     Optional<Employee> findByPhoneNumber(String phoneNumber);
 
     List<Employee> findByStatus(EmployeeStatus status);
@@ -37,6 +45,11 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     boolean existsByPhoneNumber(String phoneNumber);
 
+    // Bulk onboarding duplicate checks: one query per chunk of incoming records
+    List<Employee> findByEmailIn(Collection<String> emails);
+
+    List<Employee> findByEmailInOrPhoneNumberIn(Collection<String> emails, Collection<String> phoneNumbers);
+
     @Query("SELECT e FROM Employee e WHERE e.id NOT IN (SELECT l.employee.id FROM Leave l WHERE :date BETWEEN l.startDate AND l.endDate)")
        List<Employee> findAvailableEmployeesOnDate(@Param("date") LocalDate date);
 
@@ -44,6 +57,14 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
        @Query("SELECT e FROM Employee e WHERE e.status = com.wso2test.demo.model.EmployeeStatus.ACTIVE")
 List<Employee> findAllActiveEmployees();
 
+// Active roster of one division (the planner's roster)
+@Query("SELECT e FROM Employee e WHERE e.division = :division AND e.status = com.wso2test.demo.model.EmployeeStatus.ACTIVE")
+List<Employee> findActiveEmployeesByDivision(@Param("division") String division);
+
+// Divisions with at least one active employee
+@Query("SELECT DISTINCT e.division FROM Employee e WHERE e.status = com.wso2test.demo.model.EmployeeStatus.ACTIVE ORDER BY e.division")
+List<String> findActiveDivisions();
+
 @Query("SELECT e FROM Employee e WHERE e.status = com.wso2test.demo.model.EmployeeStatus.ACTIVE AND e.type = com.wso2test.demo.model.EmployeeType.SUPPORT")
 List<Employee> findAllActiveSupportEmployees();
 
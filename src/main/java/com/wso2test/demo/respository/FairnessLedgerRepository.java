@@ -0,0 +1,17 @@
+package com.wso2test.demo.respository;
+
+import com.wso2test.demo.model.FairnessLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FairnessLedgerRepository extends JpaRepository<FairnessLedgerEntry, Long> {
+
+    // Ledger rows of one division's active roster (planner load); employees without a row have no history yet
+    @Query("SELECT l FROM FairnessLedgerEntry l WHERE l.employeeId IN (SELECT e.id FROM Employee e WHERE e.division = :division AND e.status = com.wso2test.demo.model.EmployeeStatus.ACTIVE)")
+    List<FairnessLedgerEntry> findActiveByDivision(@Param("division") String division);
+}
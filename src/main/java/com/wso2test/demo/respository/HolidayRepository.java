@@ -18,4 +18,12 @@ public interface HolidayRepository extends JpaRepository<Holiday, Long> {
 
     // Check if a specific holiday exists for a given date
     boolean existsByDate(LocalDate date);
+
+    boolean existsByDivisionAndDate(String division, LocalDate date);
+
+    // Holidays inside a date range (e.g. a single month being scheduled)
+    List<Holiday> findByDateBetween(LocalDate startDate, LocalDate endDate);
+
+    // One division's calendar inside a date range
+    List<Holiday> findByDivisionAndDateBetween(String division, LocalDate startDate, LocalDate endDate);
 }
@@ -1,5 +1,7 @@
 package com.wso2test.demo.respository;
 
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.dto.LeaveInterval;
 import com.wso2test.demo.model.Employee;
 import com.wso2test.demo.model.Leave;
 import com.wso2test.demo.model.LeaveStatus;
@@ -17,11 +19,16 @@ import java.util.List;
 @Repository
 public interface LeaveRepository extends JpaRepository<Leave, Long> {
 
+    // Per-employee lookups filter on the FK column (l.employee.id); derived findByEmployeeId... queries outer-join
+    // employees first, which keeps the database from starting at ix_leaves_employee_dates.
+
     // Get all leaves for a specific employee
-    List<Leave> findByEmployeeId(Long employeeId);
+    @Query("SELECT l FROM Leave l WHERE l.employee.id = :employeeId")
+    List<Leave> findByEmployeeId(@Param("employeeId") Long employeeId);
 
     // Check if an employee is on leave during a specific date
-    List<Leave> findByEmployeeIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(Long employeeId, LocalDate date1, LocalDate date2);
+    @Query("SELECT l FROM Leave l WHERE l.employee.id = :employeeId AND l.startDate <= :date1 AND l.endDate >= :date2")
+    List<Leave> findByEmployeeIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(@Param("employeeId") Long employeeId, @Param("date1") LocalDate date1, @Param("date2") LocalDate date2);
 
     // Get all leaves overlapping with a specific day
     List<Leave> findByStartDateLessThanEqualAndEndDateGreaterThanEqual(LocalDate date, LocalDate date2);
@@ -30,7 +37,8 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
     List<Leave> findByStartDateBetween(LocalDate startDate, LocalDate endDate);
 
     // Optional: Find all approved leaves for a specific employee
-    List<Leave> findByEmployeeIdAndStatus(Long employeeId, LeaveStatus status);
+    @Query("SELECT l FROM Leave l WHERE l.employee.id = :employeeId AND l.status = :status")
+    List<Leave> findByEmployeeIdAndStatus(@Param("employeeId") Long employeeId, @Param("status") LeaveStatus status);
 
         boolean existsByEmployeeAndStatus(Employee employee, LeaveStatus status);
 
@@ -45,14 +53,42 @@ public interface LeaveRepository extends JpaRepository<Leave, Long> {
      // *** NEWLY ADDED METHOD ***
     // Find leaves for a specific employee that start and end on the exact given dates.
     // Useful for checking if a single-day leave record exists for a specific day.
-    List<Leave> findByEmployeeIdAndStartDateAndEndDate(Long employeeId, LocalDate startDate, LocalDate endDate);
+    @Query("SELECT l FROM Leave l WHERE l.employee.id = :employeeId AND l.startDate = :startDate AND l.endDate = :endDate")
+    List<Leave> findByEmployeeIdAndStartDateAndEndDate(@Param("employeeId") Long employeeId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
+    @Query("SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END FROM Leave l WHERE l.employee.id = :employeeId " +
+           "AND l.startDate = :startDate AND l.endDate = :endDate AND l.leaveReason = :leaveReason AND l.status IN :statuses")
     boolean existsByEmployeeIdAndStartDateAndEndDateAndLeaveReasonAndStatusIn(
-        Long employeeId, 
-        LocalDate startDate, 
-        LocalDate endDate, 
-        String leaveReason, 
-        Collection<LeaveStatus> statuses // Use Collection for 'IN' clause
+        @Param("employeeId") Long employeeId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate,
+        @Param("leaveReason") String leaveReason,
+        @Param("statuses") Collection<LeaveStatus> statuses // Use Collection for 'IN' clause
     );
 
+    // Approved leave ranges overlapping [from, to], projected so no Leave/Employee entities are loaded
+    @Query("SELECT new com.wso2test.demo.dto.EmployeeLeavePeriod(l.employee.id, l.startDate, l.endDate) FROM Leave l " +
+           "WHERE l.status = com.wso2test.demo.model.LeaveStatus.APPROVED AND l.startDate <= :to AND l.endDate >= :from")
+    List<EmployeeLeavePeriod> findApprovedLeavePeriodsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // The same for the employees of one division
+    @Query("SELECT new com.wso2test.demo.dto.EmployeeLeavePeriod(l.employee.id, l.startDate, l.endDate) FROM Leave l " +
+           "WHERE l.employee.division = :division AND l.status = com.wso2test.demo.model.LeaveStatus.APPROVED " +
+           "AND l.startDate <= :to AND l.endDate >= :from")
+    List<EmployeeLeavePeriod> findApprovedLeavePeriodsByDivisionBetween(@Param("division") String division, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // The employee's leaves in the given states overlapping [from, to], except one leave and planner rest days
+    // (ix_leaves_employee_dates); the authoritative overlap check, run under the employee's row lock
+    @Query("SELECT new com.wso2test.demo.dto.LeaveInterval(l.id, l.employee.id, l.startDate, l.endDate, l.status, false) FROM Leave l " +
+           "WHERE l.employee.id = :employeeId AND l.startDate <= :to AND l.endDate >= :from AND l.status IN :statuses " +
+           "AND l.leaveReason <> :restReason AND (:excludeLeaveId IS NULL OR l.id <> :excludeLeaveId) ORDER BY l.startDate")
+    List<LeaveInterval> findConflictingLeaves(@Param("employeeId") Long employeeId, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                              @Param("statuses") Collection<LeaveStatus> statuses, @Param("restReason") String restReason,
+                                              @Param("excludeLeaveId") Long excludeLeaveId);
+
+    // Every leave in the given states, projected for the in-memory leave index
+    @Query("SELECT new com.wso2test.demo.dto.LeaveInterval(l.id, l.employee.id, l.startDate, l.endDate, l.status, " +
+           "CASE WHEN l.leaveReason = :restReason THEN true ELSE false END) FROM Leave l WHERE l.status IN :statuses")
+    List<LeaveInterval> findLeaveIntervalsByStatusIn(@Param("statuses") Collection<LeaveStatus> statuses, @Param("restReason") String restReason);
+
 }
@@ -0,0 +1,9 @@
+package com.wso2test.demo.respository;
+
+import com.wso2test.demo.model.StaffingRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StaffingRuleRepository extends JpaRepository<StaffingRule, String> {
+}
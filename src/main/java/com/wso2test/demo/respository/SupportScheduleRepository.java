@@ -1,8 +1,11 @@
 package com.wso2test.demo.respository;
 
+import com.wso2test.demo.dto.ScheduleEntry;
+import com.wso2test.demo.dto.ShiftAssignment;
 import com.wso2test.demo.model.ShiftType;
 import com.wso2test.demo.model.SupportSchedule;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,13 +20,15 @@ import java.util.Optional;
 public interface SupportScheduleRepository extends JpaRepository<SupportSchedule, Long> {
 
     // --- Basic queries ---
-    List<SupportSchedule> findByEmployeesId(Long employeeId);
+    @Query("SELECT s FROM SupportSchedule s JOIN s.employees e WHERE e.id = :employeeId") // inner join: starts at the employee's rows
+    List<SupportSchedule> findByEmployeesId(@Param("employeeId") Long employeeId);
     List<SupportSchedule> findByEmployeesIdAndAssignedDate(Long employeeId, LocalDate assignedDate);
     List<SupportSchedule> findByAssignedDate(LocalDate assignedDate);
-    Optional<SupportSchedule> findByAssignedDateAndShiftType(LocalDate assignedDate, ShiftType shiftType);
+    Optional<SupportSchedule> findByDivisionAndAssignedDateAndShiftType(String division, LocalDate assignedDate, ShiftType shiftType);
     List<SupportSchedule> findByShiftTypeAndAssignedDateBetween(ShiftType shiftType, LocalDate startDate, LocalDate endDate);
     List<SupportSchedule> findByAssignedDateBetween(LocalDate startDate, LocalDate endDate);
     boolean existsByAssignedDateBetween(LocalDate startDate, LocalDate endDate);
+    boolean existsByDivisionAndAssignedDateBetween(String division, LocalDate startDate, LocalDate endDate);
     void deleteByAssignedDateBetween(LocalDate startDate, LocalDate endDate);
 
     // --- Weekly limits and fairness ---
@@ -59,5 +64,41 @@ public interface SupportScheduleRepository extends JpaRepository<SupportSchedule
         @Param("shiftType") ShiftType shiftType,
         @Param("employeeId") Long employeeId
     );
-    
+
+    // Schedules of a period with their employees in one query (exports)
+    @Query("SELECT DISTINCT s FROM SupportSchedule s LEFT JOIN FETCH s.employees WHERE s.assignedDate BETWEEN :startDate AND :endDate ORDER BY s.assignedDate, s.id")
+    List<SupportSchedule> findWithEmployeesByAssignedDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT DISTINCT s FROM SupportSchedule s LEFT JOIN FETCH s.employees WHERE s.division = :division AND s.assignedDate BETWEEN :startDate AND :endDate ORDER BY s.assignedDate, s.id")
+    List<SupportSchedule> findWithEmployeesByDivisionAndAssignedDateBetween(@Param("division") String division, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // --- Flattened (date, shift, employee) rows for in-memory scheduling ---
+    @Query("SELECT new com.wso2test.demo.dto.ShiftAssignment(s.assignedDate, s.shiftType, e.id) FROM SupportSchedule s JOIN s.employees e WHERE s.assignedDate BETWEEN :startDate AND :endDate")
+    List<ShiftAssignment> findShiftAssignmentsBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT new com.wso2test.demo.dto.ShiftAssignment(s.assignedDate, s.shiftType, e.id) FROM SupportSchedule s JOIN s.employees e WHERE s.division = :division AND s.assignedDate BETWEEN :startDate AND :endDate")
+    List<ShiftAssignment> findShiftAssignmentsByDivisionBetween(@Param("division") String division, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // Every shift one employee holds (recomputes their fairness ledger dates after a shift is taken away)
+    @Query("SELECT new com.wso2test.demo.dto.ShiftAssignment(s.assignedDate, s.shiftType, e.id) FROM SupportSchedule s JOIN s.employees e WHERE e.id = :employeeId")
+    List<ShiftAssignment> findShiftAssignmentsByEmployeeId(@Param("employeeId") Long employeeId);
+
+    // --- Read API: keyset-paginated projection ordered by (date, schedule id, employee id) ---
+    // Rows strictly after the cursor; the first page passes (startDate - 1, 0, 0). Null shiftType/employeeId match everything.
+    @Query("SELECT new com.wso2test.demo.dto.ScheduleEntry(s.id, s.assignedDate, s.shiftType, e.id, e.name, e.level) " +
+           "FROM SupportSchedule s JOIN s.employees e " +
+           "WHERE s.assignedDate BETWEEN :startDate AND :endDate " +
+           "AND (:shiftType IS NULL OR s.shiftType = :shiftType) " +
+           "AND (:employeeId IS NULL OR e.id = :employeeId) " +
+           "AND (s.assignedDate > :afterDate OR (s.assignedDate = :afterDate AND (s.id > :afterScheduleId OR (s.id = :afterScheduleId AND e.id > :afterEmployeeId)))) " +
+           "ORDER BY s.assignedDate, s.id, e.id")
+    List<ScheduleEntry> findEntriesAfter(@Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate,
+                                         @Param("shiftType") ShiftType shiftType,
+                                         @Param("employeeId") Long employeeId,
+                                         @Param("afterDate") LocalDate afterDate,
+                                         @Param("afterScheduleId") Long afterScheduleId,
+                                         @Param("afterEmployeeId") Long afterEmployeeId,
+                                         Pageable limit);
+
 }
@@ -0,0 +1,89 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.model.ShiftType;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Compact per-employee day bitmaps for one month. Employees are addressed by a dense ordinal
+ * (their index in the scheduling context) and every day of the window is one bit of a {@code long}:
+ * bit 0 is the last day of the previous month, bits 1..31 are the days of the month and bit 32 is
+ * the first day of the next month (where a rest day after a month-end COB shift lands).
+ */
+public class AvailabilityCalendar {
+
+    private static final ShiftType[] SHIFT_TYPES = ShiftType.values();
+
+    private final LocalDate windowStart; // day mapped to bit 0
+    private final int windowLength;
+
+    private final long[] onLeave;   // approved leave
+    private final long[] worked;    // any shift
+    private final long[][] workedByShift; // [shiftType.ordinal()][employee]
+
+    public AvailabilityCalendar(YearMonth yearMonth, int employeeCount) {
+        this.windowStart = yearMonth.atDay(1).minusDays(1);
+        this.windowLength = yearMonth.lengthOfMonth() + 2;
+        this.onLeave = new long[employeeCount];
+        this.worked = new long[employeeCount];
+        this.workedByShift = new long[SHIFT_TYPES.length][employeeCount];
+    }
+
+    // Bit index of a date, or -1 when it falls outside the tracked window
+    public int dayIndex(LocalDate date) {
+        long index = date.toEpochDay() - windowStart.toEpochDay();
+        return index < 0 || index >= windowLength ? -1 : (int) index;
+    }
+
+    public void markLeave(int employee, LocalDate from, LocalDate to) {
+        long first = Math.max(0, from.toEpochDay() - windowStart.toEpochDay());
+        long last = Math.min(windowLength - 1, to.toEpochDay() - windowStart.toEpochDay());
+        if (first > last) return;
+        onLeave[employee] |= rangeMask((int) first, (int) last);
+    }
+
+    public void markWorked(int employee, ShiftType shiftType, LocalDate date) {
+        int day = dayIndex(date);
+        if (day < 0) return;
+        long bit = 1L << day;
+        worked[employee] |= bit;
+        workedByShift[shiftType.ordinal()][employee] |= bit;
+    }
+
+    public boolean isOnLeave(int employee, int day) {
+        return day >= 0 && (onLeave[employee] >>> day & 1L) != 0;
+    }
+
+    public boolean hasWorked(int employee, int day) {
+        return day >= 0 && (worked[employee] >>> day & 1L) != 0;
+    }
+
+    public boolean hasWorkedShift(int employee, ShiftType shiftType, int day) {
+        return day >= 0 && (workedByShift[shiftType.ordinal()][employee] >>> day & 1L) != 0;
+    }
+
+    // Worked some shift other than the given one on that day
+    public boolean hasWorkedOtherThan(int employee, ShiftType shiftType, int day) {
+        if (day < 0) return false;
+        long other = 0L;
+        for (ShiftType type : SHIFT_TYPES) {
+            if (type != shiftType) other |= workedByShift[type.ordinal()][employee];
+        }
+        return (other >>> day & 1L) != 0;
+    }
+
+    /**
+     * The strict availability test used for every first-choice pick: not on leave today, no shift
+     * today and no shift yesterday. {@code day} must be at least 1 (i.e. a day of the month).
+     */
+    public boolean isUnavailable(int employee, int day) {
+        long w = worked[employee];
+        return (((onLeave[employee] | w) >>> day | w >>> (day - 1)) & 1L) != 0;
+    }
+
+    private static long rangeMask(int first, int last) {
+        long upTo = last == 63 ? -1L : (1L << (last + 1)) - 1;
+        return upTo & (-1L << first);
+    }
+}
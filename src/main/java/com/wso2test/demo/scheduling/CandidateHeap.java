@@ -0,0 +1,115 @@
+package com.wso2test.demo.scheduling;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Indexed binary min-heap of employee ordinals (positions in {@link SchedulingContext#getEmployees()}), ordered by
+ * a caller-supplied comparison over ordinals, e.g. (shifts this month, carried shifts, ordinal). The position of
+ * every ordinal is tracked, so an employee whose key changed after an assignment is re-sifted in O(log n) instead
+ * of re-sorting the roster.
+ *
+ * <p>{@link #take} removes the best ordinal a filter accepts and sets aside the rejected ones; {@link #restore}
+ * puts the taken and rejected ordinals back. Picking one team is a few takes followed by one restore.
+ */
+final class CandidateHeap {
+
+    @FunctionalInterface
+    interface Order {
+        int compare(int a, int b);
+    }
+
+    private final Order order;
+    private final int[] heap;
+    private final int[] positions; // heap index per ordinal, -1 when absent
+    private int size;
+
+    private final int[] setAside;
+    private int setAsideSize;
+
+    CandidateHeap(int employeeCount, Order order) {
+        this.order = order;
+        this.heap = new int[employeeCount];
+        this.positions = new int[employeeCount];
+        this.setAside = new int[employeeCount];
+        Arrays.fill(positions, -1);
+    }
+
+    int size() { return size; }
+
+    boolean contains(int ordinal) { return positions[ordinal] >= 0; }
+
+    void add(int ordinal) {
+        if (contains(ordinal)) return;
+        heap[size] = ordinal;
+        positions[ordinal] = size;
+        siftUp(size++);
+    }
+
+    void remove(int ordinal) {
+        int index = positions[ordinal];
+        if (index < 0) return;
+        positions[ordinal] = -1;
+        int last = heap[--size];
+        if (index == size) return;
+        heap[index] = last;
+        positions[last] = index;
+        siftDown(index);
+        siftUp(positions[last]);
+    }
+
+    // The ordinal's key changed
+    void update(int ordinal) {
+        int index = positions[ordinal];
+        if (index < 0) return;
+        siftDown(index);
+        siftUp(positions[ordinal]);
+    }
+
+    // Removes and returns the smallest ordinal the filter accepts, or -1; everything popped on the way is set aside
+    int take(IntPredicate filter) {
+        while (size > 0) {
+            int ordinal = heap[0];
+            remove(ordinal);
+            setAside[setAsideSize++] = ordinal;
+            if (filter.test(ordinal)) return ordinal;
+        }
+        return -1;
+    }
+
+    // Puts back every ordinal taken or rejected since the last restore, under its current key
+    void restore() {
+        for (int i = 0; i < setAsideSize; i++) add(setAside[i]);
+        setAsideSize = 0;
+    }
+
+    private void siftUp(int index) {
+        int ordinal = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(ordinal, heap[parent]) >= 0) break;
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(ordinal, index);
+    }
+
+    private void siftDown(int index) {
+        int ordinal = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && order.compare(heap[right], heap[child]) < 0) child = right;
+            if (order.compare(ordinal, heap[child]) <= 0) break;
+            place(heap[child], index);
+            index = child;
+        }
+        place(ordinal, index);
+    }
+
+    private void place(int ordinal, int index) {
+        heap[index] = ordinal;
+        positions[ordinal] = index;
+    }
+}
@@ -0,0 +1,319 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * The original single-pass planner: walks the month day by day and fills system monitoring, COB and SUPPORT
+ * from the least-loaded available people. SUPPORT falls back to allowing consecutive days (Attempt 2) when no
+ * complete team can be formed otherwise.
+ *
+ * <p>Teams come from the division's {@link StaffingRules}. Candidates are kept in one {@link CandidateHeap} per
+ * shift type and team attribute mask over roster ordinals, re-sorted as assignments change the counts, so filling
+ * a shift pops a few people (skipping those unavailable today) instead of filtering and sorting the whole roster
+ * every day.
+ */
+@Component
+public class GreedyScheduleEngine implements ScheduleEngine {
+
+    public static final String NAME = "greedy";
+
+    private static final Logger logger = LoggerFactory.getLogger(GreedyScheduleEngine.class);
+
+    private final SchedulerMetrics metrics;
+
+    public GreedyScheduleEngine(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void plan(SchedulingContext context) {
+        Candidates candidates = new Candidates(context);
+        AvailabilityCalendar calendar = context.getCalendar();
+        for (LocalDate date = context.getStartDate(); !date.isAfter(context.getEndDate()); date = date.plusDays(1)) {
+            final LocalDate currentDate = date;
+            boolean isSaturday = currentDate.getDayOfWeek() == DayOfWeek.SATURDAY;
+            // Strict availability (for COB/SysMon; for Support this is "Attempt 1"): not on leave, no shift today or yesterday
+            final int day = calendar.dayIndex(currentDate);
+            IntPredicate available = i -> !calendar.isUnavailable(i, day);
+
+            // --- SYSTEM MONITOR Shift Assignment ---
+            // (System monitors might work on holidays/Sundays depending on rules)
+            long phaseStarted = System.nanoTime();
+            for (int ordinal : pickTeam(candidates.systemMonitors, context.teamFor(ShiftType.SYSTEM_MONITOR, currentDate), available)) {
+                assign(context, candidates, currentDate, ShiftType.SYSTEM_MONITOR, ordinal);
+            }
+            metrics.recordPhase(SchedulerMetrics.PHASE_SYSTEM_MONITOR, phaseStarted);
+
+            if (!context.isNonWorkDayForCobSupport(currentDate)) {
+                // --- COB Shift Assignment ---
+                // Saturdays rotate by last Saturday COB first, weekdays go by COB load
+                phaseStarted = System.nanoTime();
+                StaffingRules.Team cobTeam = context.teamFor(ShiftType.COB, currentDate);
+                List<Integer> selectedCobEmployees = pickTeam(isSaturday ? candidates.saturdayCob : candidates.cob, cobTeam, available);
+                if (selectedCobEmployees.size() < cobTeam.size()) {
+                    logger.warn("COB TEAM UNDERSTAFFED for {} on {}", isSaturday ? "Saturday COB" : "Weekday COB", currentDate);
+                    context.cobUnderstaffed();
+                }
+                for (int ordinal : selectedCobEmployees) {
+                    assign(context, candidates, currentDate, ShiftType.COB, ordinal); // also plans the rest day after COB
+                }
+                metrics.recordPhase(SchedulerMetrics.PHASE_COB, phaseStarted);
+
+                // --- SUPPORT Shift Assignment ---
+                List<Integer> selectedSupportTeam = pickEmployeesForSupportShift(context, candidates, available, currentDate);
+                for (int ordinal : selectedSupportTeam) {
+                    assign(context, candidates, currentDate, ShiftType.SUPPORT, ordinal);
+                }
+            }
+            context.dayPlanned(currentDate);
+        }
+        logMonthlyShiftCounts(context);
+    }
+
+    private void assign(SchedulingContext context, Candidates candidates, LocalDate date, ShiftType shiftType, int ordinal) {
+        context.assign(date, shiftType, context.getEmployees().get(ordinal));
+        candidates.assigned(shiftType, ordinal);
+    }
+
+    // Walks the team's picks (first choice of every slot, then the fallbacks of the slots still open); at most one
+    // person per slot, so the team is full exactly when it has team.size() people. With the default COB team:
+    // 1 senior support, 1 junior support unless excluded, 1 COB performer, else a second senior support
+    private List<Integer> pickTeam(Pool pool, StaffingRules.Team team, IntPredicate available) {
+        List<Integer> selected = new ArrayList<>(team.size());
+        boolean[] filled = new boolean[team.size()];
+        IntPredicate free = i -> available.test(i) && team.admits(pool.attributes(i)) && !selected.contains(i);
+        int[] picks = team.getPicks();
+        int[] pickSlots = team.getPickSlots();
+        for (int p = 0; p < picks.length && selected.size() < team.size(); p++) {
+            if (filled[pickSlots[p]]) continue;
+            int ordinal = pool.heap(picks[p]).take(free);
+            if (ordinal >= 0) {
+                selected.add(ordinal);
+                filled[pickSlots[p]] = true;
+            }
+        }
+        pool.restore();
+        return selected;
+    }
+
+    private List<Integer> pickEmployeesForSupportShift(SchedulingContext context, Candidates candidates, IntPredicate available, LocalDate date) {
+        long attemptStarted = System.nanoTime();
+        StaffingRules.Team team = context.teamFor(ShiftType.SUPPORT, date);
+        logger.debug("SUPPORT Shift - Date {}: Attempting to pick {}.", date, team);
+
+        // --- ATTEMPT 1: Ideal case - pick from those who did NOT work any shift yesterday ---
+        // Least-loaded first from the SUPPORT queues; juniors at the monthly cap are no longer queued
+        List<Integer> selectedTeam = pickTeam(candidates.support, team, available);
+        metrics.recordPhase(SchedulerMetrics.PHASE_SUPPORT_ATTEMPT_1, attemptStarted);
+
+        if (selectedTeam.size() == team.size()) {
+            logger.debug("SUPPORT Shift - Date {}: Attempt 1 SUCCEEDED. Team: {}", date, namesOf(context, selectedTeam));
+            return selectedTeam;
+        }
+        attemptStarted = System.nanoTime();
+        context.supportFallback();
+
+        // --- ATTEMPT 2: Fallback - allow consecutive SUPPORT work if necessary ---
+        // If Attempt 1 failed, get a new pool of candidates, this time allowing those who worked SUPPORT yesterday.
+        logger.warn("SUPPORT Shift - Date {}: Attempt 1 FAILED to form complete team (Had {} members). Proceeding to Attempt 2 (allowing consecutive Support work).", date, selectedTeam.size());
+
+        // Active support employees, not on leave today, not assigned another shift (COB/SysMon) today.
+        // This time, the 'hasWorkedOnPreviousDay' constraint is effectively lifted for Support.
+        // A rare path, so it scans the support roster instead of keeping queues for it.
+        AvailabilityCalendar calendar = context.getCalendar();
+        int today = calendar.dayIndex(date);
+        int yesterday = today - 1;
+        List<Integer> preferred = new ArrayList<>(); // didn't work SUPPORT yesterday
+        List<Integer> consecutive = new ArrayList<>();
+        for (int i : candidates.supportOrdinals) {
+            if (calendar.isOnLeave(i, today)) continue;
+            if (calendar.hasWorkedOtherThan(i, ShiftType.SUPPORT, today)) continue; // Not doing COB/SysMon today
+            if (context.isCapped(ShiftType.SUPPORT, i)) continue; // Junior max support shift limit
+            (calendar.hasWorkedShift(i, ShiftType.SUPPORT, yesterday) ? consecutive : preferred).add(i);
+        }
+        // Custom sort: 1. Fewest monthly support shifts, 2. Prefer those who didn't work SUPPORT yesterday (stable sort keeps that order on ties)
+        List<Integer> widerAvailablePool = new ArrayList<>(preferred);
+        widerAvailablePool.addAll(consecutive);
+        widerAvailablePool.sort(Comparator.comparingInt(i -> context.getShiftCount(ShiftType.SUPPORT, i)));
+
+        logger.debug("SUPPORT Shift - Date {}: Attempt 2. Wider pool size (allowing consecutive support): {}", date, widerAvailablePool.size());
+        selectedTeam = tryFormTeam(context, team, widerAvailablePool);
+        metrics.recordPhase(SchedulerMetrics.PHASE_SUPPORT_ATTEMPT_2, attemptStarted);
+
+        if (selectedTeam.size() == team.size()) {
+            logger.info("SUPPORT Shift - Date {}: Attempt 2 SUCCEEDED (consecutive work allowed). Team: {}", date, namesOf(context, selectedTeam));
+            return selectedTeam;
+        }
+
+        // --- FAILURE ---
+        context.supportFailed();
+        logger.error("SUPPORT Shift - Date {}: Attempt 2 FAILED. CRITICAL: Could not form a complete Support team ({}) even allowing consecutive work. No Support shift scheduled. Final attempted team had {} members: {}",
+            date, team, selectedTeam.size(), namesOf(context, selectedTeam));
+        return new ArrayList<>(); // Return empty list, signifying no valid team could be formed
+    }
+
+    // For each pick of a slot still open, the first member of the ordered pool it matches who is not on the team yet
+    private List<Integer> tryFormTeam(SchedulingContext context, StaffingRules.Team team, List<Integer> availablePool) {
+        List<Integer> selected = new ArrayList<>(team.size());
+        boolean[] filled = new boolean[team.size()];
+        int[] picks = team.getPicks();
+        int[] pickSlots = team.getPickSlots();
+        for (int p = 0; p < picks.length && selected.size() < team.size(); p++) {
+            if (filled[pickSlots[p]]) continue;
+            for (int i : availablePool) {
+                int attributes = context.getAttributes(i);
+                if (StaffingRules.matches(attributes, picks[p]) && team.admits(attributes) && !selected.contains(i)) {
+                    selected.add(i);
+                    filled[pickSlots[p]] = true;
+                    break;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private List<String> namesOf(SchedulingContext context, List<Integer> ordinals) {
+        return ordinals.stream().map(i -> context.getEmployees().get(i).getName()).collect(Collectors.toList());
+    }
+
+    /**
+     * Candidate queues of one shift type: one {@link CandidateHeap} per attribute mask of the team, holding the
+     * ordinals that match the mask and are below their monthly cap for the shift type.
+     */
+    private static final class Pool {
+        private final SchedulingContext context;
+        private final ShiftType shiftType;
+        private final int[] masks;
+        private final CandidateHeap[] heaps;
+
+        Pool(SchedulingContext context, ShiftType shiftType, StaffingRules.Team team, CandidateHeap.Order order) {
+            this.context = context;
+            this.shiftType = shiftType;
+            this.masks = team.getMasks();
+            this.heaps = new CandidateHeap[masks.length];
+            int n = context.getEmployees().size();
+            for (int k = 0; k < masks.length; k++) heaps[k] = new CandidateHeap(n, order);
+            for (int i = 0; i < n; i++) {
+                if (context.isCapped(shiftType, i)) continue;
+                for (int k = 0; k < masks.length; k++) {
+                    if (StaffingRules.matches(context.getAttributes(i), masks[k])) heaps[k].add(i);
+                }
+            }
+        }
+
+        CandidateHeap heap(int mask) {
+            for (int k = 0; k < masks.length; k++) if (masks[k] == mask) return heaps[k];
+            throw new IllegalArgumentException("No " + shiftType + " queue for attribute mask " + mask);
+        }
+
+        int attributes(int ordinal) {
+            return context.getAttributes(ordinal);
+        }
+
+        // Re-sorts the employee after an assignment of this shift type; drops them at the cap
+        void assigned(int ordinal) {
+            boolean capped = context.isCapped(shiftType, ordinal);
+            for (CandidateHeap heap : heaps) {
+                if (capped) heap.remove(ordinal);
+                else heap.update(ordinal);
+            }
+        }
+
+        void restore() {
+            for (CandidateHeap heap : heaps) heap.restore();
+        }
+    }
+
+    /**
+     * Per-shift candidate pools over employee ordinals, kept in pick order as assignments change the counts:
+     * by load (shifts this month, then shifts carried from earlier months, then roster order) for system monitoring,
+     * COB and SUPPORT, and by Saturday rotation (last Saturday COB first, then COB load) for Saturday COB.
+     * Employees who reach a monthly cap (COB performers on COB, junior support on SUPPORT) leave the queue.
+     */
+    private static final class Candidates {
+        private final SchedulingContext context;
+        final Pool systemMonitors;
+        final Pool cob;
+        final Pool saturdayCob;
+        final Pool support;
+        final int[] supportOrdinals; // employees the SUPPORT team accepts, in roster order (Attempt 2)
+
+        Candidates(SchedulingContext context) {
+            this.context = context;
+            StaffingRules rules = context.getOptions().getStaffingRules();
+            CandidateHeap.Order cobLoad = byLoad(context, ShiftType.COB);
+            CandidateHeap.Order saturdayRotation = (a, b) -> {
+                int c = lastSaturdayCob(a).compareTo(lastSaturdayCob(b));
+                return c != 0 ? c : cobLoad.compare(a, b);
+            };
+            systemMonitors = new Pool(context, ShiftType.SYSTEM_MONITOR, rules.team(ShiftType.SYSTEM_MONITOR), byLoad(context, ShiftType.SYSTEM_MONITOR));
+            cob = new Pool(context, ShiftType.COB, rules.team(ShiftType.COB), cobLoad);
+            saturdayCob = new Pool(context, ShiftType.COB, rules.team(ShiftType.COB), saturdayRotation);
+            support = new Pool(context, ShiftType.SUPPORT, rules.team(ShiftType.SUPPORT), byLoad(context, ShiftType.SUPPORT));
+
+            StaffingRules.Team supportTeam = rules.team(ShiftType.SUPPORT);
+            int n = context.getEmployees().size();
+            int[] accepted = new int[n];
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                if (supportTeam.accepts(context.getAttributes(i))) accepted[count++] = i;
+            }
+            supportOrdinals = Arrays.copyOf(accepted, count);
+        }
+
+        void assigned(ShiftType shiftType, int ordinal) {
+            switch (shiftType) {
+                case SYSTEM_MONITOR:
+                    systemMonitors.assigned(ordinal);
+                    break;
+                case COB:
+                    cob.assigned(ordinal);
+                    saturdayCob.assigned(ordinal);
+                    break;
+                case SUPPORT:
+                    support.assigned(ordinal);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private LocalDate lastSaturdayCob(int ordinal) {
+            LocalDate date = context.getLastSaturdayCob(ordinal);
+            return date != null ? date : LocalDate.MIN;
+        }
+
+        private static CandidateHeap.Order byLoad(SchedulingContext context, ShiftType shiftType) {
+            return (a, b) -> {
+                int c = Integer.compare(context.getShiftCount(shiftType, a), context.getShiftCount(shiftType, b));
+                if (c != 0) return c;
+                c = Integer.compare(context.getCarriedShiftCount(shiftType, a), context.getCarriedShiftCount(shiftType, b));
+                return c != 0 ? c : Integer.compare(a, b);
+            };
+        }
+    }
+
+    // Per-employee totals of the month; one line per employee and shift type, so only at debug level
+    private void logMonthlyShiftCounts(SchedulingContext context) {
+        if (!logger.isDebugEnabled()) return;
+        for (ShiftType shiftType : ShiftType.values()) {
+            logger.debug("--- Monthly {} Shift Counts ---", shiftType);
+            context.getShiftCounts(shiftType).forEach((empId, count) -> Optional.ofNullable(context.getEmployee(empId)).ifPresent(emp ->
+                logger.debug("Employee {} (ID: {}, Type: {}, Level: {}): {} {} shifts", emp.getName(), empId, emp.getType(), emp.getLevel(), count, shiftType)));
+        }
+    }
+}
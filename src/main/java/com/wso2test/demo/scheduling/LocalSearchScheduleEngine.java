@@ -0,0 +1,384 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.model.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Plans the month with simulated annealing instead of a single greedy pass, so a day the greedy picker leaves
+ * understaffed can still be covered by moving people around on neighbouring days.
+ *
+ * <p>Every day is broken into the slots of the division's {@link StaffingRules} teams (by default 1 system monitor;
+ * COB: senior support, junior support unless excluded, COB performer or senior; SUPPORT: 1 senior + 2 juniors on
+ * working days). Slot attributes, leave, one shift per day,
+ * no consecutive days and the monthly caps are hard constraints; the cost ranks incomplete days first, then
+ * empty slots, then the spread of COB/SUPPORT/SYSTEM_MONITOR counts (sum of squares, including counts carried
+ * from earlier months). Several seeds run in parallel on {@code scheduleSearchExecutor} until the wall-clock
+ * budget runs out and the cheapest solution is applied to the context. A SUPPORT team that is still incomplete
+ * is dropped, as in the greedy engine.
+ */
+@Component
+public class LocalSearchScheduleEngine implements ScheduleEngine {
+
+    public static final String NAME = "local-search";
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalSearchScheduleEngine.class);
+
+    // Cost weights: a day without its full team outweighs any number of empty slots, which outweigh any fairness gain
+    private static final long W_DAY = 1_000_000L;
+    private static final long W_SLOT = 10_000L;
+
+    private static final double START_TEMPERATURE = W_DAY / 2.0;
+    private static final double END_TEMPERATURE = 0.5;
+    private static final double VACATE_PROBABILITY = 0.05;
+
+    private static final ShiftType[] SHIFT_TYPES = ShiftType.values();
+
+    private final TaskExecutor searchExecutor;
+    private final long timeBudgetMillis;
+    private final int seeds;
+
+    public LocalSearchScheduleEngine(@Qualifier("scheduleSearchExecutor") TaskExecutor searchExecutor,
+                                     @Value("${scheduler.engine.local-search.time-budget-ms:2000}") long timeBudgetMillis,
+                                     @Value("${scheduler.engine.local-search.threads:0}") int threads) {
+        this.searchExecutor = searchExecutor;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.seeds = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void plan(SchedulingContext context) {
+        Problem problem = new Problem(context);
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+
+        List<CompletableFuture<Search>> runs = new ArrayList<>(seeds);
+        for (int i = 0; i < seeds; i++) {
+            long seed = context.getYearMonth().hashCode() * 31L + i;
+            runs.add(CompletableFuture.supplyAsync(() -> new Search(problem, seed).run(deadline), searchExecutor));
+        }
+        Search best = null;
+        for (CompletableFuture<Search> run : runs) {
+            Search search = run.join();
+            if (best == null || search.bestCost < best.bestCost) best = search;
+        }
+        logger.info("Local search for {}: {} seeds, best cost {} ({} incomplete day/shift groups)",
+            context.getYearMonth(), seeds, best.bestCost, best.bestCost / W_DAY);
+        apply(context, problem, best.best);
+    }
+
+    // Replays the solution through the context in day order (SYSTEM_MONITOR, COB, SUPPORT) so counts, rest days and the plan stay in step
+    private void apply(SchedulingContext context, Problem problem, int[] solution) {
+        List<Employee> employees = context.getEmployees();
+        LocalDate day = null;
+        for (int g = 0; g < problem.groupCount; g++) {
+            int from = problem.groupStart[g];
+            int to = from + problem.groupSize[g];
+            LocalDate date = problem.dates[problem.slotDay[from]];
+            if (day != null && !day.equals(date)) context.dayPlanned(day);
+            day = date;
+            ShiftType shiftType = SHIFT_TYPES[problem.slotShift[from]];
+            int filled = 0;
+            for (int s = from; s < to; s++) if (solution[s] >= 0) filled++;
+            if (filled < problem.groupSize[g]) {
+                if (shiftType == ShiftType.SUPPORT) {
+                    logger.error("SUPPORT Shift - Date {}: no complete Support team ({}) found. No Support shift scheduled.", date, context.teamFor(ShiftType.SUPPORT, date));
+                    context.supportFailed();
+                    continue;
+                }
+                logger.warn("{} UNDERSTAFFED on {} ({} of {})", shiftType, date, filled, problem.groupSize[g]);
+                if (shiftType == ShiftType.COB) context.cobUnderstaffed();
+            }
+            for (int s = from; s < to; s++) {
+                if (solution[s] >= 0) context.assign(date, shiftType, employees.get(solution[s]));
+            }
+        }
+        if (day != null) context.dayPlanned(day);
+    }
+
+    // Immutable view of the month shared by all seeds
+    static final class Problem {
+        final int employeeCount;
+        final LocalDate[] dates;
+        final boolean[] saturday;
+
+        // Slots are laid out day by day, grouped per (day, shift type)
+        final int[] slotDay;
+        final int[] slotShift;
+        final int[] slotGroup;
+        final int[][] slotCandidates; // ordinals a slot accepts that are not on leave that day
+        final int groupCount;
+        final int[] groupStart;
+        final int[] groupSize;
+
+        final long[] fixedBusy;   // calendar-indexed days already worked before planning (the previous day)
+        final int[][] caps;       // [shift][employee]
+        final int[][] carried;    // [shift][employee]
+
+        Problem(SchedulingContext context) {
+            AvailabilityCalendar calendar = context.getCalendar();
+            employeeCount = context.getEmployees().size();
+            int days = context.getYearMonth().lengthOfMonth();
+            dates = new LocalDate[days];
+            saturday = new boolean[days];
+
+            List<int[]> slots = new ArrayList<>(); // {day, shift, slot of the team}
+            List<StaffingRules.Team> slotTeams = new ArrayList<>();
+            List<Integer> starts = new ArrayList<>();
+            List<Integer> sizes = new ArrayList<>();
+            for (int d = 0; d < days; d++) {
+                LocalDate date = context.getStartDate().plusDays(d);
+                dates[d] = date;
+                saturday[d] = date.getDayOfWeek() == DayOfWeek.SATURDAY;
+                addGroup(slots, slotTeams, starts, sizes, d, ShiftType.SYSTEM_MONITOR, context.teamFor(ShiftType.SYSTEM_MONITOR, date));
+                if (context.isNonWorkDayForCobSupport(date)) continue;
+                addGroup(slots, slotTeams, starts, sizes, d, ShiftType.COB, context.teamFor(ShiftType.COB, date));
+                addGroup(slots, slotTeams, starts, sizes, d, ShiftType.SUPPORT, context.teamFor(ShiftType.SUPPORT, date));
+            }
+
+            int slotCount = slots.size();
+            slotDay = new int[slotCount];
+            slotShift = new int[slotCount];
+            slotGroup = new int[slotCount];
+            slotCandidates = new int[slotCount][];
+            groupCount = starts.size();
+            groupStart = new int[groupCount];
+            groupSize = new int[groupCount];
+            for (int g = 0; g < groupCount; g++) {
+                groupStart[g] = starts.get(g);
+                groupSize[g] = sizes.get(g);
+                for (int s = groupStart[g]; s < groupStart[g] + groupSize[g]; s++) slotGroup[s] = g;
+            }
+            for (int s = 0; s < slotCount; s++) {
+                int[] slot = slots.get(s);
+                slotDay[s] = slot[0];
+                slotShift[s] = slot[1];
+                StaffingRules.Team team = slotTeams.get(s);
+                int day = slot[0] + 1; // calendar index
+                List<Integer> candidates = new ArrayList<>();
+                for (int e = 0; e < employeeCount; e++) {
+                    if (team.slotAccepts(slot[2], context.getAttributes(e)) && !calendar.isOnLeave(e, day)) candidates.add(e);
+                }
+                slotCandidates[s] = candidates.stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            fixedBusy = new long[employeeCount];
+            caps = new int[SHIFT_TYPES.length][employeeCount];
+            carried = new int[SHIFT_TYPES.length][employeeCount];
+            for (int e = 0; e < employeeCount; e++) {
+                if (calendar.hasWorked(e, 0)) fixedBusy[e] = 1L;
+                for (ShiftType shiftType : SHIFT_TYPES) {
+                    caps[shiftType.ordinal()][e] = context.getCap(shiftType, e);
+                    carried[shiftType.ordinal()][e] = context.getCarriedShiftCount(shiftType, e);
+                }
+            }
+        }
+
+        // A team without slots (e.g. a COB team of juniors only on an exclude-juniors date) adds no group
+        private static void addGroup(List<int[]> slots, List<StaffingRules.Team> slotTeams, List<Integer> starts, List<Integer> sizes,
+                                     int day, ShiftType shiftType, StaffingRules.Team team) {
+            if (team.size() == 0) return;
+            starts.add(slots.size());
+            sizes.add(team.size());
+            for (int k = 0; k < team.size(); k++) {
+                slots.add(new int[]{day, shiftType.ordinal(), k});
+                slotTeams.add(team);
+            }
+        }
+
+        int slotCount() {
+            return slotDay.length;
+        }
+    }
+
+    // One annealing run; not thread-safe, each seed gets its own
+    static final class Search {
+        private final Problem problem;
+        private final Random random;
+
+        private final int[] occupant;       // slot -> employee ordinal or -1
+        private final long[] busy;          // employee -> worked days (calendar index)
+        private final int[][] slotOn;       // [employee][calendar day] -> slot or -1
+        private final int[][] counts;       // [shift][employee]
+        private final int[] saturdayCob;    // employee -> Saturday COB shifts this month
+        private final int[] filled;         // group -> occupied slots
+        private long cost;
+
+        int[] best;
+        long bestCost;
+
+        // Undo log for the move being evaluated: {slot, previous occupant}
+        private final int[] undoSlot = new int[4];
+        private final int[] undoOccupant = new int[4];
+        private int undoSize;
+
+        Search(Problem problem, long seed) {
+            this.problem = problem;
+            this.random = new Random(seed);
+            int slots = problem.slotCount();
+            occupant = new int[slots];
+            Arrays.fill(occupant, -1);
+            busy = problem.fixedBusy.clone();
+            slotOn = new int[problem.employeeCount][problem.dates.length + 2];
+            for (int[] row : slotOn) Arrays.fill(row, -1);
+            counts = new int[SHIFT_TYPES.length][problem.employeeCount];
+            saturdayCob = new int[problem.employeeCount];
+            filled = new int[problem.groupCount];
+
+            for (int g = 0; g < problem.groupCount; g++) cost += W_DAY + problem.groupSize[g] * W_SLOT;
+            for (int[] byEmployee : problem.carried) for (int c : byEmployee) cost += (long) c * c;
+        }
+
+        Search run(long deadline) {
+            construct();
+            best = occupant.clone();
+            bestCost = cost;
+
+            long start = System.nanoTime();
+            double span = Math.max(1, deadline - start);
+            double temperature = START_TEMPERATURE;
+            int slots = problem.slotCount();
+            for (long iteration = 0; slots > 0; iteration++) {
+                if ((iteration & 1023) == 0) {
+                    long now = System.nanoTime();
+                    if (now >= deadline) break;
+                    temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, (now - start) / span);
+                }
+                long delta = tryMove(random.nextInt(slots));
+                if (undoSize == 0) continue; // nothing feasible to try
+                if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    cost += delta;
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        System.arraycopy(occupant, 0, best, 0, slots);
+                    }
+                } else {
+                    undo();
+                }
+            }
+            return this;
+        }
+
+        // Fill slots in day order with the least-loaded feasible candidate, ties broken at random
+        private void construct() {
+            for (int s = 0; s < problem.slotCount(); s++) {
+                int shift = problem.slotShift[s];
+                int chosen = -1;
+                int chosenLoad = Integer.MAX_VALUE;
+                int ties = 0;
+                for (int e : problem.slotCandidates[s]) {
+                    if (!isFree(e, s) || counts[shift][e] >= problem.caps[shift][e]) continue;
+                    int load = counts[shift][e] + problem.carried[shift][e];
+                    if (load < chosenLoad) {
+                        chosen = e;
+                        chosenLoad = load;
+                        ties = 1;
+                    } else if (load == chosenLoad && random.nextInt(++ties) == 0) {
+                        chosen = e;
+                    }
+                }
+                if (chosen >= 0) cost += set(s, chosen);
+            }
+        }
+
+        /**
+         * Applies a random move and returns its cost delta; the move can be reverted with {@link #undo()}.
+         * Moves: vacate a slot, put another candidate in it, or put a candidate in it after removing them
+         * from the slots on the same and neighbouring days that block them.
+         */
+        private long tryMove(int slot) {
+            undoSize = 0;
+            if (occupant[slot] >= 0 && random.nextDouble() < VACATE_PROBABILITY) {
+                return change(slot, -1);
+            }
+            int[] candidates = problem.slotCandidates[slot];
+            if (candidates.length == 0) return 0;
+            int e = candidates[random.nextInt(candidates.length)];
+            if (e == occupant[slot]) return 0;
+            int shift = problem.slotShift[slot];
+            int day = problem.slotDay[slot] + 1;
+            long window = 7L << (day - 1);
+            if ((problem.fixedBusy[e] & window) != 0) return 0; // blocked by the previous month
+            long delta = 0;
+            if ((busy[e] & window) != 0) {
+                for (int k = day - 1; k <= day + 1; k++) {
+                    int blocking = slotOn[e][k];
+                    if (blocking >= 0) delta += change(blocking, -1);
+                }
+            }
+            if (counts[shift][e] >= problem.caps[shift][e]) {
+                undo();
+                return 0;
+            }
+            return delta + change(slot, e);
+        }
+
+        private long change(int slot, int employee) {
+            undoSlot[undoSize] = slot;
+            undoOccupant[undoSize] = occupant[slot];
+            undoSize++;
+            return set(slot, employee);
+        }
+
+        private void undo() {
+            while (undoSize > 0) {
+                undoSize--;
+                set(undoSlot[undoSize], undoOccupant[undoSize]);
+            }
+        }
+
+        private boolean isFree(int e, int slot) {
+            int day = problem.slotDay[slot] + 1;
+            return (busy[e] & (7L << (day - 1))) == 0;
+        }
+
+        // Moves the slot to a new occupant (or -1) and returns the cost delta
+        private long set(int slot, int employee) {
+            int previous = occupant[slot];
+            if (previous == employee) return 0;
+            int shift = problem.slotShift[slot];
+            int group = problem.slotGroup[slot];
+            int dayIndex = problem.slotDay[slot];
+            int day = dayIndex + 1;
+            boolean saturdayCobSlot = shift == ShiftType.COB.ordinal() && problem.saturday[dayIndex];
+            long delta = 0;
+            int before = filled[group];
+
+            if (previous >= 0) {
+                busy[previous] &= ~(1L << day);
+                slotOn[previous][day] = -1;
+                int c = --counts[shift][previous] + problem.carried[shift][previous];
+                delta -= 2L * c + 1;
+                if (saturdayCobSlot) delta -= 2L * --saturdayCob[previous] + 1;
+                filled[group]--;
+            }
+            if (employee >= 0) {
+                busy[employee] |= 1L << day;
+                slotOn[employee][day] = slot;
+                int c = counts[shift][employee]++ + problem.carried[shift][employee];
+                delta += 2L * c + 1;
+                if (saturdayCobSlot) delta += 2L * saturdayCob[employee]++ + 1;
+                filled[group]++;
+            }
+            occupant[slot] = employee;
+
+            int size = problem.groupSize[group];
+            delta += (before - filled[group]) * W_SLOT;
+            delta += ((filled[group] < size ? W_DAY : 0) - (before < size ? W_DAY : 0));
+            return delta;
+        }
+    }
+}
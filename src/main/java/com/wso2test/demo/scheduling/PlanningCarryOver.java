@@ -0,0 +1,45 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.dto.ShiftAssignment;
+import com.wso2test.demo.model.ShiftType;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * State handed from one planned month to the next when several months are planned back-to-back
+ * before any of them is persisted: the last day's shifts (for the no-consecutive-days rule), rest
+ * leaves that fall into the next month, the Saturday COB rotation and the running shift counts.
+ * The first month of a run starts from the persisted equivalent, read from the fairness ledger.
+ */
+@Getter
+public final class PlanningCarryOver {
+
+    private final YearMonth month; // the month this state was produced by
+    private final List<ShiftAssignment> lastDayAssignments;
+    private final List<EmployeeLeavePeriod> spilledLeaves;
+    private final Map<Long, LocalDate> lastSaturdayCobAssignment;
+    private final Map<ShiftType, Map<Long, Integer>> cumulativeShiftCounts;
+
+    public PlanningCarryOver(YearMonth month,
+                             List<ShiftAssignment> lastDayAssignments,
+                             List<EmployeeLeavePeriod> spilledLeaves,
+                             Map<Long, LocalDate> lastSaturdayCobAssignment,
+                             Map<ShiftType, Map<Long, Integer>> cumulativeShiftCounts) {
+        this.month = month;
+        this.lastDayAssignments = Collections.unmodifiableList(new ArrayList<>(lastDayAssignments));
+        this.spilledLeaves = Collections.unmodifiableList(new ArrayList<>(spilledLeaves));
+        this.lastSaturdayCobAssignment = Collections.unmodifiableMap(new HashMap<>(lastSaturdayCobAssignment));
+        EnumMap<ShiftType, Map<Long, Integer>> counts = new EnumMap<>(ShiftType.class);
+        cumulativeShiftCounts.forEach((shiftType, byEmployee) -> counts.put(shiftType, Collections.unmodifiableMap(new HashMap<>(byEmployee))));
+        this.cumulativeShiftCounts = Collections.unmodifiableMap(counts);
+    }
+
+    public int getShiftCount(ShiftType shiftType, Long employeeId) {
+        Map<Long, Integer> byEmployee = cumulativeShiftCounts.get(shiftType);
+        return byEmployee == null ? 0 : byEmployee.getOrDefault(employeeId, 0);
+    }
+}
@@ -0,0 +1,64 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.dto.ShiftAssignment;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.Holiday;
+import lombok.Getter;
+
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * What the database contributes to planning one division's month: the active roster, the approved leaves and
+ * holidays touching the month, the previous day's shifts and the carry-over of the month before. Immutable, so
+ * several {@link SchedulingContext}s can be built from one load, e.g. the variants of a what-if simulation.
+ */
+@Getter
+public final class PlanningInputs {
+
+    private final YearMonth yearMonth;
+    private final List<Employee> employees;
+    private final List<EmployeeLeavePeriod> leaves;
+    private final List<Holiday> holidays;
+    private final List<ShiftAssignment> previousAssignments;
+    private final PlanningCarryOver carryOver;
+
+    public PlanningInputs(YearMonth yearMonth,
+                          List<Employee> employees,
+                          List<EmployeeLeavePeriod> leaves,
+                          List<Holiday> holidays,
+                          List<ShiftAssignment> previousAssignments,
+                          PlanningCarryOver carryOver) {
+        this.yearMonth = yearMonth;
+        this.employees = Collections.unmodifiableList(new ArrayList<>(employees));
+        this.leaves = Collections.unmodifiableList(new ArrayList<>(leaves));
+        this.holidays = Collections.unmodifiableList(new ArrayList<>(holidays));
+        this.previousAssignments = Collections.unmodifiableList(new ArrayList<>(previousAssignments));
+        this.carryOver = carryOver;
+    }
+
+    // A fresh context to plan in; the inputs themselves are not changed by planning
+    public SchedulingContext newContext(PlanningOptions options) {
+        return new SchedulingContext(yearMonth, employees, leaves, holidays, previousAssignments, carryOver, options);
+    }
+
+    // The same month without these employees (their leaves and earlier shifts no longer matter)
+    public PlanningInputs withoutEmployees(Collection<Long> employeeIds) {
+        if (employeeIds == null || employeeIds.isEmpty()) return this;
+        Set<Long> removed = new HashSet<>(employeeIds);
+        List<Employee> remaining = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            if (!removed.contains(employee.getId())) remaining.add(employee);
+        }
+        return new PlanningInputs(yearMonth, remaining, leaves, holidays, previousAssignments, carryOver);
+    }
+
+    // The same month with additional approved leaves
+    public PlanningInputs withLeaves(Collection<EmployeeLeavePeriod> additionalLeaves) {
+        if (additionalLeaves == null || additionalLeaves.isEmpty()) return this;
+        List<EmployeeLeavePeriod> all = new ArrayList<>(leaves);
+        all.addAll(additionalLeaves);
+        return new PlanningInputs(yearMonth, employees, all, holidays, previousAssignments, carryOver);
+    }
+}
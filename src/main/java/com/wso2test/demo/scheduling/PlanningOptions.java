@@ -0,0 +1,112 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.model.Division;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Per-run knobs for planning a month: the division being planned and its compiled staffing rules, the dates on which juniors are
+ * kept off COB, the engine to plan with, overrides of the monthly shift caps and an optional listener told as each day of the month
+ * is decided.
+ */
+@Getter
+public final class PlanningOptions {
+
+    private final String division;
+    private final StaffingRules staffingRules;
+    private final Set<LocalDate> excludeJuniorsFromCobDates;
+    private final String engine; // null = configured default
+    private final Integer maxSupportShiftsPerJunior; // null = from the staffing rules
+    private final Integer maxCobShiftsForCobPerformer;
+    private final Consumer<LocalDate> dayPlannedListener; // progress of asynchronous jobs; called on the planning thread
+
+    private PlanningOptions(Builder builder) {
+        this.division = builder.division;
+        this.staffingRules = builder.staffingRules;
+        this.excludeJuniorsFromCobDates = Collections.unmodifiableSet(new HashSet<>(builder.excludeJuniorsFromCobDates));
+        this.engine = builder.engine;
+        this.maxSupportShiftsPerJunior = builder.maxSupportShiftsPerJunior;
+        this.maxCobShiftsForCobPerformer = builder.maxCobShiftsForCobPerformer;
+        this.dayPlannedListener = builder.dayPlannedListener;
+    }
+
+    public int getMaxSupportShiftsPerJunior() {
+        return maxSupportShiftsPerJunior != null ? maxSupportShiftsPerJunior : staffingRules.getMaxSupportShiftsPerJunior();
+    }
+
+    public int getMaxCobShiftsForCobPerformer() {
+        return maxCobShiftsForCobPerformer != null ? maxCobShiftsForCobPerformer : staffingRules.getMaxCobShiftsForCobPerformer();
+    }
+
+    public static PlanningOptions defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.division = division;
+        builder.staffingRules = staffingRules;
+        builder.excludeJuniorsFromCobDates.addAll(excludeJuniorsFromCobDates);
+        builder.engine = engine;
+        builder.maxSupportShiftsPerJunior = maxSupportShiftsPerJunior;
+        builder.maxCobShiftsForCobPerformer = maxCobShiftsForCobPerformer;
+        builder.dayPlannedListener = dayPlannedListener;
+        return builder;
+    }
+
+    public static class Builder {
+        private String division = Division.DEFAULT;
+        private StaffingRules staffingRules = StaffingRules.DEFAULT;
+        private final Set<LocalDate> excludeJuniorsFromCobDates = new HashSet<>();
+        private String engine;
+        private Integer maxSupportShiftsPerJunior;
+        private Integer maxCobShiftsForCobPerformer;
+        private Consumer<LocalDate> dayPlannedListener = date -> { };
+
+        public Builder division(String division) {
+            this.division = Division.orDefault(division);
+            return this;
+        }
+
+        public Builder staffingRules(StaffingRules staffingRules) {
+            this.staffingRules = staffingRules != null ? staffingRules : StaffingRules.DEFAULT;
+            return this;
+        }
+
+        public Builder excludeJuniorsFromCobDates(Collection<LocalDate> dates) {
+            if (dates != null) excludeJuniorsFromCobDates.addAll(dates);
+            return this;
+        }
+
+        public Builder engine(String engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        public Builder maxSupportShiftsPerJunior(int max) {
+            this.maxSupportShiftsPerJunior = max;
+            return this;
+        }
+
+        public Builder maxCobShiftsForCobPerformer(int max) {
+            this.maxCobShiftsForCobPerformer = max;
+            return this;
+        }
+
+        public Builder onDayPlanned(Consumer<LocalDate> listener) {
+            this.dayPlannedListener = listener != null ? listener : date -> { };
+            return this;
+        }
+
+        public PlanningOptions build() {
+            return new PlanningOptions(this);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.wso2test.demo.scheduling;
+
+/**
+ * Decides who works which shift for every day of a month. Implementations read the roster, leave and
+ * holiday data from the {@link SchedulingContext} and place people through {@link SchedulingContext#assign},
+ * honouring the same rules: one system monitor per day; COB (senior support, junior support unless excluded,
+ * COB performer or another senior) and SUPPORT (1 senior + 2 juniors) only on working days; the monthly caps
+ * in {@link PlanningOptions}; and no shift on consecutive days.
+ */
+public interface ScheduleEngine {
+
+    // Name used to select the engine (e.g. ?engine=greedy)
+    String getName();
+
+    void plan(SchedulingContext context);
+}
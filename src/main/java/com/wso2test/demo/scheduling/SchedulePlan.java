@@ -0,0 +1,110 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.dto.AggregatedScheduleOutput;
+import com.wso2test.demo.model.ShiftType;
+import lombok.Getter;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Result of the planning phase for one division and month: which employees hold which shift on which day, the
+ * rest leaves that follow COB shifts, the problem days the engine reported, and the aggregated view used for
+ * JSON/Excel output. Produced without touching the database; nothing is written until the plan is committed.
+ */
+@Getter
+public final class SchedulePlan {
+
+    private final YearMonth yearMonth;
+    private final String division;
+    private final List<PlannedShift> shifts;
+    private final List<PlannedLeave> restLeaves;
+    private final AggregatedScheduleOutput output;
+    private final PlanningCarryOver carryOver; // seeds the plan of the following month
+    private final Outcome outcome; // null for plans not made by an engine
+
+    private SchedulePlan(YearMonth yearMonth, String division, List<PlannedShift> shifts, List<PlannedLeave> restLeaves,
+                         AggregatedScheduleOutput output, PlanningCarryOver carryOver, Outcome outcome) {
+        this.yearMonth = yearMonth;
+        this.division = division;
+        this.shifts = Collections.unmodifiableList(shifts);
+        this.restLeaves = Collections.unmodifiableList(restLeaves);
+        this.output = output;
+        this.carryOver = carryOver;
+        this.outcome = outcome;
+    }
+
+    @Value
+    public static class PlannedShift {
+        LocalDate date;
+        ShiftType shiftType;
+        List<Long> employeeIds;
+    }
+
+    @Value
+    public static class PlannedLeave {
+        Long employeeId;
+        LocalDate date;
+    }
+
+    // The engine that planned the month and the problem days it reported (published when the plan is committed)
+    @Value
+    public static class Outcome {
+        String engine;
+        int cobUnderstaffedDays;
+        int supportFailedDays;
+        int supportFallbackDays;
+    }
+
+    public static Builder builder(YearMonth yearMonth, String division) {
+        return new Builder(yearMonth, division);
+    }
+
+    public static class Builder {
+        private final YearMonth yearMonth;
+        private final String division;
+        private final Map<LocalDate, EnumMap<ShiftType, List<Long>>> shifts = new TreeMap<>();
+        private final List<PlannedLeave> restLeaves = new ArrayList<>();
+        private Outcome outcome;
+
+        private Builder(YearMonth yearMonth, String division) {
+            this.yearMonth = yearMonth;
+            this.division = division;
+        }
+
+        public Builder assign(LocalDate date, ShiftType shiftType, Long employeeId) {
+            List<Long> ids = shifts.computeIfAbsent(date, d -> new EnumMap<>(ShiftType.class))
+                    .computeIfAbsent(shiftType, s -> new ArrayList<>());
+            if (!ids.contains(employeeId)) ids.add(employeeId);
+            return this;
+        }
+
+        public Builder restLeave(Long employeeId, LocalDate date) {
+            restLeaves.add(new PlannedLeave(employeeId, date));
+            return this;
+        }
+
+        public Builder outcome(Outcome outcome) {
+            this.outcome = outcome;
+            return this;
+        }
+
+        public Map<ShiftType, List<Long>> getAssignmentsOn(LocalDate date) {
+            EnumMap<ShiftType, List<Long>> byShift = shifts.get(date);
+            return byShift == null ? Collections.emptyMap() : Collections.unmodifiableMap(byShift);
+        }
+
+        public List<PlannedLeave> getRestLeaves() {
+            return Collections.unmodifiableList(restLeaves);
+        }
+
+        public SchedulePlan build(AggregatedScheduleOutput output, PlanningCarryOver carryOver) {
+            List<PlannedShift> planned = new ArrayList<>();
+            shifts.forEach((date, byShift) -> byShift.forEach((shiftType, ids) ->
+                    planned.add(new PlannedShift(date, shiftType, Collections.unmodifiableList(new ArrayList<>(ids))))));
+            return new SchedulePlan(yearMonth, division, planned, new ArrayList<>(restLeaves), output, carryOver, outcome);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.wso2test.demo.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the scheduling pipeline, published under /actuator/metrics:
+ * <ul>
+ *   <li>scheduler.generation: one planned-and-persisted month (tags engine, outcome), with percentiles</li>
+ *   <li>scheduler.phase: time per phase call (tag phase: load, system-monitor, cob, support-attempt-1,
+ *       support-attempt-2, persist, render); the pick phases are recorded once per day</li>
+ *   <li>scheduler.cob.understaffed, scheduler.support.failed, scheduler.support.fallback: days, tagged by engine,
+ *       recorded once a month is planned (simulations are not counted)</li>
+ *   <li>scheduler.generation.statements / scheduler.generation.entity.loads: Hibernate statistics consumed by one
+ *       generation (global counters, so concurrent generations inflate each other's numbers)</li>
+ * </ul>
+ */
+@Component
+public class SchedulerMetrics {
+
+    public static final String PHASE_LOAD = "load";
+    public static final String PHASE_SYSTEM_MONITOR = "system-monitor";
+    public static final String PHASE_COB = "cob";
+    public static final String PHASE_SUPPORT_ATTEMPT_1 = "support-attempt-1";
+    public static final String PHASE_SUPPORT_ATTEMPT_2 = "support-attempt-2";
+    public static final String PHASE_PERSIST = "persist";
+    public static final String PHASE_RENDER = "render";
+
+    private final MeterRegistry registry;
+    private final Supplier<Statistics> statistics;
+    // Per-day meters are looked up on the planning hot path; keep them instead of re-registering each call
+    private final Map<String, Timer> phaseTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public SchedulerMetrics(MeterRegistry registry, ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.registry = registry;
+        this.statistics = () -> {
+            EntityManagerFactory factory = entityManagerFactory != null ? entityManagerFactory.getIfAvailable() : null;
+            return factory != null ? factory.unwrap(SessionFactory.class).getStatistics() : null;
+        };
+    }
+
+    // For engines used outside Spring (benchmarks): meters go to a private in-memory registry, no Hibernate statistics
+    public static SchedulerMetrics standalone() {
+        return new SchedulerMetrics(new SimpleMeterRegistry(), null);
+    }
+
+    public Timer phase(String phase) {
+        return phaseTimers.computeIfAbsent(phase, p -> Timer.builder("scheduler.phase").tag("phase", p)
+                .description("Time spent per scheduling phase call")
+                .register(registry));
+    }
+
+    public void recordPhase(String phase, long startedNanos) {
+        phase(phase).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // The problem days of a committed month; previews and simulations are not counted
+    public void recordOutcome(SchedulePlan.Outcome outcome) {
+        String engine = outcome.getEngine();
+        increment("scheduler.cob.understaffed", engine, "Days whose COB team could not be filled", outcome.getCobUnderstaffedDays());
+        increment("scheduler.support.failed", engine, "Working days without a complete SUPPORT team", outcome.getSupportFailedDays());
+        increment("scheduler.support.fallback", engine, "Days on which SUPPORT needed Attempt 2 (consecutive days allowed)", outcome.getSupportFallbackDays());
+    }
+
+    private void increment(String name, String engine, String description, int days) {
+        if (days > 0) counter(name, engine, description).increment(days);
+    }
+
+    // Starts timing one generation; stop() records its latency and the Hibernate work it caused
+    public Generation startGeneration(String engine) {
+        return new Generation(engine, statistics.get());
+    }
+
+    private Counter counter(String name, String engine, String description) {
+        return counters.computeIfAbsent(name + '|' + engine,
+                key -> Counter.builder(name).tag("engine", engine).description(description).register(registry));
+    }
+
+    public final class Generation {
+        private final String engine;
+        private final Statistics stats;
+        private final long started = System.nanoTime();
+        private final long statements;
+        private final long entityLoads;
+
+        private Generation(String engine, Statistics stats) {
+            this.engine = engine;
+            this.stats = stats != null && stats.isStatisticsEnabled() ? stats : null;
+            this.statements = this.stats != null ? this.stats.getPrepareStatementCount() : 0;
+            this.entityLoads = this.stats != null ? this.stats.getEntityLoadCount() : 0;
+        }
+
+        public void stop(boolean succeeded) {
+            Timer.builder("scheduler.generation").tag("engine", engine).tag("outcome", succeeded ? "success" : "failure")
+                    .description("Planning and persisting one month")
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (stats == null) return;
+            DistributionSummary.builder("scheduler.generation.statements").tag("engine", engine)
+                    .description("JDBC statements prepared per generation")
+                    .register(registry)
+                    .record(stats.getPrepareStatementCount() - statements);
+            DistributionSummary.builder("scheduler.generation.entity.loads").tag("engine", engine)
+                    .description("Entities loaded per generation")
+                    .register(registry)
+                    .record(stats.getEntityLoadCount() - entityLoads);
+        }
+    }
+}
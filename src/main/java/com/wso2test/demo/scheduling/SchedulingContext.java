@@ -0,0 +1,285 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.dto.ShiftAssignment;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.Holiday;
+import com.wso2test.demo.model.ShiftType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * In-memory snapshot of everything needed to plan one month: the active roster, the approved leaves
+ * and holidays touching the month, and the assignments of the day before the month starts.
+ * Loaded once up front so that availability, previous-day and shift-type checks during planning
+ * never go back to the database. Assignments made while planning are recorded here as well.
+ * Leave and work history is kept in an {@link AvailabilityCalendar} indexed by each employee's
+ * position in {@link #getEmployees()}.
+ *
+ * <p>The division's {@link StaffingRules} are applied here once: every employee gets an attribute bitmask and a
+ * monthly cap per shift type, so engines match candidates against team slots with plain int operations.
+ *
+ * <p>A {@link ScheduleEngine} plans by calling {@link #assign}; the context keeps the calendar, the monthly
+ * shift counts, the Saturday COB rotation and the resulting {@link SchedulePlan.Builder} in step.
+ */
+public class SchedulingContext {
+
+    private final YearMonth yearMonth;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final PlanningOptions options;
+
+    private final List<Employee> employees;
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final Map<LocalDate, String> holidayRemarks = new HashMap<>();
+
+    // Staffing rules compiled for this roster: attribute bits per ordinal and caps [shiftType.ordinal()][ordinal]
+    private final int[] attributes;
+    private final int[][] caps;
+
+    // Previous month's tail plus everything planned so far
+    private final AvailabilityCalendar calendar;
+
+    // State from the previous month: the planned one within a range, else the persisted history (fairness ledger);
+    // null only for contexts built without either (benchmarks)
+    private final PlanningCarryOver carryOver;
+
+    // Shifts per employee in this month and carried from before it: [shiftType.ordinal()][employee ordinal]
+    private final int[][] shiftCounts;
+    private final int[][] carriedShiftCounts;
+    // Saturday COB rotation by id (also carries employees outside the roster on to the next month) and by ordinal
+    private final Map<Long, LocalDate> lastSaturdayCobAssignment = new HashMap<>();
+    private final LocalDate[] lastSaturdayCob;
+
+    private final SchedulePlan.Builder plan;
+
+    // Problem days of this run, reported by the engine; published as scheduler.* counters for real generations
+    private int cobUnderstaffedDays;
+    private int supportFallbackDays;
+    private int supportFailedDays;
+
+    public SchedulingContext(YearMonth yearMonth,
+                             List<Employee> activeEmployees,
+                             List<EmployeeLeavePeriod> approvedLeaves,
+                             List<Holiday> holidays,
+                             List<ShiftAssignment> previousAssignments) {
+        this(yearMonth, activeEmployees, approvedLeaves, holidays, previousAssignments, null, PlanningOptions.defaults());
+    }
+
+    public SchedulingContext(YearMonth yearMonth,
+                             List<Employee> activeEmployees,
+                             List<EmployeeLeavePeriod> approvedLeaves,
+                             List<Holiday> holidays,
+                             List<ShiftAssignment> previousAssignments,
+                             PlanningCarryOver carryOver,
+                             PlanningOptions options) {
+        this.yearMonth = yearMonth;
+        this.carryOver = carryOver;
+        this.options = options;
+        this.startDate = yearMonth.atDay(1);
+        this.endDate = yearMonth.atEndOfMonth();
+        this.employees = Collections.unmodifiableList(new ArrayList<>(activeEmployees));
+        this.calendar = new AvailabilityCalendar(yearMonth, employees.size());
+        this.plan = SchedulePlan.builder(yearMonth, options.getDivision());
+
+        this.attributes = new int[employees.size()];
+        this.caps = new int[ShiftType.values().length][employees.size()];
+        int maxSupportShiftsPerJunior = options.getMaxSupportShiftsPerJunior();
+        int maxCobShiftsForCobPerformer = options.getMaxCobShiftsForCobPerformer();
+        for (int i = 0; i < employees.size(); i++) {
+            ordinalsById.put(employees.get(i).getId(), i);
+            attributes[i] = StaffingRules.attributesOf(employees.get(i));
+            for (ShiftType shiftType : ShiftType.values()) {
+                caps[shiftType.ordinal()][i] = StaffingRules.cap(shiftType, attributes[i], maxSupportShiftsPerJunior, maxCobShiftsForCobPerformer);
+            }
+        }
+        for (EmployeeLeavePeriod leave : approvedLeaves) {
+            Integer ordinal = ordinalsById.get(leave.getEmployeeId());
+            if (ordinal != null) calendar.markLeave(ordinal, leave.getStartDate(), leave.getEndDate());
+        }
+        for (Holiday holiday : holidays) {
+            if (holiday.getDate() == null || holiday.getName() == null) continue;
+            holidayRemarks.merge(holiday.getDate(), holiday.getName(), (r1, r2) -> r1 + " / " + r2); // Handle duplicate dates if any
+        }
+        for (ShiftAssignment assignment : previousAssignments) {
+            recordAssignment(assignment.getAssignedDate(), assignment.getShiftType(), assignment.getEmployeeId());
+        }
+        this.shiftCounts = new int[ShiftType.values().length][employees.size()];
+        this.carriedShiftCounts = new int[ShiftType.values().length][employees.size()];
+        this.lastSaturdayCob = new LocalDate[employees.size()];
+        if (carryOver != null) {
+            lastSaturdayCobAssignment.putAll(carryOver.getLastSaturdayCobAssignment());
+            for (int i = 0; i < employees.size(); i++) {
+                Long employeeId = employees.get(i).getId();
+                for (ShiftType shiftType : ShiftType.values()) {
+                    carriedShiftCounts[shiftType.ordinal()][i] = carryOver.getShiftCount(shiftType, employeeId);
+                }
+                lastSaturdayCob[i] = lastSaturdayCobAssignment.get(employeeId);
+            }
+        }
+    }
+
+    public YearMonth getYearMonth() { return yearMonth; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public PlanningOptions getOptions() { return options; }
+
+    // Active employees in a stable order (as loaded)
+    public List<Employee> getEmployees() { return employees; }
+
+    public Employee getEmployee(Long employeeId) {
+        Integer ordinal = ordinalsById.get(employeeId);
+        return ordinal == null ? null : employees.get(ordinal);
+    }
+
+    // Dense index of an active employee, or -1 if the employee is not part of this context
+    public int ordinalOf(Long employeeId) {
+        Integer ordinal = ordinalsById.get(employeeId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public AvailabilityCalendar getCalendar() { return calendar; }
+
+    // StaffingRules attribute bits of the employee at the ordinal
+    public int getAttributes(int ordinal) { return attributes[ordinal]; }
+
+    // Monthly cap on the shift type for the employee at the ordinal (Integer.MAX_VALUE = none)
+    public int getCap(ShiftType shiftType, int ordinal) { return caps[shiftType.ordinal()][ordinal]; }
+
+    public boolean isCapped(ShiftType shiftType, int ordinal) {
+        return shiftCounts[shiftType.ordinal()][ordinal] >= caps[shiftType.ordinal()][ordinal];
+    }
+
+    // The team the shift needs on the date (COB without its junior-only slots on exclude-juniors dates)
+    public StaffingRules.Team teamFor(ShiftType shiftType, LocalDate date) {
+        StaffingRules rules = options.getStaffingRules();
+        return shiftType == ShiftType.COB && isJuniorExcludedFromCob(date) ? rules.cobTeamWithoutJuniors() : rules.team(shiftType);
+    }
+
+    public PlanningCarryOver getCarryOver() { return carryOver; }
+
+    // Shifts of this type the employee accumulated before this month: persisted months plus earlier months of the range
+    public int getCarriedShiftCount(ShiftType shiftType, Long employeeId) {
+        int ordinal = ordinalOf(employeeId);
+        if (ordinal >= 0) return carriedShiftCounts[shiftType.ordinal()][ordinal];
+        return carryOver == null ? 0 : carryOver.getShiftCount(shiftType, employeeId);
+    }
+
+    public int getCarriedShiftCount(ShiftType shiftType, int ordinal) {
+        return carriedShiftCounts[shiftType.ordinal()][ordinal];
+    }
+
+    public Map<LocalDate, String> getHolidayRemarks() { return Collections.unmodifiableMap(holidayRemarks); }
+
+    // COB and SUPPORT are not staffed on Sundays and holidays; system monitoring runs every day
+    public boolean isNonWorkDayForCobSupport(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SUNDAY || holidayRemarks.containsKey(date);
+    }
+
+    public boolean isJuniorExcludedFromCob(LocalDate date) {
+        return options.getExcludeJuniorsFromCobDates().contains(date);
+    }
+
+    public int getShiftCount(ShiftType shiftType, Long employeeId) {
+        int ordinal = ordinalOf(employeeId);
+        return ordinal < 0 ? 0 : shiftCounts[shiftType.ordinal()][ordinal];
+    }
+
+    public int getShiftCount(ShiftType shiftType, int ordinal) {
+        return shiftCounts[shiftType.ordinal()][ordinal];
+    }
+
+    // Employees with at least one shift of the type this month, by id (a copy; engines read the counts by ordinal)
+    public Map<Long, Integer> getShiftCounts(ShiftType shiftType) {
+        Map<Long, Integer> counts = new HashMap<>();
+        int[] byOrdinal = shiftCounts[shiftType.ordinal()];
+        for (int i = 0; i < byOrdinal.length; i++) {
+            if (byOrdinal[i] > 0) counts.put(employees.get(i).getId(), byOrdinal[i]);
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    public Map<Long, LocalDate> getLastSaturdayCobAssignment() {
+        return Collections.unmodifiableMap(lastSaturdayCobAssignment);
+    }
+
+    // Last Saturday COB of the employee at the ordinal, null if none is known
+    public LocalDate getLastSaturdayCob(int ordinal) {
+        return lastSaturdayCob[ordinal];
+    }
+
+    public SchedulePlan.Builder getPlan() { return plan; }
+
+    public boolean isOnLeave(Long employeeId, LocalDate date) {
+        int ordinal = ordinalOf(employeeId);
+        return ordinal >= 0 && calendar.isOnLeave(ordinal, calendar.dayIndex(date));
+    }
+
+    public boolean hasWorkedOn(Long employeeId, LocalDate date) {
+        int ordinal = ordinalOf(employeeId);
+        return ordinal >= 0 && calendar.hasWorked(ordinal, calendar.dayIndex(date));
+    }
+
+    public boolean hasWorkedShiftTypeOn(Long employeeId, ShiftType shiftType, LocalDate date) {
+        int ordinal = ordinalOf(employeeId);
+        return ordinal >= 0 && calendar.hasWorkedShift(ordinal, shiftType, calendar.dayIndex(date));
+    }
+
+    // A COB team that could not be filled
+    public void cobUnderstaffed() { cobUnderstaffedDays++; }
+
+    // SUPPORT needed Attempt 2 (consecutive days allowed)
+    public void supportFallback() { supportFallbackDays++; }
+
+    // A working day left without a complete SUPPORT team
+    public void supportFailed() { supportFailedDays++; }
+
+    public int getCobUnderstaffedDays() { return cobUnderstaffedDays; }
+    public int getSupportFallbackDays() { return supportFallbackDays; }
+    public int getSupportFailedDays() { return supportFailedDays; }
+
+    // Engines call this once per day, in date order, when the day's shifts are final
+    public void dayPlanned(LocalDate date) {
+        options.getDayPlannedListener().accept(date);
+    }
+
+    /**
+     * Places the employee on the shift. Updates the plan, the calendar, the monthly counts and the Saturday
+     * COB rotation; a COB shift also plans the approved rest day that follows it.
+     */
+    public void assign(LocalDate date, ShiftType shiftType, Employee employee) {
+        Long employeeId = employee.getId();
+        if (hasWorkedShiftTypeOn(employeeId, shiftType, date)) return;
+        int ordinal = ordinalOf(employeeId);
+        plan.assign(date, shiftType, employeeId);
+        recordAssignment(date, shiftType, employeeId);
+        if (ordinal >= 0) shiftCounts[shiftType.ordinal()][ordinal]++;
+        if (shiftType == ShiftType.COB) {
+            if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+                lastSaturdayCobAssignment.put(employeeId, date);
+                if (ordinal >= 0) lastSaturdayCob[ordinal] = date;
+            }
+            planRestAfterCob(employeeId, date.plusDays(1));
+        }
+    }
+
+    // Plans an approved single-day rest leave after a COB shift, unless the employee is already on leave that day
+    private void planRestAfterCob(Long employeeId, LocalDate leaveDate) {
+        if (isOnLeave(employeeId, leaveDate)) return;
+        plan.restLeave(employeeId, leaveDate);
+        recordLeave(employeeId, leaveDate);
+    }
+
+    private void recordAssignment(LocalDate date, ShiftType shiftType, Long employeeId) {
+        int ordinal = ordinalOf(employeeId);
+        if (ordinal >= 0) calendar.markWorked(ordinal, shiftType, date);
+    }
+
+    private void recordLeave(Long employeeId, LocalDate date) {
+        int ordinal = ordinalOf(employeeId);
+        if (ordinal >= 0) calendar.markLeave(ordinal, date, date);
+    }
+}
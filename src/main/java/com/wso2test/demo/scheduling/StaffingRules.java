@@ -0,0 +1,221 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.EmployeeLevel;
+import com.wso2test.demo.model.EmployeeStatus;
+import com.wso2test.demo.model.EmployeeType;
+import com.wso2test.demo.model.ShiftType;
+
+import java.util.*;
+
+/**
+ * A division's staffing rules, compiled once when they are loaded or changed: the team of every shift type as
+ * slots of attribute bitmasks, and the monthly caps. Engines match employees against the masks with one AND per
+ * check over the attribute int of each employee ({@link #attributesOf}), so rules never get interpreted per
+ * employee and day.
+ *
+ * <p>A team is written as comma-separated slots; a slot lists the alternatives that may fill it, separated by
+ * {@code |}, in order of preference; an alternative joins attributes with {@code +}. The default COB team is
+ * {@code SUPPORT+SENIOR, SUPPORT+JUNIOR, COB_PERFORMER|SUPPORT+SENIOR}. On dates that exclude juniors from COB,
+ * alternatives that require JUNIOR are dropped (and slots left without any), and no slot admits a junior.
+ */
+public final class StaffingRules {
+
+    // Employee attributes, one bit each
+    public static final int SUPPORT = 1;
+    public static final int COB_PERFORMER = 1 << 1;
+    public static final int SYSTEM_MONITOR = 1 << 2;
+    public static final int SENIOR = 1 << 3;
+    public static final int JUNIOR = 1 << 4;
+
+    private static final Map<String, Integer> ATTRIBUTES = new LinkedHashMap<>();
+    static {
+        ATTRIBUTES.put("SUPPORT", SUPPORT);
+        ATTRIBUTES.put("COB_PERFORMER", COB_PERFORMER);
+        ATTRIBUTES.put("SYSTEM_MONITOR", SYSTEM_MONITOR);
+        ATTRIBUTES.put("SENIOR", SENIOR);
+        ATTRIBUTES.put("JUNIOR", JUNIOR);
+    }
+
+    public static final String DEFAULT_SYSTEM_MONITOR_TEAM = "SYSTEM_MONITOR";
+    public static final String DEFAULT_COB_TEAM = "SUPPORT+SENIOR, SUPPORT+JUNIOR, COB_PERFORMER|SUPPORT+SENIOR";
+    public static final String DEFAULT_SUPPORT_TEAM = "SUPPORT+SENIOR, SUPPORT+JUNIOR, SUPPORT+JUNIOR";
+    public static final int DEFAULT_MAX_SUPPORT_SHIFTS_PER_JUNIOR = 8; // Max SUPPORT shifts for a Junior SUPPORT per month
+    public static final int DEFAULT_MAX_COB_SHIFTS_FOR_COB_PERFORMER = 5; // Max COB shifts for a COB_PERFORMER per month
+
+    // The rules of a division without its own
+    public static final StaffingRules DEFAULT = compile(DEFAULT_SYSTEM_MONITOR_TEAM, DEFAULT_COB_TEAM, DEFAULT_SUPPORT_TEAM,
+            DEFAULT_MAX_SUPPORT_SHIFTS_PER_JUNIOR, DEFAULT_MAX_COB_SHIFTS_FOR_COB_PERFORMER);
+
+    private final Team[] teams; // by shift type ordinal
+    private final Team cobTeamWithoutJuniors;
+    private final int maxSupportShiftsPerJunior;
+    private final int maxCobShiftsForCobPerformer;
+
+    private StaffingRules(Team systemMonitorTeam, Team cobTeam, Team supportTeam, int maxSupportShiftsPerJunior, int maxCobShiftsForCobPerformer) {
+        this.teams = new Team[ShiftType.values().length];
+        teams[ShiftType.SYSTEM_MONITOR.ordinal()] = systemMonitorTeam;
+        teams[ShiftType.COB.ordinal()] = cobTeam;
+        teams[ShiftType.SUPPORT.ordinal()] = supportTeam;
+        this.cobTeamWithoutJuniors = cobTeam.without(JUNIOR);
+        this.maxSupportShiftsPerJunior = maxSupportShiftsPerJunior;
+        this.maxCobShiftsForCobPerformer = maxCobShiftsForCobPerformer;
+    }
+
+    // Throws IllegalArgumentException naming the first invalid part
+    public static StaffingRules compile(String systemMonitorTeam, String cobTeam, String supportTeam,
+                                        int maxSupportShiftsPerJunior, int maxCobShiftsForCobPerformer) {
+        if (maxSupportShiftsPerJunior < 0 || maxCobShiftsForCobPerformer < 0) {
+            throw new IllegalArgumentException("Shift caps cannot be negative");
+        }
+        return new StaffingRules(Team.parse(ShiftType.SYSTEM_MONITOR, systemMonitorTeam), Team.parse(ShiftType.COB, cobTeam),
+                Team.parse(ShiftType.SUPPORT, supportTeam), maxSupportShiftsPerJunior, maxCobShiftsForCobPerformer);
+    }
+
+    // Attribute bits of an employee; 0 (matches no slot) for anyone who is not active
+    public static int attributesOf(Employee e) {
+        if (e == null || e.getStatus() != EmployeeStatus.ACTIVE || e.getType() == null) return 0;
+        int attributes = e.getType() == EmployeeType.SUPPORT ? SUPPORT : e.getType() == EmployeeType.COB_PERFORMER ? COB_PERFORMER : SYSTEM_MONITOR;
+        if (e.getLevel() == EmployeeLevel.SENIOR) attributes |= SENIOR;
+        else if (e.getLevel() == EmployeeLevel.JUNIOR) attributes |= JUNIOR;
+        return attributes;
+    }
+
+    public static boolean matches(int attributes, int mask) {
+        return (attributes & mask) == mask;
+    }
+
+    public Team team(ShiftType shiftType) {
+        return teams[shiftType.ordinal()];
+    }
+
+    // The COB team on a date that keeps juniors off COB
+    public Team cobTeamWithoutJuniors() {
+        return cobTeamWithoutJuniors;
+    }
+
+    public int getMaxSupportShiftsPerJunior() { return maxSupportShiftsPerJunior; }
+    public int getMaxCobShiftsForCobPerformer() { return maxCobShiftsForCobPerformer; }
+
+    // Monthly cap on the shift type for an employee with these attributes (Integer.MAX_VALUE = none)
+    public static int cap(ShiftType shiftType, int attributes, int maxSupportShiftsPerJunior, int maxCobShiftsForCobPerformer) {
+        if (shiftType == ShiftType.COB && matches(attributes, COB_PERFORMER)) return maxCobShiftsForCobPerformer;
+        if (shiftType == ShiftType.SUPPORT && matches(attributes, SUPPORT | JUNIOR)) return maxSupportShiftsPerJunior;
+        return Integer.MAX_VALUE;
+    }
+
+    public int cap(ShiftType shiftType, int attributes) {
+        return cap(shiftType, attributes, maxSupportShiftsPerJunior, maxCobShiftsForCobPerformer);
+    }
+
+    /**
+     * The people one shift needs, as slots of alternative attribute masks. {@link #getPicks()} is the order a
+     * greedy picker tries them in: the first alternative of every slot, then the remaining alternatives slot by slot
+     * (for the default COB team: senior, junior, COB performer, senior). {@link #getPickSlots()} tells which slot
+     * each pick fills; a pick for a slot that is already filled is skipped, so the team is complete only when
+     * every slot has someone.
+     */
+    public static final class Team {
+        private final String definition;
+        private final int[][] slots;
+        private final int[] picks;
+        private final int[] pickSlots; // slot index of each pick
+        private final int[] masks; // distinct masks of all slots
+        private final int excluded; // attributes no member may have
+
+        private Team(String definition, int[][] slots, int excluded) {
+            this.definition = definition;
+            this.slots = slots;
+            this.excluded = excluded;
+            int[] picks = new int[Arrays.stream(slots).mapToInt(s -> s.length).sum()];
+            int[] pickSlots = new int[picks.length];
+            int n = 0;
+            for (int s = 0; s < slots.length; s++) {
+                pickSlots[n] = s;
+                picks[n++] = slots[s][0];
+            }
+            for (int s = 0; s < slots.length; s++) {
+                for (int a = 1; a < slots[s].length; a++) {
+                    pickSlots[n] = s;
+                    picks[n++] = slots[s][a];
+                }
+            }
+            this.picks = picks;
+            this.pickSlots = pickSlots;
+            this.masks = Arrays.stream(picks).distinct().toArray();
+        }
+
+        static Team parse(ShiftType shiftType, String definition) {
+            if (definition == null || definition.trim().isEmpty()) {
+                throw new IllegalArgumentException("No team defined for " + shiftType);
+            }
+            String[] slotDefinitions = definition.split(",");
+            if (slotDefinitions.length == 0) throw new IllegalArgumentException("No slots in the " + shiftType + " team");
+            int[][] slots = new int[slotDefinitions.length][];
+            for (int s = 0; s < slotDefinitions.length; s++) {
+                String[] alternatives = slotDefinitions[s].split("\\|");
+                slots[s] = new int[alternatives.length];
+                for (int a = 0; a < alternatives.length; a++) {
+                    int mask = 0;
+                    for (String attribute : alternatives[a].split("\\+")) {
+                        Integer bit = ATTRIBUTES.get(attribute.trim().toUpperCase(Locale.ROOT));
+                        if (bit == null) {
+                            throw new IllegalArgumentException("Unknown attribute '" + attribute.trim() + "' in the " + shiftType
+                                    + " team; expected one of " + ATTRIBUTES.keySet());
+                        }
+                        mask |= bit;
+                    }
+                    slots[s][a] = mask;
+                }
+            }
+            return new Team(definition.trim(), slots, 0);
+        }
+
+        // The team for members without the attribute: alternatives requiring it are dropped, then slots left empty
+        private Team without(int attribute) {
+            List<int[]> kept = new ArrayList<>(slots.length);
+            for (int[] slot : slots) {
+                int[] alternatives = Arrays.stream(slot).filter(mask -> !matches(mask, attribute)).toArray();
+                if (alternatives.length > 0) kept.add(alternatives);
+            }
+            String excludedNames = ATTRIBUTES.entrySet().stream().filter(a -> matches(attribute, a.getValue()))
+                    .map(Map.Entry::getKey).reduce((a, b) -> a + "+" + b).orElse("");
+            return new Team(definition + " (no " + excludedNames + ")", kept.toArray(new int[0][]), excluded | attribute);
+        }
+
+        public String getDefinition() { return definition; }
+
+        public int size() { return slots.length; }
+
+        // Alternatives of the slot, in order of preference
+        public int[] slot(int index) { return slots[index]; }
+
+        public boolean slotAccepts(int index, int attributes) {
+            if (!admits(attributes)) return false;
+            for (int mask : slots[index]) if (matches(attributes, mask)) return true;
+            return false;
+        }
+
+        // False for employees with an excluded attribute, whatever slot they match
+        public boolean admits(int attributes) {
+            return (attributes & excluded) == 0;
+        }
+
+        public int[] getPicks() { return picks; }
+
+        public int[] getPickSlots() { return pickSlots; }
+
+        public int[] getMasks() { return masks; }
+
+        public boolean accepts(int attributes) {
+            if (!admits(attributes)) return false;
+            for (int mask : masks) if (matches(attributes, mask)) return true;
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return definition;
+        }
+    }
+}
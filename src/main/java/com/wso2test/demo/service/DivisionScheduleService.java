@@ -0,0 +1,83 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.AggregatedScheduleOutput;
+import com.wso2test.demo.dto.DivisionScheduleReport;
+import com.wso2test.demo.dto.DivisionScheduleResult;
+import com.wso2test.demo.dto.DivisionScheduleResult.Outcome;
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.scheduling.PlanningOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Generates one month for several support divisions at once. Divisions have disjoint rosters and holiday calendars,
+ * so each one is planned and committed on its own: one task per division on the divisionSchedulingPool, each with its
+ * own SchedulingContext and its own transaction (SupportSchedulerService.generateMonthlySchedule). A division that
+ * fails or is already scheduled does not roll back the others, and the wall time approaches the slowest division
+ * instead of the sum.
+ */
+@Service
+public class DivisionScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DivisionScheduleService.class);
+
+    private final SupportSchedulerService supportSchedulerService;
+    private final ForkJoinPool divisionPool;
+
+    public DivisionScheduleService(SupportSchedulerService supportSchedulerService,
+                                   @Qualifier("divisionSchedulingPool") ForkJoinPool divisionPool) {
+        this.supportSchedulerService = supportSchedulerService;
+        this.divisionPool = divisionPool;
+    }
+
+    // divisions null or empty = every division with an active roster. Throws IllegalArgumentException for an unknown engine.
+    public DivisionScheduleReport generateMonth(YearMonth yearMonth, List<String> divisions, List<String> excludeJuniorsFromCobDates, String engine) {
+        long started = System.nanoTime();
+        PlanningOptions options = supportSchedulerService.toPlanningOptions(excludeJuniorsFromCobDates, engine);
+        Set<String> targets = new LinkedHashSet<>();
+        if (divisions == null || divisions.isEmpty()) targets.addAll(supportSchedulerService.findActiveDivisions());
+        else for (String division : divisions) targets.add(Division.orDefault(division));
+
+        List<ForkJoinTask<DivisionScheduleResult>> tasks = new ArrayList<>(targets.size());
+        for (String division : targets) {
+            PlanningOptions divisionOptions = supportSchedulerService.forDivision(options, division);
+            tasks.add(divisionPool.submit(() -> generate(yearMonth, divisionOptions)));
+        }
+
+        DivisionScheduleReport report = new DivisionScheduleReport();
+        report.setMonth(yearMonth);
+        for (ForkJoinTask<DivisionScheduleResult> task : tasks) {
+            DivisionScheduleResult result = task.join();
+            report.getResults().add(result);
+            if (result.getOutcome() == Outcome.GENERATED) report.setGenerated(report.getGenerated() + 1);
+            else report.setFailed(report.getFailed() + 1);
+        }
+        report.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+        logger.info("Generated {} for {} of {} divisions in {} ms", yearMonth, report.getGenerated(), targets.size(), report.getDurationMillis());
+        return report;
+    }
+
+    private DivisionScheduleResult generate(YearMonth yearMonth, PlanningOptions options) {
+        long started = System.nanoTime();
+        try {
+            AggregatedScheduleOutput output = supportSchedulerService.generateMonthlySchedule(yearMonth, options);
+            return new DivisionScheduleResult(options.getDivision(), Outcome.GENERATED, null, millisSince(started), output);
+        } catch (IllegalStateException e) { // Month already scheduled for this division
+            return new DivisionScheduleResult(options.getDivision(), Outcome.ALREADY_SCHEDULED, e.getMessage(), millisSince(started), null);
+        } catch (RuntimeException e) {
+            logger.error("Generating {} of {} failed", yearMonth, options.getDivision(), e);
+            return new DivisionScheduleResult(options.getDivision(), Outcome.FAILED, e.getMessage(), millisSince(started), null);
+        }
+    }
+
+    private static long millisSince(long started) {
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+}
@@ -0,0 +1,227 @@
+package com.wso2test.demo.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wso2test.demo.dto.EmployeeOnboardingReport;
+import com.wso2test.demo.dto.EmployeeOnboardingResult;
+import com.wso2test.demo.dto.EmployeeOnboardingResult.Outcome;
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.EmployeeRequest;
+import com.wso2test.demo.model.EmployeeStatus;
+import com.wso2test.demo.respository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Bulk employee onboarding. Records are read one at a time from a JSON array and handled in chunks: each chunk is
+ * checked for email and phone duplicates (within the request and against the database, one query per chunk) and
+ * the accepted records are inserted through Hibernate JDBC batches in one transaction. Every record gets a result.
+ */
+@Service
+public class EmployeeOnboardingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeOnboardingService.class);
+
+    private static final int RECORDS_PER_CHUNK = 1_000;
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EmployeeOnboardingService(EmployeeRepository employeeRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ObjectMapper objectMapper) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    // A JSON array of EmployeeRequest objects (id is ignored); status defaults to ACTIVE, division to Division.DEFAULT
+    public EmployeeOnboardingReport onboard(InputStream input) throws IOException {
+        long started = System.nanoTime();
+        EmployeeOnboardingReport report = new EmployeeOnboardingReport();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenPhones = new HashSet<>();
+        List<PendingEmployee> chunk = new ArrayList<>(RECORDS_PER_CHUNK);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) throw new IllegalArgumentException("Expected a JSON array of employees");
+            while (true) {
+                EmployeeOnboardingResult result = null;
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == null || token == JsonToken.END_ARRAY) break;
+                    result = new EmployeeOnboardingResult();
+                    result.setIndex(report.getResults().size());
+                    report.getResults().add(result);
+                    EmployeeRequest request = read(parser, token, result);
+                    if (request != null) chunk.add(new PendingEmployee(request, result));
+                } catch (JsonProcessingException e) {
+                    // A record broken off mid-way keeps its one result; an error between records gets its own
+                    if (result == null) {
+                        result = new EmployeeOnboardingResult();
+                        result.setIndex(report.getResults().size());
+                        report.getResults().add(result);
+                    }
+                    reject(result, "Malformed JSON, onboarding stopped: " + e.getOriginalMessage());
+                    break;
+                }
+                if (chunk.size() == RECORDS_PER_CHUNK) process(chunk, seenEmails, seenPhones);
+            }
+        }
+        process(chunk, seenEmails, seenPhones);
+
+        for (EmployeeOnboardingResult result : report.getResults()) {
+            if (result.getOutcome() == Outcome.CREATED) report.setCreated(report.getCreated() + 1);
+            else report.setRejected(report.getRejected() + 1);
+        }
+        report.setReceived(report.getResults().size());
+        report.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+        logger.info("Employee onboarding: {} received, {} created, {} rejected in {} ms",
+                report.getReceived(), report.getCreated(), report.getRejected(), report.getDurationMillis());
+        return report;
+    }
+
+    // The element as a request, or null (result rejected) when it is not an object or its fields do not bind;
+    // syntax errors propagate because the rest of the stream cannot be trusted
+    private EmployeeRequest read(JsonParser parser, JsonToken token, EmployeeOnboardingResult result) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            reject(result, "Expected an employee object");
+            return null;
+        }
+        JsonNode node = objectMapper.readTree(parser);
+        if (node.hasNonNull("email")) result.setEmail(node.get("email").asText());
+        try {
+            return objectMapper.treeToValue(node, EmployeeRequest.class);
+        } catch (JsonProcessingException e) {
+            reject(result, "Invalid field: " + e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private void process(List<PendingEmployee> chunk, Set<String> seenEmails, Set<String> seenPhones) {
+        if (chunk.isEmpty()) return;
+        List<PendingEmployee> accepted = validate(chunk, seenEmails, seenPhones);
+        insert(accepted);
+        chunk.clear();
+    }
+
+    // Required fields, duplicates within the request (earlier records win), then one query for duplicates in the database
+    private List<PendingEmployee> validate(List<PendingEmployee> chunk, Set<String> seenEmails, Set<String> seenPhones) {
+        List<PendingEmployee> candidates = new ArrayList<>(chunk.size());
+        for (PendingEmployee pending : chunk) {
+            EmployeeRequest request = pending.request;
+            if (isBlank(request.getName())) reject(pending.result, "Missing name");
+            else if (isBlank(request.getEmail())) reject(pending.result, "Missing email");
+            else if (!seenEmails.add(normalize(request.getEmail()))) reject(pending.result, "Duplicate email in request: " + request.getEmail().trim());
+            else if (!isBlank(request.getPhoneNumber()) && !seenPhones.add(request.getPhoneNumber().trim())) {
+                reject(pending.result, "Duplicate phone number in request: " + request.getPhoneNumber().trim());
+            } else {
+                candidates.add(pending);
+            }
+        }
+        if (candidates.isEmpty()) return candidates;
+
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (PendingEmployee pending : candidates) {
+            emails.add(pending.request.getEmail().trim());
+            if (!isBlank(pending.request.getPhoneNumber())) phones.add(pending.request.getPhoneNumber().trim());
+        }
+        List<Employee> existing = phones.isEmpty() ? employeeRepository.findByEmailIn(emails)
+                : employeeRepository.findByEmailInOrPhoneNumberIn(emails, phones);
+        if (existing.isEmpty()) return candidates;
+
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhones = new HashSet<>();
+        for (Employee employee : existing) {
+            takenEmails.add(normalize(employee.getEmail()));
+            if (employee.getPhoneNumber() != null) takenPhones.add(employee.getPhoneNumber().trim());
+        }
+        List<PendingEmployee> accepted = new ArrayList<>(candidates.size());
+        for (PendingEmployee pending : candidates) {
+            String phone = pending.request.getPhoneNumber();
+            if (takenEmails.contains(normalize(pending.request.getEmail()))) {
+                reject(pending.result, "Email already in use: " + pending.request.getEmail().trim());
+            } else if (!isBlank(phone) && takenPhones.contains(phone.trim())) {
+                reject(pending.result, "Phone number already in use: " + phone.trim());
+            } else {
+                accepted.add(pending);
+            }
+        }
+        return accepted;
+    }
+
+    // One transaction per chunk; ids come from the pooled generator, so the inserts go out as JDBC batches
+    private void insert(List<PendingEmployee> accepted) {
+        if (accepted.isEmpty()) return;
+        List<Employee> employees = new ArrayList<>(accepted.size());
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                for (PendingEmployee pending : accepted) {
+                    EmployeeRequest request = pending.request;
+                    Employee employee = new Employee(request.getName().trim(), request.getEmail().trim(),
+                            isBlank(request.getPhoneNumber()) ? null : request.getPhoneNumber().trim(),
+                            request.getStatus() != null ? request.getStatus() : EmployeeStatus.ACTIVE,
+                            request.getType(), request.getLevel());
+                    employee.setDivision(Division.orDefault(request.getDivision()));
+                    entityManager.persist(employee);
+                    employees.add(employee);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            // e.g. a concurrent request took one of the emails between the duplicate check and the insert
+            logger.warn("Employee onboarding chunk of {} records failed", accepted.size(), e);
+            for (PendingEmployee pending : accepted) reject(pending.result, "Not created, batch failed: " + e.getMessage());
+            return;
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            EmployeeOnboardingResult result = accepted.get(i).result;
+            result.setOutcome(Outcome.CREATED);
+            result.setId(employees.get(i).getId());
+        }
+    }
+
+    private static void reject(EmployeeOnboardingResult result, String message) {
+        result.setOutcome(Outcome.REJECTED);
+        result.setMessage(message);
+    }
+
+    // Emails are unique regardless of case (MySQL's default collation compares them that way too)
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static final class PendingEmployee {
+        private final EmployeeRequest request;
+        private final EmployeeOnboardingResult result;
+
+        PendingEmployee(EmployeeRequest request, EmployeeOnboardingResult result) {
+            this.request = request;
+            this.result = result;
+        }
+    }
+}
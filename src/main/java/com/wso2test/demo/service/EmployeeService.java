@@ -1,5 +1,6 @@
 package com.wso2test.demo.service;
 
+import com.wso2test.demo.model.Division;
 import com.wso2test.demo.model.Employee;
 import com.wso2test.demo.model.EmployeeRequest;
 import com.wso2test.demo.model.EmployeeStatus;
@@ -9,16 +10,24 @@ import javax.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class EmployeeService {
 
     private final EmployeeRepository employeeRepository;
+    private final ScheduleExportCache scheduleExportCache;
+    private final LeaveIntervalIndex leaveIntervalIndex;
 
     @Autowired
-    public EmployeeService(EmployeeRepository employeeRepository) {
+    public EmployeeService(EmployeeRepository employeeRepository, ScheduleExportCache scheduleExportCache,
+                           LeaveIntervalIndex leaveIntervalIndex) {
         this.employeeRepository = employeeRepository;
+        this.scheduleExportCache = scheduleExportCache;
+        this.leaveIntervalIndex = leaveIntervalIndex;
     }
 
     // --- CREATE ---
@@ -29,6 +38,7 @@ public class EmployeeService {
         if (employeeRepository.findByPhoneNumber(employee.getPhoneNumber()).isPresent()) {
             throw new IllegalArgumentException("Phone number already in use: " + employee.getPhoneNumber());
         }
+        employee.setDivision(Division.orDefault(employee.getDivision()));
         return employeeRepository.save(employee);
     }
 
@@ -50,6 +60,14 @@ public class EmployeeService {
         return employeeRepository.findByNameContainingIgnoreCase(name);
     }
 
+    // Active employees without an approved leave on the date; the leave side comes from the in-memory leave index
+    public List<Employee> getAvailableEmployeesOn(LocalDate date) {
+        Set<Long> onLeave = leaveIntervalIndex.employeesOnApprovedLeave(date);
+        return employeeRepository.findAllActiveEmployees().stream()
+                .filter(e -> !onLeave.contains(e.getId()))
+                .collect(Collectors.toList());
+    }
+
     // --- UPDATE ---
     public Employee updateEmployee(Long id, EmployeeRequest details) {
         Employee existing = employeeRepository.findById(id)
@@ -59,8 +77,11 @@ public class EmployeeService {
         if (details.getEmail() != null) existing.setEmail(details.getEmail());
         if (details.getPhoneNumber() != null) existing.setPhoneNumber(details.getPhoneNumber());
         if (details.getStatus() != null) existing.setStatus(details.getStatus());
+        if (details.getDivision() != null) existing.setDivision(Division.orDefault(details.getDivision())); // applies from the next generated month
 
-        return employeeRepository.save(existing);
+        Employee saved = employeeRepository.save(existing);
+        if (details.getName() != null) scheduleExportCache.invalidateAll(); // names are printed in every export
+        return saved;
     }
 
     // --- DELETE ---
@@ -68,6 +89,7 @@ public class EmployeeService {
         Employee existing = employeeRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Employee with ID " + id + " not found"));
         employeeRepository.delete(existing);
+        scheduleExportCache.invalidateAll();
     }
 
     // --- OPTIONAL: Useful during shift generation ---
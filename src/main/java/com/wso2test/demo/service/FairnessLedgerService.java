@@ -0,0 +1,130 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.ShiftAssignment;
+import com.wso2test.demo.dto.ShiftReplacement;
+import com.wso2test.demo.model.FairnessLedgerEntry;
+import com.wso2test.demo.model.ShiftType;
+import com.wso2test.demo.respository.FairnessLedgerRepository;
+import com.wso2test.demo.respository.SupportScheduleRepository;
+import com.wso2test.demo.scheduling.PlanningCarryOver;
+import com.wso2test.demo.scheduling.SchedulePlan;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Keeps the fairness ledger (one row of running totals per employee) in step with the persisted schedule. Every
+ * method joins the caller's transaction, so the ledger changes commit or roll back together with the schedule rows:
+ * a committed plan adds its shifts, a repair moves shifts between employees and deleting all schedules clears it.
+ * The planner reads the ledger once per month as the carry-over of the month before.
+ */
+@Service
+@Transactional
+public class FairnessLedgerService {
+
+    private final FairnessLedgerRepository fairnessLedgerRepository;
+    private final SupportScheduleRepository supportScheduleRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public FairnessLedgerService(FairnessLedgerRepository fairnessLedgerRepository,
+                                 SupportScheduleRepository supportScheduleRepository) {
+        this.fairnessLedgerRepository = fairnessLedgerRepository;
+        this.supportScheduleRepository = supportScheduleRepository;
+    }
+
+    // The division's history as the carry-over into yearMonth: ledger totals and Saturday COB rotation (one query),
+    // plus the persisted assignments of the day before (no spilled leaves; those are persisted as leaves already)
+    @Transactional(readOnly = true)
+    public PlanningCarryOver carryOverInto(YearMonth yearMonth, String division, List<ShiftAssignment> previousDayAssignments) {
+        EnumMap<ShiftType, Map<Long, Integer>> counts = new EnumMap<>(ShiftType.class);
+        for (ShiftType shiftType : ShiftType.values()) counts.put(shiftType, new HashMap<>());
+        Map<Long, LocalDate> lastSaturdayCob = new HashMap<>();
+        for (FairnessLedgerEntry entry : fairnessLedgerRepository.findActiveByDivision(division)) {
+            for (ShiftType shiftType : ShiftType.values()) {
+                int shifts = entry.getShifts(shiftType);
+                if (shifts > 0) counts.get(shiftType).put(entry.getEmployeeId(), shifts);
+            }
+            if (entry.getLastSaturdayCob() != null) lastSaturdayCob.put(entry.getEmployeeId(), entry.getLastSaturdayCob());
+        }
+        return new PlanningCarryOver(yearMonth.minusMonths(1), previousDayAssignments, Collections.emptyList(), lastSaturdayCob, counts);
+    }
+
+    // Adds a committed plan: one select for the employees' rows, then batched updates and inserts on flush
+    public void record(SchedulePlan plan) {
+        Map<Long, List<ShiftAssignment>> byEmployee = new HashMap<>();
+        for (SchedulePlan.PlannedShift shift : plan.getShifts()) {
+            for (Long employeeId : shift.getEmployeeIds()) {
+                byEmployee.computeIfAbsent(employeeId, id -> new ArrayList<>()).add(new ShiftAssignment(shift.getDate(), shift.getShiftType(), employeeId));
+            }
+        }
+        if (byEmployee.isEmpty()) return;
+        Map<Long, FairnessLedgerEntry> entries = load(byEmployee.keySet());
+        byEmployee.forEach((employeeId, shifts) -> {
+            FairnessLedgerEntry entry = entries.get(employeeId);
+            for (ShiftAssignment shift : shifts) {
+                entry.addShifts(shift.getShiftType(), 1);
+                entry.worked(shift.getAssignedDate(), shift.getShiftType());
+            }
+        });
+    }
+
+    // Applies a repair diff. Call after the schedule rows are changed: an employee who lost the shift their last
+    // dates point at gets those dates recomputed from the schedule (one query per such employee)
+    public void recordReplacements(List<ShiftReplacement> changes) {
+        if (changes.isEmpty()) return;
+        Set<Long> employeeIds = new HashSet<>();
+        for (ShiftReplacement change : changes) {
+            employeeIds.add(change.getRemovedEmployeeId());
+            if (change.getReplacementEmployeeId() != null) employeeIds.add(change.getReplacementEmployeeId());
+        }
+        Map<Long, FairnessLedgerEntry> entries = load(employeeIds);
+        Set<Long> stale = new HashSet<>();
+        for (ShiftReplacement change : changes) {
+            FairnessLedgerEntry removed = entries.get(change.getRemovedEmployeeId());
+            removed.addShifts(change.getShiftType(), -1);
+            if (change.getDate().equals(removed.getLastShiftDate()) || change.getDate().equals(removed.getLastSaturdayCob())) {
+                stale.add(removed.getEmployeeId());
+            }
+            if (change.getReplacementEmployeeId() != null) {
+                FairnessLedgerEntry replacement = entries.get(change.getReplacementEmployeeId());
+                replacement.addShifts(change.getShiftType(), 1);
+                replacement.worked(change.getDate(), change.getShiftType());
+            }
+        }
+        for (Long employeeId : stale) recomputeDates(entries.get(employeeId));
+    }
+
+    // All schedules were deleted
+    public void clear() {
+        fairnessLedgerRepository.deleteAllInBatch();
+    }
+
+    private void recomputeDates(FairnessLedgerEntry entry) {
+        entry.setLastShiftDate(null);
+        entry.setLastSaturdayCob(null);
+        for (ShiftAssignment shift : supportScheduleRepository.findShiftAssignmentsByEmployeeId(entry.getEmployeeId())) {
+            entry.worked(shift.getAssignedDate(), shift.getShiftType());
+        }
+    }
+
+    // Existing rows for the employees, new (persisted) rows for the rest. Ids are assigned, so new rows go through
+    // persist rather than save, which would select each one first to decide between insert and merge
+    private Map<Long, FairnessLedgerEntry> load(Collection<Long> employeeIds) {
+        Map<Long, FairnessLedgerEntry> entries = new HashMap<>();
+        for (FairnessLedgerEntry entry : fairnessLedgerRepository.findAllById(employeeIds)) entries.put(entry.getEmployeeId(), entry);
+        for (Long employeeId : employeeIds) {
+            if (entries.containsKey(employeeId)) continue;
+            FairnessLedgerEntry entry = new FairnessLedgerEntry(employeeId);
+            entityManager.persist(entry);
+            entries.put(employeeId, entry);
+        }
+        return entries;
+    }
+}
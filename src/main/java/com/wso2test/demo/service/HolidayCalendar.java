@@ -0,0 +1,126 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.model.Holiday;
+import com.wso2test.demo.respository.HolidayRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Read-through copy of the holiday table: every division's holidays in a date-ordered map (range queries in
+ * O(log n + k)) and a bitset of holiday days per year (membership in O(1)). Loaded with one query on first use and
+ * dropped by {@link #invalidate} whenever holidays are written; a load only lands if no invalidation ran while it
+ * did, so a reader racing a write cannot pin the old calendar.
+ */
+@Component
+public class HolidayCalendar {
+
+    private static final Logger logger = LoggerFactory.getLogger(HolidayCalendar.class);
+
+    private final HolidayRepository holidayRepository;
+
+    private volatile Snapshot snapshot;
+    private long version; // guarded by this
+
+    public HolidayCalendar(HolidayRepository holidayRepository) {
+        this.holidayRepository = holidayRepository;
+    }
+
+    // Every holiday of every division, by date then division
+    public List<Holiday> getAll() {
+        return snapshot().all;
+    }
+
+    // Holidays of any division on the date
+    public List<Holiday> getOn(LocalDate date) {
+        return snapshot().byDate.getOrDefault(date, Collections.emptyList());
+    }
+
+    // The division's holidays in [start, end], by date
+    public List<Holiday> getBetween(String division, LocalDate start, LocalDate end) {
+        DivisionCalendar calendar = snapshot().byDivision.get(Division.orDefault(division));
+        if (calendar == null || start.isAfter(end)) return Collections.emptyList();
+        return Collections.unmodifiableList(new ArrayList<>(calendar.byDate.subMap(start, true, end, true).values()));
+    }
+
+    public boolean isHoliday(String division, LocalDate date) {
+        DivisionCalendar calendar = snapshot().byDivision.get(Division.orDefault(division));
+        if (calendar == null) return false;
+        BitSet days = calendar.daysByYear.get(date.getYear());
+        return days != null && days.get(date.getDayOfYear());
+    }
+
+    // Call after any write to the holiday table; repeated after commit so readers of the old rows cannot re-cache them
+    public void invalidate() {
+        Runnable invalidation = () -> {
+            synchronized (this) {
+                version++;
+                snapshot = null;
+            }
+        };
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) return current;
+        long loadedAt;
+        synchronized (this) {
+            loadedAt = version;
+        }
+        long started = System.nanoTime();
+        Snapshot loaded = new Snapshot(holidayRepository.findAll());
+        synchronized (this) {
+            if (version == loadedAt && snapshot == null) snapshot = loaded;
+        }
+        logger.debug("Loaded {} holidays of {} divisions in {} ms", loaded.all.size(), loaded.byDivision.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+
+    private static final class Snapshot {
+        private final List<Holiday> all;
+        private final NavigableMap<LocalDate, List<Holiday>> byDate = new TreeMap<>();
+        private final Map<String, DivisionCalendar> byDivision = new HashMap<>();
+
+        Snapshot(List<Holiday> holidays) {
+            List<Holiday> sorted = new ArrayList<>(holidays.size());
+            for (Holiday holiday : holidays) {
+                if (holiday.getDate() != null) sorted.add(holiday);
+            }
+            sorted.sort(Comparator.comparing(Holiday::getDate).thenComparing(h -> Division.orDefault(h.getDivision())));
+            this.all = Collections.unmodifiableList(sorted);
+            for (Holiday holiday : sorted) {
+                byDate.computeIfAbsent(holiday.getDate(), d -> new ArrayList<>()).add(holiday);
+                byDivision.computeIfAbsent(Division.orDefault(holiday.getDivision()), d -> new DivisionCalendar()).add(holiday);
+            }
+            byDate.replaceAll((date, onDate) -> Collections.unmodifiableList(onDate));
+        }
+    }
+
+    // One division's holidays; (division, date) is unique
+    private static final class DivisionCalendar {
+        private final NavigableMap<LocalDate, Holiday> byDate = new TreeMap<>();
+        private final Map<Integer, BitSet> daysByYear = new HashMap<>();
+
+        void add(Holiday holiday) {
+            LocalDate date = holiday.getDate();
+            byDate.put(date, holiday);
+            daysByYear.computeIfAbsent(date.getYear(), y -> new BitSet(367)).set(date.getDayOfYear());
+        }
+    }
+}
@@ -1,36 +1,64 @@
 package com.wso2test.demo.service;
 
+import com.wso2test.demo.model.Division;
 import com.wso2test.demo.model.Holiday;
 import com.wso2test.demo.respository.HolidayRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
 
+// Reads are served from the in-memory HolidayCalendar; writes go to the database and invalidate it
 @Service
 public class HolidayService {
 
     @Autowired
     private HolidayRepository holidayRepository;
+    @Autowired
+    private HolidayCalendar holidayCalendar;
+    @Autowired
+    private ScheduleExportCache scheduleExportCache;
 
     // Add a new holiday
     public Holiday addHoliday(Holiday holiday) {
-        // Check if the holiday already exists
-        if (holidayRepository.existsByDate(holiday.getDate())) {
-            throw new IllegalArgumentException("Holiday already exists for this date.");
+        // Check if the holiday already exists (each division has its own calendar)
+        holiday.setDivision(Division.orDefault(holiday.getDivision()));
+        if (holidayRepository.existsByDivisionAndDate(holiday.getDivision(), holiday.getDate())) {
+            throw new IllegalArgumentException("Holiday already exists for this date in " + holiday.getDivision() + ".");
         }
-        return holidayRepository.save(holiday);
+        Holiday saved = holidayRepository.save(holiday);
+        holidayCalendar.invalidate();
+        if (saved.getDate() != null) scheduleExportCache.invalidate(saved.getDate(), saved.getDate());
+        return saved;
+    }
+
+    // Delete all holidays
+    public void deleteAllHolidays() {
+        holidayRepository.deleteAll();
+        holidayCalendar.invalidate();
+        scheduleExportCache.invalidateAll();
     }
 
     // Get all holidays
     public List<Holiday> getAllHolidays() {
-        return holidayRepository.findAll();
+        return holidayCalendar.getAll();
     }
 
     // Get holidays by a specific date
     public List<Holiday> getHolidaysByDate(LocalDate date) {
-        return holidayRepository.findByDate(date);
+        return holidayCalendar.getOn(date);
+    }
+
+    // One division's holidays in [start, end] (division null = Division.DEFAULT)
+    public List<Holiday> getHolidaysBetween(String division, LocalDate start, LocalDate end) {
+        return holidayCalendar.getBetween(division, start, end);
+    }
+
+    // No COB or SUPPORT shifts on Sundays and the division's holidays
+    public boolean isNonWorkingDay(String division, LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SUNDAY || holidayCalendar.isHoliday(division, date);
     }
 }
@@ -0,0 +1,295 @@
+package com.wso2test.demo.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wso2test.demo.dto.LeaveImportError;
+import com.wso2test.demo.dto.LeaveImportReport;
+import com.wso2test.demo.dto.LeaveImportRow;
+import com.wso2test.demo.dto.LeaveInterval;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.Leave;
+import com.wso2test.demo.model.LeaveStatus;
+import com.wso2test.demo.util.IntervalTree;
+import com.wso2test.demo.util.LenientDateParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Bulk leave import (HR files). Rows are read one at a time from CSV or a JSON array, validated against an
+ * email-to-id map loaded in one query and against the leave index, and inserted through Hibernate JDBC batches,
+ * one transaction per chunk. Invalid rows are reported and skipped; valid rows are imported regardless.
+ */
+@Service
+public class LeaveImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveImportService.class);
+
+    private static final int ROWS_PER_TRANSACTION = 5_000;
+    private static final int ROWS_PER_FLUSH = 1_000; // keeps the persistence context small
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaveIntervalIndex leaveIntervalIndex;
+    private final ScheduleExportCache scheduleExportCache;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public LeaveImportService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              LeaveIntervalIndex leaveIntervalIndex,
+                              ScheduleExportCache scheduleExportCache,
+                              ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaveIntervalIndex = leaveIntervalIndex;
+        this.scheduleExportCache = scheduleExportCache;
+        this.objectMapper = objectMapper;
+    }
+
+    // Source of rows; returns null at the end of the input
+    private interface RowReader {
+        LeaveImportRow next() throws IOException;
+    }
+
+    // Header line required; columns are matched by name: email, startDate, endDate, reason, status (optional)
+    public LeaveImportReport importCsv(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) throw new IllegalArgumentException("CSV is empty");
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') header = header.substring(1); // byte order mark
+        List<String> columns = splitCsvLine(header);
+        int email = column(columns, true, "email", "employeeEmail", "employee_email");
+        int startDate = column(columns, true, "startDate", "start_date");
+        int endDate = column(columns, true, "endDate", "end_date");
+        int reason = column(columns, true, "reason", "leaveReason", "leave_reason");
+        int status = column(columns, false, "status");
+
+        return importRows(() -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) return null;
+            } while (line.trim().isEmpty());
+            List<String> fields = splitCsvLine(line);
+            LeaveImportRow row = new LeaveImportRow();
+            row.setEmail(field(fields, email));
+            row.setStartDate(field(fields, startDate));
+            row.setEndDate(field(fields, endDate));
+            row.setReason(field(fields, reason));
+            row.setStatus(field(fields, status));
+            return row;
+        });
+    }
+
+    // A JSON array of objects with the CSV column names as fields (employeeEmail/leaveReason also accepted)
+    public LeaveImportReport importJson(InputStream input) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(input);
+        if (parser.nextToken() != JsonToken.START_ARRAY) throw new IllegalArgumentException("Expected a JSON array of leaves");
+        return importRows(() -> {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) return null;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return new LeaveImportRow(); // reported as missing fields
+            }
+            return objectMapper.readValue(parser, LeaveImportRow.class);
+        });
+    }
+
+    private LeaveImportReport importRows(RowReader reader) throws IOException {
+        long started = System.nanoTime();
+        LeaveImportReport report = new LeaveImportReport();
+        Map<String, Long> employeeIds = loadEmployeeIdsByEmail();
+        Map<Long, IntervalTree<Long>> inFile = new HashMap<>(); // accepted rows per employee, valued by row number
+        List<PendingLeave> chunk = new ArrayList<>(ROWS_PER_TRANSACTION);
+        LocalDate[] touched = new LocalDate[2];
+
+        while (true) {
+            LeaveImportRow row;
+            try {
+                row = reader.next();
+            } catch (JsonProcessingException e) {
+                report.getErrors().add(new LeaveImportError(report.getRowsRead() + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage()));
+                break;
+            }
+            if (row == null) break;
+            long rowNumber = report.getRowsRead() + 1;
+            report.setRowsRead(rowNumber);
+            try {
+                PendingLeave leave = validate(row, rowNumber, employeeIds, inFile);
+                chunk.add(leave);
+            } catch (IllegalArgumentException | IllegalStateException | DateTimeParseException e) {
+                report.getErrors().add(new LeaveImportError(rowNumber, e.getMessage()));
+            }
+            if (chunk.size() == ROWS_PER_TRANSACTION) insert(chunk, report, touched);
+        }
+        insert(chunk, report, touched);
+
+        if (touched[0] != null) scheduleExportCache.invalidate(touched[0], touched[1]);
+        report.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+        logger.info("Leave import: {} rows read, {} imported, {} rejected in {} ms",
+                report.getRowsRead(), report.getImported(), report.getErrors().size(), report.getDurationMillis());
+        return report;
+    }
+
+    private PendingLeave validate(LeaveImportRow row, long rowNumber, Map<String, Long> employeeIds, Map<Long, IntervalTree<Long>> inFile) {
+        if (isBlank(row.getEmail())) throw new IllegalArgumentException("Missing email");
+        Long employeeId = employeeIds.get(row.getEmail().trim().toLowerCase(Locale.ROOT));
+        if (employeeId == null) throw new IllegalArgumentException("Unknown employee email: " + row.getEmail());
+        if (isBlank(row.getStartDate()) || isBlank(row.getEndDate())) throw new IllegalArgumentException("Missing startDate or endDate");
+        LocalDate start = LenientDateParser.parse(row.getStartDate());
+        LocalDate end = LenientDateParser.parse(row.getEndDate());
+        if (end.isBefore(start)) throw new IllegalArgumentException("Leave ends before it starts: " + start + " to " + end);
+        if (isBlank(row.getReason())) throw new IllegalArgumentException("Missing reason");
+        LeaveStatus status = LeaveStatus.PENDING;
+        if (!isBlank(row.getStatus())) {
+            try {
+                status = LeaveStatus.valueOf(row.getStatus().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid leave status: " + row.getStatus());
+            }
+        }
+
+        if (LeaveIntervalIndex.INDEXED_STATUSES.contains(status)) {
+            List<LeaveInterval> conflicts = leaveIntervalIndex.findConflicts(employeeId, start, end, null);
+            if (!conflicts.isEmpty()) {
+                throw new IllegalStateException("Overlaps existing leave " + conflicts.get(0).getLeaveId()
+                        + " (" + conflicts.get(0).getStartDate() + " to " + conflicts.get(0).getEndDate() + ")");
+            }
+            IntervalTree<Long> accepted = inFile.computeIfAbsent(employeeId, id -> new IntervalTree<>());
+            List<Long> clashes = new ArrayList<>(1);
+            accepted.forEachOverlapping(start, end, clashes::add);
+            if (!clashes.isEmpty()) throw new IllegalStateException("Overlaps row " + clashes.get(0) + " of this file");
+            accepted.put(rowNumber, start, end, rowNumber);
+        }
+        return new PendingLeave(rowNumber, employeeId, start, end, row.getReason().trim(), status);
+    }
+
+    // One transaction per chunk; a failing chunk is reported row by row and the import carries on
+    private void insert(List<PendingLeave> chunk, LeaveImportReport report, LocalDate[] touched) {
+        if (chunk.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                int persisted = 0;
+                for (PendingLeave pending : chunk) {
+                    Leave leave = new Leave();
+                    leave.setEmployee(entityManager.getReference(Employee.class, pending.employeeId));
+                    leave.setLeaveReason(pending.reason);
+                    leave.setStartDate(pending.start);
+                    leave.setEndDate(pending.end);
+                    leave.setStatus(pending.status);
+                    entityManager.persist(leave);
+                    if (++persisted % ROWS_PER_FLUSH == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            report.setImported(report.getImported() + chunk.size());
+            for (PendingLeave pending : chunk) {
+                if (touched[0] == null || pending.start.isBefore(touched[0])) touched[0] = pending.start;
+                if (touched[1] == null || pending.end.isAfter(touched[1])) touched[1] = pending.end;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Leave import chunk of {} rows failed", chunk.size(), e);
+            for (PendingLeave pending : chunk) {
+                report.getErrors().add(new LeaveImportError(pending.row, "Not imported, batch failed: " + e.getMessage()));
+            }
+        }
+        chunk.clear();
+    }
+
+    private Map<String, Long> loadEmployeeIdsByEmail() {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, email FROM employees", rs -> {
+            ids.put(rs.getString(2).trim().toLowerCase(Locale.ROOT), rs.getLong(1));
+        });
+        return ids;
+    }
+
+    private static int column(List<String> header, boolean required, String... names) {
+        for (int i = 0; i < header.size(); i++) {
+            for (String name : names) {
+                if (name.equalsIgnoreCase(header.get(i).trim())) return i;
+            }
+        }
+        if (required) throw new IllegalArgumentException("CSV header is missing the " + names[0] + " column");
+        return -1;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    // RFC 4180 fields on one line: commas separate, double quotes enclose, "" is a literal quote
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static final class PendingLeave {
+        private final long row;
+        private final Long employeeId;
+        private final LocalDate start;
+        private final LocalDate end;
+        private final String reason;
+        private final LeaveStatus status;
+
+        PendingLeave(long row, Long employeeId, LocalDate start, LocalDate end, String reason, LeaveStatus status) {
+            this.row = row;
+            this.employeeId = employeeId;
+            this.start = start;
+            this.end = end;
+            this.reason = reason;
+            this.status = status;
+        }
+    }
+}
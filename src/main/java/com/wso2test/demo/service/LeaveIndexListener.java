@@ -0,0 +1,70 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.LeaveInterval;
+import com.wso2test.demo.model.Leave;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JPA listener on Leave that feeds {@link LeaveIntervalIndex}. Changes are collected per transaction and applied
+ * once it commits, so a rollback never reaches the index; outside a transaction they apply immediately.
+ */
+@Component
+public class LeaveIndexListener {
+
+    // Index is looked up lazily: Hibernate creates listeners while the EntityManagerFactory the index needs is being built
+    private final ObjectProvider<LeaveIntervalIndex> leaveIntervalIndex;
+
+    public LeaveIndexListener(ObjectProvider<LeaveIntervalIndex> leaveIntervalIndex) {
+        this.leaveIntervalIndex = leaveIntervalIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Leave leave) {
+        record(leave.getId(), new LeaveInterval(leave.getId(), leave.getEmployee().getId(),
+                leave.getStartDate(), leave.getEndDate(), leave.getStatus(),
+                SupportSchedulerService.REST_AFTER_COB_REASON.equals(leave.getLeaveReason())));
+    }
+
+    @PostRemove
+    public void removed(Leave leave) {
+        record(leave.getId(), null);
+    }
+
+    private void record(Long leaveId, LeaveInterval leave) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<Long, LeaveInterval> change = new LinkedHashMap<>();
+            change.put(leaveId, leave);
+            leaveIntervalIndex.getObject().apply(change);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, LeaveInterval> pending = (Map<Long, LeaveInterval>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, LeaveInterval> changes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    leaveIntervalIndex.getObject().apply(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LeaveIndexListener.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.put(leaveId, leave); // last change of the transaction wins
+    }
+}
@@ -0,0 +1,129 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.LeaveInterval;
+import com.wso2test.demo.model.LeaveStatus;
+import com.wso2test.demo.respository.LeaveRepository;
+import com.wso2test.demo.util.IntervalTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Approved and pending leaves held in interval trees: one over everybody ("who is on leave on D / during R") and
+ * one per employee (conflict checks). Loaded from the database on first use and kept current by
+ * {@link LeaveIndexListener}, which applies every committed insert, update and delete of a Leave.
+ */
+@Component
+public class LeaveIntervalIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveIntervalIndex.class);
+
+    // States that block a day; rejected and cancelled leaves are dropped from the index
+    public static final Set<LeaveStatus> INDEXED_STATUSES = Collections.unmodifiableSet(EnumSet.of(LeaveStatus.APPROVED, LeaveStatus.PENDING));
+
+    private final LeaveRepository leaveRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IntervalTree<LeaveInterval> all = new IntervalTree<>();
+    private final Map<Long, IntervalTree<LeaveInterval>> byEmployee = new HashMap<>();
+    private final Map<Long, Long> employeeOfLeave = new HashMap<>();
+    private volatile boolean loaded;
+
+    public LeaveIntervalIndex(LeaveRepository leaveRepository) {
+        this.leaveRepository = leaveRepository;
+    }
+
+    // Approved and pending leaves sharing a day with [from, to], ordered by start date
+    public List<LeaveInterval> findOverlapping(LocalDate from, LocalDate to) {
+        ensureLoaded();
+        List<LeaveInterval> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            all.forEachOverlapping(from, to, result::add);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Employees with an approved leave on the date
+    public Set<Long> employeesOnApprovedLeave(LocalDate date) {
+        Set<Long> employeeIds = new HashSet<>();
+        for (LeaveInterval leave : findOverlapping(date, date)) {
+            if (leave.getStatus() == LeaveStatus.APPROVED) employeeIds.add(leave.getEmployeeId());
+        }
+        return employeeIds;
+    }
+
+    // The employee's approved or pending leaves overlapping [from, to], except excludeLeaveId (the leave being edited)
+    // and planner rest days, which a real leave may cover
+    public List<LeaveInterval> findConflicts(Long employeeId, LocalDate from, LocalDate to, Long excludeLeaveId) {
+        ensureLoaded();
+        List<LeaveInterval> conflicts = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IntervalTree<LeaveInterval> tree = byEmployee.get(employeeId);
+            if (tree != null) {
+                tree.forEachOverlapping(from, to, leave -> {
+                    if (!leave.isRestAfterCob() && !leave.getLeaveId().equals(excludeLeaveId)) conflicts.add(leave);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return conflicts;
+    }
+
+    // Applies committed changes; a null value means the leave was deleted
+    void apply(Map<Long, LeaveInterval> changes) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) return; // the initial load will read them from the database (a running load holds the lock)
+            changes.forEach((leaveId, leave) -> {
+                removeLocked(leaveId);
+                if (leave != null && INDEXED_STATUSES.contains(leave.getStatus())) putLocked(leave);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        lock.writeLock().lock();
+        try {
+            if (loaded) return;
+            long started = System.nanoTime();
+            clearLocked();
+            for (LeaveInterval leave : leaveRepository.findLeaveIntervalsByStatusIn(INDEXED_STATUSES, SupportSchedulerService.REST_AFTER_COB_REASON)) putLocked(leave);
+            loaded = true;
+            logger.info("Leave index loaded: {} leaves of {} employees in {} ms",
+                    all.size(), byEmployee.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(LeaveInterval leave) {
+        all.put(leave.getLeaveId(), leave.getStartDate(), leave.getEndDate(), leave);
+        byEmployee.computeIfAbsent(leave.getEmployeeId(), id -> new IntervalTree<>())
+                .put(leave.getLeaveId(), leave.getStartDate(), leave.getEndDate(), leave);
+        employeeOfLeave.put(leave.getLeaveId(), leave.getEmployeeId());
+    }
+
+    private void removeLocked(Long leaveId) {
+        if (!all.remove(leaveId)) return;
+        Long employeeId = employeeOfLeave.remove(leaveId);
+        IntervalTree<LeaveInterval> tree = byEmployee.get(employeeId);
+        if (tree != null && tree.remove(leaveId) && tree.size() == 0) byEmployee.remove(employeeId);
+    }
+
+    private void clearLocked() {
+        all = new IntervalTree<>();
+        byEmployee.clear();
+        employeeOfLeave.clear();
+    }
+}
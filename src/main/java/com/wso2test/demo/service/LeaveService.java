@@ -1,36 +1,65 @@
 package com.wso2test.demo.service;
 
+import com.wso2test.demo.dto.LeaveInterval;
+import com.wso2test.demo.dto.ScheduleRepairResult;
 import com.wso2test.demo.model.Employee;
 import com.wso2test.demo.model.EmployeeStatus;
 import com.wso2test.demo.model.Leave;
 import com.wso2test.demo.model.LeaveStatus;
 import com.wso2test.demo.respository.EmployeeRepository;
 import com.wso2test.demo.respository.LeaveRepository;
+import com.wso2test.demo.util.LenientDateParser;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
+// One transaction per call: the leave and its employee are loaded once and flushed as plain UPDATEs instead of
+// being merged back (and re-selected) by separate save() calls
 @Service
+@Transactional
 public class LeaveService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LeaveService.class);
+
     private final LeaveRepository leaveRepository;
     private final EmployeeRepository employeeRepository;
+    private final ScheduleRepairService scheduleRepairService;
+    private final ScheduleExportCache scheduleExportCache;
+    private final LeaveIntervalIndex leaveIntervalIndex;
+    private final boolean repairOnApproval;
 
     @Autowired
-    public LeaveService(LeaveRepository leaveRepository, EmployeeRepository employeeRepository) {
+    public LeaveService(LeaveRepository leaveRepository, EmployeeRepository employeeRepository,
+                        ScheduleRepairService scheduleRepairService, ScheduleExportCache scheduleExportCache,
+                        LeaveIntervalIndex leaveIntervalIndex,
+                        @Value("${scheduler.repair.on-leave-approval:true}") boolean repairOnApproval) {
         this.leaveRepository = leaveRepository;
         this.employeeRepository = employeeRepository;
+        this.scheduleRepairService = scheduleRepairService;
+        this.scheduleExportCache = scheduleExportCache;
+        this.leaveIntervalIndex = leaveIntervalIndex;
+        this.repairOnApproval = repairOnApproval;
     }
 
     // Add new leave request
     public Leave addLeave(Long employeeId, String leaveReason, String startDate, String endDate) {
-        Employee employee = getEmployeeById(employeeId);
-        LocalDate start = LocalDate.parse(startDate);
-        LocalDate end = LocalDate.parse(endDate);
+        Employee employee = lockEmployee(employeeId);
+        LocalDate start = LenientDateParser.parse(startDate);
+        LocalDate end = LenientDateParser.parse(endDate);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("Leave ends before it starts: " + start + " to " + end);
+        }
+        rejectOverlap(employee, start, end, null);
 
         Leave leave = new Leave();
         leave.setEmployee(employee);
@@ -38,20 +67,39 @@ public class LeaveService {
         leave.setStartDate(start);
         leave.setEndDate(end);
 
-        return leaveRepository.save(leave);
+        Leave saved = leaveRepository.save(leave);
+        invalidateExports(saved);
+        return saved;
+    }
+
+    // Get every leave
+    @Transactional(readOnly = true)
+    public List<Leave> getAllLeaves() {
+        return leaveRepository.findAll();
     }
 
     // Get all leaves for a given employee
+    @Transactional(readOnly = true)
     public List<Leave> getLeavesByEmployeeId(Long employeeId) {
         return leaveRepository.findByEmployeeId(employeeId);
     }
 
-    // Get leaves overlapping a specific date
+    // Get approved and pending leaves overlapping a specific date (served from the leave index)
+    @Transactional(readOnly = true)
     public List<Leave> getLeavesOverlappingDate(LocalDate date) {
-        return leaveRepository.findByStartDateLessThanEqualAndEndDateGreaterThanEqual(date, date);
+        List<Long> leaveIds = leaveIntervalIndex.findOverlapping(date, date).stream()
+                .map(LeaveInterval::getLeaveId).collect(Collectors.toList());
+        return leaveIds.isEmpty() ? new ArrayList<>() : leaveRepository.findAllById(leaveIds);
+    }
+
+    // Who is on leave (approved or pending) during [from, to], without loading any entity
+    @Transactional(readOnly = true)
+    public List<LeaveInterval> getLeavePeriodsBetween(LocalDate from, LocalDate to) {
+        return leaveIntervalIndex.findOverlapping(from, to);
     }
 
     // Get leaves within a date range
+    @Transactional(readOnly = true)
     public List<Leave> getLeavesBetweenDates(LocalDate startDate, LocalDate endDate) {
         return leaveRepository.findByStartDateBetween(startDate, endDate);
     }
@@ -59,6 +107,11 @@ public class LeaveService {
     // Update a leave request
     public Leave updateLeave(Long leaveId, Leave updatedLeave) {
         Leave existingLeave = getLeaveById(leaveId);
+        if (LeaveIntervalIndex.INDEXED_STATUSES.contains(updatedLeave.getStatus())) {
+            Long employeeId = updatedLeave.getEmployee() != null ? updatedLeave.getEmployee().getId() : existingLeave.getEmployee().getId();
+            rejectOverlap(lockEmployee(employeeId), updatedLeave.getStartDate(), updatedLeave.getEndDate(), leaveId);
+        }
+        invalidateExports(existingLeave);
 
         existingLeave.setStartDate(updatedLeave.getStartDate());
         existingLeave.setEndDate(updatedLeave.getEndDate());
@@ -66,7 +119,9 @@ public class LeaveService {
         existingLeave.setEmployee(updatedLeave.getEmployee());
         existingLeave.setStatus(updatedLeave.getStatus());
 
-        return leaveRepository.save(existingLeave);
+        Leave saved = leaveRepository.save(existingLeave);
+        invalidateExports(saved);
+        return saved;
     }
 
     // Delete a leave and reset employee status if necessary
@@ -80,6 +135,7 @@ public class LeaveService {
         }
 
         leaveRepository.delete(leave);
+        invalidateExports(leave);
     }
 
     // Approve, reject, or cancel a leave and update employee status accordingly
@@ -93,6 +149,9 @@ public class LeaveService {
             throw new IllegalArgumentException("Invalid leave status: " + status);
         }
 
+        if (LeaveIntervalIndex.INDEXED_STATUSES.contains(leaveStatus) && !LeaveIntervalIndex.INDEXED_STATUSES.contains(leave.getStatus())) {
+            rejectOverlap(lockEmployee(leave.getEmployee().getId()), leave.getStartDate(), leave.getEndDate(), leaveId); // re-opening a rejected/cancelled leave
+        }
         leave.setStatus(leaveStatus);
 
         Employee employee = leave.getEmployee();
@@ -103,17 +162,45 @@ public class LeaveService {
         }
 
         employeeRepository.save(employee);
-        return leaveRepository.save(leave);
+        Leave saved = leaveRepository.save(leave);
+        invalidateExports(saved);
+
+        // Backfill shifts already published for the leave period
+        if (leaveStatus == LeaveStatus.APPROVED && repairOnApproval) {
+            ScheduleRepairResult repair = scheduleRepairService.repair(employee.getId(), leave.getStartDate(), leave.getEndDate());
+            if (!repair.getChanges().isEmpty()) logger.info("Leave {} approved; schedule repaired: {}", leaveId, repair.getChanges());
+        }
+        return saved;
     }
 
     // --- Helper methods ---
-    private Leave getLeaveById(Long leaveId) {
-        return leaveRepository.findById(leaveId)
-                .orElseThrow(() -> new EntityNotFoundException("Leave not found with ID: " + leaveId));
+    // An employee may not hold two approved/pending leaves on the same day. Checked against the database, not the
+    // leave index (which only sees leaves committed by this instance), while the caller holds the employee's row
+    // lock: concurrent writes for the same employee, from any instance, run the check one after the other.
+    private void rejectOverlap(Employee employee, LocalDate start, LocalDate end, Long excludeLeaveId) {
+        if (start == null || end == null) return;
+        List<LeaveInterval> conflicts = leaveRepository.findConflictingLeaves(employee.getId(), start, end,
+                LeaveIntervalIndex.INDEXED_STATUSES, SupportSchedulerService.REST_AFTER_COB_REASON, excludeLeaveId);
+        if (!conflicts.isEmpty()) {
+            LeaveInterval first = conflicts.get(0);
+            throw new IllegalStateException("Leave overlaps leave " + first.getLeaveId() + " (" + first.getStatus() + ", "
+                    + first.getStartDate() + " to " + first.getEndDate() + ") of employee " + employee.getId());
+        }
     }
 
-    private Employee getEmployeeById(Long employeeId) {
-        return employeeRepository.findById(employeeId)
+    private Employee lockEmployee(Long employeeId) {
+        return employeeRepository.findByIdForUpdate(employeeId)
                 .orElseThrow(() -> new EntityNotFoundException("Employee not found with ID: " + employeeId));
     }
+
+    private void invalidateExports(Leave leave) {
+        if (leave.getStartDate() != null && leave.getEndDate() != null && !leave.getEndDate().isBefore(leave.getStartDate())) {
+            scheduleExportCache.invalidate(leave.getStartDate(), leave.getEndDate());
+        }
+    }
+
+    private Leave getLeaveById(Long leaveId) {
+        return leaveRepository.findById(leaveId)
+                .orElseThrow(() -> new EntityNotFoundException("Leave not found with ID: " + leaveId));
+    }
 }
@@ -0,0 +1,212 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.AggregatedScheduleOutput;
+import com.wso2test.demo.dto.DailyNonSupportScheduleRow;
+import com.wso2test.demo.dto.DailySupportScheduleRow;
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.scheduling.SchedulerMetrics;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Month;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+
+// Renders an aggregated monthly schedule (planned or persisted) as the two-sheet Excel workbook
+@Service
+public class ScheduleExcelService {
+
+    public static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    // Rows kept in memory per sheet before older ones are flushed to disk
+    private static final int ROW_WINDOW = 100;
+
+    private final SchedulerMetrics metrics;
+
+    public ScheduleExcelService(SchedulerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public static String fileName(int year, int month) {
+        return String.format("schedules_%d_%02d.xlsx", year, month);
+    }
+
+    // Other divisions get their name in the file name, e.g. schedules_card_operations_2027_03.xlsx
+    public static String fileName(String division, int year, int month) {
+        if (Division.orDefault(division).equals(Division.DEFAULT)) return fileName(year, month);
+        String slug = division.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_").replaceAll("^_|_$", "");
+        return String.format("schedules_%s_%d_%02d.xlsx", slug, year, month);
+    }
+
+    // Convenience for callers that need the file in memory (e.g. zipping several months)
+    public byte[] render(AggregatedScheduleOutput aggregatedOutput, int year, int month) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        write(aggregatedOutput, year, month, bos);
+        return bos.toByteArray();
+    }
+
+    /**
+     * Streams the workbook to {@code out}. Rows are flushed to a temp file once more than {@link #ROW_WINDOW} are
+     * pending and column widths are fixed up front, so memory stays flat however many rows are exported.
+     */
+    public void write(AggregatedScheduleOutput aggregatedOutput, int year, int month, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
+            // --- Sheet 1: Non-Support Schedule (System Monitoring & COB) ---
+            Sheet nonSupportSheet = workbook.createSheet("System_Monitoring_COB");
+            // Add a title row for the first sheet
+            Row titleRowNonSupport = nonSupportSheet.createRow(0);
+            Cell titleCellNonSupport = titleRowNonSupport.createCell(0);
+            titleCellNonSupport.setCellValue("Staffs Assigned for System Monitoring, COB and Extended Support.");
+            // You can merge cells here if you want:
+            // nonSupportSheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 5)); // Merge across 6 columns
+            // Apply styling to titleCellNonSupport (bold, larger font, etc.)
+
+            createNonSupportSheetContent(nonSupportSheet, aggregatedOutput.getNonSupportSchedule(), workbook);
+
+
+            // --- Sheet 2: Support Schedule ---
+            Sheet supportSheet = workbook.createSheet("Support_Schedule");
+             // Add a title row for the second sheet
+            Row titleRowSupport = supportSheet.createRow(0);
+            Cell titleCellSupport = titleRowSupport.createCell(0);
+            titleCellSupport.setCellValue(Division.orDefault(aggregatedOutput.getDivision()));
+            // supportSheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 4)); // Merge across 5 columns
+            // Apply styling
+
+            Row subTitleRowSupport = supportSheet.createRow(1);
+            Cell subTitleCellSupport = subTitleRowSupport.createCell(0);
+            String monthName = Month.of(month).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+            subTitleCellSupport.setCellValue("Daily support schedule (Schedule for Help desk of each day of the month of " + monthName + ". " + year +")");
+            // supportSheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 4));
+
+
+            createSupportSheetContent(supportSheet, aggregatedOutput.getSupportSchedule(), workbook);
+
+            workbook.write(out);
+        } finally {
+            workbook.close();
+            workbook.dispose(); // delete the temp files backing the flushed rows
+            metrics.recordPhase(SchedulerMetrics.PHASE_RENDER, started);
+        }
+    }
+
+    private void createNonSupportSheetContent(Sheet sheet, List<DailyNonSupportScheduleRow> data, Workbook workbook) {
+        // Define header style
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        headerStyle.setAlignment(HorizontalAlignment.CENTER);
+        headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+        headerStyle.setBorderBottom(BorderStyle.THIN);
+        headerStyle.setBorderTop(BorderStyle.THIN);
+        headerStyle.setBorderLeft(BorderStyle.THIN);
+        headerStyle.setBorderRight(BorderStyle.THIN);
+        // headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        // headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+
+        // Fixed widths (in characters) instead of autoSizeColumn, which measures every cell and needs all rows in memory
+        sheet.setColumnWidth(0, 6 * 256);  // No
+        sheet.setColumnWidth(1, 12 * 256); // Date
+        sheet.setColumnWidth(2, 12 * 256); // Day
+        sheet.setColumnWidth(3, 25 * 256); // Approx 25 characters width for System Monitoring
+        sheet.setColumnWidth(4, 35 * 256); // Approx 35 characters width for COB
+        sheet.setColumnWidth(5, 30 * 256); // Approx 30 characters width for Remark
+
+        // Start headers from row 2 to accommodate title rows
+        Row headerRow = sheet.createRow(2); // Assuming title rows are 0 and 1
+        String[] nonSupportHeaders = {"No", "Date", "Day", "System Monitoring Performers", "Evening COB Performers", "Remark"};
+        for (int i = 0; i < nonSupportHeaders.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(nonSupportHeaders[i]);
+            cell.setCellStyle(headerStyle);
+        }
+
+        int rowNum = 3; // Data starts from row 3
+        CellStyle defaultCellStyle = workbook.createCellStyle();
+        defaultCellStyle.setBorderBottom(BorderStyle.THIN);
+        defaultCellStyle.setBorderTop(BorderStyle.THIN);
+        defaultCellStyle.setBorderLeft(BorderStyle.THIN);
+        defaultCellStyle.setBorderRight(BorderStyle.THIN);
+        defaultCellStyle.setWrapText(true); // Allow text wrapping in cells
+
+        for (DailyNonSupportScheduleRow rowData : data) {
+            Row row = sheet.createRow(rowNum++);
+            createCell(row, 0, rowNum - 3, defaultCellStyle); // Simple row number
+            createCell(row, 1, rowData.getDate().toString(), defaultCellStyle); // Or format as needed
+            createCell(row, 2, rowData.getDayOfWeek(), defaultCellStyle);
+            createCell(row, 3, rowData.getSystemMonitoringPerformersDisplay(), defaultCellStyle);
+            createCell(row, 4, rowData.getEveningCobPerformersDisplay(), defaultCellStyle);
+            createCell(row, 5, rowData.getRemark() != null ? rowData.getRemark() : "", defaultCellStyle);
+        }
+    }
+
+    private void createSupportSheetContent(Sheet sheet, List<DailySupportScheduleRow> data, Workbook workbook) {
+        CellStyle headerStyle = workbook.createCellStyle();
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        headerStyle.setAlignment(HorizontalAlignment.CENTER);
+        headerStyle.setVerticalAlignment(VerticalAlignment.CENTER);
+        headerStyle.setBorderBottom(BorderStyle.THIN);
+        headerStyle.setBorderTop(BorderStyle.THIN);
+        headerStyle.setBorderLeft(BorderStyle.THIN);
+        headerStyle.setBorderRight(BorderStyle.THIN);
+
+        sheet.setColumnWidth(0, 12 * 256); // Date
+        sheet.setColumnWidth(1, 12 * 256); // Day
+        sheet.setColumnWidth(2, 40 * 256); // Reserved staff
+        sheet.setColumnWidth(3, 40 * 256); // Assigned Group A
+        sheet.setColumnWidth(4, 30 * 256); // Remark
+
+        // Start headers from row 3 to accommodate title rows
+        Row headerRow = sheet.createRow(3); // Assuming title rows are 0, 1, 2
+        String[] supportHeaders = {"Date", "Day", "Reserved staff if supporters in Group (A) are not available", "Assigned Group (A) supporter", "Remark"};
+        for (int i = 0; i < supportHeaders.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(supportHeaders[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        
+        int rowNum = 4; // Data starts from row 4
+        CellStyle defaultCellStyle = workbook.createCellStyle();
+        defaultCellStyle.setBorderBottom(BorderStyle.THIN);
+        defaultCellStyle.setBorderTop(BorderStyle.THIN);
+        defaultCellStyle.setBorderLeft(BorderStyle.THIN);
+        defaultCellStyle.setBorderRight(BorderStyle.THIN);
+        defaultCellStyle.setWrapText(true);
+
+        for (DailySupportScheduleRow rowData : data) {
+            Row row = sheet.createRow(rowNum++);
+            createCell(row, 0, rowData.getDate().toString(), defaultCellStyle);
+            createCell(row, 1, rowData.getDayOfWeek(), defaultCellStyle);
+            createCell(row, 2, rowData.getReservedStaffDisplay(), defaultCellStyle); // Logic for this needs to be implemented if needed
+            createCell(row, 3, rowData.getAssignedGroupADisplay(), defaultCellStyle);
+            createCell(row, 4, rowData.getRemark() != null ? rowData.getRemark() : "", defaultCellStyle);
+        }
+    }
+
+    private void createCell(Row row, int columnNumber, String value, CellStyle style) {
+        Cell cell = row.createCell(columnNumber);
+        cell.setCellValue(value);
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+    }
+    private void createCell(Row row, int columnNumber, Number value, CellStyle style) {
+        Cell cell = row.createCell(columnNumber);
+        if (value != null) cell.setCellValue(value.doubleValue()); // POI handles int/long via doubleValue
+        if (style != null) {
+            cell.setCellStyle(style);
+        }
+    }
+}
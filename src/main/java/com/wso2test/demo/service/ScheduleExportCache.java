@@ -0,0 +1,178 @@
+package com.wso2test.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Rendered monthly exports (one per division and month), evicted least-recently-used once their total size exceeds
+ * {@code scheduler.export.cache.max-bytes}. Every month has a version that writers bump through
+ * {@link #invalidate}, for all divisions at once; a render only lands in the cache if the version did not move
+ * while it ran, so a download racing a write can never pin stale bytes.
+ */
+@Component
+public class ScheduleExportCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleExportCache.class);
+
+    private final long maxBytes;
+    private final LinkedHashMap<ExportKey, CachedExport> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<YearMonth, Long> versions = new HashMap<>(); // tick of the month's last invalidation
+    private long clock;
+    private long allInvalidatedAt;
+    private long totalBytes;
+
+    public ScheduleExportCache(@Value("${scheduler.export.cache.max-bytes:33554432}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static final class CachedExport {
+        private final byte[] bytes;
+        private final String etag;
+
+        CachedExport(byte[] bytes) {
+            this.bytes = bytes;
+            this.etag = "\"" + sha256(bytes) + "\"";
+        }
+
+        public byte[] getBytes() { return bytes; }
+        public String getEtag() { return etag; }
+    }
+
+    // Returns the cached export or renders it; renderer returns null when there is nothing to export
+    public CachedExport get(String division, YearMonth month, Supplier<byte[]> renderer) {
+        ExportKey key = new ExportKey(division, month);
+        long version;
+        synchronized (this) {
+            CachedExport cached = entries.get(key);
+            if (cached != null) return cached;
+            version = versionOf(month);
+        }
+        byte[] bytes = renderer.get();
+        if (bytes == null) return null;
+        CachedExport rendered = new CachedExport(bytes);
+        synchronized (this) {
+            if (versionOf(month) == version && bytes.length <= maxBytes) {
+                CachedExport previous = entries.put(key, rendered);
+                if (previous != null) totalBytes -= previous.bytes.length;
+                totalBytes += bytes.length;
+                evict();
+            }
+        }
+        return rendered;
+    }
+
+    // Drops every month touched by [from, to]; repeated after commit so readers of the old data cannot re-cache it
+    public void invalidate(LocalDate from, LocalDate to) {
+        Runnable invalidation = () -> {
+            synchronized (this) {
+                for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+                    versions.put(month, ++clock);
+                    remove(month);
+                }
+            }
+        };
+        runNowAndAfterCommit(invalidation);
+    }
+
+    public void invalidate(YearMonth month) {
+        invalidate(month.atDay(1), month.atEndOfMonth());
+    }
+
+    public void invalidateAll() {
+        runNowAndAfterCommit(() -> {
+            synchronized (this) {
+                allInvalidatedAt = ++clock;
+                entries.clear();
+                totalBytes = 0;
+            }
+        });
+    }
+
+    private long versionOf(YearMonth month) {
+        return Math.max(allInvalidatedAt, versions.getOrDefault(month, 0L));
+    }
+
+    private void remove(YearMonth month) {
+        Iterator<Map.Entry<ExportKey, CachedExport>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ExportKey, CachedExport> entry = it.next();
+            if (!entry.getKey().month.equals(month)) continue;
+            totalBytes -= entry.getValue().bytes.length;
+            it.remove();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<ExportKey, CachedExport>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<ExportKey, CachedExport> entry = eldest.next();
+            totalBytes -= entry.getValue().bytes.length;
+            eldest.remove();
+            logger.debug("Evicted export of {} from the cache", entry.getKey());
+        }
+    }
+
+    private static void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private static final class ExportKey {
+        private final String division;
+        private final YearMonth month;
+
+        ExportKey(String division, YearMonth month) {
+            this.division = division;
+            this.month = month;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ExportKey)) return false;
+            ExportKey other = (ExportKey) o;
+            return division.equals(other.division) && month.equals(other.month);
+        }
+
+        @Override
+        public int hashCode() {
+            return division.hashCode() * 31 + month.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return month + " of " + division;
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) hex.append(String.format("%02x", b));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
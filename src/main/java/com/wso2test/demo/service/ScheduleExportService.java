@@ -0,0 +1,38 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.AggregatedScheduleOutput;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+
+// Excel exports of persisted months, rendered once per schedule version and served from ScheduleExportCache
+@Service
+public class ScheduleExportService {
+
+    private final SupportSchedulerService supportSchedulerService;
+    private final ScheduleExcelService scheduleExcelService;
+    private final ScheduleExportCache scheduleExportCache;
+
+    public ScheduleExportService(SupportSchedulerService supportSchedulerService,
+                                 ScheduleExcelService scheduleExcelService,
+                                 ScheduleExportCache scheduleExportCache) {
+        this.supportSchedulerService = supportSchedulerService;
+        this.scheduleExcelService = scheduleExcelService;
+        this.scheduleExportCache = scheduleExportCache;
+    }
+
+    // Null if nothing is scheduled in the division's month
+    public ScheduleExportCache.CachedExport export(String division, YearMonth month) {
+        return scheduleExportCache.get(division, month, () -> {
+            AggregatedScheduleOutput output = supportSchedulerService.loadPersistedSchedule(division, month);
+            if (output == null) return null;
+            try {
+                return scheduleExcelService.render(output, month.getYear(), month.getMonthValue());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
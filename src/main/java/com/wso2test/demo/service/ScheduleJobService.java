@@ -0,0 +1,158 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.ScheduleJobStatus;
+import com.wso2test.demo.dto.ScheduleJobStatus.Phase;
+import com.wso2test.demo.scheduling.PlanningOptions;
+import com.wso2test.demo.scheduling.SchedulePlan;
+import com.wso2test.demo.scheduling.SchedulerMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates months in the background: plan (read-only transaction), persist (its own transaction), then render the
+ * workbook once and keep it for download. Jobs run on the bounded scheduleJobExecutor; a submission for a division's
+ * month that already has a queued or running job returns that job, so a client retry does not start a second generation.
+ * Finished jobs are kept for scheduler.jobs.retention-minutes.
+ */
+@Service
+public class ScheduleJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleJobService.class);
+
+    private final SupportSchedulerService supportSchedulerService;
+    private final ScheduleExcelService scheduleExcelService;
+    private final TaskExecutor jobExecutor;
+    private final Duration retention;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> activeByMonth = new HashMap<>(); // by division + month, guarded by this
+
+    public ScheduleJobService(SupportSchedulerService supportSchedulerService,
+                              ScheduleExcelService scheduleExcelService,
+                              @Qualifier("scheduleJobExecutor") TaskExecutor jobExecutor,
+                              @Value("${scheduler.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.supportSchedulerService = supportSchedulerService;
+        this.scheduleExcelService = scheduleExcelService;
+        this.jobExecutor = jobExecutor;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    /**
+     * Queues the month and returns its job. Throws IllegalStateException if the month is already scheduled,
+     * IllegalArgumentException for an unknown engine and TaskRejectedException if the job queue is full.
+     */
+    public ScheduleJobStatus submit(YearMonth yearMonth, List<String> excludeJuniorDates, String engine) {
+        return submit(yearMonth, excludeJuniorDates, engine, null);
+    }
+
+    // division null = Division.DEFAULT
+    public ScheduleJobStatus submit(YearMonth yearMonth, List<String> excludeJuniorDates, String engine, String division) {
+        purgeExpired();
+        PlanningOptions options = supportSchedulerService.toPlanningOptions(excludeJuniorDates, engine, division);
+        supportSchedulerService.ensureNotScheduled(options.getDivision(), yearMonth);
+        String key = options.getDivision() + '|' + yearMonth;
+        synchronized (this) {
+            Job active = activeByMonth.get(key);
+            if (active != null) return active.status();
+
+            Job job = new Job(UUID.randomUUID().toString(), yearMonth, options.getDivision(), engine);
+            jobs.put(job.id, job);
+            activeByMonth.put(key, job);
+            try {
+                jobExecutor.execute(() -> run(job, options));
+            } catch (TaskRejectedException e) {
+                jobs.remove(job.id);
+                activeByMonth.remove(key);
+                throw e;
+            }
+            logger.info("Queued schedule job {} for {} of {}", job.id, yearMonth, job.division);
+            return job.status();
+        }
+    }
+
+    // Null if the job is unknown or expired
+    public ScheduleJobStatus getStatus(String id) {
+        Job job = jobs.get(id);
+        return job != null ? job.status() : null;
+    }
+
+    // The rendered workbook of a finished job, null until the job is DONE
+    public byte[] getResult(String id) {
+        Job job = jobs.get(id);
+        return job != null ? job.workbook : null;
+    }
+
+    private void run(Job job, PlanningOptions options) {
+        job.startedAt = Instant.now();
+        SchedulerMetrics.Generation generation = supportSchedulerService.startGeneration(options.getEngine());
+        try {
+            job.phase = Phase.PLANNING;
+            PlanningOptions tracked = options.toBuilder().onDayPlanned(date -> job.daysPlanned.incrementAndGet()).build();
+            SchedulePlan plan = supportSchedulerService.planMonthlySchedule(job.yearMonth, tracked, null);
+
+            job.phase = Phase.PERSISTING;
+            supportSchedulerService.commitPlan(plan);
+            generation.stop(true); // rendering is timed separately (scheduler.phase render)
+            generation = null;
+
+            job.phase = Phase.RENDERING;
+            job.workbook = scheduleExcelService.render(plan.getOutput(), job.yearMonth.getYear(), job.yearMonth.getMonthValue());
+            job.phase = Phase.DONE;
+            logger.info("Schedule job {} for {} finished in {} ms", job.id, job.yearMonth,
+                    Duration.between(job.startedAt, Instant.now()).toMillis());
+        } catch (Exception e) {
+            logger.error("Schedule job {} for {} failed", job.id, job.yearMonth, e);
+            job.error = e.getMessage();
+            job.phase = Phase.FAILED;
+        } finally {
+            if (generation != null) generation.stop(false);
+            job.finishedAt = Instant.now();
+            synchronized (this) {
+                activeByMonth.remove(job.division + '|' + job.yearMonth, job);
+            }
+        }
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class Job {
+        private final String id;
+        private final YearMonth yearMonth;
+        private final String division;
+        private final String engine;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicInteger daysPlanned = new AtomicInteger();
+        private volatile Phase phase = Phase.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile byte[] workbook;
+
+        Job(String id, YearMonth yearMonth, String division, String engine) {
+            this.id = id;
+            this.yearMonth = yearMonth;
+            this.division = division;
+            this.engine = engine;
+        }
+
+        ScheduleJobStatus status() {
+            return new ScheduleJobStatus(id, yearMonth, division, engine, phase, daysPlanned.get(), yearMonth.lengthOfMonth(),
+                    submittedAt, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.ScheduleEntry;
+import com.wso2test.demo.dto.ScheduleEntryPage;
+import com.wso2test.demo.model.ShiftType;
+import com.wso2test.demo.respository.SupportScheduleRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Read side of the schedule: one projection query per page, filtered by date range, shift and employee and
+ * paginated by keyset on (date, schedule id, employee id). A page costs the same however much history exists,
+ * and rows inserted behind the cursor never shift later pages the way OFFSET would.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ScheduleQueryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int MAX_PAGE_SIZE = 1_000;
+
+    private final SupportScheduleRepository supportScheduleRepository;
+
+    public ScheduleQueryService(SupportScheduleRepository supportScheduleRepository) {
+        this.supportScheduleRepository = supportScheduleRepository;
+    }
+
+    public ScheduleEntryPage findEntries(LocalDate from, LocalDate to, ShiftType shiftType, Long employeeId,
+                                         String after, Integer size) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Cursor cursor = after == null || after.isEmpty() ? new Cursor(from.minusDays(1), 0L, 0L) : Cursor.parse(after);
+        // One extra row tells whether another page follows
+        List<ScheduleEntry> rows = supportScheduleRepository.findEntriesAfter(from, to, shiftType, employeeId,
+                cursor.date, cursor.scheduleId, cursor.employeeId, PageRequest.of(0, pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new ScheduleEntryPage(rows, null);
+        }
+        List<ScheduleEntry> page = rows.subList(0, pageSize);
+        ScheduleEntry last = page.get(pageSize - 1);
+        return new ScheduleEntryPage(page, new Cursor(last.getAssignedDate(), last.getScheduleId(), last.getEmployeeId()).toString());
+    }
+
+    // Position of the last returned row, serialized as "date_scheduleId_employeeId"
+    private static final class Cursor {
+        private final LocalDate date;
+        private final Long scheduleId;
+        private final Long employeeId;
+
+        Cursor(LocalDate date, Long scheduleId, Long employeeId) {
+            this.date = date;
+            this.scheduleId = scheduleId;
+            this.employeeId = employeeId;
+        }
+
+        static Cursor parse(String value) {
+            String[] parts = value.split("_");
+            try {
+                if (parts.length != 3) throw new IllegalArgumentException();
+                return new Cursor(LocalDate.parse(parts[0]), Long.valueOf(parts[1]), Long.valueOf(parts[2]));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return date + "_" + scheduleId + "_" + employeeId;
+        }
+    }
+}
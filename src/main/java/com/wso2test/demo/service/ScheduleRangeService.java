@@ -0,0 +1,189 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.PartialRangeReport;
+import com.wso2test.demo.respository.SupportScheduleRepository;
+import com.wso2test.demo.scheduling.PlanningCarryOver;
+import com.wso2test.demo.scheduling.PlanningOptions;
+import com.wso2test.demo.scheduling.SchedulePlan;
+import com.wso2test.demo.scheduling.SchedulerMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Generates several consecutive months in one call. Months are planned back-to-back on the calling thread,
+ * each seeded with the previous month's carry-over, while already planned months are persisted (in order,
+ * one transaction per month) and rendered to Excel on the pipeline executor. A failure stops the range at that
+ * month; the months before it stay saved and are reported in a {@link PartialRangeException}.
+ */
+@Service
+public class ScheduleRangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleRangeService.class);
+
+    public static final int MAX_MONTHS = 24;
+
+    private final SupportSchedulerService supportSchedulerService;
+    private final SupportScheduleRepository supportScheduleRepository;
+    private final ScheduleExcelService scheduleExcelService;
+    private final TaskExecutor pipelineExecutor;
+
+    public ScheduleRangeService(SupportSchedulerService supportSchedulerService,
+                                SupportScheduleRepository supportScheduleRepository,
+                                ScheduleExcelService scheduleExcelService,
+                                @Qualifier("schedulePipelineExecutor") TaskExecutor pipelineExecutor) {
+        this.supportSchedulerService = supportSchedulerService;
+        this.supportScheduleRepository = supportScheduleRepository;
+        this.scheduleExcelService = scheduleExcelService;
+        this.pipelineExecutor = pipelineExecutor;
+    }
+
+    // Plans and persists every month; the returned export zips one workbook per month (schedules_YYYY_MM.xlsx)
+    public RangeExport generateRange(YearMonth from, YearMonth to, List<String> excludeJuniorsFromCobDates, String engine) {
+        return generateRange(from, to, excludeJuniorsFromCobDates, engine, null);
+    }
+
+    // The same for one division (null = Division.DEFAULT)
+    public RangeExport generateRange(YearMonth from, YearMonth to, List<String> excludeJuniorsFromCobDates, String engine, String division) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (from.plusMonths(MAX_MONTHS).isBefore(to.plusMonths(1))) {
+            throw new IllegalArgumentException("At most " + MAX_MONTHS + " months can be generated at once");
+        }
+        PlanningOptions options = supportSchedulerService.toPlanningOptions(excludeJuniorsFromCobDates, engine, division);
+        if (supportScheduleRepository.existsByDivisionAndAssignedDateBetween(options.getDivision(), from.atDay(1), to.atEndOfMonth())) {
+            throw new IllegalStateException("Schedule already exists for part of this period.");
+        }
+        logger.info("Generating schedules of {} from {} to {}", options.getDivision(), from, to);
+
+        CompletableFuture<Void> persisted = CompletableFuture.completedFuture(null);
+        List<YearMonth> persistedMonths = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<byte[]>> workbooks = new ArrayList<>();
+        PlanningCarryOver carryOver = null;
+        RuntimeException failure = null;
+
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (persisted.isCompletedExceptionally()) break; // a month failed to save; later months would build on it
+
+            // Each month is timed from planning to its commit (scheduler.generation), waiting on earlier commits included
+            SchedulerMetrics.Generation generation = supportSchedulerService.startGeneration(options.getEngine());
+            SchedulePlan plan;
+            try {
+                plan = supportSchedulerService.planMonthlySchedule(month, options, carryOver);
+            } catch (RuntimeException e) {
+                generation.stop(false);
+                failure = e;
+                break;
+            }
+            carryOver = plan.getCarryOver();
+
+            // Commits are chained so months are written in order and stop at the first failure
+            YearMonth plannedMonth = month;
+            persisted = persisted.thenRunAsync(() -> {
+                boolean succeeded = false;
+                try {
+                    supportSchedulerService.commitPlan(plan);
+                    succeeded = true;
+                } finally {
+                    generation.stop(succeeded);
+                }
+                persistedMonths.add(plannedMonth);
+            }, pipelineExecutor);
+            workbooks.add(CompletableFuture.supplyAsync(() -> render(plan, plannedMonth), pipelineExecutor));
+        }
+
+        // On every path the months already handed to the pipeline are committed (or failed) before this returns
+        try {
+            persisted.join();
+        } catch (CompletionException e) {
+            failure = unwrap(e); // an earlier month than a planning failure
+        }
+        if (failure != null) {
+            if (persistedMonths.isEmpty()) throw failure; // nothing saved; the range can simply be retried
+            YearMonth failedMonth = from.plusMonths(persistedMonths.size());
+            logger.warn("Generating schedules of {} stopped at {}; {} to {} are saved", options.getDivision(), failedMonth,
+                    from, failedMonth.minusMonths(1), failure);
+            throw new PartialRangeException(new PartialRangeReport(options.getDivision(), new ArrayList<>(persistedMonths),
+                    failedMonth, failure.getMessage()), failure);
+        }
+        return new RangeExport(options.getDivision(), from, workbooks);
+    }
+
+    // A range that failed after its first months were saved; they are not rolled back, the client resumes from the failed month
+    public static final class PartialRangeException extends RuntimeException {
+        private final PartialRangeReport report;
+
+        private PartialRangeException(PartialRangeReport report, Throwable cause) {
+            super("Schedules from " + report.getPersistedMonths().get(0) + " to "
+                    + report.getPersistedMonths().get(report.getPersistedMonths().size() - 1) + " were saved; "
+                    + report.getFailedMonth() + " failed: " + report.getError(), cause);
+            this.report = report;
+        }
+
+        public PartialRangeReport getReport() {
+            return report;
+        }
+    }
+
+    // The persisted months' workbooks (possibly still rendering), written as a zip on demand
+    public static final class RangeExport {
+        private final String division;
+        private final YearMonth from;
+        private final List<CompletableFuture<byte[]>> workbooks;
+
+        private RangeExport(String division, YearMonth from, List<CompletableFuture<byte[]>> workbooks) {
+            this.division = division;
+            this.from = from;
+            this.workbooks = workbooks;
+        }
+
+        // Streams one entry per month as soon as its workbook is ready; only one workbook is held at a time
+        public void writeZip(OutputStream out) throws IOException {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            try {
+                YearMonth month = from;
+                for (int i = 0; i < workbooks.size(); i++) {
+                    zip.putNextEntry(new ZipEntry(ScheduleExcelService.fileName(division, month.getYear(), month.getMonthValue())));
+                    zip.write(workbooks.get(i).join());
+                    workbooks.set(i, null);
+                    zip.closeEntry();
+                    month = month.plusMonths(1);
+                }
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+            zip.finish();
+        }
+    }
+
+    private byte[] render(SchedulePlan plan, YearMonth month) {
+        try {
+            return scheduleExcelService.render(plan.getOutput(), month.getYear(), month.getMonthValue());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof UncheckedIOException) return (UncheckedIOException) cause;
+        if (cause instanceof RuntimeException) return (RuntimeException) cause;
+        return e;
+    }
+}
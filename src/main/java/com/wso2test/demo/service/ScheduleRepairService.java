@@ -0,0 +1,226 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.dto.ScheduleRepairResult;
+import com.wso2test.demo.dto.ShiftAssignment;
+import com.wso2test.demo.dto.ShiftReplacement;
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.respository.LeaveRepository;
+import com.wso2test.demo.respository.SupportScheduleRepository;
+import com.wso2test.demo.scheduling.StaffingRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityNotFoundException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Patches an already published schedule when an employee's leave is approved afterwards. Only the shifts the
+ * employee holds during the leave are touched: each one gets a replacement from the same division who can take every team slot
+ * the removed employee could hold under the division's staffing rules, is not on leave, does not work the day before, the day
+ * itself or the day after, and stays under the monthly caps.
+ * Everyone else keeps their shifts, and the fairness ledger moves each shift from the removed employee to the replacement.
+ * Reads a fixed number of queries regardless of how many shifts are repaired, all scoped to the division of the shifts.
+ */
+@Service
+@Transactional
+public class ScheduleRepairService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleRepairService.class);
+
+    private final SupportScheduleRepository supportScheduleRepository;
+    private final LeaveRepository leaveRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ScheduleExportCache scheduleExportCache;
+    private final FairnessLedgerService fairnessLedgerService;
+    private final StaffingRuleService staffingRuleService;
+
+    public ScheduleRepairService(SupportScheduleRepository supportScheduleRepository,
+                                 LeaveRepository leaveRepository,
+                                 EmployeeRepository employeeRepository,
+                                 ScheduleExportCache scheduleExportCache,
+                                 FairnessLedgerService fairnessLedgerService,
+                                 StaffingRuleService staffingRuleService) {
+        this.supportScheduleRepository = supportScheduleRepository;
+        this.leaveRepository = leaveRepository;
+        this.employeeRepository = employeeRepository;
+        this.scheduleExportCache = scheduleExportCache;
+        this.fairnessLedgerService = fairnessLedgerService;
+        this.staffingRuleService = staffingRuleService;
+    }
+
+    public ScheduleRepairResult repairForLeave(Long leaveId) {
+        Leave leave = leaveRepository.findById(leaveId)
+                .orElseThrow(() -> new EntityNotFoundException("Leave not found with ID: " + leaveId));
+        if (leave.getStatus() != LeaveStatus.APPROVED) {
+            throw new IllegalStateException("Leave " + leaveId + " is not approved.");
+        }
+        return repair(leave.getEmployee().getId(), leave.getStartDate(), leave.getEndDate());
+    }
+
+    // Takes the employee off every scheduled shift in [startDate, endDate] and backfills each one
+    public ScheduleRepairResult repair(Long employeeId, LocalDate startDate, LocalDate endDate) {
+        long started = System.nanoTime();
+        ScheduleRepairResult result = new ScheduleRepairResult(employeeId, startDate, endDate);
+
+        List<SupportSchedule> affected = supportScheduleRepository.findByEmployeesIdAndAssignedDateBetween(employeeId, startDate, endDate);
+        if (affected.isEmpty()) {
+            result.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+            return result;
+        }
+        affected.sort(Comparator.comparing(SupportSchedule::getAssignedDate).thenComparing(SupportSchedule::getShiftType));
+        LocalDate first = affected.get(0).getAssignedDate();
+        LocalDate last = affected.get(affected.size() - 1).getAssignedDate();
+
+        Map<String, RepairState> states = new HashMap<>(); // one division in practice: the employee's
+        List<Leave> restLeaves = new ArrayList<>();
+
+        for (SupportSchedule schedule : affected) {
+            RepairState state = states.computeIfAbsent(schedule.getDivision(), division -> loadState(division, first, last));
+            LocalDate date = schedule.getAssignedDate();
+            ShiftType shiftType = schedule.getShiftType();
+            Employee removed = schedule.getEmployees().stream()
+                    .filter(e -> employeeId.equals(e.getId()))
+                    .findFirst().orElse(null);
+            if (removed == null) continue;
+
+            schedule.getEmployees().remove(removed);
+            state.unassign(date, shiftType, employeeId);
+            if (shiftType == ShiftType.COB) dropRestAfterCob(employeeId, date.plusDays(1));
+
+            Employee replacement = pickReplacement(state, schedule, removed);
+            if (replacement != null) {
+                schedule.getEmployees().add(replacement);
+                state.assign(date, shiftType, replacement.getId());
+                if (shiftType == ShiftType.COB && !state.isOnLeave(replacement.getId(), date.plusDays(1))) {
+                    restLeaves.add(restAfterCob(replacement, date.plusDays(1)));
+                }
+            } else {
+                logger.warn("Repair: no replacement for {} on {} {}; shift left one person short", removed.getName(), date, shiftType);
+                result.setUnfilled(result.getUnfilled() + 1);
+            }
+            result.getChanges().add(new ShiftReplacement(date, shiftType, employeeId, removed.getName(),
+                    replacement == null ? null : replacement.getId(), replacement == null ? null : replacement.getName()));
+        }
+
+        supportScheduleRepository.saveAll(affected);
+        leaveRepository.saveAll(restLeaves);
+        supportScheduleRepository.flush();
+        fairnessLedgerService.recordReplacements(result.getChanges());
+        scheduleExportCache.invalidate(first, last.plusDays(1));
+
+        result.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+        logger.info("Repaired {} shifts of employee {} between {} and {} in {} ms ({} unfilled)",
+                result.getChanges().size(), employeeId, startDate, endDate, result.getDurationMillis(), result.getUnfilled());
+        return result;
+    }
+
+    // From the division's roster and able to take the seat; least loaded on that shift type this month first
+    private Employee pickReplacement(RepairState state, SupportSchedule schedule, Employee removed) {
+        LocalDate date = schedule.getAssignedDate();
+        ShiftType shiftType = schedule.getShiftType();
+        Set<Long> onShift = schedule.getEmployees().stream().map(Employee::getId).collect(Collectors.toSet());
+        Map<Long, Integer> counts = state.counts(YearMonth.from(date), shiftType);
+        StaffingRules rules = staffingRuleService.rulesFor(schedule.getDivision());
+        StaffingRules.Team team = rules.team(shiftType);
+        int removedAttributes = StaffingRules.attributesOf(removed);
+
+        return state.employees.stream()
+                .filter(e -> !onShift.contains(e.getId()) && !e.getId().equals(removed.getId()))
+                .filter(e -> canReplace(team, removedAttributes, StaffingRules.attributesOf(e)))
+                .filter(e -> !state.isOnLeave(e.getId(), date))
+                .filter(e -> !state.worksOn(e.getId(), date.minusDays(1)) && !state.worksOn(e.getId(), date) && !state.worksOn(e.getId(), date.plusDays(1)))
+                .filter(e -> counts.getOrDefault(e.getId(), 0) < rules.cap(shiftType, StaffingRules.attributesOf(e)))
+                .min(Comparator.comparingInt((Employee e) -> counts.getOrDefault(e.getId(), 0)).thenComparing(Employee::getId))
+                .orElse(null);
+    }
+
+    // The candidate must fit every slot of the team the removed employee could have held: with the default rules a COB
+    // performer's COB seat may also go to a senior support, but not the other way round
+    private boolean canReplace(StaffingRules.Team team, int removedAttributes, int candidateAttributes) {
+        if (candidateAttributes == 0) return false;
+        if (candidateAttributes == removedAttributes) return true;
+        boolean anySlot = false;
+        for (int k = 0; k < team.size(); k++) {
+            if (!team.slotAccepts(k, removedAttributes)) continue;
+            if (!team.slotAccepts(k, candidateAttributes)) return false;
+            anySlot = true;
+        }
+        return anySlot;
+    }
+
+    // The rest day planned after the removed COB shift is no longer needed
+    private void dropRestAfterCob(Long employeeId, LocalDate restDay) {
+        List<Leave> rest = leaveRepository.findByEmployeeIdAndStartDateAndEndDate(employeeId, restDay, restDay).stream()
+                .filter(l -> SupportSchedulerService.REST_AFTER_COB_REASON.equals(l.getLeaveReason()))
+                .collect(Collectors.toList());
+        leaveRepository.deleteAll(rest);
+    }
+
+    private Leave restAfterCob(Employee employee, LocalDate restDay) {
+        Leave leave = new Leave();
+        leave.setEmployee(employee);
+        leave.setStartDate(restDay);
+        leave.setEndDate(restDay);
+        leave.setStatus(LeaveStatus.APPROVED);
+        leave.setLeaveReason(SupportSchedulerService.REST_AFTER_COB_REASON);
+        return leave;
+    }
+
+    // The division's active roster, its shifts of the months involved (for the caps and the no-consecutive-days check)
+    // and its leaves around the repaired days
+    private RepairState loadState(String division, LocalDate first, LocalDate last) {
+        LocalDate from = YearMonth.from(first).atDay(1).minusDays(1);
+        LocalDate to = YearMonth.from(last).atEndOfMonth().plusDays(1);
+        return new RepairState(
+                employeeRepository.findActiveEmployeesByDivision(division),
+                supportScheduleRepository.findShiftAssignmentsByDivisionBetween(division, from, to),
+                leaveRepository.findApprovedLeavePeriodsByDivisionBetween(division, first.minusDays(1), last.plusDays(1)));
+    }
+
+    private static final class RepairState {
+        private final List<Employee> employees;
+        private final Map<LocalDate, Set<Long>> working = new HashMap<>();
+        private final Map<YearMonth, EnumMap<ShiftType, Map<Long, Integer>>> monthlyCounts = new HashMap<>();
+        private final Map<Long, List<EmployeeLeavePeriod>> leaves;
+
+        RepairState(List<Employee> employees, List<ShiftAssignment> assignments, List<EmployeeLeavePeriod> leaves) {
+            this.employees = employees;
+            this.leaves = leaves.stream().collect(Collectors.groupingBy(EmployeeLeavePeriod::getEmployeeId));
+            for (ShiftAssignment a : assignments) assign(a.getAssignedDate(), a.getShiftType(), a.getEmployeeId());
+        }
+
+        void assign(LocalDate date, ShiftType shiftType, Long employeeId) {
+            working.computeIfAbsent(date, d -> new HashSet<>()).add(employeeId);
+            counts(YearMonth.from(date), shiftType).merge(employeeId, 1, Integer::sum);
+        }
+
+        void unassign(LocalDate date, ShiftType shiftType, Long employeeId) {
+            Set<Long> ids = working.get(date);
+            if (ids != null) ids.remove(employeeId);
+            counts(YearMonth.from(date), shiftType).computeIfPresent(employeeId, (id, c) -> c > 1 ? c - 1 : null);
+        }
+
+        Map<Long, Integer> counts(YearMonth month, ShiftType shiftType) {
+            return monthlyCounts.computeIfAbsent(month, m -> new EnumMap<>(ShiftType.class))
+                    .computeIfAbsent(shiftType, s -> new HashMap<>());
+        }
+
+        boolean worksOn(Long employeeId, LocalDate date) {
+            return working.getOrDefault(date, Collections.emptySet()).contains(employeeId);
+        }
+
+        boolean isOnLeave(Long employeeId, LocalDate date) {
+            for (EmployeeLeavePeriod l : leaves.getOrDefault(employeeId, Collections.emptyList())) {
+                if (!date.isBefore(l.getStartDate()) && !date.isAfter(l.getEndDate())) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.SimulationOutcome;
+import com.wso2test.demo.dto.SimulationOutcome.ShiftSpread;
+import com.wso2test.demo.dto.SimulationReport;
+import com.wso2test.demo.dto.SimulationRequest;
+import com.wso2test.demo.dto.SimulationScenario;
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.ShiftType;
+import com.wso2test.demo.scheduling.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * What-if planning: a division's month is loaded once (read-only) and then planned in memory for the baseline and
+ * every scenario variant (extra leaves, removed employees, other exclude-juniors dates or caps), side by side on the
+ * scheduleSimulationExecutor. Nothing is written; the plans are reduced to one comparison row each.
+ */
+@Service
+public class ScheduleSimulationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleSimulationService.class);
+
+    static final String BASELINE = "baseline";
+
+    private final SupportSchedulerService supportSchedulerService;
+    private final TaskExecutor simulationExecutor;
+    private final int maxScenarios;
+
+    public ScheduleSimulationService(SupportSchedulerService supportSchedulerService,
+                                     @Qualifier("scheduleSimulationExecutor") TaskExecutor simulationExecutor,
+                                     @Value("${scheduler.simulation.max-scenarios:50}") int maxScenarios) {
+        this.supportSchedulerService = supportSchedulerService;
+        this.simulationExecutor = simulationExecutor;
+        this.maxScenarios = maxScenarios;
+    }
+
+    // Throws IllegalArgumentException for an invalid month, an unknown engine or too many scenarios
+    public SimulationReport simulate(SimulationRequest request) {
+        long started = System.nanoTime();
+        if (request.getMonth() < 1 || request.getMonth() > 12) throw new IllegalArgumentException("Invalid month: " + request.getMonth());
+        List<SimulationScenario> scenarios = request.getScenarios() != null ? request.getScenarios() : Collections.emptyList();
+        if (scenarios.size() > maxScenarios) {
+            throw new IllegalArgumentException("At most " + maxScenarios + " scenarios per simulation, got " + scenarios.size());
+        }
+        YearMonth yearMonth = YearMonth.of(request.getYear(), request.getMonth());
+        String division = Division.orDefault(request.getDivision());
+        PlanningOptions base = supportSchedulerService.toPlanningOptions(request.getExcludeJuniorDates(), request.getEngine(), division);
+        ScheduleEngine engine = supportSchedulerService.resolveEngine(base.getEngine());
+
+        PlanningInputs inputs = supportSchedulerService.loadPlanningInputs(yearMonth, division); // the only database access
+
+        List<CompletableFuture<SimulationOutcome>> runs = new ArrayList<>(scenarios.size() + 1);
+        runs.add(CompletableFuture.supplyAsync(() -> run(BASELINE, engine, inputs, base), simulationExecutor));
+        for (int i = 0; i < scenarios.size(); i++) {
+            SimulationScenario scenario = scenarios.get(i);
+            String name = scenario.getName() == null || scenario.getName().trim().isEmpty() ? "scenario-" + (i + 1) : scenario.getName().trim();
+            runs.add(CompletableFuture.supplyAsync(() -> run(name, engine, inputs, scenario, base), simulationExecutor));
+        }
+
+        SimulationReport report = new SimulationReport();
+        report.setMonth(yearMonth);
+        report.setDivision(division);
+        report.setEngine(engine.getName());
+        for (CompletableFuture<SimulationOutcome> run : runs) report.getOutcomes().add(run.join());
+        report.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+        logger.info("Simulated {} of {}: baseline and {} scenarios with the {} engine in {} ms",
+                yearMonth, division, scenarios.size(), engine.getName(), report.getDurationMillis());
+        return report;
+    }
+
+    private SimulationOutcome run(String name, ScheduleEngine engine, PlanningInputs inputs, SimulationScenario scenario, PlanningOptions base) {
+        try {
+            PlanningOptions.Builder options = scenario.getExcludeJuniorDates() != null
+                    ? supportSchedulerService.toPlanningOptions(scenario.getExcludeJuniorDates(), base.getEngine(), base.getDivision()).toBuilder()
+                    : base.toBuilder();
+            if (scenario.getMaxSupportShiftsPerJunior() != null) options.maxSupportShiftsPerJunior(scenario.getMaxSupportShiftsPerJunior());
+            if (scenario.getMaxCobShiftsForCobPerformer() != null) options.maxCobShiftsForCobPerformer(scenario.getMaxCobShiftsForCobPerformer());
+            PlanningInputs variant = inputs.withoutEmployees(scenario.getRemovedEmployeeIds()).withLeaves(scenario.getLeaves());
+            return run(name, engine, variant, options.build());
+        } catch (RuntimeException e) {
+            return failed(name, e);
+        }
+    }
+
+    private SimulationOutcome run(String name, ScheduleEngine engine, PlanningInputs inputs, PlanningOptions options) {
+        long started = System.nanoTime();
+        try {
+            SchedulingContext context = inputs.newContext(options);
+            engine.plan(context);
+            SimulationOutcome outcome = new SimulationOutcome(name);
+            outcome.setCobUnderstaffedDays(context.getCobUnderstaffedDays());
+            outcome.setSupportFailedDays(context.getSupportFailedDays());
+            outcome.setSupportFallbackDays(context.getSupportFallbackDays());
+            int assigned = 0;
+            for (ShiftType shiftType : ShiftType.values()) {
+                outcome.getSpread().put(shiftType, spread(context, shiftType));
+                for (int i = 0; i < context.getEmployees().size(); i++) assigned += context.getShiftCount(shiftType, i);
+            }
+            outcome.setAssignedShifts(assigned);
+            outcome.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+            return outcome;
+        } catch (RuntimeException e) {
+            return failed(name, e);
+        }
+    }
+
+    // Over the employees the division's team for the shift type accepts, including those who got none
+    private ShiftSpread spread(SchedulingContext context, ShiftType shiftType) {
+        StaffingRules.Team team = context.getOptions().getStaffingRules().team(shiftType);
+        List<Employee> employees = context.getEmployees();
+        int n = 0, min = Integer.MAX_VALUE, max = 0;
+        long sum = 0, sumOfSquares = 0;
+        for (int i = 0; i < employees.size(); i++) {
+            if (!team.accepts(context.getAttributes(i))) continue;
+            int count = context.getShiftCount(shiftType, i);
+            n++;
+            min = Math.min(min, count);
+            max = Math.max(max, count);
+            sum += count;
+            sumOfSquares += (long) count * count;
+        }
+        if (n == 0) return new ShiftSpread(0, 0, 0, 0);
+        double mean = (double) sum / n;
+        double deviation = Math.sqrt(Math.max(0, (double) sumOfSquares / n - mean * mean));
+        return new ShiftSpread(n, min, max, Math.round(deviation * 100) / 100.0);
+    }
+
+    private static SimulationOutcome failed(String name, RuntimeException e) {
+        logger.warn("Simulation scenario {} failed", name, e);
+        SimulationOutcome outcome = new SimulationOutcome(name);
+        outcome.setError(e.getMessage());
+        return outcome;
+    }
+}
@@ -0,0 +1,107 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.model.StaffingRule;
+import com.wso2test.demo.respository.StaffingRuleRepository;
+import com.wso2test.demo.scheduling.StaffingRules;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-division staffing rules: stored as rows of staffing_rules, compiled into {@link StaffingRules} on first use
+ * and kept compiled until they are changed, so planning pays for neither a query nor a parse. A change is validated
+ * by compiling it before it is saved and takes effect for plans started after its commit; no redeploy needed.
+ */
+@Service
+@Transactional
+public class StaffingRuleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaffingRuleService.class);
+
+    private final StaffingRuleRepository staffingRuleRepository;
+
+    private final Map<String, StaffingRules> compiled = new HashMap<>(); // by division, guarded by this
+    private long version; // bumped by every change; a load only lands in the cache if it did not move meanwhile
+
+    public StaffingRuleService(StaffingRuleRepository staffingRuleRepository) {
+        this.staffingRuleRepository = staffingRuleRepository;
+    }
+
+    // The division's compiled rules (division null = Division.DEFAULT); built-in defaults when it has none of its own
+    @Transactional(readOnly = true)
+    public StaffingRules rulesFor(String division) {
+        String name = Division.orDefault(division);
+        long loadedAt;
+        synchronized (this) {
+            StaffingRules rules = compiled.get(name);
+            if (rules != null) return rules;
+            loadedAt = version;
+        }
+        StaffingRules rules = staffingRuleRepository.findById(name).map(StaffingRuleService::compile).orElse(StaffingRules.DEFAULT);
+        synchronized (this) {
+            if (version == loadedAt) compiled.put(name, rules);
+        }
+        return rules;
+    }
+
+    // The division's rules as stored, or the built-in defaults (not saved) when it has none of its own
+    @Transactional(readOnly = true)
+    public StaffingRule getRule(String division) {
+        String name = Division.orDefault(division);
+        return staffingRuleRepository.findById(name).orElseGet(() -> defaultRule(name));
+    }
+
+    // Replaces the division's rules; throws IllegalArgumentException if they do not compile
+    public StaffingRule updateRule(String division, StaffingRule rule) {
+        String name = Division.orDefault(division);
+        StaffingRules rules = compile(rule);
+        rule.setDivision(name);
+        StaffingRule saved = staffingRuleRepository.save(rule);
+        replaceCompiled(name, null); // until commit, plans keep reading the committed row
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replaceCompiled(name, rules);
+                }
+            });
+        }
+        logger.info("Staffing rules of {} changed: SYSTEM_MONITOR [{}], COB [{}], SUPPORT [{}], caps {} SUPPORT per junior, {} COB per COB performer",
+                name, rule.getSystemMonitorTeam(), rule.getCobTeam(), rule.getSupportTeam(),
+                rule.getMaxSupportShiftsPerJunior(), rule.getMaxCobShiftsForCobPerformer());
+        return saved;
+    }
+
+    private static StaffingRules compile(StaffingRule rule) {
+        if (rule.getMaxSupportShiftsPerJunior() == null || rule.getMaxCobShiftsForCobPerformer() == null) {
+            throw new IllegalArgumentException("maxSupportShiftsPerJunior and maxCobShiftsForCobPerformer are required");
+        }
+        return StaffingRules.compile(rule.getSystemMonitorTeam(), rule.getCobTeam(), rule.getSupportTeam(),
+                rule.getMaxSupportShiftsPerJunior(), rule.getMaxCobShiftsForCobPerformer());
+    }
+
+    private static StaffingRule defaultRule(String division) {
+        StaffingRule rule = new StaffingRule();
+        rule.setDivision(division);
+        rule.setSystemMonitorTeam(StaffingRules.DEFAULT_SYSTEM_MONITOR_TEAM);
+        rule.setCobTeam(StaffingRules.DEFAULT_COB_TEAM);
+        rule.setSupportTeam(StaffingRules.DEFAULT_SUPPORT_TEAM);
+        rule.setMaxSupportShiftsPerJunior(StaffingRules.DEFAULT_MAX_SUPPORT_SHIFTS_PER_JUNIOR);
+        rule.setMaxCobShiftsForCobPerformer(StaffingRules.DEFAULT_MAX_COB_SHIFTS_FOR_COB_PERFORMER);
+        return rule;
+    }
+
+    // Bumps the version, so a plan that read the old row while the change was in flight cannot cache it over these
+    private synchronized void replaceCompiled(String division, StaffingRules rules) {
+        version++;
+        if (rules != null) compiled.put(division, rules);
+        else compiled.remove(division);
+    }
+}
@@ -3,20 +3,25 @@ package com.wso2test.demo.service;
 import com.wso2test.demo.dto.AggregatedScheduleOutput;
 import com.wso2test.demo.dto.DailyNonSupportScheduleRow;
 import com.wso2test.demo.dto.DailySupportScheduleRow;
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.dto.ShiftAssignment;
 import com.wso2test.demo.model.*;
 import com.wso2test.demo.respository.*;
+import com.wso2test.demo.scheduling.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.TextStyle;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,52 +30,128 @@ public class SupportSchedulerService {
 
     private static final Logger logger = LoggerFactory.getLogger(SupportSchedulerService.class);
 
-    // Shift count limits
-    private static final int MAX_SUPPORT_SHIFTS_PER_JUNIOR = 8; // Max SUPPORT shifts for a Junior SUPPORT per month
-    private static final int MAX_COB_SHIFTS_FOR_COB_PERFORMER = 5; // Max COB shifts for a COB_PERFORMER per month
+    static final String REST_AFTER_COB_REASON = "Rest after COB shift";
 
     @Autowired private EmployeeRepository employeeRepository;
     @Autowired private SupportScheduleRepository supportScheduleRepository;
     @Autowired private LeaveRepository leaveRepository;
-    @Autowired private HolidayRepository holidayRepository;
+    @Autowired private HolidayService holidayService;
+    @Autowired private List<ScheduleEngine> scheduleEngines;
+    @Autowired private ScheduleExportCache scheduleExportCache;
+    @Autowired private SchedulerMetrics schedulerMetrics;
+    @Autowired private FairnessLedgerService fairnessLedgerService;
+    @Autowired private StaffingRuleService staffingRuleService;
 
+    @Value("${scheduler.engine:" + GreedyScheduleEngine.NAME + "}")
+    private String defaultEngine;
+
+    // Plans and persists the month of the default division; fails if a schedule already exists for it
     public AggregatedScheduleOutput generateMonthlySchedule(int year, int month, List<String> excludeJuniorsFromCobDates) {
-        logger.info("Generating aggregated schedule for year: {}, month: {}, excluding juniors from COB on: {}", year, month, excludeJuniorsFromCobDates);
-        YearMonth yearMonth = YearMonth.of(year, month);
+        return generateMonthlySchedule(year, month, excludeJuniorsFromCobDates, null);
+    }
+
+    public AggregatedScheduleOutput generateMonthlySchedule(int year, int month, List<String> excludeJuniorsFromCobDates, String engine) {
+        return generateMonthlySchedule(YearMonth.of(year, month), toPlanningOptions(excludeJuniorsFromCobDates, engine));
+    }
+
+    // Plans and persists the month of options.getDivision() in one transaction
+    public AggregatedScheduleOutput generateMonthlySchedule(YearMonth yearMonth, PlanningOptions options) {
+        logger.info("Generating aggregated schedule for {} of {}, excluding juniors from COB on: {}", yearMonth, options.getDivision(), options.getExcludeJuniorsFromCobDates());
+        SchedulerMetrics.Generation generation = startGeneration(options.getEngine());
+        boolean succeeded = false;
+        try {
+            ensureNotScheduled(options.getDivision(), yearMonth);
+            SchedulePlan plan = planMonthlySchedule(yearMonth, options, null);
+            persistPlan(plan);
+            succeeded = true;
+            return plan.getOutput();
+        } finally {
+            generation.stop(succeeded);
+        }
+    }
+
+    // Times one plan-and-persist run under the engine that will actually plan it (scheduler.generation)
+    public SchedulerMetrics.Generation startGeneration(String engine) {
+        return schedulerMetrics.startGeneration(resolveEngine(engine).getName());
+    }
+
+    // Commit phase for a plan produced earlier (e.g. after previewing it)
+    public void commitPlan(SchedulePlan plan) {
+        ensureNotScheduled(plan.getDivision(), plan.getYearMonth());
+        persistPlan(plan);
+    }
+
+    // Every schedule row of every division, with the fairness ledger that counts them, in one transaction
+    public void deleteAllSchedules() {
+        supportScheduleRepository.deleteAll();
+        fairnessLedgerService.clear();
+        scheduleExportCache.invalidateAll();
+    }
+
+    // Fails fast when the division's month already has schedule rows (also used before queueing a generation job)
+    @Transactional(readOnly = true)
+    public void ensureNotScheduled(String division, YearMonth yearMonth) {
         LocalDate startDate = yearMonth.atDay(1);
         LocalDate endDate = yearMonth.atEndOfMonth();
-
-        if (supportScheduleRepository.existsByAssignedDateBetween(startDate, endDate)) {
+        if (supportScheduleRepository.existsByDivisionAndAssignedDateBetween(division, startDate, endDate)) {
             // Consider deleting existing schedule or throwing error. For now, throwing error.
-            logger.error("Schedule already exists for period: {} to {}. Please delete it first if you want to regenerate.", startDate, endDate);
+            logger.error("Schedule already exists for {} in period: {} to {}. Please delete it first if you want to regenerate.", division, startDate, endDate);
             throw new IllegalStateException("Schedule already exists for this period.");
         }
+    }
 
-        Map<LocalDate, DailyNonSupportScheduleRow> nonSupportDailyMap = new LinkedHashMap<>();
-        Map<LocalDate, DailySupportScheduleRow> supportDailyMap = new LinkedHashMap<>();
+    // Divisions with an active roster, i.e. the ones a month can be generated for
+    @Transactional(readOnly = true)
+    public List<String> findActiveDivisions() {
+        return employeeRepository.findActiveDivisions();
+    }
 
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            String dayName = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
-            nonSupportDailyMap.put(date, new DailyNonSupportScheduleRow(date, dayName));
-            supportDailyMap.put(date, new DailySupportScheduleRow(date, dayName));
-        }
+    /**
+     * Planning phase: reads the roster, leaves, holidays and the previous day's shifts, and decides the whole
+     * month in memory. Performs no writes, so it can back previews that are discarded afterwards.
+     */
+    @Transactional(readOnly = true)
+    public SchedulePlan planMonthlySchedule(int year, int month, List<String> excludeJuniorsFromCobDates) {
+        return planMonthlySchedule(year, month, excludeJuniorsFromCobDates, null);
+    }
 
-        List<Holiday> holidaysList = holidayRepository.findAll();
-        Map<LocalDate, String> holidayRemarks = holidaysList != null ? holidaysList.stream()
-                .filter(h -> h.getDate() != null && h.getName() != null)
-                .collect(Collectors.toMap(Holiday::getDate, Holiday::getName, (r1, r2) -> r1 + " / " + r2)) // Handle duplicate dates if any
-                : new HashMap<>();
+    @Transactional(readOnly = true)
+    public SchedulePlan planMonthlySchedule(int year, int month, List<String> excludeJuniorsFromCobDates, String engine) {
+        return planMonthlySchedule(YearMonth.of(year, month), toPlanningOptions(excludeJuniorsFromCobDates, engine), null);
+    }
 
-        holidayRemarks.forEach((date, remark) -> {
-            if (nonSupportDailyMap.containsKey(date)) nonSupportDailyMap.get(date).setRemark(remark);
-            if (supportDailyMap.containsKey(date)) supportDailyMap.get(date).setRemark(remark);
-        });
+    /**
+     * Plans a month that directly follows an already planned (not necessarily persisted) month. The carry-over
+     * replaces the database as the source of the previous day's shifts and of rest leaves spilling into this month.
+     */
+    @Transactional(readOnly = true)
+    public SchedulePlan planMonthlySchedule(YearMonth yearMonth, PlanningOptions options, PlanningCarryOver carryOver) {
+        if (carryOver != null && !carryOver.getMonth().plusMonths(1).equals(yearMonth)) {
+            throw new IllegalArgumentException("Carry-over from " + carryOver.getMonth() + " cannot seed " + yearMonth);
+        }
+        ScheduleEngine engine = resolveEngine(options.getEngine());
+        long loadStarted = System.nanoTime();
+        SchedulingContext context = loadPlanningInputs(yearMonth, options.getDivision(), carryOver).newContext(options);
+        schedulerMetrics.recordPhase(SchedulerMetrics.PHASE_LOAD, loadStarted);
+
+        long started = System.nanoTime();
+        engine.plan(context);
+        logger.info("Planned {} of {} with the {} engine in {} ms", yearMonth, options.getDivision(), engine.getName(), (System.nanoTime() - started) / 1_000_000);
+
+        return context.getPlan()
+                .outcome(new SchedulePlan.Outcome(engine.getName(), context.getCobUnderstaffedDays(),
+                        context.getSupportFailedDays(), context.getSupportFallbackDays()))
+                .build(buildOutput(context), buildCarryOver(context));
+    }
 
-        Map<Long, Integer> cobShiftCounts = new HashMap<>();
-        Map<Long, Integer> supportShiftCounts = new HashMap<>();
-        Map<Long, Integer> systemMonitorShiftCounts = new HashMap<>();
-        Map<Long, LocalDate> lastSaturdayCobAssignment = new HashMap<>();
+    // Parses the exclude-juniors dates from the request, skipping the ones that are not ISO dates; rejects unknown engines
+    public PlanningOptions toPlanningOptions(List<String> excludeJuniorsFromCobDates, String engine) {
+        return toPlanningOptions(excludeJuniorsFromCobDates, engine, null);
+    }
 
+    // division null = Division.DEFAULT
+    public PlanningOptions toPlanningOptions(List<String> excludeJuniorsFromCobDates, String engine, String division) {
+        resolveEngine(engine);
         Set<LocalDate> parsedExcludeJuniorDates = Optional.ofNullable(excludeJuniorsFromCobDates).orElse(Collections.emptyList())
                 .stream()
                 .map(dateStr -> {
@@ -79,309 +160,177 @@ public class SupportSchedulerService {
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
-
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            final LocalDate currentDate = date;
-            boolean isSunday = currentDate.getDayOfWeek() == DayOfWeek.SUNDAY;
-            boolean isSaturday = currentDate.getDayOfWeek() == DayOfWeek.SATURDAY;
-            
-            DailyNonSupportScheduleRow currentNonSupportRow = nonSupportDailyMap.get(currentDate);
-            DailySupportScheduleRow currentSupportRow = supportDailyMap.get(currentDate);
-            boolean isNonWorkDayForCobSupport = isSunday || (currentNonSupportRow != null && currentNonSupportRow.getRemark() != null);
-
-
-            Set<Long> employeesUnavailableToday = new HashSet<>();
-
-            // --- SYSTEM MONITOR Shift Assignment ---
-            // (System monitors might work on holidays/Sundays depending on rules)
-            List<Employee> availableForSystemMonitor = getAvailableEmployees(ShiftType.SYSTEM_MONITOR, currentDate, employeesUnavailableToday, systemMonitorShiftCounts);
-            List<Employee> selectedSystemMonitors = pickEmployeesForSystemMonitor(availableForSystemMonitor, 1, systemMonitorShiftCounts);
-            for (Employee emp : selectedSystemMonitors) {
-                assignShift(currentDate, emp, ShiftType.SYSTEM_MONITOR);
-                if (currentNonSupportRow != null) currentNonSupportRow.getSystemMonitoringPerformers().add(emp.getName());
-                systemMonitorShiftCounts.merge(emp.getId(), 1, Integer::sum);
-            }
-            
-            if (!isNonWorkDayForCobSupport) {
-                // --- COB Shift Assignment ---
-                boolean excludeJuniorsForCobToday = parsedExcludeJuniorDates.contains(currentDate);
-                List<Employee> availableForCob = getAvailableEmployees(ShiftType.COB, currentDate, employeesUnavailableToday, cobShiftCounts);
-                List<Employee> selectedCobEmployees;
-                if (isSaturday) {
-                    selectedCobEmployees = pickFairCobEmployeesForSaturday(availableForCob, lastSaturdayCobAssignment, currentDate, cobShiftCounts, excludeJuniorsForCobToday);
-                } else {
-                    selectedCobEmployees = pickEmployeesForCob(availableForCob, currentDate, excludeJuniorsForCobToday, cobShiftCounts);
-                }
-                for (Employee emp : selectedCobEmployees) {
-                    assignShift(currentDate, emp, ShiftType.COB);
-                    if (currentNonSupportRow != null) currentNonSupportRow.getEveningCobPerformers().add(emp.getName());
-                    employeesUnavailableToday.add(emp.getId());
-                    cobShiftCounts.merge(emp.getId(), 1, Integer::sum);
-                    if (isSaturday) lastSaturdayCobAssignment.put(emp.getId(), currentDate);
-                    try { assignLeaveAfterCob(emp, currentDate.plusDays(1)); } catch (Exception e) { /* Logged */ }
-                }
-
-                // --- SUPPORT Shift Assignment ---
-                List<Employee> availableForSupport = getAvailableEmployees(ShiftType.SUPPORT, currentDate, employeesUnavailableToday, supportShiftCounts);
-                List<Employee> selectedSupportTeam = pickEmployeesForSupportShift(availableForSupport, currentDate, supportShiftCounts);
-                for (Employee emp : selectedSupportTeam) {
-                    assignShift(currentDate, emp, ShiftType.SUPPORT);
-                    if (currentSupportRow != null) currentSupportRow.getAssignedGroupA().add(emp.getName());
-                    employeesUnavailableToday.add(emp.getId());
-                    supportShiftCounts.merge(emp.getId(), 1, Integer::sum);
-                }
-            }
-        }
-        logMonthlyShiftCounts(cobShiftCounts, supportShiftCounts, systemMonitorShiftCounts);
-        
-        return new AggregatedScheduleOutput(
-            new ArrayList<>(nonSupportDailyMap.values()),
-            new ArrayList<>(supportDailyMap.values())
-        );
+        return PlanningOptions.builder().division(division).staffingRules(staffingRuleService.rulesFor(division))
+                .excludeJuniorsFromCobDates(parsedExcludeJuniorDates).engine(engine).build();
     }
-    
-   // In SupportSchedulerService.java (ensure this is the version used by COB and System Monitor picking)
-   private List<Employee> getAvailableEmployees(ShiftType shiftType, LocalDate date, 
-        Set<Long> unavailableOnThisDay, 
-        Map<Long, Integer> relevantShiftCounts) {
-        // ... (same as previous robust version where hasWorkedOnPreviousDay is always checked for COB/SystemMonitor)
-        // For clarity, I'll repeat it with the original strict check:
-        List<Employee> allEmployees = employeeRepository.findAll(); 
-        if (allEmployees == null || allEmployees.isEmpty()) { /* ... log ... */ return new ArrayList<>(); }
-
-        return allEmployees.stream()
-        .filter(e -> e != null && e.getStatus() == EmployeeStatus.ACTIVE) 
-        .filter(e -> { /* ... type filter ... */ 
-        if (shiftType == ShiftType.COB) return e.getType() == EmployeeType.SUPPORT || e.getType() == EmployeeType.COB_PERFORMER;
-        if (shiftType == ShiftType.SUPPORT) return e.getType() == EmployeeType.SUPPORT; // Type filter for support
-        if (shiftType == ShiftType.SYSTEM_MONITOR) return e.getType() == EmployeeType.SYSTEM_MONITOR;
-        return false;
-        })
-        .filter(e -> !unavailableOnThisDay.contains(e.getId()))
-        .filter(e -> !hasWorkedOnPreviousDay(e, date)) // Strict check for COB/SysMon. For Support, this list is "Attempt 1"
-        .filter(e -> !isOnLeave(e, date))
-        .filter(e -> { /* ... max shift limits (COB_PERFORMER, JUNIOR_SUPPORT) ... */ 
-        int currentShifts = relevantShiftCounts.getOrDefault(e.getId(), 0);
-        if (shiftType == ShiftType.COB && e.getType() == EmployeeType.COB_PERFORMER) {
-        return currentShifts < MAX_COB_SHIFTS_FOR_COB_PERFORMER;
-        }
-        if (shiftType == ShiftType.SUPPORT && e.getType() == EmployeeType.SUPPORT && e.getLevel() == EmployeeLevel.JUNIOR) {
-        return currentShifts < MAX_SUPPORT_SHIFTS_PER_JUNIOR;
-        }
-        return true; 
-        })
-        .sorted(Comparator.comparingInt(e -> relevantShiftCounts.getOrDefault(e.getId(), 0)))
-        .collect(Collectors.toList());
-}
-    // ... Other helper methods (pickCobTeamMembers, pickEmployeesForSupportShift, etc.) ...
-    // These methods should be the same as the robust versions from the previous response.
-    // I am omitting them here for brevity but they are essential for correct team composition.
-
-    // Ensure these methods are included from the previous full service code:
-    // hasWorkedOnPreviousDay, isOnLeave, pickCobTeamMembers, pickEmployeesForCob,
-    // pickFairCobEmployeesForSaturday, pickEmployeesForSupportShift,
-    // pickEmployeesForSystemMonitor, assignShift, assignLeaveAfterCob, logMonthlyShiftCounts
-
-    // Minimal stubs for brevity - REPLACE WITH FULL IMPLEMENTATIONS FROM PREVIOUS RESPONSE
-    private boolean hasWorkedOnPreviousDay(Employee employee, LocalDate date) {
-        if (employee == null || date.equals(date.withDayOfMonth(1))) return false;
-        List<SupportSchedule> schedules = supportScheduleRepository.findByAssignedDateAndEmployeesId(date.minusDays(1), employee.getId());
-        return schedules != null && !schedules.isEmpty();
+
+    // The same options for another division, with that division's staffing rules
+    public PlanningOptions forDivision(PlanningOptions options, String division) {
+        return options.toBuilder().division(division).staffingRules(staffingRuleService.rulesFor(division)).build();
     }
 
-    private boolean isOnLeave(Employee employee, LocalDate date) {
-        if (employee == null) return false;
-        return leaveRepository.isEmployeeOnLeave(employee.getId(), date);
+    ScheduleEngine resolveEngine(String requested) {
+        String name = requested == null || requested.trim().isEmpty() ? defaultEngine : requested.trim();
+        return scheduleEngines.stream()
+            .filter(e -> e.getName().equalsIgnoreCase(name))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown schedule engine: " + name + ". Available: "
+                + scheduleEngines.stream().map(ScheduleEngine::getName).collect(Collectors.toList())));
     }
-    private List<Employee> pickCobTeamMembers(List<Employee> sortedAvailableEmployees, LocalDate date, boolean excludeJuniors, String contextInfo) {
-        // THIS IS A CRITICAL METHOD - USE THE FULL IMPLEMENTATION FROM THE PREVIOUS RESPONSE
-        // It ensures correct COB team composition (e.g., 1 Sen SUP, 1 Jun SUP, 1 COB_P or variations)
-        List<Employee> selected = new ArrayList<>();
-        int desiredCount = excludeJuniors ? 2 : 3;
-        Set<Long> alreadySelectedIds = new HashSet<>();
-
-        // Simplified placeholder - replace with full logic:
-        // 1. Pick Senior Support
-        Employee seniorSupport1 = sortedAvailableEmployees.stream().filter(e -> e.getType() == EmployeeType.SUPPORT && e.getLevel() == EmployeeLevel.SENIOR && !alreadySelectedIds.contains(e.getId())).findFirst().orElse(null);
-        if (seniorSupport1 != null) { selected.add(seniorSupport1); alreadySelectedIds.add(seniorSupport1.getId()); }
-
-        // 2. Pick Junior Support (if needed)
-        if (!excludeJuniors && desiredCount == 3 && selected.size() < desiredCount) {
-            Employee juniorSupport = sortedAvailableEmployees.stream().filter(e -> e.getType() == EmployeeType.SUPPORT && e.getLevel() == EmployeeLevel.JUNIOR && !alreadySelectedIds.contains(e.getId())).findFirst().orElse(null);
-            if (juniorSupport != null) { selected.add(juniorSupport); alreadySelectedIds.add(juniorSupport.getId()); }
-        }
-        // 3. Pick COB Performer (if needed)
-        if (selected.size() < desiredCount) {
-            Employee cobPerformer = sortedAvailableEmployees.stream().filter(e -> e.getType() == EmployeeType.COB_PERFORMER && !alreadySelectedIds.contains(e.getId())).findFirst().orElse(null);
-            if (cobPerformer != null) { selected.add(cobPerformer); alreadySelectedIds.add(cobPerformer.getId()); }
+
+    /**
+     * Aggregated view of a division's month as persisted (for exports), or null if nothing is scheduled in it.
+     * Two queries: the month's schedules with their employees, and its holidays.
+     */
+    @Transactional(readOnly = true)
+    public AggregatedScheduleOutput loadPersistedSchedule(String division, YearMonth yearMonth) {
+        LocalDate startDate = yearMonth.atDay(1);
+        LocalDate endDate = yearMonth.atEndOfMonth();
+        List<SupportSchedule> schedules = supportScheduleRepository.findWithEmployeesByDivisionAndAssignedDateBetween(division, startDate, endDate);
+        if (schedules.isEmpty()) return null;
+
+        Map<LocalDate, Map<ShiftType, List<String>>> namesByDate = new HashMap<>();
+        for (SupportSchedule schedule : schedules) {
+            namesByDate.computeIfAbsent(schedule.getAssignedDate(), d -> new EnumMap<>(ShiftType.class))
+                .computeIfAbsent(schedule.getShiftType(), t -> new ArrayList<>())
+                .addAll(schedule.getEmployees().stream().map(Employee::getName).collect(Collectors.toList()));
         }
-        // 4. Pick another Senior Support (if still needed)
-        if (selected.size() < desiredCount) {
-             Employee seniorSupport2 = sortedAvailableEmployees.stream().filter(e -> e.getType() == EmployeeType.SUPPORT && e.getLevel() == EmployeeLevel.SENIOR && !alreadySelectedIds.contains(e.getId())).findFirst().orElse(null);
-             if (seniorSupport2 != null) { selected.add(seniorSupport2); }
+        Map<LocalDate, String> holidayRemarks = new HashMap<>();
+        for (Holiday holiday : holidayService.getHolidaysBetween(division, startDate, endDate)) {
+            if (holiday.getDate() == null || holiday.getName() == null) continue;
+            holidayRemarks.merge(holiday.getDate(), holiday.getName(), (r1, r2) -> r1 + " / " + r2);
         }
-        if (selected.size() < desiredCount) logger.warn("COB TEAM UNDERSTAFFED for {} on {}", contextInfo, date);
-        return selected;
-    }
-    private List<Employee> pickEmployeesForCob(List<Employee> availableEmployees, LocalDate date, boolean excludeJuniors, Map<Long, Integer> cobShiftCounts) {
-        return pickCobTeamMembers(availableEmployees, date, excludeJuniors, "Weekday COB");
+        return buildOutput(division, yearMonth, holidayRemarks, date -> namesByDate.getOrDefault(date, Collections.emptyMap()));
     }
 
-    private List<Employee> pickFairCobEmployeesForSaturday(List<Employee> availableEmployees, Map<Long, LocalDate> lastSaturdayCobAssignment, LocalDate date, Map<Long, Integer> cobShiftCounts, boolean excludeJuniors) {
-        if (availableEmployees == null || availableEmployees.isEmpty()) return new ArrayList<>();
-        List<Employee> sortedForSaturday = availableEmployees.stream()
-            .sorted(Comparator.comparing((Employee e) -> lastSaturdayCobAssignment.getOrDefault(e.getId(), LocalDate.MIN))
-                .thenComparingInt(e -> cobShiftCounts.getOrDefault(e.getId(), 0)))
-            .collect(Collectors.toList());
-        return pickCobTeamMembers(sortedForSaturday, date, excludeJuniors, "Saturday COB");
+    // Aggregated JSON/Excel view of the planned month
+    private AggregatedScheduleOutput buildOutput(SchedulingContext context) {
+        return buildOutput(context.getOptions().getDivision(), context.getYearMonth(), context.getHolidayRemarks(), date -> {
+            Map<ShiftType, List<String>> names = new EnumMap<>(ShiftType.class);
+            context.getPlan().getAssignmentsOn(date).forEach((shiftType, ids) -> names.put(shiftType, namesOf(context, ids)));
+            return names;
+        });
     }
-    private List<Employee> pickEmployeesForSupportShift(List<Employee> initiallyAvailableEmployees, LocalDate date, Map<Long, Integer> supportShiftCounts) {
-        logger.info("SUPPORT Shift - Date {}: Attempting to pick 1 Senior + 2 Juniors.", date);
-        List<Employee> selectedTeam = new ArrayList<>();
-        
-        // --- ATTEMPT 1: Ideal case - pick from those who did NOT work any shift yesterday ---
-        // 'initiallyAvailableEmployees' already filters for !hasWorkedOnPreviousDay for general shifts
-        // and other general availability.
-        logger.debug("SUPPORT Shift - Date {}: Attempt 1 (No consecutive work). Initial pool size: {}", date, initiallyAvailableEmployees.size());
-        selectedTeam = tryFormSupportTeam(initiallyAvailableEmployees, date, supportShiftCounts, false);
-
-        if (isSupportTeamComplete(selectedTeam)) {
-            logger.info("SUPPORT Shift - Date {}: Attempt 1 SUCCEEDED. Team: {}", date, selectedTeam.stream().map(Employee::getName).collect(Collectors.toList()));
-            return selectedTeam;
-        }
-
-        // --- ATTEMPT 2: Fallback - allow consecutive SUPPORT work if necessary ---
-        // If Attempt 1 failed, get a new pool of candidates, this time allowing those who worked SUPPORT yesterday.
-        logger.warn("SUPPORT Shift - Date {}: Attempt 1 FAILED to form complete team (Had {} members). Proceeding to Attempt 2 (allowing consecutive Support work).", date, selectedTeam.size());
-        
-        // Get all active support employees, not on leave today, not assigned another shift today.
-        // This time, the 'hasWorkedOnPreviousDay' constraint is effectively lifted for Support.
-        List<Long> alreadyAssignedTodayForOtherShifts = new ArrayList<>(); // Re-evaluate who is *actually* available NOW before support shift
-         supportScheduleRepository.findByAssignedDate(date).forEach(schedule -> {
-             if (schedule.getShiftType() != ShiftType.SUPPORT) { // Consider only COB and SysMon
-                 schedule.getEmployees().forEach(e -> alreadyAssignedTodayForOtherShifts.add(e.getId()));
-             }
-         });
-
-
-        List<Employee> widerAvailablePool = employeeRepository.findAll().stream()
-            .filter(e -> e != null && e.getStatus() == EmployeeStatus.ACTIVE && e.getType() == EmployeeType.SUPPORT)
-            .filter(e -> !isOnLeave(e, date))
-            .filter(e -> !alreadyAssignedTodayForOtherShifts.contains(e.getId())) // Not doing COB/SysMon today
-            .filter(e -> { // Junior max support shift limit
-                if (e.getLevel() == EmployeeLevel.JUNIOR) {
-                    return supportShiftCounts.getOrDefault(e.getId(), 0) < MAX_SUPPORT_SHIFTS_PER_JUNIOR;
-                }
-                return true;
-            })
-            // Custom sort: 1. Fewest monthly support shifts, 2. Prefer those who didn't work SUPPORT yesterday
-            .sorted(Comparator
-                .comparingInt((Employee e) -> supportShiftCounts.getOrDefault(e.getId(), 0))
-                .thenComparing((e1, e2) -> {
-                    boolean e1WorkedSupportYesterday = hasWorkedShiftTypeOnDate(e1, ShiftType.SUPPORT, date.minusDays(1));
-                    boolean e2WorkedSupportYesterday = hasWorkedShiftTypeOnDate(e2, ShiftType.SUPPORT, date.minusDays(1));
-                    if (e1WorkedSupportYesterday && !e2WorkedSupportYesterday) return 1; // e2 (didn't work) preferred
-                    if (!e1WorkedSupportYesterday && e2WorkedSupportYesterday) return -1; // e1 (didn't work) preferred
-                    return 0; // Equal preference regarding yesterday's support work
-                }))
-            .collect(Collectors.toList());
 
-        logger.debug("SUPPORT Shift - Date {}: Attempt 2. Wider pool size (allowing consecutive support): {}", date, widerAvailablePool.size());
-        selectedTeam = tryFormSupportTeam(widerAvailablePool, date, supportShiftCounts, true);
+    private AggregatedScheduleOutput buildOutput(String division, YearMonth yearMonth, Map<LocalDate, String> holidayRemarks,
+                                                 Function<LocalDate, Map<ShiftType, List<String>>> namesOn) {
+        List<DailyNonSupportScheduleRow> nonSupportRows = new ArrayList<>();
+        List<DailySupportScheduleRow> supportRows = new ArrayList<>();
 
-        if (isSupportTeamComplete(selectedTeam)) {
-            logger.info("SUPPORT Shift - Date {}: Attempt 2 SUCCEEDED (consecutive work allowed). Team: {}", date, selectedTeam.stream().map(Employee::getName).collect(Collectors.toList()));
-            return selectedTeam;
+        for (LocalDate date = yearMonth.atDay(1); !date.isAfter(yearMonth.atEndOfMonth()); date = date.plusDays(1)) {
+            String dayName = date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+            DailyNonSupportScheduleRow nonSupportRow = new DailyNonSupportScheduleRow(date, dayName);
+            DailySupportScheduleRow supportRow = new DailySupportScheduleRow(date, dayName);
+            String remark = holidayRemarks.get(date);
+            if (remark != null) {
+                nonSupportRow.setRemark(remark);
+                supportRow.setRemark(remark);
+            }
+            Map<ShiftType, List<String>> names = namesOn.apply(date);
+            nonSupportRow.getSystemMonitoringPerformers().addAll(names.getOrDefault(ShiftType.SYSTEM_MONITOR, Collections.emptyList()));
+            nonSupportRow.getEveningCobPerformers().addAll(names.getOrDefault(ShiftType.COB, Collections.emptyList()));
+            supportRow.getAssignedGroupA().addAll(names.getOrDefault(ShiftType.SUPPORT, Collections.emptyList()));
+            nonSupportRows.add(nonSupportRow);
+            supportRows.add(supportRow);
         }
-
-        // --- FAILURE ---
-        logger.error("SUPPORT Shift - Date {}: Attempt 2 FAILED. CRITICAL: Could not form a complete Support team (1S+2J) even allowing consecutive work. No Support shift scheduled. Final attempted team had {} members: {}", 
-            date, selectedTeam.size(), selectedTeam.stream().map(Employee::getName).collect(Collectors.toList()));
-        return new ArrayList<>(); // Return empty list, signifying no valid team could be formed
-    }
-    private List<Employee> pickEmployeesForSystemMonitor(List<Employee> availableEmployees, int desiredCount, Map<Long, Integer> systemMonitorShiftCounts) {
-        if (availableEmployees == null || availableEmployees.isEmpty()) return new ArrayList<>();
-        return availableEmployees.stream().limit(desiredCount).collect(Collectors.toList());
+        return new AggregatedScheduleOutput(division, nonSupportRows, supportRows);
     }
 
-
-
-    private boolean isSupportTeamComplete(List<Employee> team) {
-        if (team == null || team.isEmpty()) return false;
-        long seniors = team.stream().filter(e -> e.getLevel() == EmployeeLevel.SENIOR).count();
-        long juniors = team.stream().filter(e -> e.getLevel() == EmployeeLevel.JUNIOR).count();
-        return seniors == 1 && juniors == 2;
+    private List<String> namesOf(SchedulingContext context, List<Long> employeeIds) {
+        return employeeIds.stream().map(id -> context.getEmployee(id).getName()).collect(Collectors.toList());
     }
 
+    private PlanningCarryOver buildCarryOver(SchedulingContext context) {
+        SchedulePlan.Builder plan = context.getPlan();
+        LocalDate endDate = context.getEndDate();
+        List<ShiftAssignment> lastDay = new ArrayList<>();
+        plan.getAssignmentsOn(endDate).forEach((shiftType, ids) -> ids.forEach(id -> lastDay.add(new ShiftAssignment(endDate, shiftType, id))));
+        List<EmployeeLeavePeriod> spilled = plan.getRestLeaves().stream()
+            .filter(l -> l.getDate().isAfter(endDate))
+            .map(l -> new EmployeeLeavePeriod(l.getEmployeeId(), l.getDate(), l.getDate()))
+            .collect(Collectors.toList());
 
+        EnumMap<ShiftType, Map<Long, Integer>> cumulative = new EnumMap<>(ShiftType.class);
+        for (ShiftType shiftType : ShiftType.values()) {
+            cumulative.put(shiftType, addCarried(context, shiftType, context.getShiftCounts(shiftType)));
+        }
+        return new PlanningCarryOver(context.getYearMonth(), lastDay, spilled, context.getLastSaturdayCobAssignment(), cumulative);
+    }
 
-    private List<Employee> tryFormSupportTeam(List<Employee> availablePool, LocalDate date, Map<Long, Integer> supportShiftCounts, boolean consecutiveAllowedLog) {
-        List<Employee> team = new ArrayList<>();
-        Set<Long> teamMemberIds = new HashSet<>();
+    private Map<Long, Integer> addCarried(SchedulingContext context, ShiftType shiftType, Map<Long, Integer> monthlyCounts) {
+        Map<Long, Integer> total = new HashMap<>();
+        PlanningCarryOver carryOver = context.getCarryOver();
+        if (carryOver != null) total.putAll(carryOver.getCumulativeShiftCounts().getOrDefault(shiftType, Collections.emptyMap()));
+        monthlyCounts.forEach((id, count) -> total.merge(id, count, Integer::sum));
+        return total;
+    }
 
-        // Pick Senior
-        Employee senior = availablePool.stream()
-            .filter(e -> e.getLevel() == EmployeeLevel.SENIOR)
-            .findFirst().orElse(null);
+    // Loads everything the planner needs for the division's month in a fixed number of queries, independent of roster size.
+    // Read-only: the inputs can be planned any number of times without touching the database again.
+    @Transactional(readOnly = true)
+    public PlanningInputs loadPlanningInputs(YearMonth yearMonth, String division) {
+        return loadPlanningInputs(yearMonth, Division.orDefault(division), null);
+    }
 
-        if (senior != null) {
-            team.add(senior);
-            teamMemberIds.add(senior.getId());
-            logger.trace("SUPPORT Shift - Date {}: (Try, consAllowed={}) Picked Senior: {}", date, consecutiveAllowedLog, senior.getName());
+    private PlanningInputs loadPlanningInputs(YearMonth yearMonth, String division, PlanningCarryOver carryOver) {
+        LocalDate startDate = yearMonth.atDay(1);
+        LocalDate endDate = yearMonth.atEndOfMonth();
+        LocalDate previousDay = startDate.minusDays(1);
+        List<EmployeeLeavePeriod> leaves = new ArrayList<>(leaveRepository.findApprovedLeavePeriodsByDivisionBetween(division, startDate, endDate.plusDays(1))); // +1: rest day after a month-end COB
+        if (carryOver != null) {
+            leaves.addAll(carryOver.getSpilledLeaves());
         } else {
-             logger.warn("SUPPORT Shift - Date {}: (Try, consAllowed={}) No Senior found in pool of size {}.", date, consecutiveAllowedLog, availablePool.size());
+            // The persisted history stands in for the month before: ledger totals plus the previous day's shifts
+            carryOver = fairnessLedgerService.carryOverInto(yearMonth, division,
+                    supportScheduleRepository.findShiftAssignmentsByDivisionBetween(division, previousDay, previousDay));
         }
-
-        // Pick Juniors
-        final int juniorsNeeded = 2;
-        availablePool.stream()
-            .filter(e -> e.getLevel() == EmployeeLevel.JUNIOR)
-            .filter(e -> !teamMemberIds.contains(e.getId())) // Not already picked
-            .forEach(junior -> {
-                if (team.stream().filter(e -> e.getLevel() == EmployeeLevel.JUNIOR).count() < juniorsNeeded) {
-                    team.add(junior);
-                    teamMemberIds.add(junior.getId());
-                    logger.trace("SUPPORT Shift - Date {}: (Try, consAllowed={}) Picked Junior: {}", date, consecutiveAllowedLog, junior.getName());
-                }
-            });
-        
-        return team;
+        return new PlanningInputs(
+            yearMonth,
+            employeeRepository.findActiveEmployeesByDivision(division),
+            leaves,
+            holidayService.getHolidaysBetween(division, startDate, endDate),
+            carryOver.getLastDayAssignments(),
+            carryOver
+        );
     }
 
-
-    // Helper to check if an employee worked a specific shift type on a specific date
-    // This is a new helper method you'll need.
-    private boolean hasWorkedShiftTypeOnDate(Employee employee, ShiftType shiftType, LocalDate date) {
-        if (employee == null || date == null || shiftType == null) return false;
-        if (date.isBefore(YearMonth.from(date).atDay(1))) return false; // Optimization if checking before current month start
-
-        return supportScheduleRepository.findByAssignedDateAndShiftTypeAndEmployeeId(date, shiftType, employee.getId())
-                .isPresent();
-    }
-    private void assignShift(LocalDate date, Employee employee, ShiftType shiftType) {
-        Employee managedEmployee = employeeRepository.findById(employee.getId()).orElseThrow(() -> new IllegalArgumentException("Employee not found: " + employee.getId()));
-        SupportSchedule schedule = supportScheduleRepository.findByAssignedDateAndShiftType(date, shiftType)
-            .orElseGet(() -> {
-                SupportSchedule newSchedule = new SupportSchedule(); newSchedule.setAssignedDate(date); newSchedule.setShiftType(shiftType); newSchedule.setEmployees(new ArrayList<>());
-                return newSchedule;
-            });
-        if (schedule.getEmployees().stream().noneMatch(e -> e.getId().equals(managedEmployee.getId()))) {
-            schedule.getEmployees().add(managedEmployee); supportScheduleRepository.save(schedule);
+    // Single flush of the month: schedule rows, their schedule_employees rows, the rest leaves and the fairness ledger
+    // rows go out as JDBC batches.
+    // Employees are attached by reference, so committing a plan does not select them again.
+    private void persistPlan(SchedulePlan plan) {
+        long started = System.nanoTime();
+        List<SupportSchedule> schedules = new ArrayList<>(plan.getShifts().size());
+        for (SchedulePlan.PlannedShift shift : plan.getShifts()) {
+            SupportSchedule schedule = new SupportSchedule(); schedule.setDivision(plan.getDivision()); schedule.setAssignedDate(shift.getDate()); schedule.setShiftType(shift.getShiftType());
+            schedule.setEmployees(shift.getEmployeeIds().stream().map(employeeRepository::getReferenceById).collect(Collectors.toList()));
+            schedules.add(schedule);
         }
+        List<Leave> leaves = new ArrayList<>(plan.getRestLeaves().size());
+        for (SchedulePlan.PlannedLeave restLeave : plan.getRestLeaves()) {
+            Leave leave = new Leave(); leave.setEmployee(employeeRepository.getReferenceById(restLeave.getEmployeeId())); leave.setStartDate(restLeave.getDate()); leave.setEndDate(restLeave.getDate()); leave.setStatus(LeaveStatus.APPROVED); leave.setLeaveReason(REST_AFTER_COB_REASON);
+            leaves.add(leave);
+        }
+        supportScheduleRepository.saveAll(schedules);
+        leaveRepository.saveAll(leaves);
+        fairnessLedgerService.record(plan);
+        supportScheduleRepository.flush();
+        schedulerMetrics.recordPhase(SchedulerMetrics.PHASE_PERSIST, started);
+        if (plan.getOutcome() != null) recordOutcomeOnCommit(plan.getOutcome());
+        scheduleExportCache.invalidate(plan.getYearMonth());
+        logger.info("Persisted {} schedule rows and {} rest leaves for {} of {}", schedules.size(), leaves.size(), plan.getYearMonth(), plan.getDivision());
     }
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void assignLeaveAfterCob(Employee employee, LocalDate leaveDate) {
-        Employee emp = employeeRepository.findById(employee.getId()).orElseThrow(() -> new RuntimeException("Employee not found"));;
-        if (leaveRepository.existsByEmployeeIdAndStartDateAndEndDateAndLeaveReasonAndStatusIn(emp.getId(), leaveDate, leaveDate, "Rest after COB shift", Arrays.asList(LeaveStatus.APPROVED, LeaveStatus.PENDING))) return;
-        if (leaveRepository.isEmployeeOnLeave(emp.getId(), leaveDate)) return;
-        Leave leave = new Leave(); leave.setEmployee(emp); leave.setStartDate(leaveDate); leave.setEndDate(leaveDate); leave.setStatus(LeaveStatus.APPROVED); leave.setLeaveReason("Rest after COB shift");
-        leaveRepository.save(leave);
-    }
-    private void logMonthlyShiftCounts(Map<Long, Integer> cobShiftCounts, Map<Long, Integer> supportShiftCounts, Map<Long, Integer> systemMonitorShiftCounts) {
-        // Full implementation from previous response
-        logger.info("--- Monthly COB Shift Counts ---");
-        cobShiftCounts.forEach((empId, count) -> employeeRepository.findById(empId).ifPresent(emp -> 
-            logger.info("Employee {} (ID: {}, Type: {}, Level: {}): {} COB shifts", emp.getName(), empId, emp.getType(), emp.getLevel(), count)));
-        // ... (similar for SUPPORT and SYSTEM_MONITOR) ...
+
+    // Problem-day counters move only for months that are actually saved
+    private void recordOutcomeOnCommit(SchedulePlan.Outcome outcome) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedulerMetrics.recordOutcome(outcome);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedulerMetrics.recordOutcome(outcome);
+            }
+        });
     }
-}
\ No newline at end of file
+}
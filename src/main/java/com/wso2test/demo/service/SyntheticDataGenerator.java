@@ -0,0 +1,218 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.SyntheticDataReport;
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.respository.HolidayRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Fills employees, leaves and holidays with reproducible data for scale tests: a SENIOR/JUNIOR mix over the three
+ * employee types, overlapping multi-day leaves in every status, and holidays in clusters of consecutive days.
+ * Holidays (IDENTITY ids) go through JDBC batches; employees and leaves go through Hibernate batches so their ids
+ * come from the same pooled generators the application uses.
+ */
+@Service
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final int JDBC_BATCH_SIZE = 1_000;
+    private static final int LEAVES_PER_FLUSH = 1_000;      // keeps the persistence context small
+    private static final int EMPLOYEES_PER_FLUSH = 1_000;
+    private static final int LEAVES_PER_TRANSACTION = 20_000;
+
+    private static final String[] LEAVE_REASONS = {"Annual leave", "Sick leave", "Family event", "Training", "Personal"};
+    private static final String[] HOLIDAY_NAMES = {"National Day", "Founders Day", "Harvest Festival", "New Year", "Memorial Day", "Festival of Lights"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeRepository employeeRepository;
+    private final HolidayRepository holidayRepository;
+    private final ScheduleExportCache scheduleExportCache;
+    private final HolidayCalendar holidayCalendar;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  EmployeeRepository employeeRepository,
+                                  HolidayRepository holidayRepository,
+                                  ScheduleExportCache scheduleExportCache,
+                                  HolidayCalendar holidayCalendar) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.employeeRepository = employeeRepository;
+        this.holidayRepository = holidayRepository;
+        this.scheduleExportCache = scheduleExportCache;
+        this.holidayCalendar = holidayCalendar;
+    }
+
+    public SyntheticDataReport generate(SyntheticDataSpec spec) {
+        LocalDate startDate = spec.getStartDate() != null ? spec.getStartDate() : LocalDate.now().withDayOfYear(1);
+        LocalDate endDate = spec.getEndDate() != null ? spec.getEndDate() : startDate.plusYears(1).minusDays(1);
+        if (spec.getEmployees() < 0 || spec.getLeaves() < 0 || spec.getHolidays() < 0) {
+            throw new IllegalArgumentException("Counts must not be negative");
+        }
+        if (spec.getDivisions() < 1) {
+            throw new IllegalArgumentException("At least one division is needed");
+        }
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("endDate must not be before startDate");
+        }
+        if (spec.getLeaves() > 0 && spec.getEmployees() == 0) {
+            throw new IllegalArgumentException("Leaves need at least one employee");
+        }
+        String emailPrefix = "synthetic-" + spec.getSeed() + "-";
+        if (spec.getEmployees() > 0 && employeeRepository.existsByEmail(email(emailPrefix, 0))) {
+            throw new IllegalStateException("Synthetic data for seed " + spec.getSeed() + " is already loaded.");
+        }
+
+        long started = System.nanoTime();
+        // Separate streams so changing one count does not reshuffle the other tables
+        long[] employeeIds = insertEmployees(spec.getEmployees(), spec.getDivisions(), emailPrefix, "+1555-" + spec.getSeed() + "-",
+                new Random(spec.getSeed()));
+        int leaves = insertLeaves(spec.getLeaves(), employeeIds, startDate, endDate, new Random(spec.getSeed() * 31 + 1));
+        Random holidayRandom = new Random(spec.getSeed() * 31 + 2);
+        int holidays = 0;
+        for (int d = 0; d < spec.getDivisions(); d++) {
+            holidays += insertHolidays(spec.getHolidays(), division(d, spec.getDivisions()), startDate, endDate, holidayRandom);
+        }
+        if (holidays > 0) holidayCalendar.invalidate();
+        scheduleExportCache.invalidate(startDate, endDate);
+
+        SyntheticDataReport report = new SyntheticDataReport(spec.getSeed(), employeeIds.length, leaves, holidays,
+                (System.nanoTime() - started) / 1_000_000);
+        logger.info("Loaded synthetic data: {}", report);
+        return report;
+    }
+
+    // 70% SUPPORT (40% of them senior), 15% COB_PERFORMER, 15% SYSTEM_MONITOR; about 3% inactive
+    // Emails and phone numbers carry the seed, so data sets of different seeds can be loaded side by side
+    private long[] insertEmployees(int count, int divisions, String emailPrefix, String phonePrefix, Random random) {
+        long[] ids = new long[count];
+        transactionTemplate.executeWithoutResult(tx -> {
+            for (int i = 0; i < count; i++) {
+                double kind = random.nextDouble();
+                EmployeeType type = kind < 0.70 ? EmployeeType.SUPPORT : kind < 0.85 ? EmployeeType.COB_PERFORMER : EmployeeType.SYSTEM_MONITOR;
+                EmployeeLevel level = type == EmployeeType.SUPPORT && random.nextDouble() >= 0.4 ? EmployeeLevel.JUNIOR : EmployeeLevel.SENIOR;
+                EmployeeStatus status = random.nextDouble() < 0.03 ? EmployeeStatus.INACTIVE : EmployeeStatus.ACTIVE;
+                Employee employee = new Employee("Synthetic Employee " + i, email(emailPrefix, i),
+                        phone(phonePrefix, i), status, type, level);
+                employee.setDivision(division(i % divisions, divisions));
+                entityManager.persist(employee);
+                ids[i] = employee.getId();
+                if ((i + 1) % EMPLOYEES_PER_FLUSH == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        return ids;
+    }
+
+    // Mostly short leaves with a long tail (1-14 days). As LeaveService enforces, an employee's APPROVED and PENDING leaves
+    // never overlap: a draw starting on a day the employee is already away is redrawn, one running into such a day is
+    // cut short. Gives up after 10 draws per requested leave, so an overfull period yields fewer leaves.
+    private int insertLeaves(int count, long[] employeeIds, LocalDate startDate, LocalDate endDate, Random random) {
+        int span = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        BitSet[] away = new BitSet[employeeIds.length]; // per employee: day offsets covered by APPROVED/PENDING leaves
+        long maxDraws = 10L * count;
+        int[] inserted = {0};
+        long[] draws = {0};
+        while (inserted[0] < count && draws[0] < maxDraws) {
+            int target = Math.min(inserted[0] + LEAVES_PER_TRANSACTION, count);
+            transactionTemplate.executeWithoutResult(tx -> {
+                int persisted = 0;
+                while (inserted[0] < target && draws[0]++ < maxDraws) {
+                    int first = (int) (random.nextDouble() * span);
+                    int length = Math.min(14, 1 + (int) (-Math.log(1 - random.nextDouble()) * 3));
+                    int last = Math.min(first + length - 1, span - 1);
+                    double state = random.nextDouble();
+                    LeaveStatus status = state < 0.80 ? LeaveStatus.APPROVED : state < 0.92 ? LeaveStatus.PENDING
+                            : state < 0.97 ? LeaveStatus.REJECTED : LeaveStatus.CANCELLED;
+                    int employee = random.nextInt(employeeIds.length);
+                    if (status == LeaveStatus.APPROVED || status == LeaveStatus.PENDING) {
+                        if (away[employee] == null) away[employee] = new BitSet(span);
+                        BitSet days = away[employee];
+                        if (days.get(first)) continue;
+                        int taken = days.nextSetBit(first);
+                        if (taken >= 0 && taken <= last) last = taken - 1;
+                        days.set(first, last + 1);
+                    }
+
+                    Leave leave = new Leave();
+                    leave.setEmployee(entityManager.getReference(Employee.class, employeeIds[employee]));
+                    leave.setLeaveReason(LEAVE_REASONS[random.nextInt(LEAVE_REASONS.length)]);
+                    leave.setStartDate(startDate.plusDays(first));
+                    leave.setEndDate(startDate.plusDays(last));
+                    leave.setStatus(status);
+                    entityManager.persist(leave);
+                    inserted[0]++;
+                    if (++persisted % LEAVES_PER_FLUSH == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+        if (inserted[0] < count) {
+            logger.warn("Placed {} of {} synthetic leaves; the period has no room for more without overlaps", inserted[0], count);
+        }
+        return inserted[0];
+    }
+
+    // Clusters of 1-4 consecutive days; dates that already have a holiday in the division are skipped ((division, date) is unique)
+    private int insertHolidays(int count, String division, LocalDate startDate, LocalDate endDate, Random random) {
+        Set<LocalDate> taken = new HashSet<>();
+        holidayRepository.findByDivisionAndDateBetween(division, startDate, endDate).forEach(h -> taken.add(h.getDate()));
+        long span = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        List<Object[]> rows = new ArrayList<>();
+        for (int attempts = 0; rows.size() < count && attempts < count * 10; attempts++) {
+            LocalDate first = startDate.plusDays((long) (random.nextDouble() * span));
+            String name = HOLIDAY_NAMES[random.nextInt(HOLIDAY_NAMES.length)];
+            int length = 1 + random.nextInt(4);
+            for (int d = 0; d < length && rows.size() < count; d++) {
+                LocalDate date = first.plusDays(d);
+                if (date.isAfter(endDate) || !taken.add(date)) continue;
+                rows.add(new Object[]{length > 1 ? name + " (day " + (d + 1) + ")" : name, Date.valueOf(date)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO holiday (name, date, division) VALUES (?, ?, ?)", rows, JDBC_BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, (String) row[0]);
+            ps.setDate(2, (Date) row[1]);
+            ps.setString(3, division);
+        });
+        return rows.size();
+    }
+
+    private static String division(int index, int divisions) {
+        return divisions == 1 ? Division.DEFAULT : "Synthetic Division " + (index + 1);
+    }
+
+    private static String email(String prefix, int index) {
+        return prefix + index + "@synthetic.example";
+    }
+
+    private static String phone(String prefix, int index) {
+        return prefix + String.format("%07d", index);
+    }
+}
@@ -0,0 +1,152 @@
+package com.wso2test.demo.util;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Closed date intervals keyed by a long id, in a treap ordered by (start, id) where every node also knows the
+ * latest end date below it. Insert and remove are O(log n) expected; an overlap query is O(log n + k) for k hits,
+ * because subtrees that end before the query range, or start after it, are never entered. Not thread-safe.
+ */
+public class IntervalTree<T> {
+
+    private static final class Node<T> {
+        final long id;
+        final LocalDate start;
+        final LocalDate end;
+        final T value;
+        final int priority;
+        LocalDate maxEnd;
+        Node<T> left;
+        Node<T> right;
+
+        Node(long id, LocalDate start, LocalDate end, T value, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+
+    private final Map<Long, Node<T>> byId = new HashMap<>();
+    private final Random random = new Random(0x5eed);
+    private Node<T> root;
+
+    public int size() {
+        return byId.size();
+    }
+
+    // Adds the interval, replacing any interval stored under the same id
+    public void put(long id, LocalDate start, LocalDate end, T value) {
+        if (end.isBefore(start)) throw new IllegalArgumentException("Interval ends before it starts: " + start + ".." + end);
+        remove(id);
+        Node<T> node = new Node<>(id, start, end, value, random.nextInt());
+        byId.put(id, node);
+        root = insert(root, node);
+    }
+
+    public boolean remove(long id) {
+        Node<T> node = byId.remove(id);
+        if (node == null) return false;
+        root = delete(root, node);
+        return true;
+    }
+
+    // Visits every interval that shares at least one day with [from, to], in (start, id) order
+    public void forEachOverlapping(LocalDate from, LocalDate to, Consumer<? super T> action) {
+        visit(root, from, to, action);
+    }
+
+    public boolean anyOverlapping(LocalDate from, LocalDate to) {
+        return findFirst(root, from, to) != null;
+    }
+
+    private void visit(Node<T> node, LocalDate from, LocalDate to, Consumer<? super T> action) {
+        if (node == null || node.maxEnd.isBefore(from)) return;
+        visit(node.left, from, to, action);
+        if (node.start.isAfter(to)) return; // everything to the right starts later still
+        if (!node.end.isBefore(from)) action.accept(node.value);
+        visit(node.right, from, to, action);
+    }
+
+    private Node<T> findFirst(Node<T> node, LocalDate from, LocalDate to) {
+        if (node == null || node.maxEnd.isBefore(from)) return null;
+        Node<T> left = findFirst(node.left, from, to);
+        if (left != null) return left;
+        if (node.start.isAfter(to)) return null;
+        if (!node.end.isBefore(from)) return node;
+        return findFirst(node.right, from, to);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) return added;
+        if (added.priority > node.priority) {
+            Node<T>[] parts = split(node, added);
+            added.left = parts[0];
+            added.right = parts[1];
+            update(added);
+            return added;
+        }
+        if (compare(added, node) < 0) node.left = insert(node.left, added);
+        else node.right = insert(node.right, added);
+        update(node);
+        return node;
+    }
+
+    private Node<T> delete(Node<T> node, Node<T> removed) {
+        if (node == null) return null;
+        if (node == removed) return merge(node.left, node.right);
+        if (compare(removed, node) < 0) node.left = delete(node.left, removed);
+        else node.right = delete(node.right, removed);
+        update(node);
+        return node;
+    }
+
+    // Nodes ordered before key / after key
+    @SuppressWarnings("unchecked")
+    private Node<T>[] split(Node<T> node, Node<T> key) {
+        if (node == null) return new Node[]{null, null};
+        if (compare(node, key) < 0) {
+            Node<T>[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node<T>[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static <T> int compare(Node<T> a, Node<T> b) {
+        int byStart = a.start.compareTo(b.start);
+        return byStart != 0 ? byStart : Long.compare(a.id, b.id);
+    }
+
+    private static <T> void update(Node<T> node) {
+        LocalDate maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) maxEnd = node.left.maxEnd;
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) maxEnd = node.right.maxEnd;
+        node.maxEnd = maxEnd;
+    }
+}
@@ -0,0 +1,51 @@
+package com.wso2test.demo.util;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses year-month-day dates whose month and day may have one or two digits ("2025-3-7", "2025-03-07",
+ * "2025/3/7"), in a single pass over the characters: no regex, no formatter, no intermediate strings.
+ */
+public final class LenientDateParser {
+
+    private LenientDateParser() {
+    }
+
+    public static LocalDate parse(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) end--;
+
+        int[] fields = new int[3]; // year, month, day
+        int field = 0;
+        int digits = 0;
+        char separator = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                fields[field] = fields[field] * 10 + (c - '0');
+                if (++digits > (field == 0 ? 4 : 2)) throw invalid(text, i);
+            } else if ((c == '-' || c == '/') && field < 2 && (separator == 0 || separator == c)
+                    && (field == 0 ? digits == 4 : digits > 0)) {
+                separator = c;
+                field++;
+                digits = 0;
+            } else {
+                throw invalid(text, i);
+            }
+        }
+        if (field != 2 || digits == 0) throw invalid(text, end);
+        try {
+            return LocalDate.of(fields[0], fields[1], fields[2]);
+        } catch (DateTimeException e) {
+            throw new DateTimeParseException("Invalid date '" + text + "': " + e.getMessage(), text, start, e);
+        }
+    }
+
+    private static DateTimeParseException invalid(CharSequence text, int index) {
+        return new DateTimeParseException("Invalid date '" + text + "', expected yyyy-M-d", text, index);
+    }
+}
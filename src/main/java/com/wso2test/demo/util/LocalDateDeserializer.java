@@ -5,11 +5,9 @@ import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
 public class LocalDateDeserializer extends JsonDeserializer<LocalDate> {
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     @Override
     public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
@@ -18,9 +16,8 @@ public class LocalDateDeserializer extends JsonDeserializer<LocalDate> {
         if (dateStr == null || dateStr.isEmpty()) {
             return null;  // or throw an exception based on your preference
         }
-        dateStr = dateStr.replaceAll("(\\d{4})-(\\d{1})-(\\d{1})", "$1-$2-0$3");
         try {
-            return LocalDate.parse(dateStr, formatter);  // Convert the string to LocalDate
+            return LenientDateParser.parse(dateStr);  // yyyy-M-d, single-digit month/day allowed
         } catch (DateTimeParseException e) {
             throw new IOException("Invalid date format: " + dateStr, e);  // You can customize this message
         }
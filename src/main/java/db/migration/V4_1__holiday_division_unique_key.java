@@ -0,0 +1,55 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * Replaces the unique key on holiday(date) with one on (division, date). The old key has no stable name: V1 calls
+ * it uk_holiday_date, but databases baselined at V1 got it from Hibernate auto-DDL as UK_&lt;hash&gt;. So it is
+ * looked up in information_schema by its column set, which SQL alone cannot do on MySQL.
+ */
+public class V4_1__holiday_division_unique_key extends BaseJavaMigration {
+
+    private static final String UNIQUE_KEY_COLUMNS =
+            "SELECT tc.constraint_name, k.column_name FROM information_schema.table_constraints tc"
+                    + " JOIN information_schema.key_column_usage k ON k.constraint_schema = tc.constraint_schema"
+                    + " AND k.constraint_name = tc.constraint_name AND k.table_name = tc.table_name"
+                    + " WHERE tc.table_schema = SCHEMA() AND tc.table_name = ? AND tc.constraint_type = 'UNIQUE'";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        String quote = connection.getMetaData().getIdentifierQuoteString().trim();
+        try (Statement statement = connection.createStatement()) {
+            for (String name : uniqueKeysOn(connection, "holiday", Collections.singleton("date"))) {
+                statement.execute("ALTER TABLE holiday DROP INDEX " + quote + name + quote);
+            }
+            statement.execute("CREATE UNIQUE INDEX uk_holiday_division_date ON holiday (division, date)");
+        }
+    }
+
+    // Names of the table's unique keys over exactly these columns
+    private static List<String> uniqueKeysOn(Connection connection, String table, Set<String> columns) throws SQLException {
+        Map<String, Set<String>> keys = new LinkedHashMap<>();
+        try (PreparedStatement query = connection.prepareStatement(UNIQUE_KEY_COLUMNS)) {
+            query.setString(1, table);
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    keys.computeIfAbsent(rows.getString(1), k -> new HashSet<>()).add(rows.getString(2).toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        List<String> names = new ArrayList<>();
+        keys.forEach((name, keyColumns) -> {
+            if (keyColumns.equals(columns)) names.add(name);
+        });
+        return names;
+    }
+}
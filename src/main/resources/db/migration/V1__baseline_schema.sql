@@ -0,0 +1,54 @@
+-- Schema as previously created by Hibernate auto-DDL from the entities.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and start from V2.
+
+CREATE TABLE IF NOT EXISTS employees (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    name         VARCHAR(255) NOT NULL,
+    email        VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    status       VARCHAR(255),
+    type         VARCHAR(255),
+    level        VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS holiday (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    date DATE         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_holiday_date UNIQUE (date)
+);
+
+-- Pooled id blocks for schedules and leaves (@TableGenerator); rows are created on first use
+CREATE TABLE IF NOT EXISTS id_generators (
+    gen_name  VARCHAR(255) NOT NULL,
+    gen_value BIGINT,
+    PRIMARY KEY (gen_name)
+);
+
+CREATE TABLE IF NOT EXISTS leaves (
+    id           BIGINT       NOT NULL,
+    employee_id  BIGINT       NOT NULL,
+    leave_reason VARCHAR(255) NOT NULL,
+    start_date   DATE         NOT NULL,
+    end_date     DATE         NOT NULL,
+    status       VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_leaves_employee FOREIGN KEY (employee_id) REFERENCES employees (id)
+);
+
+CREATE TABLE IF NOT EXISTS schedules (
+    id            BIGINT       NOT NULL,
+    shift_type    VARCHAR(255) NOT NULL,
+    assigned_date DATE         NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS schedule_employees (
+    schedule_id BIGINT NOT NULL,
+    employee_id BIGINT NOT NULL,
+    CONSTRAINT fk_schedule_employees_schedule FOREIGN KEY (schedule_id) REFERENCES schedules (id),
+    CONSTRAINT fk_schedule_employees_employee FOREIGN KEY (employee_id) REFERENCES employees (id)
+);
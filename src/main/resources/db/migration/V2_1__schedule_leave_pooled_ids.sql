@@ -0,0 +1,21 @@
+-- Schedule and leave ids moved from IDENTITY to the pooled id_generators table (allocationSize 50) so generated months
+-- can be written in JDBC batches. Databases baselined at V1 were created by auto-DDL and have no such table yet. As in
+-- V3, each generator starts at MAX(id) + 50, which keeps new ids above every existing row.
+CREATE TABLE IF NOT EXISTS id_generators (
+    gen_name  VARCHAR(255) NOT NULL,
+    gen_value BIGINT,
+    PRIMARY KEY (gen_name)
+);
+
+-- A row the application already created is only ever raised, never lowered
+UPDATE id_generators SET gen_value = GREATEST(COALESCE(gen_value, 0), (SELECT COALESCE(MAX(id), 0) + 50 FROM schedules))
+WHERE gen_name = 'schedules';
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'schedules', COALESCE(MAX(id), 0) + 50 FROM schedules
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE gen_name = 'schedules');
+
+UPDATE id_generators SET gen_value = GREATEST(COALESCE(gen_value, 0), (SELECT COALESCE(MAX(id), 0) + 50 FROM leaves))
+WHERE gen_name = 'leaves';
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'leaves', COALESCE(MAX(id), 0) + 50 FROM leaves
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE gen_name = 'leaves');
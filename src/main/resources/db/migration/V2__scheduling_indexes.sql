@@ -0,0 +1,16 @@
+-- Composite indexes for the planner, repair and read-API access paths. InnoDB appends the primary key to every
+-- secondary index, so "(..., id)" lookups below are index-only.
+
+-- One row per day and shift (findByAssignedDateAndShiftType); also serves every assigned_date range query
+CREATE UNIQUE INDEX uk_schedules_date_shift ON schedules (assigned_date, shift_type);
+
+-- Join table in both directions: an employee's shifts, and a shift's employees
+CREATE INDEX ix_schedule_employees_employee ON schedule_employees (employee_id, schedule_id);
+CREATE INDEX ix_schedule_employees_schedule ON schedule_employees (schedule_id, employee_id);
+
+-- Per-employee leave checks (isEmployeeOnLeave, rest-after-COB lookups, overlap checks)
+CREATE INDEX ix_leaves_employee_dates ON leaves (employee_id, start_date, end_date, status);
+-- Approved leaves overlapping a period, for everyone (findApprovedLeavePeriodsBetween)
+CREATE INDEX ix_leaves_status_dates ON leaves (status, start_date, end_date, employee_id);
+-- Leaves by date regardless of status (findByStartDateBetween, leaves on a given day)
+CREATE INDEX ix_leaves_dates ON leaves (start_date, end_date);
@@ -0,0 +1,5 @@
+-- Employee ids move from AUTO_INCREMENT to the pooled id_generators table (allocationSize 50) so Hibernate can batch
+-- employee inserts. The pooled optimizer never hands out an id at or below gen_value - 50, so seeding MAX(id) + 50
+-- keeps new ids above every existing row. AUTO_INCREMENT stays on the column but the application no longer uses it.
+INSERT INTO id_generators (gen_name, gen_value)
+SELECT 'employees', COALESCE(MAX(id), 0) + 50 FROM employees;
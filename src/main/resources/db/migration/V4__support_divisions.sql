@@ -0,0 +1,16 @@
+-- Support divisions: every employee, schedule row and holiday belongs to one division. Divisions have disjoint
+-- rosters and their own holiday calendars and are scheduled independently; existing rows belong to the original one.
+ALTER TABLE employees ADD COLUMN division VARCHAR(100) NOT NULL DEFAULT 'Core Banking Support Division';
+ALTER TABLE schedules ADD COLUMN division VARCHAR(100) NOT NULL DEFAULT 'Core Banking Support Division';
+ALTER TABLE holiday ADD COLUMN division VARCHAR(100) NOT NULL DEFAULT 'Core Banking Support Division';
+
+-- One row per division, day and shift (findByDivisionAndAssignedDateAndShiftType). Reads across divisions (repair, read API) keep a plain date index.
+ALTER TABLE schedules DROP INDEX uk_schedules_date_shift;
+CREATE UNIQUE INDEX uk_schedules_division_date_shift ON schedules (division, assigned_date, shift_type);
+CREATE INDEX ix_schedules_date_shift ON schedules (assigned_date, shift_type);
+
+-- The same date may be a holiday in several divisions: V4_1 swaps the unique key on date for (division, date)
+CREATE INDEX ix_holiday_date ON holiday (date);
+
+-- Active roster of one division (planner load)
+CREATE INDEX ix_employees_division_status ON employees (division, status);
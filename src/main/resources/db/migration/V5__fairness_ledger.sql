@@ -0,0 +1,24 @@
+-- Running fairness totals per employee across every persisted month: shifts per type, the last Saturday COB (rotation)
+-- and the last day worked. Kept in step with schedule_employees by the application, in the same transactions.
+CREATE TABLE fairness_ledger (
+    employee_id           BIGINT NOT NULL,
+    cob_shifts            INT    NOT NULL DEFAULT 0,
+    support_shifts        INT    NOT NULL DEFAULT 0,
+    system_monitor_shifts INT    NOT NULL DEFAULT 0,
+    last_saturday_cob     DATE,
+    last_shift_date       DATE,
+    PRIMARY KEY (employee_id),
+    CONSTRAINT fk_fairness_ledger_employee FOREIGN KEY (employee_id) REFERENCES employees (id) ON DELETE CASCADE
+);
+
+-- Existing history, once (DAYOFWEEK 7 = Saturday)
+INSERT INTO fairness_ledger (employee_id, cob_shifts, support_shifts, system_monitor_shifts, last_saturday_cob, last_shift_date)
+SELECT se.employee_id,
+       SUM(CASE WHEN s.shift_type = 'COB' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN s.shift_type = 'SUPPORT' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN s.shift_type = 'SYSTEM_MONITOR' THEN 1 ELSE 0 END),
+       MAX(CASE WHEN s.shift_type = 'COB' AND DAYOFWEEK(s.assigned_date) = 7 THEN s.assigned_date END),
+       MAX(s.assigned_date)
+FROM schedule_employees se
+JOIN schedules s ON s.id = se.schedule_id
+GROUP BY se.employee_id;
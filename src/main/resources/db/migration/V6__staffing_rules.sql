@@ -0,0 +1,16 @@
+-- Staffing rules per division: the team of each shift type (comma-separated slots of '|'-separated alternatives, each
+-- alternative a '+'-joined set of SUPPORT, COB_PERFORMER, SYSTEM_MONITOR, SENIOR, JUNIOR) and the monthly caps.
+-- Divisions without a row use the built-in defaults, which the row for the original division spells out.
+CREATE TABLE staffing_rules (
+    division                         VARCHAR(100) NOT NULL,
+    system_monitor_team              VARCHAR(500) NOT NULL,
+    cob_team                         VARCHAR(500) NOT NULL,
+    support_team                     VARCHAR(500) NOT NULL,
+    max_support_shifts_per_junior    INT          NOT NULL,
+    max_cob_shifts_for_cob_performer INT          NOT NULL,
+    PRIMARY KEY (division)
+);
+
+INSERT INTO staffing_rules (division, system_monitor_team, cob_team, support_team, max_support_shifts_per_junior, max_cob_shifts_for_cob_performer)
+VALUES ('Core Banking Support Division', 'SYSTEM_MONITOR', 'SUPPORT+SENIOR, SUPPORT+JUNIOR, COB_PERFORMER|SUPPORT+SENIOR',
+        'SUPPORT+SENIOR, SUPPORT+JUNIOR, SUPPORT+JUNIOR', 8, 5);
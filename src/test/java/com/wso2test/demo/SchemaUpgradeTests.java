@@ -0,0 +1,82 @@
+package com.wso2test.demo;
+
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.model.Holiday;
+import com.wso2test.demo.model.Leave;
+import com.wso2test.demo.model.SupportSchedule;
+import com.wso2test.demo.respository.HolidayRepository;
+import com.wso2test.demo.respository.SupportScheduleRepository;
+import com.wso2test.demo.service.LeaveService;
+import com.wso2test.demo.service.SupportSchedulerService;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upgrades a database the baseline application created with Hibernate auto-DDL (db/baseline-auto-ddl.sql: IDENTITY
+ * ids, Hibernate-named unique keys, existing rows) through every migration, as Flyway does in production after
+ * baselining it at V1. The context only starts if all migrations apply and the entities validate against the result.
+ */
+@SpringBootTest(properties = "spring.datasource.url=" + SchemaUpgradeTests.URL)
+class SchemaUpgradeTests {
+
+    static final String URL = "jdbc:h2:mem:baseline-upgrade;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    // Runs when the class is initialised, before the Spring context (and so Flyway) touches the database
+    static {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Reader script = new InputStreamReader(SchemaUpgradeTests.class.getResourceAsStream("/db/baseline-auto-ddl.sql"), StandardCharsets.UTF_8)) {
+            RunScript.execute(connection, script);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create the baseline schema", e);
+        }
+    }
+
+    @Autowired private SupportSchedulerService supportSchedulerService;
+    @Autowired private LeaveService leaveService;
+    @Autowired private SupportScheduleRepository supportScheduleRepository;
+    @Autowired private HolidayRepository holidayRepository;
+
+    @Test
+    void holidayDatesAreUniquePerDivision() {
+        // The baseline holiday on 2030-09-27 belongs to the default division
+        holidayRepository.saveAndFlush(holiday("Meskel", LocalDate.of(2030, 9, 27), "Payments Support Division"));
+        assertThrows(DataIntegrityViolationException.class,
+                () -> holidayRepository.saveAndFlush(holiday("Meskel again", LocalDate.of(2030, 9, 27), Division.DEFAULT)));
+    }
+
+    @Test
+    void generatedIdsStayAboveBaselineRows() {
+        supportSchedulerService.generateMonthlySchedule(2030, 2, Collections.emptyList());
+        List<SupportSchedule> schedules = supportScheduleRepository.findByAssignedDateBetween(LocalDate.of(2030, 2, 1), LocalDate.of(2030, 2, 28));
+        assertFalse(schedules.isEmpty(), "no schedule was generated");
+        for (SupportSchedule schedule : schedules) {
+            assertTrue(schedule.getId() > 40, "schedule id " + schedule.getId() + " reuses the baseline id range");
+        }
+        Leave leave = leaveService.addLeave(1L, "Annual", "2030-04-01", "2030-04-03");
+        assertTrue(leave.getId() > 30, "leave id " + leave.getId() + " reuses the baseline id range");
+    }
+
+    private static Holiday holiday(String name, LocalDate date, String division) {
+        Holiday holiday = new Holiday();
+        holiday.setName(name);
+        holiday.setDate(date);
+        holiday.setDivision(division);
+        return holiday;
+    }
+}
@@ -0,0 +1,211 @@
+package com.wso2test.demo;
+
+import com.wso2test.demo.dto.SimulationRequest;
+import com.wso2test.demo.dto.SimulationScenario;
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.Leave;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.service.LeaveService;
+import com.wso2test.demo.service.ScheduleSimulationService;
+import com.wso2test.demo.service.SupportSchedulerService;
+import com.wso2test.demo.service.SyntheticDataGenerator;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the JDBC statements of the service methods and endpoints on a fixed roster (100 employees, seed 19) and
+ * fails when one exceeds its budget, which is how a repository call added inside a loop (N+1) shows up. Runs on its
+ * own in-memory database so rows created by other test classes do not move the counts.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:statement-budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementBudgetTests {
+
+    private static final int EMPLOYEES = 100;
+
+    @Autowired private SyntheticDataGenerator syntheticDataGenerator;
+    @Autowired private SupportSchedulerService supportSchedulerService;
+    @Autowired private LeaveService leaveService;
+    @Autowired private ScheduleSimulationService scheduleSimulationService;
+    @Autowired private EmployeeRepository employeeRepository;
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Employee employee;
+
+    @TestConfiguration
+    static class CountingDataSourceConfiguration {
+        // Every statement sent through the pool is counted per thread (QueryCountHolder)
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource
+                            ? ProxyDataSourceBuilder.create(beanName, (DataSource) bean).countQuery().build() : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeAll
+    void loadRoster() {
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setSeed(19);
+        spec.setEmployees(EMPLOYEES);
+        spec.setLeaves(300);
+        spec.setHolidays(5);
+        spec.setStartDate(LocalDate.of(2031, 1, 1));
+        spec.setEndDate(LocalDate.of(2031, 12, 31));
+        syntheticDataGenerator.generate(spec);
+        supportSchedulerService.generateMonthlySchedule(2031, 3, Collections.emptyList());
+        // Warms the lazily loaded leave index, so no read test pays for it
+        leaveService.getLeavePeriodsBetween(LocalDate.of(2031, 1, 1), LocalDate.of(2031, 1, 1));
+        employee = employeeRepository.findAllActiveEmployees().get(0);
+    }
+
+    @Test
+    void generateMonthlySchedule() {
+        // Loads roster, leaves and holidays once per month and writes the shifts in JDBC batches
+        assertBudget("generateMonthlySchedule", 25,
+                statements(() -> supportSchedulerService.generateMonthlySchedule(2031, 5, Collections.emptyList())));
+    }
+
+    @Test
+    void simulateReadsOnceAndWritesNothing() {
+        SimulationScenario removed = new SimulationScenario();
+        removed.setRemovedEmployeeIds(Collections.singletonList(employee.getId()));
+        SimulationScenario capped = new SimulationScenario();
+        capped.setMaxSupportShiftsPerJunior(1);
+        SimulationRequest request = new SimulationRequest();
+        request.setYear(2031);
+        request.setMonth(7);
+        request.setScenarios(Arrays.asList(removed, capped));
+        // The inputs are loaded once for all variants, however many there are
+        assertBudget("simulate", 5, statements(() -> scheduleSimulationService.simulate(request)));
+        QueryCount counts = QueryCountHolder.getGrandTotal();
+        assertEquals(0, counts.getInsert() + counts.getUpdate() + counts.getDelete(), "simulate wrote to the database");
+    }
+
+    @Test
+    void getAllSchedulesDoesNotGrowWithRows() {
+        long oneMonth = statements(() -> mockMvc.perform(get("/api/schedule")).andExpect(status().isOk()));
+        supportSchedulerService.generateMonthlySchedule(2031, 6, Collections.emptyList());
+        long twoMonths = statements(() -> mockMvc.perform(get("/api/schedule")).andExpect(status().isOk()));
+        assertBudget("GET /api/schedule", 1, oneMonth);
+        assertEquals(oneMonth, twoMonths, "GET /api/schedule issues more statements once more schedules exist");
+    }
+
+    @Test
+    void scheduleReads() {
+        assertBudget("GET /api/schedule/entries", 1, statements(() ->
+                mockMvc.perform(get("/api/schedule/entries").param("from", "2031-03-01").param("to", "2031-03-31"))
+                        .andExpect(status().isOk())));
+        // Rendered from one fetch-joined query; the holidays come from the in-memory calendar
+        assertBudget("GET /api/schedule/{year}/{month}/export", 1, statements(() ->
+                mockMvc.perform(get("/api/schedule/2031/3/export")).andExpect(status().isOk())));
+    }
+
+    @Test
+    void updateLeaveStatus() {
+        Leave rejected = leaveService.addLeave(employee.getId(), "Budget", "2031-11-03", "2031-11-04");
+        Leave approved = leaveService.addLeave(employee.getId(), "Budget", "2031-11-10", "2031-11-11");
+        assertBudget("updateLeaveStatus(REJECTED)", 3, statements(() -> leaveService.updateLeaveStatus(rejected.getId(), "REJECTED")));
+        // Nothing published in November: approval only asks the repair service for shifts in the leave period
+        assertBudget("updateLeaveStatus(APPROVED)", 5, statements(() -> leaveService.updateLeaveStatus(approved.getId(), "APPROVED")));
+    }
+
+    @Test
+    void approvalRepairsThePublishedSchedule() {
+        // Someone on a published March SUPPORT shift, free of leave that day
+        Map<String, Object> shift = jdbcTemplate.queryForMap("SELECT se.employee_id, s.assigned_date FROM schedules s"
+                + " JOIN schedule_employees se ON se.schedule_id = s.id"
+                + " WHERE s.shift_type = 'SUPPORT' AND s.assigned_date BETWEEN '2031-03-01' AND '2031-03-31'"
+                + " AND NOT EXISTS (SELECT 1 FROM leaves l WHERE l.employee_id = se.employee_id"
+                + " AND l.start_date <= s.assigned_date AND l.end_date >= s.assigned_date)"
+                + " ORDER BY s.assigned_date, se.employee_id LIMIT 1");
+        Long employeeId = ((Number) shift.get("employee_id")).longValue();
+        String date = shift.get("assigned_date").toString();
+        Leave leave = leaveService.addLeave(employeeId, "Budget", date, date);
+
+        // The division's roster, shifts and leaves are loaded once for the whole leave period, not per candidate
+        assertBudget("updateLeaveStatus(APPROVED) with repair", 15,
+                statements(() -> leaveService.updateLeaveStatus(leave.getId(), "APPROVED")));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schedules s JOIN schedule_employees se ON se.schedule_id = s.id"
+                + " WHERE se.employee_id = ? AND s.assigned_date = ?", Integer.class, employeeId, LocalDate.parse(date)).intValue(),
+                "the approved leave did not take the employee off the published shift");
+    }
+
+    @Test
+    void leaveWrites() {
+        Leave leave = leaveService.addLeave(employee.getId(), "Budget", "2031-12-01", "2031-12-02");
+        // Employee row lock, the overlap check and the insert
+        assertBudget("addLeave", 3, statements(() -> leaveService.addLeave(employee.getId(), "Budget", "2031-12-08", "2031-12-08")));
+        assertBudget("deleteLeave", 3, statements(() -> {
+            leaveService.deleteLeave(leave.getId());
+            return null;
+        }));
+    }
+
+    // Lists of employees or leaves: the employees and their schedules are fetched in batches, not one query each
+    @Test
+    void listEndpoints() {
+        assertBudget("GET /api/employees", 4, statements(() -> mockMvc.perform(get("/api/employees")).andExpect(status().isOk())));
+        assertBudget("GET /api/employees/available/{date}", 4, statements(() ->
+                mockMvc.perform(get("/api/employees/available/2031-06-10")).andExpect(status().isOk())));
+        assertBudget("GET /api/leaves", 7, statements(() -> mockMvc.perform(get("/api/leaves")).andExpect(status().isOk())));
+        assertBudget("GET /api/leaves/employee/{id}", 3, statements(() ->
+                mockMvc.perform(get("/api/leaves/employee/" + employee.getId())).andExpect(status().isOk())));
+        assertBudget("GET /api/leaves/overlapping/{date}", 4, statements(() ->
+                mockMvc.perform(get("/api/leaves/overlapping/2031-06-10")).andExpect(status().isOk())));
+        assertBudget("GET /api/holidays/range", 0, statements(() ->
+                mockMvc.perform(get("/api/holidays/range").param("from", "2031-01-01").param("to", "2031-12-31")).andExpect(status().isOk())));
+        assertBudget("getLeavesBetweenDates", 4, statements(() ->
+                leaveService.getLeavesBetweenDates(LocalDate.of(2031, 1, 1), LocalDate.of(2031, 12, 31))));
+    }
+
+    private static long statements(ThrowingCall call) {
+        QueryCountHolder.clear();
+        try {
+            call.run();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+
+    private static void assertBudget(String operation, long budget, long actual) {
+        assertTrue(actual <= budget, operation + " issued " + actual + " statements for " + EMPLOYEES
+                + " employees; budget is " + budget);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingCall {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,67 @@
+package com.wso2test.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /api/holidays/range is served from the holiday calendar; a holiday posted in between must show up in it
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:holiday-controller;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class HolidayControllerTests {
+
+    private static final String DIVISION = "Range Division";
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    void rangeReturnsTheDivisionsHolidaysIncludingOnesJustAdded() throws Exception {
+        addHoliday("New Year", "2041-01-01", DIVISION);
+        addHoliday("Other division", "2041-01-02", "Other Range Division");
+        mockMvc.perform(get("/api/holidays/range").param("from", "2041-01-01").param("to", "2041-01-31").param("division", DIVISION))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        addHoliday("Founders Day", "2041-01-31", DIVISION);
+
+        mockMvc.perform(get("/api/holidays/range").param("from", "2041-01-01").param("to", "2041-01-31").param("division", DIVISION))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].date").value("2041-01-01"))
+                .andExpect(jsonPath("$[1].name").value("Founders Day"));
+        mockMvc.perform(get("/api/holidays/range").param("from", "2041-01-02").param("to", "2041-01-30").param("division", DIVISION))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void rangeWithoutADivisionReadsTheDefaultOne() throws Exception {
+        addHoliday("Default division", "2041-02-05", null);
+
+        mockMvc.perform(get("/api/holidays/range").param("from", "2041-02-01").param("to", "2041-02-28"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Default division"));
+    }
+
+    @Test
+    void rangeEndingBeforeItStartsIsABadRequest() throws Exception {
+        mockMvc.perform(get("/api/holidays/range").param("from", "2041-03-02").param("to", "2041-03-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void addHoliday(String name, String date, String division) throws Exception {
+        mockMvc.perform(post("/api/holidays").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\", \"date\": \"" + date + "\""
+                                + (division != null ? ", \"division\": \"" + division + "\"" : "") + "}"))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,246 @@
+package com.wso2test.demo.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.service.ScheduleExcelService;
+import com.wso2test.demo.service.SyntheticDataGenerator;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The workbook and zip downloads go out as a StreamingResponseBody inside a {@code ResponseEntity<?>}; these requests
+ * fail if the body is no longer written (e.g. "No converter") or comes out empty or unreadable. The export of a
+ * persisted month is cached and revalidated by ETag until a write touches that month. Generation jobs run on a job
+ * executor of one thread and one queue slot.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:scheduler-controller;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "scheduler.jobs.threads=1", "scheduler.jobs.queue-capacity=1"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SchedulerControllerTests {
+
+    @Autowired private SyntheticDataGenerator syntheticDataGenerator;
+    @Autowired private MockMvc mockMvc;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired @Qualifier("scheduleJobExecutor") private ThreadPoolTaskExecutor jobExecutor;
+
+    @BeforeAll
+    void loadRoster() {
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setSeed(23);
+        spec.setEmployees(60);
+        spec.setLeaves(0);
+        spec.setHolidays(0);
+        spec.setStartDate(LocalDate.of(2035, 1, 1));
+        spec.setEndDate(LocalDate.of(2035, 12, 31));
+        syntheticDataGenerator.generate(spec);
+    }
+
+    @Test
+    void generateReturnsTheMonthAsAWorkbook() throws Exception {
+        byte[] body = mockMvc.perform(post("/api/schedule/generate").param("year", "2035").param("month", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ScheduleExcelService.CONTENT_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertReadableWorkbook(body);
+    }
+
+    @Test
+    void previewAsExcelReturnsAWorkbook() throws Exception {
+        byte[] body = mockMvc.perform(post("/api/schedule/preview").param("year", "2035").param("month", "2").param("format", "excel"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ScheduleExcelService.CONTENT_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertReadableWorkbook(body);
+    }
+
+    @Test
+    void previewOfAnInvalidMonthIsABadRequest() throws Exception {
+        mockMvc.perform(post("/api/schedule/preview").param("year", "2035").param("month", "13"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void entriesWithAMalformedCursorAreABadRequest() throws Exception {
+        mockMvc.perform(get("/api/schedule/entries").param("from", "2035-01-01").param("to", "2035-01-31").param("after", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void generateRangeReturnsOneWorkbookPerMonthInAZip() throws Exception {
+        byte[] body = mockMvc.perform(post("/api/schedule/generate-range").param("from", "2035-03").param("to", "2035-04"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<byte[]> workbooks = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(body))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                assertTrue(entry.getName().endsWith(".xlsx"), entry.getName());
+                workbooks.add(readEntry(zip));
+            }
+        }
+        assertEquals(2, workbooks.size());
+        for (byte[] workbook : workbooks) {
+            assertReadableWorkbook(workbook);
+        }
+    }
+
+    @Test
+    void exportIsRevalidatedUntilALeaveInTheMonthChangesIt() throws Exception {
+        String etag = generateAndExport(5);
+
+        mockMvc.perform(get("/api/schedule/2035/5/export").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        assertEquals(etag, export(5, null));
+
+        // Someone on a May SUPPORT shift, free of leave that day
+        Map<String, Object> shift = jdbcTemplate.queryForMap("SELECT se.employee_id, s.assigned_date FROM schedules s"
+                + " JOIN schedule_employees se ON se.schedule_id = s.id"
+                + " WHERE s.shift_type = 'SUPPORT' AND s.assigned_date BETWEEN '2035-05-01' AND '2035-05-31'"
+                + " AND NOT EXISTS (SELECT 1 FROM leaves l WHERE l.employee_id = se.employee_id"
+                + " AND l.start_date <= s.assigned_date AND l.end_date >= s.assigned_date)"
+                + " ORDER BY s.assigned_date, se.employee_id LIMIT 1");
+        String date = shift.get("assigned_date").toString();
+        String created = mockMvc.perform(post("/api/leaves").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"employeeId\": " + shift.get("employee_id") + ", \"leaveReason\": \"Annual\", \"startDate\": \""
+                                + date + "\", \"endDate\": \"" + date + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        // Approving it takes the employee off the shift
+        Number leaveId = JsonPath.read(created, "$.id");
+        mockMvc.perform(put("/api/leaves/" + leaveId + "/status").param("status", "APPROVED"))
+                .andExpect(status().isOk());
+
+        assertNotEquals(etag, export(5, etag));
+    }
+
+    @Test
+    void exportIsRevalidatedUntilAHolidayInTheMonthIsWritten() throws Exception {
+        String etag = generateAndExport(6);
+
+        mockMvc.perform(post("/api/holidays").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Export Test Day\", \"date\": \"2035-06-21\"}"))
+                .andExpect(status().isCreated());
+
+        assertNotEquals(etag, export(6, etag));
+    }
+
+    @Test
+    void jobsAreDeduplicatedQueuedAndRejectedOnceTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        jobExecutor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }); // holds the only job thread
+        String id;
+        try {
+            MvcResult submitted = mockMvc.perform(post("/api/schedule/jobs").param("year", "2035").param("month", "8"))
+                    .andExpect(status().isAccepted())
+                    .andReturn();
+            id = JsonPath.read(submitted.getResponse().getContentAsString(), "$.id");
+            assertEquals("/api/schedule/jobs/" + id, submitted.getResponse().getHeader(HttpHeaders.LOCATION));
+
+            // The same month again is the same job, not a second one in the queue
+            mockMvc.perform(post("/api/schedule/jobs").param("year", "2035").param("month", "8"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.id").value(id));
+            // Another month finds the only queue slot taken
+            mockMvc.perform(post("/api/schedule/jobs").param("year", "2035").param("month", "9"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+            mockMvc.perform(get("/api/schedule/jobs/" + id + "/result"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.phase").value("QUEUED"));
+        } finally {
+            release.countDown();
+        }
+
+        MvcResult result = null;
+        for (int attempt = 0; attempt < 600 && (result == null || result.getResponse().getStatus() == 202); attempt++) {
+            if (result != null) Thread.sleep(50);
+            result = mockMvc.perform(get("/api/schedule/jobs/" + id + "/result")).andReturn();
+        }
+        assertEquals(200, result.getResponse().getStatus());
+        assertEquals(ScheduleExcelService.CONTENT_TYPE, result.getResponse().getContentType());
+        assertReadableWorkbook(result.getResponse().getContentAsByteArray());
+    }
+
+    // Generates a month of 2035 and returns the ETag of its first export
+    private String generateAndExport(int month) throws Exception {
+        mockMvc.perform(post("/api/schedule/generate").param("year", "2035").param("month", String.valueOf(month)))
+                .andExpect(status().isOk());
+        return export(month, null);
+    }
+
+    // Downloads the export (200 expected even when ifNoneMatch is given) and returns its ETag
+    private String export(int month, String ifNoneMatch) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) headers.setIfNoneMatch(ifNoneMatch);
+        String etag = mockMvc.perform(get("/api/schedule/2035/" + month + "/export").headers(headers))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ScheduleExcelService.CONTENT_TYPE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private static void assertReadableWorkbook(byte[] body) throws IOException {
+        assertTrue(body.length > 0, "empty body");
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(body))) {
+            assertTrue(workbook.getNumberOfSheets() > 0);
+            assertTrue(workbook.getSheetAt(0).getPhysicalNumberOfRows() > 1, "no schedule rows");
+        }
+    }
+
+    private static byte[] readEntry(ZipInputStream zip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read = zip.read(buffer); read > 0; read = zip.read(buffer)) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
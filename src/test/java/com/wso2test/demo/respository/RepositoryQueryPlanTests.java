@@ -0,0 +1,151 @@
+package com.wso2test.demo.respository;
+
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.service.SupportSchedulerService;
+import com.wso2test.demo.service.SyntheticDataGenerator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every query method declared on the scheduling repositories against a generated dataset, captures the SQL
+ * Hibernate sends and fails if H2's plan for any of it scans a whole table instead of using an index.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.wso2test.demo.respository.RepositoryQueryPlanTests$RecordingInspector")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTests {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 2, 10);
+    // A table read without an index condition: "/* public.leaves.tableScan */" or an index walked end to end, "/* public.ix_x */"
+    private static final Pattern FULL_SCAN = Pattern.compile("/\\*\\s*public\\.[\\w.]+\\s*\\*/");
+
+    @Autowired private SupportScheduleRepository supportScheduleRepository;
+    @Autowired private LeaveRepository leaveRepository;
+    @Autowired private EmployeeRepository employeeRepository;
+    @Autowired private SyntheticDataGenerator syntheticDataGenerator;
+    @Autowired private SupportSchedulerService supportSchedulerService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Employee employee;
+
+    @BeforeAll
+    void loadDataset() {
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setSeed(4242);
+        spec.setEmployees(400);
+        spec.setLeaves(5_000);
+        spec.setHolidays(10);
+        spec.setStartDate(LocalDate.of(2030, 1, 1));
+        spec.setEndDate(LocalDate.of(2030, 12, 31));
+        syntheticDataGenerator.generate(spec);
+        supportSchedulerService.generateMonthlySchedule(2030, 1, Collections.emptyList());
+        supportSchedulerService.generateMonthlySchedule(2030, 2, Collections.emptyList());
+        jdbcTemplate.execute("ANALYZE");
+        employee = employeeRepository.findAllActiveEmployees().get(0);
+    }
+
+    @Test
+    void supportScheduleRepositoryUsesIndexes() {
+        assertNoFullScans(SupportScheduleRepository.class, supportScheduleRepository);
+    }
+
+    @Test
+    void leaveRepositoryUsesIndexes() {
+        assertNoFullScans(LeaveRepository.class, leaveRepository);
+    }
+
+    private void assertNoFullScans(Class<?> repositoryType, Object repository) {
+        List<String> failures = new ArrayList<>();
+        for (Method method : repositoryType.getDeclaredMethods()) {
+            Set<String> statements = capture(method, repository);
+            for (String sql : statements) {
+                String plan = explain(sql);
+                if (FULL_SCAN.matcher(plan).find()) failures.add(method.getName() + ":\n" + sql + "\n" + plan);
+            }
+        }
+        assertTrue(failures.isEmpty(), "Full table scans:\n" + String.join("\n\n", failures));
+    }
+
+    // Invokes the method in a rolled-back transaction and returns the SELECTs it issued
+    private Set<String> capture(Method method, Object repository) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        RecordingInspector.STATEMENTS.clear();
+        tx.executeWithoutResult(status -> {
+            try {
+                method.invoke(repository, arguments(method));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Could not invoke " + method, e);
+            }
+            status.setRollbackOnly();
+        });
+        Set<String> selects = new LinkedHashSet<>();
+        for (String sql : RecordingInspector.STATEMENTS) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) selects.add(sql);
+        }
+        return selects;
+    }
+
+    private Object[] arguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == Long.class) args[i] = employee.getId();
+            else if (type == LocalDate.class) args[i] = i > 0 && types[i - 1] == LocalDate.class ? DATE.plusDays(6) : DATE;
+            else if (type == ShiftType.class) args[i] = ShiftType.SUPPORT;
+            else if (type == EmployeeType.class) args[i] = EmployeeType.SUPPORT;
+            else if (type == LeaveStatus.class) args[i] = LeaveStatus.APPROVED;
+            else if (type == Employee.class) args[i] = employee;
+            else if (type == String.class) args[i] = "Rest after COB shift";
+            else if (type == Pageable.class) args[i] = PageRequest.of(0, 50);
+            else if (type == List.class) args[i] = Arrays.asList(DATE, DATE.plusDays(1));
+            else if (Collection.class.isAssignableFrom(type)) args[i] = Collections.singletonList(LeaveStatus.APPROVED);
+            else throw new IllegalStateException("No sample argument for " + type + " in " + method);
+        }
+        return args;
+    }
+
+    // H2 plans with unbound parameters, which is what we want: the plan must not depend on the values
+    private String explain(String sql) {
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (java.sql.PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = ps.getParameterMetaData().getParameterCount();
+                for (int p = 1; p <= parameters; p++) ps.setObject(p, null);
+                try (java.sql.ResultSet rs = ps.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) plan.append(rs.getString(1));
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
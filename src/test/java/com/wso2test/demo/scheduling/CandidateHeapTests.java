@@ -0,0 +1,126 @@
+package com.wso2test.demo.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The indexed heap on its own, and against the picker it replaced: filter the roster, sort it by the same key and
+ * take the first candidate the filter accepts.
+ */
+class CandidateHeapTests {
+
+    private final int[] keys = new int[8];
+    private final CandidateHeap.Order byKey = (a, b) -> keys[a] != keys[b] ? Integer.compare(keys[a], keys[b]) : Integer.compare(a, b);
+
+    @Test
+    void takesInKeyOrderAndTiesByOrdinal() {
+        CandidateHeap heap = filled(5, 3, 5, 1, 3, 9, 0, 1);
+
+        assertEquals(Arrays.asList(6, 3, 7, 1, 4, 0, 2, 5), drain(heap));
+        assertEquals(-1, heap.take(ordinal -> true));
+    }
+
+    @Test
+    void updateResiftsAChangedKeyEitherWay() {
+        CandidateHeap heap = filled(0, 1, 2, 3, 4, 5, 6, 7);
+        keys[0] = 10; // was the smallest, now the largest
+        heap.update(0);
+        keys[7] = -1; // was the largest, now the smallest
+        heap.update(7);
+        keys[4] = 4; // unchanged
+        heap.update(4);
+
+        assertEquals(Arrays.asList(7, 1, 2, 3, 4, 5, 6, 0), drain(heap));
+    }
+
+    @Test
+    void takeSetsRejectedOrdinalsAsideUntilRestore() {
+        CandidateHeap heap = filled(0, 1, 2, 3, 4, 5, 6, 7);
+
+        assertEquals(3, heap.take(ordinal -> ordinal >= 3));
+        assertEquals(4, heap.size(), "0, 1 and 2 were rejected and 3 taken");
+        assertFalse(heap.contains(0));
+        assertEquals(-1, heap.take(ordinal -> ordinal == 1), "rejected ordinals are not offered again before restore");
+        assertEquals(0, heap.size());
+
+        keys[3] = 100; // the taken employee got a shift: back in under the new key
+        heap.restore();
+
+        assertEquals(8, heap.size());
+        assertEquals(Arrays.asList(0, 1, 2, 4, 5, 6, 7, 3), drain(heap));
+    }
+
+    @Test
+    void removeAndAddKeepTheHeapConsistent() {
+        CandidateHeap heap = filled(4, 2, 7, 1, 6, 0, 5, 3);
+        heap.remove(5);
+        heap.remove(5); // absent: no-op
+        heap.remove(2);
+        heap.add(1); // present: no-op
+        assertEquals(6, heap.size());
+        assertFalse(heap.contains(2));
+
+        heap.add(2);
+        assertEquals(Arrays.asList(3, 1, 7, 0, 6, 4, 2), drain(heap));
+    }
+
+    @Test
+    void picksTheSameCandidatesAsSortingTheRoster() {
+        Random random = new Random(7);
+        int n = 300;
+        int[] counts = new int[n];
+        CandidateHeap heap = new CandidateHeap(n, (a, b) -> counts[a] != counts[b] ? Integer.compare(counts[a], counts[b]) : Integer.compare(a, b));
+        Set<Integer> pool = new HashSet<>(); // who the old picker would consider
+        for (int i = 0; i < n; i++) {
+            heap.add(i);
+            pool.add(i);
+        }
+
+        for (int day = 0; day < 2_000; day++) {
+            Set<Integer> unavailable = new HashSet<>();
+            for (int i = 0; i < n / 4; i++) unavailable.add(random.nextInt(n));
+
+            // One team of up to three a day, as the engine picks it
+            List<Integer> expected = pool.stream()
+                    .filter(ordinal -> !unavailable.contains(ordinal))
+                    .sorted(Comparator.<Integer>comparingInt(ordinal -> counts[ordinal]).thenComparingInt(ordinal -> ordinal))
+                    .limit(3).collect(Collectors.toList());
+            List<Integer> picked = new ArrayList<>();
+            for (int seat = 0; seat < 3; seat++) {
+                int ordinal = heap.take(candidate -> !unavailable.contains(candidate));
+                if (ordinal >= 0) picked.add(ordinal);
+            }
+            assertEquals(expected, picked, "day " + day);
+
+            for (int ordinal : picked) counts[ordinal]++;
+            heap.restore();
+            // Employees reaching a cap leave, others come back from a long leave; keys also change outside a pick
+            int changed = random.nextInt(n);
+            if (pool.remove(changed)) heap.remove(changed);
+            int returning = random.nextInt(n);
+            if (pool.add(returning)) heap.add(returning);
+            int bumped = random.nextInt(n);
+            counts[bumped] += random.nextInt(3) - 1;
+            heap.update(bumped);
+            assertEquals(pool.size(), heap.size());
+        }
+    }
+
+    private CandidateHeap filled(int... values) {
+        System.arraycopy(values, 0, keys, 0, values.length);
+        CandidateHeap heap = new CandidateHeap(keys.length, byKey);
+        IntStream.range(0, values.length).forEach(heap::add);
+        return heap;
+    }
+
+    private static List<Integer> drain(CandidateHeap heap) {
+        List<Integer> order = new ArrayList<>();
+        for (int ordinal = heap.take(candidate -> true); ordinal >= 0; ordinal = heap.take(candidate -> true)) order.add(ordinal);
+        return order;
+    }
+}
@@ -0,0 +1,99 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.EmployeeLevel;
+import com.wso2test.demo.model.EmployeeType;
+import com.wso2test.demo.model.ShiftType;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Team picking with alternative slots: a fallback only fills a slot that is still open, so a team missing a slot
+ * is reported understaffed (COB) or failed (SUPPORT) instead of being topped up by a second person for a slot
+ * that already has one.
+ */
+class GreedyScheduleEngineTests {
+
+    private final GreedyScheduleEngine engine = new GreedyScheduleEngine(SchedulerMetrics.standalone());
+
+    @Test
+    void aSlotNobodyCanFillLeavesTheTeamShortEvenWhenAnotherSlotHasAlternatives() {
+        // Slot 0 takes a senior or else a junior; slot 1 needs a COB performer (COB) or a junior system monitor
+        // (SUPPORT), and the roster has neither
+        StaffingRules rules = StaffingRules.compile("SYSTEM_MONITOR",
+                "SUPPORT+SENIOR|SUPPORT+JUNIOR, COB_PERFORMER",
+                "SUPPORT+SENIOR|SUPPORT+JUNIOR, SYSTEM_MONITOR+JUNIOR", 8, 5);
+        List<Employee> roster = roster(6, 6, 0);
+        roster.add(TestRosters.employee(100, EmployeeType.SYSTEM_MONITOR, EmployeeLevel.SENIOR));
+
+        SchedulingContext context = plan(roster, rules);
+
+        int workingDays = workingDays();
+        assertEquals(workingDays, context.getCobUnderstaffedDays());
+        assertEquals(workingDays, context.getSupportFailedDays(), "a senior and a junior do not make a SUPPORT team");
+        for (SchedulePlan.PlannedShift shift : shifts(context, ShiftType.COB)) {
+            assertEquals(1, shift.getEmployeeIds().size(), "slot 0 filled twice on " + shift.getDate());
+        }
+        assertTrue(shifts(context, ShiftType.SUPPORT).isEmpty());
+    }
+
+    @Test
+    void alternativesFillTheSlotsTheirFirstChoiceLeftOpen() {
+        // No COB performers: the third COB seat goes to a second senior; no seniors for SUPPORT: juniors take slot 0
+        StaffingRules rules = StaffingRules.compile("SYSTEM_MONITOR", StaffingRules.DEFAULT_COB_TEAM,
+                "SUPPORT+SENIOR|SUPPORT+JUNIOR, SUPPORT+JUNIOR", 31, 5);
+        List<Employee> roster = roster(8, 12, 2);
+        Set<Long> seniors = roster.stream().filter(e -> e.getType() == EmployeeType.SUPPORT && e.getLevel() == EmployeeLevel.SENIOR)
+                .map(Employee::getId).collect(Collectors.toSet());
+
+        SchedulingContext context = plan(roster, rules);
+
+        assertEquals(0, context.getCobUnderstaffedDays());
+        List<SchedulePlan.PlannedShift> cob = shifts(context, ShiftType.COB);
+        assertEquals(workingDays(), cob.size());
+        for (SchedulePlan.PlannedShift shift : cob) {
+            assertEquals(3, shift.getEmployeeIds().size());
+            assertEquals(2, shift.getEmployeeIds().stream().filter(seniors::contains).count(), "COB on " + shift.getDate());
+        }
+        for (SchedulePlan.PlannedShift shift : shifts(context, ShiftType.SUPPORT)) {
+            assertEquals(2, shift.getEmployeeIds().size(), "SUPPORT on " + shift.getDate());
+        }
+    }
+
+    private SchedulingContext plan(List<Employee> roster, StaffingRules rules) {
+        PlanningOptions options = PlanningOptions.builder().staffingRules(rules).build();
+        SchedulingContext context = new SchedulingContext(TestRosters.MONTH, roster, Collections.emptyList(),
+                Collections.emptyList(), Collections.emptyList(), null, options);
+        engine.plan(context);
+        return context;
+    }
+
+    private static List<SchedulePlan.PlannedShift> shifts(SchedulingContext context, ShiftType shiftType) {
+        return context.getPlan().build(null, null).getShifts().stream()
+                .filter(shift -> shift.getShiftType() == shiftType).collect(Collectors.toList());
+    }
+
+    // Senior and junior support staff and system monitors; ids 1..n
+    private static List<Employee> roster(int seniors, int juniors, int systemMonitors) {
+        List<Employee> roster = new ArrayList<>();
+        for (int i = 0; i < seniors; i++) roster.add(TestRosters.employee(roster.size() + 1, EmployeeType.SUPPORT, EmployeeLevel.SENIOR));
+        for (int i = 0; i < juniors; i++) roster.add(TestRosters.employee(roster.size() + 1, EmployeeType.SUPPORT, EmployeeLevel.JUNIOR));
+        for (int i = 0; i < systemMonitors; i++) roster.add(TestRosters.employee(roster.size() + 1, EmployeeType.SYSTEM_MONITOR, EmployeeLevel.SENIOR));
+        return roster;
+    }
+
+    // Days with COB and SUPPORT: all but Sundays (no holidays here)
+    private static int workingDays() {
+        int days = 0;
+        for (LocalDate date = TestRosters.MONTH.atDay(1); !date.isAfter(TestRosters.MONTH.atEndOfMonth()); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SUNDAY) days++;
+        }
+        return days;
+    }
+}
@@ -0,0 +1,122 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.dto.ShiftAssignment;
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.Holiday;
+import com.wso2test.demo.model.ShiftType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Whatever the annealing ends up with, the plan it applies must keep the hard constraints: slot attributes, leave,
+ * one shift a day and never on consecutive days (the previous month's last day included), the monthly caps, and
+ * a rest day after every COB shift. Checked on the plan itself, not on the search's internal state.
+ */
+class LocalSearchScheduleEngineTests {
+
+    private static final int MAX_SUPPORT_SHIFTS_PER_JUNIOR = 4;
+    private static final int MAX_COB_SHIFTS_FOR_COB_PERFORMER = 2;
+
+    private final LocalSearchScheduleEngine engine = new LocalSearchScheduleEngine(new SyncTaskExecutor(), 300, 2);
+
+    @ParameterizedTest
+    @ValueSource(ints = {25, 60})
+    void planKeepsTheHardConstraints(int rosterSize) {
+        List<Employee> roster = TestRosters.roster(rosterSize);
+        List<EmployeeLeavePeriod> leaves = TestRosters.leaves(roster, 0.3, rosterSize);
+        Holiday holiday = new Holiday();
+        holiday.setName("Holiday");
+        holiday.setDate(TestRosters.MONTH.atDay(10));
+        LocalDate lastOfFebruary = TestRosters.MONTH.atDay(1).minusDays(1);
+        List<ShiftAssignment> previousDay = Arrays.asList(
+                new ShiftAssignment(lastOfFebruary, ShiftType.SUPPORT, 3L),
+                new ShiftAssignment(lastOfFebruary, ShiftType.COB, 2L));
+        LocalDate juniorsExcluded = TestRosters.MONTH.atDay(4);
+        PlanningOptions options = PlanningOptions.builder()
+                .excludeJuniorsFromCobDates(Collections.singleton(juniorsExcluded))
+                .maxSupportShiftsPerJunior(MAX_SUPPORT_SHIFTS_PER_JUNIOR)
+                .maxCobShiftsForCobPerformer(MAX_COB_SHIFTS_FOR_COB_PERFORMER)
+                .build();
+        SchedulingContext context = new SchedulingContext(TestRosters.MONTH, roster, leaves,
+                Collections.singletonList(holiday), previousDay, null, options);
+
+        engine.plan(context);
+        SchedulePlan plan = context.getPlan().build(null, null);
+
+        Map<Long, Set<LocalDate>> worked = new HashMap<>();
+        worked.computeIfAbsent(3L, id -> new HashSet<>()).add(lastOfFebruary);
+        worked.computeIfAbsent(2L, id -> new HashSet<>()).add(lastOfFebruary);
+        Map<ShiftType, Map<Long, Integer>> counts = new EnumMap<>(ShiftType.class);
+        Set<SchedulePlan.PlannedLeave> restLeaves = new HashSet<>(plan.getRestLeaves());
+        assertFalse(plan.getShifts().isEmpty());
+
+        for (SchedulePlan.PlannedShift shift : plan.getShifts()) {
+            LocalDate date = shift.getDate();
+            StaffingRules.Team team = context.teamFor(shift.getShiftType(), date);
+            if (shift.getShiftType() != ShiftType.SYSTEM_MONITOR) {
+                assertFalse(date.getDayOfWeek() == DayOfWeek.SUNDAY || date.equals(holiday.getDate()), shift + " on a non-working day");
+            }
+            if (shift.getShiftType() == ShiftType.SUPPORT) {
+                assertEquals(team.size(), shift.getEmployeeIds().size(), "incomplete SUPPORT team kept on " + date);
+            }
+            assertTrue(fillsSlots(context, team, shift.getEmployeeIds()), shift + " does not fit the slots of " + team);
+            for (Long id : shift.getEmployeeIds()) {
+                assertFalse(isOnLeave(leaves, id, date), id + " works on leave on " + date);
+                Set<LocalDate> days = worked.computeIfAbsent(id, k -> new HashSet<>());
+                assertTrue(days.add(date), id + " holds two shifts on " + date);
+                counts.computeIfAbsent(shift.getShiftType(), t -> new HashMap<>()).merge(id, 1, Integer::sum);
+                if (shift.getShiftType() == ShiftType.COB && !isOnLeave(leaves, id, date.plusDays(1))) {
+                    assertTrue(restLeaves.contains(new SchedulePlan.PlannedLeave(id, date.plusDays(1))), "no rest day after COB of " + id + " on " + date);
+                }
+            }
+        }
+        worked.forEach((id, days) -> {
+            for (LocalDate day : days) assertFalse(days.contains(day.plusDays(1)), id + " works on " + day + " and the day after");
+        });
+        for (Employee e : roster) {
+            int attributes = StaffingRules.attributesOf(e);
+            for (ShiftType shiftType : ShiftType.values()) {
+                int count = counts.getOrDefault(shiftType, Collections.emptyMap()).getOrDefault(e.getId(), 0);
+                assertTrue(count <= context.getCap(shiftType, context.ordinalOf(e.getId())), e.getId() + " is over the " + shiftType + " cap");
+            }
+            if (StaffingRules.matches(attributes, StaffingRules.SUPPORT | StaffingRules.JUNIOR)) {
+                assertTrue(counts.getOrDefault(ShiftType.SUPPORT, Collections.emptyMap()).getOrDefault(e.getId(), 0) <= MAX_SUPPORT_SHIFTS_PER_JUNIOR);
+            }
+            if (StaffingRules.matches(attributes, StaffingRules.COB_PERFORMER)) {
+                assertTrue(counts.getOrDefault(ShiftType.COB, Collections.emptyMap()).getOrDefault(e.getId(), 0) <= MAX_COB_SHIFTS_FOR_COB_PERFORMER);
+            }
+        }
+    }
+
+    private static boolean isOnLeave(List<EmployeeLeavePeriod> leaves, Long employeeId, LocalDate date) {
+        for (EmployeeLeavePeriod leave : leaves) {
+            if (leave.getEmployeeId().equals(employeeId) && !date.isBefore(leave.getStartDate()) && !date.isAfter(leave.getEndDate())) return true;
+        }
+        return false;
+    }
+
+    // Whether the members can be placed in distinct slots of the team (a team has a handful of slots, so by backtracking)
+    static boolean fillsSlots(SchedulingContext context, StaffingRules.Team team, List<Long> employeeIds) {
+        return place(context, team, employeeIds, 0, new boolean[team.size()]);
+    }
+
+    private static boolean place(SchedulingContext context, StaffingRules.Team team, List<Long> employeeIds, int next, boolean[] taken) {
+        if (next == employeeIds.size()) return true;
+        int attributes = context.getAttributes(context.ordinalOf(employeeIds.get(next)));
+        for (int slot = 0; slot < team.size(); slot++) {
+            if (taken[slot] || !team.slotAccepts(slot, attributes)) continue;
+            taken[slot] = true;
+            if (place(context, team, employeeIds, next + 1, taken)) return true;
+            taken[slot] = false;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,109 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.model.Employee;
+import com.wso2test.demo.model.EmployeeLevel;
+import com.wso2test.demo.model.EmployeeStatus;
+import com.wso2test.demo.model.EmployeeType;
+import com.wso2test.demo.model.ShiftType;
+import org.junit.jupiter.api.Test;
+
+import static com.wso2test.demo.scheduling.StaffingRules.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaffingRulesTests {
+
+    private static final int SENIOR_SUPPORT = SUPPORT | SENIOR;
+    private static final int JUNIOR_SUPPORT = SUPPORT | JUNIOR;
+    private static final int SENIOR_COB_PERFORMER = COB_PERFORMER | SENIOR;
+
+    @Test
+    void compilesTheDefaultTeamsIntoSlotsAndPicks() {
+        Team cob = DEFAULT.team(ShiftType.COB);
+
+        assertEquals(3, cob.size());
+        assertArrayEquals(new int[]{SENIOR_SUPPORT}, cob.slot(0));
+        assertArrayEquals(new int[]{JUNIOR_SUPPORT}, cob.slot(1));
+        assertArrayEquals(new int[]{COB_PERFORMER, SENIOR_SUPPORT}, cob.slot(2));
+        // First choices of every slot, then the alternatives, each tagged with the slot it fills
+        assertArrayEquals(new int[]{SENIOR_SUPPORT, JUNIOR_SUPPORT, COB_PERFORMER, SENIOR_SUPPORT}, cob.getPicks());
+        assertArrayEquals(new int[]{0, 1, 2, 2}, cob.getPickSlots());
+        assertArrayEquals(new int[]{SENIOR_SUPPORT, JUNIOR_SUPPORT, COB_PERFORMER}, cob.getMasks());
+        assertEquals(1, DEFAULT.team(ShiftType.SYSTEM_MONITOR).size());
+        assertEquals(3, DEFAULT.team(ShiftType.SUPPORT).size());
+        assertEquals(DEFAULT_MAX_SUPPORT_SHIFTS_PER_JUNIOR, DEFAULT.getMaxSupportShiftsPerJunior());
+        assertEquals(DEFAULT_MAX_COB_SHIFTS_FOR_COB_PERFORMER, DEFAULT.getMaxCobShiftsForCobPerformer());
+    }
+
+    @Test
+    void parsesAttributesCaseAndSpaceInsensitively() {
+        Team team = compile(" system_monitor ", "support + Senior | cob_performer ,SUPPORT+JUNIOR", "SUPPORT", 1, 2).team(ShiftType.COB);
+
+        assertEquals(2, team.size());
+        assertArrayEquals(new int[]{SENIOR_SUPPORT, COB_PERFORMER}, team.slot(0));
+        assertArrayEquals(new int[]{SENIOR_SUPPORT, JUNIOR_SUPPORT, COB_PERFORMER}, team.getPicks());
+        assertArrayEquals(new int[]{0, 1, 0}, team.getPickSlots());
+        assertEquals("support + Senior | cob_performer ,SUPPORT+JUNIOR", team.getDefinition());
+    }
+
+    @Test
+    void rejectsInvalidRules() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> compile("SYSTEM_MONITOR", "SUPPORT+SENOIR", "SUPPORT", 8, 5));
+        assertTrue(unknown.getMessage().startsWith("Unknown attribute 'SENOIR' in the COB team"), unknown.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> compile("SYSTEM_MONITOR", " ", "SUPPORT", 8, 5));
+        assertThrows(IllegalArgumentException.class, () -> compile(null, "SUPPORT", "SUPPORT", 8, 5));
+        assertThrows(IllegalArgumentException.class, () -> compile("SYSTEM_MONITOR", "SUPPORT||COB_PERFORMER", "SUPPORT", 8, 5));
+        assertThrows(IllegalArgumentException.class, () -> compile("SYSTEM_MONITOR", "SUPPORT", "SUPPORT", -1, 5));
+        assertThrows(IllegalArgumentException.class, () -> compile("SYSTEM_MONITOR", "SUPPORT", "SUPPORT", 8, -1));
+    }
+
+    @Test
+    void cobTeamWithoutJuniorsDropsJuniorAlternativesAndEmptiedSlots() {
+        StaffingRules rules = compile("SYSTEM_MONITOR", "SUPPORT+SENIOR, SUPPORT+JUNIOR, SUPPORT+JUNIOR|COB_PERFORMER", "SUPPORT", 8, 5);
+        Team team = rules.cobTeamWithoutJuniors();
+
+        assertEquals(2, team.size());
+        assertArrayEquals(new int[]{COB_PERFORMER}, team.slot(1));
+        assertArrayEquals(new int[]{0, 1}, team.getPickSlots());
+        assertFalse(team.admits(JUNIOR_SUPPORT));
+        assertFalse(team.accepts(JUNIOR_SUPPORT));
+        assertFalse(team.slotAccepts(0, JUNIOR_SUPPORT | SENIOR), "a junior is kept off whatever else they match");
+        assertTrue(team.accepts(SENIOR_COB_PERFORMER));
+        assertTrue(rules.team(ShiftType.COB).accepts(JUNIOR_SUPPORT), "the regular COB team keeps its juniors");
+    }
+
+    @Test
+    void slotsAndTeamsMatchEmployeeAttributes() {
+        Team cob = DEFAULT.team(ShiftType.COB);
+
+        assertTrue(cob.slotAccepts(2, SENIOR_COB_PERFORMER));
+        assertTrue(cob.slotAccepts(2, SENIOR_SUPPORT));
+        assertFalse(cob.slotAccepts(2, JUNIOR_SUPPORT));
+        assertFalse(cob.accepts(SYSTEM_MONITOR | SENIOR));
+        assertTrue(DEFAULT.team(ShiftType.SYSTEM_MONITOR).accepts(SYSTEM_MONITOR | JUNIOR));
+        assertFalse(DEFAULT.team(ShiftType.SUPPORT).accepts(SENIOR_COB_PERFORMER));
+    }
+
+    @Test
+    void attributesAndCapsFollowTypeLevelAndStatus() {
+        assertEquals(SENIOR_SUPPORT, attributesOf(employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR, EmployeeStatus.ACTIVE)));
+        assertEquals(COB_PERFORMER | JUNIOR, attributesOf(employee(EmployeeType.COB_PERFORMER, EmployeeLevel.JUNIOR, EmployeeStatus.ACTIVE)));
+        assertEquals(SYSTEM_MONITOR, attributesOf(employee(EmployeeType.SYSTEM_MONITOR, null, EmployeeStatus.ACTIVE)));
+        assertEquals(0, attributesOf(employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR, EmployeeStatus.INACTIVE)));
+        assertEquals(0, attributesOf(null));
+
+        StaffingRules rules = compile("SYSTEM_MONITOR", DEFAULT_COB_TEAM, DEFAULT_SUPPORT_TEAM, 3, 4);
+        assertEquals(3, rules.cap(ShiftType.SUPPORT, JUNIOR_SUPPORT));
+        assertEquals(Integer.MAX_VALUE, rules.cap(ShiftType.SUPPORT, SENIOR_SUPPORT));
+        assertEquals(4, rules.cap(ShiftType.COB, SENIOR_COB_PERFORMER));
+        assertEquals(Integer.MAX_VALUE, rules.cap(ShiftType.COB, JUNIOR_SUPPORT));
+    }
+
+    private static Employee employee(EmployeeType type, EmployeeLevel level, EmployeeStatus status) {
+        Employee e = new Employee();
+        e.setType(type);
+        e.setLevel(level);
+        e.setStatus(status);
+        return e;
+    }
+}
@@ -0,0 +1,55 @@
+package com.wso2test.demo.scheduling;
+
+import com.wso2test.demo.dto.EmployeeLeavePeriod;
+import com.wso2test.demo.model.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Deterministic rosters and leave sets for the engine tests (the same mix as the benchmarks)
+final class TestRosters {
+
+    static final YearMonth MONTH = YearMonth.of(2027, 3);
+
+    private TestRosters() {
+    }
+
+    // 10% system monitors, 10% COB performers, 30% senior support, 50% junior support; ids 1..size
+    static List<Employee> roster(int size) {
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int bucket = i % 10;
+            if (bucket == 0) employees.add(employee(i + 1, EmployeeType.SYSTEM_MONITOR, EmployeeLevel.SENIOR));
+            else if (bucket == 1) employees.add(employee(i + 1, EmployeeType.COB_PERFORMER, EmployeeLevel.SENIOR));
+            else employees.add(employee(i + 1, EmployeeType.SUPPORT, bucket < 5 ? EmployeeLevel.SENIOR : EmployeeLevel.JUNIOR));
+        }
+        return employees;
+    }
+
+    static Employee employee(long id, EmployeeType type, EmployeeLevel level) {
+        Employee e = new Employee();
+        e.setId(id);
+        e.setName("Employee " + id);
+        e.setEmail("employee" + id + "@test.local");
+        e.setStatus(EmployeeStatus.ACTIVE);
+        e.setType(type);
+        e.setLevel(level);
+        return e;
+    }
+
+    // Gives roughly {@code density} of the employees one leave of 2-7 days inside the month
+    static List<EmployeeLeavePeriod> leaves(List<Employee> employees, double density, long seed) {
+        Random random = new Random(seed);
+        List<EmployeeLeavePeriod> leaves = new ArrayList<>();
+        int days = MONTH.lengthOfMonth();
+        for (Employee e : employees) {
+            if (random.nextDouble() >= density) continue;
+            LocalDate start = MONTH.atDay(1 + random.nextInt(days));
+            leaves.add(new EmployeeLeavePeriod(e.getId(), start, start.plusDays(1 + random.nextInt(6))));
+        }
+        return leaves;
+    }
+}
@@ -0,0 +1,127 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.EmployeeOnboardingReport;
+import com.wso2test.demo.dto.EmployeeOnboardingResult;
+import com.wso2test.demo.dto.EmployeeOnboardingResult.Outcome;
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.respository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * One result per record of {@link EmployeeOnboardingService#onboard}: duplicates within the request and against the
+ * database are rejected by email (ignoring case) or phone number, and malformed JSON stops the stream without losing
+ * the records before it. IGNORECASE gives H2 the case-insensitive comparison of MySQL's default collation.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:employee-onboarding;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1")
+class EmployeeOnboardingServiceTests {
+
+    private static final AtomicInteger BATCHES = new AtomicInteger();
+
+    @Autowired private EmployeeOnboardingService employeeOnboardingService;
+    @Autowired private EmployeeRepository employeeRepository;
+
+    private int batch;
+
+    @BeforeEach
+    void newBatch() {
+        batch = BATCHES.incrementAndGet();
+    }
+
+    @Test
+    void duplicatesWithinTheRequestAreRejectedAndTheFirstRecordWins() throws IOException {
+        EmployeeOnboardingReport report = onboard("[" + record("a", email("a"), phone(1)) + ", "
+                + record("a again", email("a").toUpperCase(), phone(2)) + ", "
+                + record("b", email("b"), phone(1)) + ", "
+                + record("c", email("c"), null) + "]");
+
+        List<EmployeeOnboardingResult> results = report.getResults();
+        assertCreated(results.get(0));
+        assertRejected(results.get(1), "Duplicate email in request: " + email("a").toUpperCase());
+        assertRejected(results.get(2), "Duplicate phone number in request: " + phone(1));
+        assertCreated(results.get(3));
+        assertEquals(4, report.getReceived());
+        assertEquals(2, report.getCreated());
+        assertEquals(2, report.getRejected());
+    }
+
+    @Test
+    void duplicatesOfEmployeesInTheDatabaseAreRejected() throws IOException {
+        Employee existing = new Employee("Existing " + batch, email("existing"), phone(1), EmployeeStatus.ACTIVE,
+                EmployeeType.SUPPORT, EmployeeLevel.JUNIOR);
+        employeeRepository.save(existing);
+
+        EmployeeOnboardingReport report = onboard("[" + record("same email", "  " + email("EXISTING") + " ", phone(2)) + ", "
+                + record("same phone", email("new"), phone(1)) + ", "
+                + record("new", email("other"), phone(3)) + "]");
+
+        List<EmployeeOnboardingResult> results = report.getResults();
+        assertRejected(results.get(0), "Email already in use: " + email("EXISTING"));
+        assertRejected(results.get(1), "Phone number already in use: " + phone(1));
+        assertCreated(results.get(2));
+        assertEquals(1, employeeRepository.findByEmailIn(Collections.singleton(email("existing"))).size());
+    }
+
+    @Test
+    void malformedJsonStopsTheStreamButKeepsTheRecordsBeforeIt() throws IOException {
+        EmployeeOnboardingReport report = onboard("[" + record("a", email("a"), null) + ", "
+                + "\"not an employee\", "
+                + "{\"name\": \"bad level\", \"email\": \"" + email("bad") + "\", \"type\": \"SUPPORT\", \"level\": \"PRINCIPAL\"}, "
+                + record("b", email("b"), null) + ", "
+                + "{\"name\": \"cut\" \"email\": \"" + email("cut") + "\"}, "
+                + record("never read", email("never"), null) + "]");
+
+        List<EmployeeOnboardingResult> results = report.getResults();
+        assertEquals(5, results.size());
+        assertCreated(results.get(0));
+        assertRejected(results.get(1), "Expected an employee object");
+        assertEquals(Outcome.REJECTED, results.get(2).getOutcome());
+        assertTrue(results.get(2).getMessage().startsWith("Invalid field"), results.get(2).getMessage());
+        assertEquals(email("bad"), results.get(2).getEmail());
+        assertCreated(results.get(3));
+        assertEquals(Outcome.REJECTED, results.get(4).getOutcome());
+        assertTrue(results.get(4).getMessage().startsWith("Malformed JSON, onboarding stopped"), results.get(4).getMessage());
+        for (int i = 0; i < results.size(); i++) assertEquals(i, results.get(i).getIndex());
+        assertFalse(employeeRepository.existsByEmail(email("never")));
+    }
+
+    private EmployeeOnboardingReport onboard(String json) throws IOException {
+        return employeeOnboardingService.onboard(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String record(String name, String email, String phone) {
+        return "{\"name\": \"" + name + "\", \"email\": \"" + email + "\""
+                + (phone != null ? ", \"phoneNumber\": \"" + phone + "\"" : "")
+                + ", \"type\": \"SUPPORT\", \"level\": \"JUNIOR\"}";
+    }
+
+    private String email(String name) {
+        return name + "-" + batch + "@onboarding.test";
+    }
+
+    private String phone(int n) {
+        return "+1-" + batch + "-" + n;
+    }
+
+    private void assertCreated(EmployeeOnboardingResult result) {
+        assertEquals(Outcome.CREATED, result.getOutcome(), result.getMessage());
+        assertTrue(employeeRepository.findById(result.getId()).isPresent());
+    }
+
+    private static void assertRejected(EmployeeOnboardingResult result, String message) {
+        assertEquals(Outcome.REJECTED, result.getOutcome());
+        assertEquals(message, result.getMessage());
+        assertNull(result.getId());
+    }
+}
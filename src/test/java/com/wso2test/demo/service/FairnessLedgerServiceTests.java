@@ -0,0 +1,90 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.ScheduleRepairResult;
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.model.FairnessLedgerEntry;
+import com.wso2test.demo.model.ShiftType;
+import com.wso2test.demo.respository.FairnessLedgerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The fairness ledger is a running summary of the schedule tables: after a generation, a repair and a delete-all,
+ * every row must match what counting the persisted shifts from scratch gives.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fairness-ledger;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class FairnessLedgerServiceTests {
+
+    @Autowired private SyntheticDataGenerator syntheticDataGenerator;
+    @Autowired private SupportSchedulerService supportSchedulerService;
+    @Autowired private ScheduleRepairService scheduleRepairService;
+    @Autowired private FairnessLedgerRepository fairnessLedgerRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ledgerFollowsGenerationRepairAndDeleteAll() {
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setSeed(41);
+        spec.setEmployees(40);
+        spec.setLeaves(0);
+        spec.setHolidays(0);
+        spec.setStartDate(LocalDate.of(2036, 1, 1));
+        spec.setEndDate(LocalDate.of(2036, 12, 31));
+        syntheticDataGenerator.generate(spec);
+
+        for (int month = 1; month <= 2; month++) {
+            supportSchedulerService.generateMonthlySchedule(YearMonth.of(2036, month),
+                    supportSchedulerService.toPlanningOptions(Collections.emptyList(), null));
+        }
+        assertLedgerMatchesSchedules();
+
+        // Taking someone off their last shift (and last Saturday COB) makes those dates fall back to earlier shifts
+        FairnessLedgerEntry saturdayCob = fairnessLedgerRepository.findAll().stream()
+                .filter(entry -> entry.getLastSaturdayCob() != null && entry.getLastSaturdayCob().equals(entry.getLastShiftDate()))
+                .findFirst().orElseThrow(() -> new AssertionError("nobody ends on a Saturday COB"));
+        LocalDate lastShift = saturdayCob.getLastShiftDate();
+        ScheduleRepairResult result = scheduleRepairService.repair(saturdayCob.getEmployeeId(), lastShift, lastShift);
+
+        assertFalse(result.getChanges().isEmpty());
+        FairnessLedgerEntry repaired = fairnessLedgerRepository.findById(saturdayCob.getEmployeeId()).get();
+        assertTrue(repaired.getLastShiftDate().isBefore(lastShift));
+        assertLedgerMatchesSchedules();
+
+        supportSchedulerService.deleteAllSchedules();
+
+        assertEquals(0, fairnessLedgerRepository.count());
+    }
+
+    // Recounts every employee's shifts and last dates from the schedule tables and compares them with the ledger
+    private void assertLedgerMatchesSchedules() {
+        Map<Long, FairnessLedgerEntry> expected = new HashMap<>();
+        jdbcTemplate.query("SELECT se.employee_id, s.assigned_date, s.shift_type FROM schedules s"
+                + " JOIN schedule_employees se ON se.schedule_id = s.id", rs -> {
+            long employeeId = rs.getLong("employee_id");
+            ShiftType shiftType = ShiftType.valueOf(rs.getString("shift_type"));
+            FairnessLedgerEntry entry = expected.computeIfAbsent(employeeId, FairnessLedgerEntry::new);
+            entry.addShifts(shiftType, 1);
+            entry.worked(rs.getDate("assigned_date").toLocalDate(), shiftType);
+        });
+        assertFalse(expected.isEmpty());
+        assertTrue(expected.values().stream().anyMatch(entry -> entry.getLastSaturdayCob() != null
+                && entry.getLastSaturdayCob().getDayOfWeek() == DayOfWeek.SATURDAY));
+
+        List<FairnessLedgerEntry> ledger = fairnessLedgerRepository.findAll();
+        assertTrue(ledger.size() >= expected.size());
+        for (FairnessLedgerEntry entry : ledger) {
+            // Someone who lost every shift keeps a row of zeros
+            FairnessLedgerEntry counted = expected.getOrDefault(entry.getEmployeeId(), new FairnessLedgerEntry(entry.getEmployeeId()));
+            assertEquals(counted, entry, "ledger row of employee " + entry.getEmployeeId());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.model.Division;
+import com.wso2test.demo.model.Holiday;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Holiday reads are served from the in-memory {@link HolidayCalendar}; every write through {@link HolidayService}
+ * must drop it, so the next read sees the write. Each test uses its own division.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:holiday-service;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class HolidayServiceTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2040, 4, 2);
+    private static final AtomicInteger DIVISIONS = new AtomicInteger();
+
+    @Autowired private HolidayService holidayService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private String division;
+
+    @BeforeEach
+    void newDivision() {
+        division = "Holiday Division " + DIVISIONS.incrementAndGet();
+    }
+
+    @Test
+    void addedHolidaysAreReadAtOnce() {
+        assertTrue(holidayService.getHolidaysBetween(division, MONDAY, MONDAY.plusDays(6)).isEmpty()); // calendar loaded
+
+        holidayService.addHoliday(holiday(MONDAY.plusDays(2)));
+
+        assertEquals(1, holidayService.getHolidaysBetween(division, MONDAY, MONDAY.plusDays(6)).size());
+        assertTrue(holidayService.isNonWorkingDay(division, MONDAY.plusDays(2)));
+        assertTrue(holidayService.getHolidaysByDate(MONDAY.plusDays(2)).stream().anyMatch(h -> division.equals(h.getDivision())));
+        assertThrows(IllegalArgumentException.class, () -> holidayService.addHoliday(holiday(MONDAY.plusDays(2))));
+    }
+
+    @Test
+    void deletedHolidaysAreGoneAtOnce() {
+        holidayService.addHoliday(holiday(MONDAY));
+        assertFalse(holidayService.getAllHolidays().isEmpty()); // calendar loaded
+
+        holidayService.deleteAllHolidays();
+
+        assertTrue(holidayService.getAllHolidays().isEmpty());
+        assertTrue(holidayService.getHolidaysBetween(division, MONDAY, MONDAY).isEmpty());
+        assertFalse(holidayService.isNonWorkingDay(division, MONDAY));
+    }
+
+    @Test
+    void writesOutsideTheServiceWaitForTheNextInvalidation() {
+        holidayService.addHoliday(holiday(MONDAY));
+        holidayService.getAllHolidays(); // calendar loaded
+        jdbcTemplate.update("INSERT INTO holiday (name, date, division) VALUES (?, ?, ?)", "Direct", MONDAY.plusDays(1), division);
+
+        assertEquals(1, holidayService.getHolidaysBetween(division, MONDAY, MONDAY.plusDays(1)).size());
+        holidayService.addHoliday(holiday(MONDAY.plusDays(3)));
+        assertEquals(3, holidayService.getHolidaysBetween(division, MONDAY, MONDAY.plusDays(3)).size());
+    }
+
+    @Test
+    void rangesAreInclusiveOrderedAndPerDivision() {
+        holidayService.addHoliday(holiday(MONDAY.plusDays(5)));
+        holidayService.addHoliday(holiday(MONDAY));
+        holidayService.addHoliday(holiday(MONDAY.plusDays(9)));
+        Holiday elsewhere = holiday(MONDAY.plusDays(1));
+        elsewhere.setDivision(division + " (other)");
+        holidayService.addHoliday(elsewhere);
+
+        assertEquals(dates(MONDAY, MONDAY.plusDays(5)), dates(holidayService.getHolidaysBetween(division, MONDAY, MONDAY.plusDays(5))));
+        assertEquals(dates(MONDAY.plusDays(5)), dates(holidayService.getHolidaysBetween(division, MONDAY.plusDays(1), MONDAY.plusDays(8))));
+        assertTrue(holidayService.getHolidaysBetween(division, MONDAY.plusDays(5), MONDAY).isEmpty());
+        assertTrue(holidayService.getHolidaysBetween("No Such Division", MONDAY, MONDAY.plusDays(9)).isEmpty());
+    }
+
+    @Test
+    void sundaysAndTheDivisionsOwnHolidaysAreNonWorkingDays() {
+        LocalDate wednesday = MONDAY.plusDays(2);
+        holidayService.addHoliday(holiday(wednesday));
+
+        assertTrue(holidayService.isNonWorkingDay(division, wednesday));
+        assertFalse(holidayService.isNonWorkingDay(division + " (other)", wednesday));
+        assertFalse(holidayService.isNonWorkingDay(division, MONDAY));
+        assertFalse(holidayService.isNonWorkingDay(division, MONDAY.plusDays(5))); // Saturday
+        assertTrue(holidayService.isNonWorkingDay(division, MONDAY.plusDays(6))); // Sunday
+        assertTrue(holidayService.isNonWorkingDay("No Such Division", MONDAY.plusDays(6)));
+        // null is Division.DEFAULT, which has no holidays here
+        assertEquals(holidayService.isNonWorkingDay(Division.DEFAULT, wednesday), holidayService.isNonWorkingDay(null, wednesday));
+        assertFalse(holidayService.isNonWorkingDay(null, wednesday));
+    }
+
+    private Holiday holiday(LocalDate date) {
+        Holiday holiday = new Holiday();
+        holiday.setName("Holiday on " + date);
+        holiday.setDate(date);
+        holiday.setDivision(division);
+        return holiday;
+    }
+
+    private static List<LocalDate> dates(LocalDate... dates) {
+        return Arrays.asList(dates);
+    }
+
+    private static List<LocalDate> dates(List<Holiday> holidays) {
+        return holidays.stream().map(Holiday::getDate).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,176 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.LeaveImportError;
+import com.wso2test.demo.dto.LeaveImportReport;
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.respository.LeaveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk leave import on its own H2 database: CSV field splitting, header handling, per-row validation (dates,
+ * emails, overlaps with stored leaves and with earlier rows of the same file) and what ends up in the leaves table.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:leave-import;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class LeaveImportServiceTests {
+
+    private static final AtomicInteger EMPLOYEES = new AtomicInteger();
+
+    @Autowired private LeaveImportService leaveImportService;
+    @Autowired private EmployeeRepository employeeRepository;
+    @Autowired private LeaveRepository leaveRepository;
+
+    private Employee alice;
+    private Employee bob;
+
+    @BeforeEach
+    void newEmployees() {
+        alice = employee("Alice");
+        bob = employee("Bob");
+    }
+
+    @Test
+    void splitsCsvLinesWithQuotedCommasAndEscapedQuotes() {
+        assertEquals(Arrays.asList("a", "b", "c"), LeaveImportService.splitCsvLine("a,b,c"));
+        assertEquals(Arrays.asList("a", "", "", "d"), LeaveImportService.splitCsvLine("a,,,d"));
+        assertEquals(Arrays.asList("", ""), LeaveImportService.splitCsvLine(","));
+        assertEquals(Arrays.asList("x@y.test", "Doctor, dentist", "2037-1-2"),
+                LeaveImportService.splitCsvLine("x@y.test,\"Doctor, dentist\",2037-1-2"));
+        assertEquals(Arrays.asList("say \"hi\"", "b"), LeaveImportService.splitCsvLine("\"say \"\"hi\"\"\",b"));
+        assertEquals(Collections.singletonList(""), LeaveImportService.splitCsvLine(""));
+    }
+
+    @Test
+    void importsCsvWithByteOrderMarkReorderedColumnsAndMixedDateFormats() throws IOException {
+        LeaveImportReport report = leaveImportService.importCsv(csv("\uFEFFreason,End_Date,EMAIL,start_date,status",
+                "\"Family, abroad\",2037/1/9," + alice.getEmail().toUpperCase(Locale.ROOT) + ",2037-01-05,approved",
+                "",
+                "Training,2037-2-3," + bob.getEmail() + ",2037/02/01,"));
+
+        assertEquals(2, report.getRowsRead(), "blank lines are skipped, not counted");
+        assertEquals(2, report.getImported());
+        assertTrue(report.getErrors().isEmpty(), report.getErrors().toString());
+        Leave leave = leaveRepository.findByEmployeeId(alice.getId()).get(0);
+        assertEquals("Family, abroad", leave.getLeaveReason());
+        assertEquals(LocalDate.of(2037, 1, 5), leave.getStartDate());
+        assertEquals(LocalDate.of(2037, 1, 9), leave.getEndDate());
+        assertEquals(LeaveStatus.APPROVED, leave.getStatus());
+        assertEquals(LeaveStatus.PENDING, leaveRepository.findByEmployeeId(bob.getId()).get(0).getStatus());
+    }
+
+    @Test
+    void reportsInvalidRowsAndImportsTheRest() throws IOException {
+        LeaveImportReport report = leaveImportService.importCsv(csv("email,startDate,endDate,reason,status",
+                alice.getEmail() + ",2037-3-1,2037-3-5,Annual,",                   // 1 imported
+                "nobody@import.test,2037-3-1,2037-3-5,Annual,",                    // 2 unknown email
+                bob.getEmail() + ",2037/3-1,2037-3-5,Annual,",                     // 3 separators mixed within a date
+                bob.getEmail() + ",2037-2-30,2037-3-5,Annual,",                    // 4 no such day
+                bob.getEmail() + ",2037-3-9,2037-3-5,Annual,",                     // 5 ends before it starts
+                alice.getEmail() + ",2037-3-5,2037-3-6,Sick,",                     // 6 overlaps row 1
+                alice.getEmail() + ",2037-3-5,2037-3-6,Sick,REJECTED",             // 7 rejected leaves may overlap
+                bob.getEmail() + ",2037-3-1,2037-3-2,Annual,MAYBE",                // 8 unknown status
+                bob.getEmail() + ",2037-3-1,,Annual,",                             // 9 missing end date
+                bob.getEmail() + ",2037-3-1,2037-3-2"));                           // 10 missing reason
+
+        assertEquals(10, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        Map<Long, String> errors = errorsByRow(report);
+        assertEquals(new HashSet<>(Arrays.asList(2L, 3L, 4L, 5L, 6L, 8L, 9L, 10L)), errors.keySet());
+        assertTrue(errors.get(2L).startsWith("Unknown employee email"), errors.get(2L));
+        assertTrue(errors.get(3L).startsWith("Invalid date '2037/3-1'"), errors.get(3L));
+        assertTrue(errors.get(4L).startsWith("Invalid date '2037-2-30'"), errors.get(4L));
+        assertTrue(errors.get(5L).startsWith("Leave ends before it starts"), errors.get(5L));
+        assertEquals("Overlaps row 1 of this file", errors.get(6L));
+        assertTrue(errors.get(8L).startsWith("Invalid leave status"), errors.get(8L));
+        assertTrue(errors.get(9L).startsWith("Missing startDate or endDate"), errors.get(9L));
+        assertEquals("Missing reason", errors.get(10L));
+        assertEquals(2, leaveRepository.findByEmployeeId(alice.getId()).size());
+        assertTrue(leaveRepository.findByEmployeeId(bob.getId()).isEmpty());
+    }
+
+    @Test
+    void rejectsRowsOverlappingStoredLeaves() throws IOException {
+        leaveImportService.importCsv(csv("email,startDate,endDate,reason", alice.getEmail() + ",2037-4-10,2037-4-12,Annual"));
+
+        LeaveImportReport report = leaveImportService.importCsv(csv("email,startDate,endDate,reason",
+                alice.getEmail() + ",2037-4-12,2037-4-14,Annual",
+                alice.getEmail() + ",2037-4-13,2037-4-14,Annual"));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getErrors().size());
+        assertEquals(1, report.getErrors().get(0).getRow());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Overlaps existing leave"), report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumns() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> leaveImportService.importCsv(csv("email,startDate,reason", alice.getEmail() + ",2037-5-1,Annual")));
+        assertEquals("CSV header is missing the endDate column", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> leaveImportService.importCsv(csv("")));
+    }
+
+    @Test
+    void importsJsonArraysWithEitherFieldNames() throws IOException {
+        LeaveImportReport report = leaveImportService.importJson(json("["
+                + "{\"employeeEmail\":\"" + alice.getEmail() + "\",\"startDate\":\"2037-6-1\",\"endDate\":\"2037/6/3\",\"leaveReason\":\"Annual\",\"status\":\"APPROVED\"},"
+                + "{\"email\":\"" + alice.getEmail() + "\",\"startDate\":\"2037-6-3\",\"endDate\":\"2037-6-4\",\"reason\":\"Sick\"},"
+                + "{\"email\":\"ghost@import.test\",\"startDate\":\"2037-6-1\",\"endDate\":\"2037-6-1\",\"reason\":\"Annual\"},"
+                + "42,"
+                + "{\"email\":\"" + bob.getEmail() + "\",\"startDate\":\"2037-6-1\",\"endDate\":\"2037-6-1\",\"reason\":\"Annual\"}"
+                + "]"));
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        Map<Long, String> errors = errorsByRow(report);
+        assertEquals("Overlaps row 1 of this file", errors.get(2L));
+        assertTrue(errors.get(3L).startsWith("Unknown employee email"), errors.get(3L));
+        assertEquals("Missing email", errors.get(4L));
+    }
+
+    @Test
+    void stopsAtMalformedJsonKeepingEarlierRows() throws IOException {
+        LeaveImportReport report = leaveImportService.importJson(json("["
+                + "{\"email\":\"" + alice.getEmail() + "\",\"startDate\":\"2037-7-1\",\"endDate\":\"2037-7-1\",\"reason\":\"Annual\"},"
+                + "{\"email\": oops}]"));
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getErrors().size());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Malformed JSON"), report.getErrors().get(0).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> leaveImportService.importJson(json("{}")));
+    }
+
+    private Employee employee(String name) {
+        int n = EMPLOYEES.incrementAndGet();
+        return employeeRepository.save(new Employee(name + " " + n, name.toLowerCase(Locale.ROOT) + "-" + n + "@import.test", null,
+                EmployeeStatus.ACTIVE, EmployeeType.SUPPORT, EmployeeLevel.JUNIOR));
+    }
+
+    private static Map<Long, String> errorsByRow(LeaveImportReport report) {
+        Map<Long, String> errors = new HashMap<>();
+        for (LeaveImportError error : report.getErrors()) errors.put(error.getRow(), error.getMessage());
+        return errors;
+    }
+
+    private static InputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream json(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
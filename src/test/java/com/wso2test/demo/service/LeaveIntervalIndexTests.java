@@ -0,0 +1,106 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.LeaveInterval;
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.respository.LeaveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The leave index against the leaves table: committed inserts, status changes and deletes reach it through
+ * {@link LeaveIndexListener}, rolled-back ones do not. Every test books its own employee.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:leave-index;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class LeaveIntervalIndexTests {
+
+    private static final LocalDate DAY = LocalDate.of(2036, 5, 12);
+    private static final AtomicInteger EMPLOYEES = new AtomicInteger();
+
+    @Autowired private LeaveIntervalIndex leaveIntervalIndex;
+    @Autowired private EmployeeRepository employeeRepository;
+    @Autowired private LeaveRepository leaveRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Employee employee;
+
+    @BeforeEach
+    void newEmployee() {
+        int n = EMPLOYEES.incrementAndGet();
+        employee = employeeRepository.save(new Employee("Index Employee " + n, "index-" + n + "@leave-index.test", null,
+                EmployeeStatus.ACTIVE, EmployeeType.SUPPORT, EmployeeLevel.JUNIOR));
+    }
+
+    @Test
+    void committedLeavesAreIndexedUntilRejectedOrDeleted() {
+        Leave leave = leaveRepository.save(leave(LeaveStatus.PENDING));
+        assertEquals(1, conflicts().size());
+        assertFalse(leaveIntervalIndex.employeesOnApprovedLeave(DAY).contains(employee.getId()), "still pending");
+
+        leave.setStatus(LeaveStatus.APPROVED);
+        leave = leaveRepository.save(leave);
+        assertTrue(leaveIntervalIndex.employeesOnApprovedLeave(DAY).contains(employee.getId()));
+
+        leave.setStatus(LeaveStatus.REJECTED);
+        leave = leaveRepository.save(leave);
+        assertTrue(conflicts().isEmpty());
+
+        leave.setStatus(LeaveStatus.PENDING);
+        leave = leaveRepository.save(leave);
+        assertEquals(1, conflicts().size());
+        leaveRepository.delete(leave);
+        assertTrue(conflicts().isEmpty());
+    }
+
+    @Test
+    void rolledBackChangesNeverReachTheIndex() {
+        Leave kept = leaveRepository.save(leave(LeaveStatus.APPROVED));
+        conflicts(); // loads the index first, so later changes must come through the listener
+
+        transactionTemplate.executeWithoutResult(status -> {
+            leaveRepository.save(leave(LeaveStatus.PENDING));
+            Leave rejected = leaveRepository.findById(kept.getId()).get();
+            rejected.setStatus(LeaveStatus.REJECTED);
+            leaveRepository.saveAndFlush(rejected);
+            status.setRollbackOnly();
+        });
+
+        List<LeaveInterval> conflicts = conflicts();
+        assertEquals(1, conflicts.size());
+        assertEquals(kept.getId(), conflicts.get(0).getLeaveId());
+        assertEquals(LeaveStatus.APPROVED, conflicts.get(0).getStatus());
+    }
+
+    @Test
+    void changesApplyOnlyOnceTheTransactionCommits() {
+        conflicts();
+        transactionTemplate.executeWithoutResult(status -> {
+            leaveRepository.saveAndFlush(leave(LeaveStatus.APPROVED));
+            assertTrue(conflicts().isEmpty(), "visible before commit");
+        });
+        assertEquals(1, conflicts().size());
+    }
+
+    private List<LeaveInterval> conflicts() {
+        return leaveIntervalIndex.findConflicts(employee.getId(), DAY.minusDays(10), DAY.plusDays(10), null);
+    }
+
+    private Leave leave(LeaveStatus status) {
+        Leave leave = new Leave();
+        leave.setEmployee(employee);
+        leave.setLeaveReason("Annual");
+        leave.setStartDate(DAY);
+        leave.setEndDate(DAY.plusDays(2));
+        leave.setStatus(status);
+        return leave;
+    }
+}
@@ -0,0 +1,95 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.respository.LeaveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Overlap checks on leave writes run against the database under the employee's row lock, so they also see
+ * leaves written by another instance (which never reach this instance's leave index) and concurrent requests.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:leave-service;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class LeaveServiceTests {
+
+    private static final AtomicInteger EMPLOYEES = new AtomicInteger();
+    private static final AtomicInteger FOREIGN_IDS = new AtomicInteger(1_000_000);
+
+    @Autowired private LeaveService leaveService;
+    @Autowired private EmployeeRepository employeeRepository;
+    @Autowired private LeaveRepository leaveRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Employee employee;
+
+    @BeforeEach
+    void newEmployee() {
+        int n = EMPLOYEES.incrementAndGet();
+        employee = employeeRepository.save(new Employee("Leave Employee " + n, "leave-" + n + "@leave-service.test", null,
+                EmployeeStatus.ACTIVE, EmployeeType.SUPPORT, EmployeeLevel.JUNIOR));
+    }
+
+    @Test
+    void rejectsOverlapsWithLeavesWrittenByAnotherInstance() {
+        // Straight to the table, as another instance would: this instance's leave index never hears of it
+        jdbcTemplate.update("INSERT INTO leaves (id, employee_id, leave_reason, start_date, end_date, status) VALUES (?, ?, ?, ?, ?, ?)",
+                FOREIGN_IDS.incrementAndGet(), employee.getId(), "Annual", "2038-01-10", "2038-01-12", "PENDING");
+
+        assertThrows(IllegalStateException.class, () -> leaveService.addLeave(employee.getId(), "Sick", "2038-01-12", "2038-01-13"));
+        assertNotNull(leaveService.addLeave(employee.getId(), "Sick", "2038-01-13", "2038-01-13").getId());
+    }
+
+    @Test
+    void rejectedLeavesAndRestDaysDoNotBlockButReopeningAnOverlapDoes() {
+        Leave rejected = leaveService.addLeave(employee.getId(), "Annual", "2038-02-01", "2038-02-05");
+        leaveService.updateLeaveStatus(rejected.getId(), "REJECTED");
+        jdbcTemplate.update("INSERT INTO leaves (id, employee_id, leave_reason, start_date, end_date, status) VALUES (?, ?, ?, ?, ?, ?)",
+                FOREIGN_IDS.incrementAndGet(), employee.getId(), SupportSchedulerService.REST_AFTER_COB_REASON, "2038-02-03", "2038-02-03", "APPROVED");
+
+        Leave approved = leaveService.addLeave(employee.getId(), "Sick", "2038-02-03", "2038-02-04");
+
+        assertNotNull(approved.getId());
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> leaveService.updateLeaveStatus(rejected.getId(), "PENDING"));
+        assertTrue(e.getMessage().startsWith("Leave overlaps leave " + approved.getId()), e.getMessage());
+    }
+
+    @Test
+    void concurrentOverlappingRequestsForOneEmployeeAdmitOnlyOne() throws Exception {
+        int requests = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(requests);
+        CyclicBarrier start = new CyclicBarrier(requests);
+        try {
+            List<Future<Leave>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return leaveService.addLeave(employee.getId(), "Annual", "2038-03-01", "2038-03-03");
+                }));
+            }
+            int admitted = 0;
+            for (Future<Leave> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                    admitted++;
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+                }
+            }
+            assertEquals(1, admitted);
+            assertEquals(1, leaveRepository.findByEmployeeId(employee.getId()).size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
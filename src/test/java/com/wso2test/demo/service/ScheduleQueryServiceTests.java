@@ -0,0 +1,123 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.ScheduleEntry;
+import com.wso2test.demo.dto.ScheduleEntryPage;
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.model.ShiftType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyset pages of {@link ScheduleQueryService#findEntries} put together must equal one unpaged read, with or without
+ * filters, including when a page ends in the middle of a shift's team.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schedule-query;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ScheduleQueryServiceTests {
+
+    private static final YearMonth MONTH = YearMonth.of(2037, 3);
+    private static final LocalDate FROM = MONTH.atDay(1);
+    private static final LocalDate TO = MONTH.atEndOfMonth();
+
+    @Autowired private ScheduleQueryService scheduleQueryService;
+    @Autowired private SyntheticDataGenerator syntheticDataGenerator;
+    @Autowired private SupportSchedulerService supportSchedulerService;
+
+    @BeforeAll
+    void publishMonth() {
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setSeed(37);
+        spec.setEmployees(40);
+        spec.setLeaves(0);
+        spec.setHolidays(0);
+        spec.setStartDate(FROM);
+        spec.setEndDate(TO);
+        syntheticDataGenerator.generate(spec);
+        supportSchedulerService.generateMonthlySchedule(MONTH, supportSchedulerService.toPlanningOptions(Collections.emptyList(), null));
+    }
+
+    @Test
+    void pagesAddUpToTheUnpagedRead() {
+        List<ScheduleEntry> all = unpaged(null, null);
+        assertTrue(all.size() > 100, "too few entries: " + all.size());
+
+        // Two rows per page splits every COB team (three people) across pages
+        List<List<ScheduleEntry>> pages = pages(null, null, 2);
+
+        assertEquals(all, pages.stream().flatMap(List::stream).collect(Collectors.toList()));
+        boolean splitTeam = false;
+        for (int i = 1; i < pages.size(); i++) {
+            ScheduleEntry last = pages.get(i - 1).get(pages.get(i - 1).size() - 1);
+            ScheduleEntry first = pages.get(i).get(0);
+            splitTeam |= last.getAssignedDate().equals(first.getAssignedDate()) && last.getScheduleId().equals(first.getScheduleId());
+        }
+        assertTrue(splitTeam, "no page ended inside a shift");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        int total = unpaged(null, null).size();
+
+        ScheduleEntryPage page = scheduleQueryService.findEntries(FROM, TO, null, null, null, total);
+        assertEquals(total, page.getEntries().size());
+        assertNull(page.getNextCursor());
+
+        ScheduleEntryPage firstOfTwo = scheduleQueryService.findEntries(FROM, TO, null, null, null, total - 1);
+        assertNotNull(firstOfTwo.getNextCursor());
+        ScheduleEntryPage second = scheduleQueryService.findEntries(FROM, TO, null, null, firstOfTwo.getNextCursor(), total - 1);
+        assertEquals(1, second.getEntries().size());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void filtersApplyToEveryPage() {
+        List<ScheduleEntry> cob = unpaged(ShiftType.COB, null);
+        assertFalse(cob.isEmpty());
+        assertTrue(cob.stream().allMatch(entry -> entry.getShiftType() == ShiftType.COB));
+        assertEquals(cob, pages(ShiftType.COB, null, 4).stream().flatMap(List::stream).collect(Collectors.toList()));
+
+        Long employeeId = cob.get(0).getEmployeeId();
+        List<ScheduleEntry> employee = unpaged(null, employeeId);
+        assertTrue(employee.size() > 1);
+        assertTrue(employee.stream().allMatch(entry -> entry.getEmployeeId().equals(employeeId)));
+        assertEquals(employee, pages(null, employeeId, 1).stream().flatMap(List::stream).collect(Collectors.toList()));
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        for (String cursor : new String[]{"bogus", "2037-03-01_1", "2037-03-01_x_1", "2037-13-01_1_1"}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> scheduleQueryService.findEntries(FROM, TO, null, null, cursor, 10), cursor);
+        }
+    }
+
+    private List<ScheduleEntry> unpaged(ShiftType shiftType, Long employeeId) {
+        ScheduleEntryPage page = scheduleQueryService.findEntries(FROM, TO, shiftType, employeeId, null, ScheduleQueryService.MAX_PAGE_SIZE);
+        assertNull(page.getNextCursor());
+        return page.getEntries();
+    }
+
+    private List<List<ScheduleEntry>> pages(ShiftType shiftType, Long employeeId, int size) {
+        List<List<ScheduleEntry>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            ScheduleEntryPage page = scheduleQueryService.findEntries(FROM, TO, shiftType, employeeId, cursor, size);
+            assertTrue(page.getEntries().size() <= size);
+            if (!page.getEntries().isEmpty()) pages.add(page.getEntries());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+}
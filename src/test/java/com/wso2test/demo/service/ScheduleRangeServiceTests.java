@@ -0,0 +1,107 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.AggregatedScheduleOutput;
+import com.wso2test.demo.dto.PartialRangeReport;
+import com.wso2test.demo.respository.SupportScheduleRepository;
+import com.wso2test.demo.scheduling.PlanningOptions;
+import com.wso2test.demo.scheduling.SchedulePlan;
+import com.wso2test.demo.scheduling.SchedulerMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Failure paths of {@link ScheduleRangeService#generateRange}: whichever month fails, the months before it are
+ * committed before the call returns and are reported, so the client can resume from the failed month.
+ */
+class ScheduleRangeServiceTests {
+
+    private static final String DIVISION = "Range Test Division";
+    private static final YearMonth JANUARY = YearMonth.of(2032, 1);
+    private static final YearMonth APRIL = YearMonth.of(2032, 4);
+
+    private final SupportSchedulerService supportSchedulerService = mock(SupportSchedulerService.class);
+    private final SupportScheduleRepository supportScheduleRepository = mock(SupportScheduleRepository.class);
+    private final ScheduleExcelService scheduleExcelService = mock(ScheduleExcelService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ExecutorService pipeline;
+    private ScheduleRangeService scheduleRangeService;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = Executors.newSingleThreadExecutor();
+        scheduleRangeService = new ScheduleRangeService(supportSchedulerService, supportScheduleRepository,
+                scheduleExcelService, new ConcurrentTaskExecutor(pipeline));
+        when(supportSchedulerService.toPlanningOptions(any(), any(), any()))
+                .thenReturn(PlanningOptions.builder().division(DIVISION).build());
+        when(supportSchedulerService.planMonthlySchedule(any(YearMonth.class), any(), any())).thenAnswer(invocation ->
+                SchedulePlan.builder(invocation.getArgument(0), DIVISION).build(new AggregatedScheduleOutput(), null));
+        SchedulerMetrics metrics = new SchedulerMetrics(registry, null);
+        when(supportSchedulerService.startGeneration(any())).thenAnswer(invocation -> metrics.startGeneration("greedy"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdownNow();
+    }
+
+    @Test
+    void planningFailureReportsTheSavedMonths() {
+        doThrow(new IllegalStateException("no roster")).when(supportSchedulerService)
+                .planMonthlySchedule(eq(YearMonth.of(2032, 3)), any(), any());
+
+        PartialRangeReport report = assertThrows(ScheduleRangeService.PartialRangeException.class,
+                () -> scheduleRangeService.generateRange(JANUARY, APRIL, Collections.emptyList(), null, DIVISION)).getReport();
+
+        assertEquals(Arrays.asList(JANUARY, YearMonth.of(2032, 2)), report.getPersistedMonths());
+        assertEquals(YearMonth.of(2032, 3), report.getFailedMonth());
+        assertEquals("no roster", report.getError());
+        verify(supportSchedulerService, times(2)).commitPlan(any());
+        assertEquals(2, generations("success"));
+        assertEquals(1, generations("failure"));
+    }
+
+    @Test
+    void commitFailureStopsTheRangeAtThatMonth() {
+        doNothing().doThrow(new IllegalStateException("duplicate shift")).when(supportSchedulerService).commitPlan(any());
+
+        PartialRangeReport report = assertThrows(ScheduleRangeService.PartialRangeException.class,
+                () -> scheduleRangeService.generateRange(JANUARY, APRIL, Collections.emptyList(), null, DIVISION)).getReport();
+
+        assertEquals(Collections.singletonList(JANUARY), report.getPersistedMonths());
+        assertEquals(YearMonth.of(2032, 2), report.getFailedMonth());
+        assertEquals(DIVISION, report.getDivision());
+        // April is never committed, so it is not timed
+        assertEquals(1, generations("success"));
+        assertEquals(1, generations("failure"));
+    }
+
+    @Test
+    void failureBeforeAnyMonthIsSavedIsRethrown() {
+        doThrow(new IllegalStateException("no roster")).when(supportSchedulerService).planMonthlySchedule(eq(JANUARY), any(), any());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> scheduleRangeService.generateRange(JANUARY, APRIL, Collections.emptyList(), null, DIVISION));
+
+        assertEquals("no roster", e.getMessage());
+        verify(supportSchedulerService, never()).commitPlan(any());
+    }
+
+    private long generations(String outcome) {
+        Timer timer = registry.find("scheduler.generation").tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,160 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.AggregatedScheduleOutput;
+import com.wso2test.demo.dto.ScheduleRepairResult;
+import com.wso2test.demo.dto.ShiftReplacement;
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.respository.FairnessLedgerRepository;
+import com.wso2test.demo.respository.LeaveRepository;
+import com.wso2test.demo.scheduling.SchedulePlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repairs of a published schedule on a small hand-made roster, one division per test: who may take the freed seat
+ * under the division's staffing rules, the checks on leave, neighbouring days and caps, the rest day that moves with
+ * a COB shift and the fairness ledger that moves with every shift.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schedule-repair;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class ScheduleRepairServiceTests {
+
+    private static final YearMonth MONTH = YearMonth.of(2033, 3);
+    private static final LocalDate TUESDAY = LocalDate.of(2033, 3, 8);
+    private static final AtomicInteger DIVISIONS = new AtomicInteger();
+
+    @Autowired private ScheduleRepairService scheduleRepairService;
+    @Autowired private SupportSchedulerService supportSchedulerService;
+    @Autowired private StaffingRuleService staffingRuleService;
+    @Autowired private EmployeeRepository employeeRepository;
+    @Autowired private LeaveRepository leaveRepository;
+    @Autowired private FairnessLedgerRepository fairnessLedgerRepository;
+
+    private String division;
+
+    @BeforeEach
+    void newDivision() {
+        division = "Repair Division " + DIVISIONS.incrementAndGet();
+    }
+
+    @Test
+    void seniorSeatGoesToAnotherSeniorAndTakesTheRestDayAndLedgerAlong() {
+        Employee senior = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        Employee junior = employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR);
+        Employee cobPerformer = employee(EmployeeType.COB_PERFORMER, EmployeeLevel.SENIOR);
+        employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR); // free, but cannot take a senior seat
+        employee(EmployeeType.COB_PERFORMER, EmployeeLevel.SENIOR); // nor can a COB performer
+        Employee otherSenior = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        publish(plan().assign(TUESDAY, ShiftType.COB, senior.getId()).assign(TUESDAY, ShiftType.COB, junior.getId())
+                .assign(TUESDAY, ShiftType.COB, cobPerformer.getId()).restLeave(senior.getId(), TUESDAY.plusDays(1)));
+
+        ScheduleRepairResult result = scheduleRepairService.repair(senior.getId(), TUESDAY, TUESDAY);
+
+        assertReplacedBy(result, otherSenior);
+        assertTrue(restDays(senior, TUESDAY.plusDays(1)).isEmpty(), "the removed employee keeps the rest day after COB");
+        assertEquals(1, restDays(otherSenior, TUESDAY.plusDays(1)).size(), "the replacement gets no rest day after COB");
+        assertEquals(0, fairnessLedgerRepository.findById(senior.getId()).get().getShifts(ShiftType.COB));
+        assertEquals(1, fairnessLedgerRepository.findById(otherSenior.getId()).get().getShifts(ShiftType.COB));
+    }
+
+    @Test
+    void cobPerformerSeatMayGoToASenior() {
+        Employee senior = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        Employee junior = employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR);
+        Employee cobPerformer = employee(EmployeeType.COB_PERFORMER, EmployeeLevel.SENIOR);
+        employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR);
+        Employee otherSenior = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        publish(plan().assign(TUESDAY, ShiftType.COB, senior.getId()).assign(TUESDAY, ShiftType.COB, junior.getId())
+                .assign(TUESDAY, ShiftType.COB, cobPerformer.getId()));
+
+        assertReplacedBy(scheduleRepairService.repair(cobPerformer.getId(), TUESDAY, TUESDAY), otherSenior);
+    }
+
+    @Test
+    void candidatesOnLeaveWorkingNextToTheDayOrFromOtherDivisionsAreSkipped() {
+        Employee senior = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        Employee junior = employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR);
+        Employee juniorB = employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR);
+        Employee workedTheDayBefore = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        Employee worksTheDayAfter = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        Employee onLeave = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        approvedLeave(onLeave, TUESDAY);
+        Employee otherDivision = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR); // free, but not on this roster
+        otherDivision.setDivision(division + " (other)");
+        employeeRepository.save(otherDivision);
+        publish(plan().assign(TUESDAY, ShiftType.SUPPORT, senior.getId()).assign(TUESDAY, ShiftType.SUPPORT, junior.getId())
+                .assign(TUESDAY, ShiftType.SUPPORT, juniorB.getId())
+                .assign(TUESDAY.minusDays(1), ShiftType.SYSTEM_MONITOR, workedTheDayBefore.getId())
+                .assign(TUESDAY.plusDays(1), ShiftType.SYSTEM_MONITOR, worksTheDayAfter.getId()));
+
+        ScheduleRepairResult result = scheduleRepairService.repair(senior.getId(), TUESDAY, TUESDAY);
+
+        assertEquals(1, result.getUnfilled());
+        assertNull(result.getChanges().get(0).getReplacementEmployeeId());
+    }
+
+    @Test
+    void juniorCapComesFromTheDivisionRules() {
+        StaffingRule rule = staffingRuleService.getRule(division);
+        rule.setMaxSupportShiftsPerJunior(1);
+        staffingRuleService.updateRule(division, rule);
+        Employee senior = employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+        Employee junior = employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR);
+        Employee juniorB = employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR);
+        Employee capped = employee(EmployeeType.SUPPORT, EmployeeLevel.JUNIOR); // the only other junior; 1 SUPPORT shift already
+        employee(EmployeeType.SUPPORT, EmployeeLevel.SENIOR); // free, but cannot take a junior seat
+        publish(plan().assign(TUESDAY, ShiftType.SUPPORT, senior.getId()).assign(TUESDAY, ShiftType.SUPPORT, junior.getId())
+                .assign(TUESDAY, ShiftType.SUPPORT, juniorB.getId())
+                .assign(MONTH.atDay(2), ShiftType.SUPPORT, capped.getId()));
+
+        ScheduleRepairResult result = scheduleRepairService.repair(junior.getId(), TUESDAY, TUESDAY);
+
+        assertEquals(1, result.getUnfilled(), "replaced by " + result.getChanges().get(0).getReplacementEmployeeName() + " over the cap");
+    }
+
+    private void assertReplacedBy(ScheduleRepairResult result, Employee replacement) {
+        assertEquals(1, result.getChanges().size());
+        ShiftReplacement change = result.getChanges().get(0);
+        assertEquals(replacement.getId(), change.getReplacementEmployeeId(), "replaced by " + change.getReplacementEmployeeName());
+        assertEquals(0, result.getUnfilled());
+    }
+
+    private Employee employee(EmployeeType type, EmployeeLevel level) {
+        long n = employeeRepository.count() + 1;
+        Employee e = new Employee(type + " " + level + " " + n, division.replace(' ', '-') + "-" + n + "@repair.test", null,
+                EmployeeStatus.ACTIVE, type, level);
+        e.setDivision(division);
+        return employeeRepository.save(e);
+    }
+
+    private void approvedLeave(Employee employee, LocalDate date) {
+        Leave leave = new Leave();
+        leave.setEmployee(employee);
+        leave.setLeaveReason("Annual");
+        leave.setStartDate(date);
+        leave.setEndDate(date);
+        leave.setStatus(LeaveStatus.APPROVED);
+        leaveRepository.save(leave);
+    }
+
+    private SchedulePlan.Builder plan() {
+        return SchedulePlan.builder(MONTH, division);
+    }
+
+    private void publish(SchedulePlan.Builder plan) {
+        supportSchedulerService.commitPlan(plan.build(new AggregatedScheduleOutput(), null));
+    }
+
+    private List<Leave> restDays(Employee employee, LocalDate date) {
+        return leaveRepository.findByEmployeeIdAndStartDateAndEndDate(employee.getId(), date, date);
+    }
+}
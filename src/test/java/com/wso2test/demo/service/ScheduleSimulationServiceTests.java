@@ -0,0 +1,91 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.*;
+import com.wso2test.demo.model.ShiftType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scenarios of {@link ScheduleSimulationService#simulate} are planned on their own variant of the month: removing
+ * people or capping shifts must show up in that scenario's row only, and a scenario that cannot be planned reports
+ * its error without failing the baseline or the other scenarios.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:schedule-simulation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ScheduleSimulationServiceTests {
+
+    @Autowired private ScheduleSimulationService scheduleSimulationService;
+    @Autowired private SyntheticDataGenerator syntheticDataGenerator;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void loadRoster() {
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setSeed(43);
+        spec.setEmployees(40);
+        spec.setLeaves(0);
+        spec.setHolidays(0);
+        spec.setStartDate(LocalDate.of(2038, 1, 1));
+        spec.setEndDate(LocalDate.of(2038, 12, 31));
+        syntheticDataGenerator.generate(spec);
+    }
+
+    @Test
+    void scenariosChangeTheirOwnOutcomeAndFailuresStayInTheirRow() {
+        // Every COB and SUPPORT team of the default rules needs a junior SUPPORT
+        List<Long> juniors = jdbcTemplate.queryForList(
+                "SELECT id FROM employees WHERE type = 'SUPPORT' AND level = 'JUNIOR' AND status = 'ACTIVE'", Long.class);
+        assertFalse(juniors.isEmpty());
+
+        SimulationScenario removed = new SimulationScenario();
+        removed.setName("no juniors");
+        removed.setRemovedEmployeeIds(juniors);
+        SimulationScenario capped = new SimulationScenario();
+        capped.setName("one SUPPORT per junior");
+        capped.setMaxSupportShiftsPerJunior(1);
+        SimulationScenario broken = new SimulationScenario();
+        broken.setName("leave without dates");
+        broken.setLeaves(Collections.singletonList(new EmployeeLeavePeriod(juniors.get(0), null, null)));
+
+        SimulationRequest request = new SimulationRequest();
+        request.setYear(2038);
+        request.setMonth(3);
+        request.setScenarios(Arrays.asList(removed, broken, capped));
+        SimulationReport report = scheduleSimulationService.simulate(request);
+
+        List<SimulationOutcome> outcomes = report.getOutcomes();
+        assertEquals(Arrays.asList(ScheduleSimulationService.BASELINE, "no juniors", "leave without dates", "one SUPPORT per junior"),
+                Arrays.asList(outcomes.get(0).getScenario(), outcomes.get(1).getScenario(), outcomes.get(2).getScenario(),
+                        outcomes.get(3).getScenario()));
+        SimulationOutcome baseline = outcomes.get(0);
+        assertNull(baseline.getError());
+        assertTrue(baseline.getAssignedShifts() > 0);
+        assertEquals(0, baseline.getSupportFailedDays());
+
+        SimulationOutcome withoutJuniors = outcomes.get(1);
+        assertNull(withoutJuniors.getError());
+        assertTrue(withoutJuniors.getCobUnderstaffedDays() > baseline.getCobUnderstaffedDays());
+        assertTrue(withoutJuniors.getSupportFailedDays() > 0);
+        assertTrue(withoutJuniors.getAssignedShifts() < baseline.getAssignedShifts());
+
+        SimulationOutcome failed = outcomes.get(2);
+        assertNotNull(failed.getError());
+        assertEquals(0, failed.getAssignedShifts());
+
+        SimulationOutcome oneShiftEach = outcomes.get(3);
+        assertNull(oneShiftEach.getError());
+        assertTrue(oneShiftEach.getSupportFailedDays() > 0);
+        assertTrue(oneShiftEach.getSpread().get(ShiftType.SUPPORT).getMin() < baseline.getSpread().get(ShiftType.SUPPORT).getMin());
+    }
+}
@@ -0,0 +1,81 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.model.*;
+import com.wso2test.demo.respository.EmployeeRepository;
+import com.wso2test.demo.scheduling.PlanningOptions;
+import com.wso2test.demo.scheduling.SchedulePlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The problem-day counters (scheduler.cob.understaffed, scheduler.support.failed) count committed months only:
+ * previews plan the same month without saving it, and a rolled-back commit saves nothing either.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:support-scheduler;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SupportSchedulerServiceTests {
+
+    private static final String DIVISION = "Understaffed Division";
+
+    @Autowired private SupportSchedulerService supportSchedulerService;
+    @Autowired private EmployeeRepository employeeRepository;
+    @Autowired private MeterRegistry registry;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void loadRoster() {
+        // Two seniors without a COB performer: every COB team is short and SUPPORT needs the fallback or fails
+        for (int i = 1; i <= 2; i++) {
+            Employee employee = new Employee("Understaffed " + i, "understaffed-" + i + "@support-scheduler.test", null,
+                    EmployeeStatus.ACTIVE, EmployeeType.SUPPORT, EmployeeLevel.SENIOR);
+            employee.setDivision(DIVISION);
+            employeeRepository.save(employee);
+        }
+    }
+
+    @Test
+    void previewsAndRolledBackCommitsAreNotCounted() {
+        SchedulePlan plan = supportSchedulerService.planMonthlySchedule(YearMonth.of(2039, 1), options(), null);
+        assertTrue(plan.getOutcome().getCobUnderstaffedDays() > 0);
+        double understaffed = count("scheduler.cob.understaffed");
+
+        supportSchedulerService.planMonthlySchedule(YearMonth.of(2039, 1), options(), null);
+        transactionTemplate.executeWithoutResult(status -> {
+            supportSchedulerService.commitPlan(plan);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(understaffed, count("scheduler.cob.understaffed"));
+    }
+
+    @Test
+    void committedMonthsAreCountedOnce() {
+        double understaffed = count("scheduler.cob.understaffed");
+        double failed = count("scheduler.support.failed");
+        SchedulePlan plan = supportSchedulerService.planMonthlySchedule(YearMonth.of(2039, 2), options(), null);
+
+        supportSchedulerService.commitPlan(plan);
+
+        assertEquals(understaffed + plan.getOutcome().getCobUnderstaffedDays(), count("scheduler.cob.understaffed"));
+        assertEquals(failed + plan.getOutcome().getSupportFailedDays(), count("scheduler.support.failed"));
+    }
+
+    private PlanningOptions options() {
+        return supportSchedulerService.toPlanningOptions(Collections.emptyList(), null, DIVISION);
+    }
+
+    private double count(String name) {
+        return registry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+    }
+}
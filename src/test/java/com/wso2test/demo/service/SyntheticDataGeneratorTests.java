@@ -0,0 +1,63 @@
+package com.wso2test.demo.service;
+
+import com.wso2test.demo.dto.SyntheticDataReport;
+import com.wso2test.demo.dto.SyntheticDataSpec;
+import com.wso2test.demo.respository.EmployeeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Synthetic data must satisfy the invariants the application enforces on real data
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:synthetic-data;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class SyntheticDataGeneratorTests {
+
+    private static final String OVERLAPPING_LEAVES = "SELECT COUNT(*) FROM leaves a JOIN leaves b"
+            + " ON a.employee_id = b.employee_id AND a.id < b.id AND a.start_date <= b.end_date AND b.start_date <= a.end_date"
+            + " WHERE a.status IN ('APPROVED', 'PENDING') AND b.status IN ('APPROVED', 'PENDING')";
+
+    @Autowired private SyntheticDataGenerator syntheticDataGenerator;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EmployeeRepository employeeRepository;
+
+    @Test
+    void activeLeavesOfAnEmployeeNeverOverlap() {
+        // About 20 leaves per employee in one quarter: independent draws would overlap many times over
+        SyntheticDataSpec spec = new SyntheticDataSpec();
+        spec.setSeed(7);
+        spec.setEmployees(50);
+        spec.setLeaves(1_000);
+        spec.setHolidays(0);
+        spec.setStartDate(LocalDate.of(2034, 1, 1));
+        spec.setEndDate(LocalDate.of(2034, 3, 31));
+
+        SyntheticDataReport report = syntheticDataGenerator.generate(spec);
+
+        assertEquals(1_000, report.getLeavesInserted());
+        assertEquals(0, jdbcTemplate.queryForObject(OVERLAPPING_LEAVES, Integer.class).intValue());
+    }
+
+    @Test
+    void dataSetsOfDifferentSeedsShareNoPhoneNumbers() {
+        for (long seed = 8; seed <= 9; seed++) {
+            SyntheticDataSpec spec = new SyntheticDataSpec();
+            spec.setSeed(seed);
+            spec.setEmployees(20);
+            spec.setLeaves(0);
+            spec.setHolidays(0);
+            syntheticDataGenerator.generate(spec);
+        }
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (SELECT phone_number FROM employees"
+                + " GROUP BY phone_number HAVING COUNT(*) > 1) duplicates", Integer.class).intValue());
+        // Onboarding looks phone numbers up one at a time; a duplicate would make this throw
+        String phone = jdbcTemplate.queryForObject("SELECT phone_number FROM employees WHERE email = ?", String.class,
+                "synthetic-9-0@synthetic.example");
+        assertTrue(employeeRepository.findByPhoneNumber(phone).isPresent());
+    }
+}
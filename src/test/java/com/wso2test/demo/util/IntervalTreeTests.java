@@ -0,0 +1,119 @@
+package com.wso2test.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTests {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void overlapQueryFindsEveryIntervalSharingADayInStartOrder() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.put(1, day(10), day(20), "long");
+        tree.put(2, day(0), day(4), "before");
+        tree.put(3, day(5), day(9), "touches from");
+        tree.put(4, day(21), day(30), "after");
+        tree.put(5, day(15), day(15), "inside");
+
+        assertEquals(Arrays.asList("touches from", "long", "inside"), overlapping(tree, day(9), day(15)));
+        assertEquals(Collections.singletonList("after"), overlapping(tree, day(21), day(40)));
+        assertTrue(overlapping(tree, day(31), day(40)).isEmpty());
+        assertFalse(tree.anyOverlapping(day(31), day(40)));
+        assertTrue(tree.anyOverlapping(day(4), day(4)));
+    }
+
+    @Test
+    void stabbingQueryFindsTheIntervalsCoveringADay() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.put(1, day(0), day(100), "year");
+        tree.put(2, day(10), day(10), "single day");
+        tree.put(3, day(8), day(12), "week");
+        tree.put(4, day(11), day(20), "starts after");
+
+        assertEquals(Arrays.asList("year", "week", "single day"), overlapping(tree, day(10), day(10)));
+        assertEquals(Collections.singletonList("year"), overlapping(tree, day(50), day(50)));
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsByIdKeepingLaterQueriesRight() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.put(1, day(0), day(50), "wide");
+        tree.put(2, day(1), day(2), "narrow");
+        tree.put(1, day(0), day(0), "shrunk"); // the subtree's latest end must shrink with it
+
+        assertEquals(2, tree.size());
+        assertTrue(overlapping(tree, day(30), day(30)).isEmpty());
+
+        assertTrue(tree.remove(2));
+        assertFalse(tree.remove(2));
+        assertEquals(1, tree.size());
+        assertTrue(overlapping(tree, day(1), day(2)).isEmpty());
+        assertEquals(Collections.singletonList("shrunk"), overlapping(tree, day(0), day(0)));
+    }
+
+    @Test
+    void rejectsIntervalsEndingBeforeTheyStart() {
+        assertThrows(IllegalArgumentException.class, () -> new IntervalTree<String>().put(1, day(2), day(1), "bad"));
+    }
+
+    @Test
+    void sortedInsertsStayBalanced() {
+        // An unbalanced tree over ascending starts would be a 200 000-deep list and overflow the recursive queries
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        int n = 200_000;
+        for (int i = 0; i < n; i++) {
+            tree.put(i, day(i), day(i + 2), i);
+        }
+        assertEquals(Arrays.asList(n - 3, n - 2, n - 1), overlapping(tree, day(n - 1), day(n + 10)));
+        for (int i = 0; i < n; i += 2) {
+            tree.remove(i);
+        }
+        assertEquals(Arrays.asList(n - 5, n - 3, n - 1), overlapping(tree, day(n - 3), day(n + 10)));
+    }
+
+    @Test
+    void matchesABruteForceScanUnderRandomPutsAndRemoves() {
+        Random random = new Random(42);
+        IntervalTree<Long> tree = new IntervalTree<>();
+        Map<Long, LocalDate[]> expected = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id) != null, tree.remove(id));
+            } else {
+                LocalDate start = day(random.nextInt(365));
+                LocalDate end = start.plusDays(random.nextInt(random.nextInt(10) == 0 ? 120 : 10));
+                tree.put(id, start, end, id);
+                expected.put(id, new LocalDate[]{start, end});
+            }
+            if (step % 50 == 0) {
+                LocalDate from = day(random.nextInt(400) - 20);
+                LocalDate to = from.plusDays(random.nextInt(30));
+                Set<Long> scanned = new HashSet<>();
+                expected.forEach((key, range) -> {
+                    if (!range[1].isBefore(from) && !range[0].isAfter(to)) scanned.add(key);
+                });
+                List<Long> found = overlapping(tree, from, to);
+                assertEquals(scanned, new HashSet<>(found), from + ".." + to);
+                assertEquals(scanned.size(), found.size());
+                assertEquals(!scanned.isEmpty(), tree.anyOverlapping(from, to));
+            }
+        }
+        assertEquals(expected.size(), tree.size());
+    }
+
+    private static LocalDate day(int offset) {
+        return DAY.plusDays(offset);
+    }
+
+    private static <T> List<T> overlapping(IntervalTree<T> tree, LocalDate from, LocalDate to) {
+        List<T> found = new ArrayList<>();
+        tree.forEachOverlapping(from, to, found::add);
+        return found;
+    }
+}
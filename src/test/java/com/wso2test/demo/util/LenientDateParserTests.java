@@ -0,0 +1,33 @@
+package com.wso2test.demo.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LenientDateParserTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2025-03-07", "2025-3-7", "2025-03-7", "2025/3/07", "2025/03/07", "  2025-3-7\t"})
+    void acceptsOneOrTwoDigitMonthsAndDaysWithEitherSeparator(String text) {
+        assertEquals(LocalDate.of(2025, 3, 7), LenientDateParser.parse(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "2025", "2025-3", "2025-3-", "2025-3-7-1", "2025/3-7", "2025-3/7", "25-3-7",
+            "02025-3-7", "2025-003-7", "2025-3-007", "2025--3-7", "-2025-3-7", "2025.3.7", "2025-3-7x", "2025 -3-7",
+            "2025-13-1", "2025-2-29", "2025-4-31", "2025-0-1", "2025-1-0", "7/3/2025"})
+    void rejectsMalformedOrImpossibleDates(String text) {
+        assertThrows(DateTimeParseException.class, () -> LenientDateParser.parse(text));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-2-29", "2024/02/29"})
+    void acceptsLeapDays(String text) {
+        assertEquals(LocalDate.of(2024, 2, 29), LenientDateParser.parse(text));
+    }
+}
@@ -0,0 +1,25 @@
+-- Schema and a few rows of a database created by the baseline application (Hibernate auto-DDL, MySQL8Dialect), before
+-- Flyway: IDENTITY ids, no id_generators table and unique keys under Hibernate's generated names.
+create table employees (id bigint not null auto_increment, email varchar(255) not null, level varchar(255), name varchar(255) not null, phone_number varchar(255), status varchar(255), type varchar(255), primary key (id)) engine=InnoDB;
+create table holiday (id bigint not null auto_increment, date date not null, name varchar(255) not null, primary key (id)) engine=InnoDB;
+create table leaves (id bigint not null auto_increment, end_date date not null, leave_reason varchar(255) not null, start_date date not null, status varchar(255) not null, employee_id bigint not null, primary key (id)) engine=InnoDB;
+create table schedule_employees (schedule_id bigint not null, employee_id bigint not null) engine=InnoDB;
+create table schedules (id bigint not null auto_increment, assigned_date date not null, shift_type varchar(255) not null, primary key (id)) engine=InnoDB;
+alter table employees add constraint UK_j9xgmd0ya5jmus09o0b8pqrpb unique (email);
+alter table holiday add constraint UK_8elq4cikwos8a5t64h9mlb192 unique (date);
+alter table leaves add constraint FK6kwhuq11saeyki0nc54elfap2 foreign key (employee_id) references employees (id);
+alter table schedule_employees add constraint FKdobbn62k60siixu485pij20wq foreign key (employee_id) references employees (id);
+alter table schedule_employees add constraint FKeirrbxr1wv41g2979jojyqkq7 foreign key (schedule_id) references schedules (id);
+
+insert into employees (id, name, email, status, type, level) values (1, 'Abebe', 'abebe@example.com', 'ACTIVE', 'SUPPORT', 'SENIOR');
+insert into employees (id, name, email, status, type, level) values (2, 'Sara', 'sara@example.com', 'ACTIVE', 'SUPPORT', 'JUNIOR');
+insert into employees (id, name, email, status, type, level) values (3, 'Dawit', 'dawit@example.com', 'ACTIVE', 'SUPPORT', 'SENIOR');
+insert into employees (id, name, email, status, type, level) values (4, 'Hana', 'hana@example.com', 'ACTIVE', 'SUPPORT', 'JUNIOR');
+insert into employees (id, name, email, status, type, level) values (5, 'Yonas', 'yonas@example.com', 'ACTIVE', 'SUPPORT', 'JUNIOR');
+insert into employees (id, name, email, status, type, level) values (6, 'Meron', 'meron@example.com', 'ACTIVE', 'COB_PERFORMER', 'SENIOR');
+insert into employees (id, name, email, status, type, level) values (7, 'Kebede', 'kebede@example.com', 'ACTIVE', 'SYSTEM_MONITOR', 'SENIOR');
+insert into employees (id, name, email, status, type, level) values (8, 'Tigist', 'tigist@example.com', 'ACTIVE', 'SYSTEM_MONITOR', 'JUNIOR');
+insert into holiday (id, name, date) values (1, 'Meskel', '2030-09-27');
+insert into schedules (id, assigned_date, shift_type) values (40, '2030-01-02', 'SUPPORT');
+insert into schedule_employees (schedule_id, employee_id) values (40, 1);
+insert into leaves (id, employee_id, leave_reason, start_date, end_date, status) values (30, 2, 'Annual', '2030-01-10', '2030-01-12', 'APPROVED');